@@ -0,0 +1,318 @@
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Consumer;
+
+/**
+ * Clase que guarda las cuentas indexadas por su id (un int) sin usar
+ * HashMap<Integer, CuentaBancaria>: las claves van en un int[] y las cuentas
+ * en un arreglo paralelo, con direccionamiento abierto (sondeo lineal), así
+ * no se crea un Integer ni un nodo por cuenta
+ *
+ * La tabla se divide en segmentos, cada uno con su propio StampedLock:
+ * las altas y bajas toman el lock de escritura de un solo segmento y las
+ * búsquedas son lecturas optimistas sin bloquear (si hubo una escritura en
+ * el medio se reintenta con el lock de lectura)
+ * Los ids deben ser mayores a 0 (el 0 marca un lugar libre)
+ */
+public class AlmacenCuentas {
+    private static final float FACTOR_CARGA = 0.7f;
+
+    private final Segmento[] segmentos;
+    private final int desplazamientoSegmento;
+
+    public AlmacenCuentas(int capacidadEsperada) {
+        this(capacidadEsperada, 64);
+    }
+
+    /**
+     * @param capacidadEsperada cantidad de cuentas que se espera guardar
+     * @param cantidadSegmentos cantidad de segmentos (se redondea a potencia de 2)
+     */
+    public AlmacenCuentas(int capacidadEsperada, int cantidadSegmentos) {
+        if (capacidadEsperada < 0 || cantidadSegmentos <= 0) {
+            throw new IllegalArgumentException("Capacidad o cantidad de segmentos inválidas");
+        }
+        int cantidad = potenciaDeDosMayorOIgual(cantidadSegmentos);
+        this.segmentos = new Segmento[cantidad];
+        this.desplazamientoSegmento = 32 - Integer.numberOfTrailingZeros(cantidad);
+        int porSegmento = (int) Math.min(1 << 30, (long) Math.ceil(capacidadEsperada / (double) cantidad / FACTOR_CARGA));
+        for (int i = 0; i < cantidad; i++) {
+            segmentos[i] = new Segmento(potenciaDeDosMayorOIgual(Math.max(porSegmento, 16)));
+        }
+    }
+
+    /**
+     * Devuelve la cuenta con ese id, o null si no existe
+     */
+    public CuentaBancaria buscar(int id) {
+        int hash = mezclar(id);
+        return segmento(hash).buscar(id, hash);
+    }
+
+    /**
+     * Agrega la cuenta; devuelve false si el id no es válido o ya existe
+     */
+    public boolean agregar(CuentaBancaria cuenta) {
+        int id = cuenta.getId();
+        if (id <= 0) {
+            return false;
+        }
+        int hash = mezclar(id);
+        return segmento(hash).agregar(id, hash, cuenta);
+    }
+
+    /**
+     * Quita la cuenta con ese id y la devuelve (null si no existía)
+     */
+    public CuentaBancaria quitar(int id) {
+        int hash = mezclar(id);
+        return segmento(hash).quitar(id, hash);
+    }
+
+    /**
+     * Desactiva la cuenta con ese id (sigue guardada, pero inactiva)
+     */
+    public ResultadoOperacion desactivar(int id) {
+        CuentaBancaria cuenta = buscar(id);
+        if (cuenta == null) {
+            return ResultadoOperacion.CUENTA_INEXISTENTE;
+        }
+        cuenta.desactivar();
+        return ResultadoOperacion.EXITO;
+    }
+
+    public int tamanio() {
+        int total = 0;
+        for (Segmento segmento : segmentos) {
+            total += segmento.tamanio;
+        }
+        return total;
+    }
+
+    /**
+     * Recorre todas las cuentas (segmento por segmento, con el lock de lectura)
+     */
+    public void paraCada(Consumer<? super CuentaBancaria> accion) {
+        for (Segmento segmento : segmentos) {
+            segmento.paraCada(accion);
+        }
+    }
+
+    /**
+     * Bytes que ocupan los arreglos del almacén (sin contar las cuentas)
+     */
+    public long bytesOcupados() {
+        long total = 0;
+        for (Segmento segmento : segmentos) {
+            total += segmento.bytesOcupados();
+        }
+        return total;
+    }
+
+    /**
+     * Informe de memoria comparado con lo que ocuparía un HashMap<Integer, CuentaBancaria>
+     */
+    public String reporteMemoria() {
+        int cantidad = tamanio();
+        long bytes = bytesOcupados();
+        int referencia = bytesPorReferencia();
+        // HashMap: nodo (12 de encabezado + hash + 3 referencias) + Integer (encabezado + int)
+        // + lugar en la tabla (factor de carga 0.75)
+        long nodo = alinear(12 + 4 + 3L * referencia);
+        long entero = alinear(12 + 4);
+        long bytesHashMap = cantidad * (nodo + entero) + (long) (cantidad / 0.75 * referencia);
+        StringBuilder sb = new StringBuilder();
+        sb.append("=== Memoria del Almacén de Cuentas ===\n");
+        sb.append("Cuentas: ").append(cantidad).append('\n');
+        sb.append("Segmentos: ").append(segmentos.length).append('\n');
+        sb.append("Bytes ocupados: ").append(bytes).append('\n');
+        sb.append("Bytes por cuenta: ").append(cantidad > 0 ? bytes / cantidad : 0).append('\n');
+        sb.append("HashMap<Integer, CuentaBancaria> estimado: ").append(bytesHashMap)
+          .append(" (").append(cantidad > 0 ? bytesHashMap / cantidad : 0).append(" por cuenta)");
+        return sb.toString();
+    }
+
+    private Segmento segmento(int hash) {
+        return segmentos[desplazamientoSegmento == 32 ? 0 : hash >>> desplazamientoSegmento];
+    }
+
+    // Mezcla de bits (fmix32 de MurmurHash3) para repartir ids consecutivos
+    private static int mezclar(int id) {
+        int h = id;
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    private static int potenciaDeDosMayorOIgual(int valor) {
+        return valor <= 1 ? 1 : Integer.highestOneBit(valor - 1) << 1;
+    }
+
+    // Referencias comprimidas (4 bytes) salvo con heaps de 32 GB o más
+    static int bytesPorReferencia() {
+        return Runtime.getRuntime().maxMemory() < 32L * 1024 * 1024 * 1024 ? 4 : 8;
+    }
+
+    private static long alinear(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+
+    /**
+     * Arreglos de un segmento; se reemplazan completos al crecer para que una
+     * lectura optimista nunca vea claves de una tabla y cuentas de otra
+     */
+    private static final class Tabla {
+        final int[] claves;
+        final CuentaBancaria[] cuentas;
+        final int mascara;
+
+        Tabla(int capacidad) {
+            this.claves = new int[capacidad];
+            this.cuentas = new CuentaBancaria[capacidad];
+            this.mascara = capacidad - 1;
+        }
+
+        CuentaBancaria buscar(int id, int hash) {
+            // El límite de vueltas evita un ciclo infinito si una lectura optimista ve datos a medio escribir
+            for (int i = hash & mascara, vueltas = 0; vueltas <= mascara; i = (i + 1) & mascara, vueltas++) {
+                int clave = claves[i];
+                if (clave == id) {
+                    return cuentas[i];
+                }
+                if (clave == 0) {
+                    return null;
+                }
+            }
+            return null;
+        }
+    }
+
+    private static final class Segmento {
+        private final StampedLock lock = new StampedLock();
+        private volatile Tabla tabla;
+        private volatile int tamanio;
+
+        Segmento(int capacidad) {
+            this.tabla = new Tabla(capacidad);
+        }
+
+        CuentaBancaria buscar(int id, int hash) {
+            long sello = lock.tryOptimisticRead();
+            if (sello != 0) {
+                CuentaBancaria cuenta = tabla.buscar(id, hash);
+                if (lock.validate(sello)) {
+                    return cuenta;
+                }
+            }
+            sello = lock.readLock();
+            try {
+                return tabla.buscar(id, hash);
+            } finally {
+                lock.unlockRead(sello);
+            }
+        }
+
+        boolean agregar(int id, int hash, CuentaBancaria cuenta) {
+            long sello = lock.writeLock();
+            try {
+                if (tamanio + 1 > tabla.claves.length * FACTOR_CARGA) {
+                    crecer();
+                }
+                if (!insertar(tabla, id, hash, cuenta)) {
+                    return false;
+                }
+                tamanio++;
+                return true;
+            } finally {
+                lock.unlockWrite(sello);
+            }
+        }
+
+        CuentaBancaria quitar(int id, int hash) {
+            long sello = lock.writeLock();
+            try {
+                Tabla t = tabla;
+                int i = hash & t.mascara;
+                while (t.claves[i] != id) {
+                    if (t.claves[i] == 0) {
+                        return null;
+                    }
+                    i = (i + 1) & t.mascara;
+                }
+                CuentaBancaria quitada = t.cuentas[i];
+                // Borrado con corrimiento hacia atrás: no deja marcas de borrado
+                int libre = i;
+                int j = i;
+                while (true) {
+                    j = (j + 1) & t.mascara;
+                    int clave = t.claves[j];
+                    if (clave == 0) {
+                        break;
+                    }
+                    int ideal = mezclar(clave) & t.mascara;
+                    // La entrada j puede ocupar 'libre' si su lugar ideal no está entre libre y j
+                    if (((j - ideal) & t.mascara) >= ((j - libre) & t.mascara)) {
+                        t.claves[libre] = clave;
+                        t.cuentas[libre] = t.cuentas[j];
+                        libre = j;
+                    }
+                }
+                t.claves[libre] = 0;
+                t.cuentas[libre] = null;
+                tamanio--;
+                return quitada;
+            } finally {
+                lock.unlockWrite(sello);
+            }
+        }
+
+        void paraCada(Consumer<? super CuentaBancaria> accion) {
+            long sello = lock.readLock();
+            try {
+                Tabla t = tabla;
+                for (int i = 0; i < t.claves.length; i++) {
+                    if (t.claves[i] != 0) {
+                        accion.accept(t.cuentas[i]);
+                    }
+                }
+            } finally {
+                lock.unlockRead(sello);
+            }
+        }
+
+        long bytesOcupados() {
+            Tabla t = tabla;
+            // Encabezados de los arreglos (16 bytes) + contenido
+            return 16 + 4L * t.claves.length + 16 + (long) bytesPorReferencia() * t.cuentas.length;
+        }
+
+        // Se llama con el lock de escritura tomado
+        private void crecer() {
+            Tabla vieja = tabla;
+            Tabla nueva = new Tabla(vieja.claves.length * 2);
+            for (int i = 0; i < vieja.claves.length; i++) {
+                int clave = vieja.claves[i];
+                if (clave != 0) {
+                    insertar(nueva, clave, mezclar(clave), vieja.cuentas[i]);
+                }
+            }
+            tabla = nueva;
+        }
+
+        private static boolean insertar(Tabla t, int id, int hash, CuentaBancaria cuenta) {
+            int i = hash & t.mascara;
+            while (t.claves[i] != 0) {
+                if (t.claves[i] == id) {
+                    return false;
+                }
+                i = (i + 1) & t.mascara;
+            }
+            // Primero la cuenta y después la clave, para que una lectura nunca vea la clave sin cuenta
+            t.cuentas[i] = cuenta;
+            t.claves[i] = id;
+            return true;
+        }
+    }
+}
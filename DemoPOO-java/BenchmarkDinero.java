@@ -0,0 +1,100 @@
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Comparación entre el cálculo de saldos con double y con Dinero (long en
+ * unidades mínimas)
+ * Simula varios ciclos de depósitos, comisiones e intereses sobre muchos
+ * saldos y mide el tiempo de cada camino y la diferencia contra un cálculo
+ * exacto con BigDecimal (que redondea a centavos igual que Dinero)
+ *
+ * Uso: java BenchmarkDinero [cantidadDeSaldos] [ciclos]
+ */
+public class BenchmarkDinero {
+    private static final double TASA = 0.0125;
+    private static final double DEPOSITO = 1234.57;
+    private static final double COMISION = 17.33;
+
+    public static void main(String[] args) {
+        int cantidad = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int ciclos = args.length > 1 ? Integer.parseInt(args[1]) : 24;
+
+        double[] saldosDouble = new double[cantidad];
+        long[] saldosLong = new long[cantidad];
+
+        // Calentamiento para que el JIT compile ambos caminos
+        for (int i = 0; i < 5; i++) {
+            inicializar(saldosDouble, saldosLong);
+            caminoDouble(saldosDouble, ciclos);
+            caminoLong(saldosLong, ciclos);
+        }
+
+        inicializar(saldosDouble, saldosLong);
+        long inicio = System.nanoTime();
+        caminoDouble(saldosDouble, ciclos);
+        long nanosDouble = System.nanoTime() - inicio;
+
+        inicio = System.nanoTime();
+        caminoLong(saldosLong, ciclos);
+        long nanosLong = System.nanoTime() - inicio;
+
+        long operaciones = (long) cantidad * ciclos * 3;
+        System.out.println("=== BENCHMARK DOUBLE vs DINERO (long) ===");
+        System.out.println("Saldos: " + cantidad + " - Ciclos: " + ciclos + " - Operaciones: " + operaciones);
+        System.out.printf("double: %.2f ns/op%n", (double) nanosDouble / operaciones);
+        System.out.printf("long:   %.2f ns/op%n", (double) nanosLong / operaciones);
+
+        // Precisión: se compara el primer saldo contra el cálculo exacto
+        BigDecimal exacto = caminoExacto(ciclos);
+        long esperado = exacto.movePointRight(2).longValueExact();
+        System.out.println("Saldo exacto (BigDecimal): " + exacto);
+        System.out.println("Saldo con long:            " + Dinero.aDouble(saldosLong[0], 2)
+                + " (diferencia: " + (saldosLong[0] - esperado) + " centavos)");
+        System.out.println("Saldo con double:          " + saldosDouble[0]
+                + " (diferencia: " + new BigDecimal(saldosDouble[0]).subtract(exacto) + ")");
+    }
+
+    private static void inicializar(double[] saldosDouble, long[] saldosLong) {
+        for (int i = 0; i < saldosDouble.length; i++) {
+            saldosDouble[i] = 1000.10;
+            saldosLong[i] = Dinero.desdeDouble(1000.10, 2);
+        }
+    }
+
+    private static void caminoDouble(double[] saldos, int ciclos) {
+        for (int c = 0; c < ciclos; c++) {
+            for (int i = 0; i < saldos.length; i++) {
+                double saldo = saldos[i] + DEPOSITO;
+                saldo -= COMISION;
+                saldo += saldo * TASA;
+                saldos[i] = saldo;
+            }
+        }
+    }
+
+    private static void caminoLong(long[] saldos, int ciclos) {
+        long deposito = Dinero.desdeDouble(DEPOSITO, 2);
+        long comision = Dinero.desdeDouble(COMISION, 2);
+        long tasa = Dinero.tasaDesdeDouble(TASA);
+        for (int c = 0; c < ciclos; c++) {
+            for (int i = 0; i < saldos.length; i++) {
+                long saldo = Dinero.sumar(saldos[i], deposito);
+                saldo = Dinero.restar(saldo, comision);
+                saldo = Dinero.sumar(saldo, Dinero.porcentaje(saldo, tasa));
+                saldos[i] = saldo;
+            }
+        }
+    }
+
+    private static BigDecimal caminoExacto(int ciclos) {
+        BigDecimal saldo = new BigDecimal("1000.10");
+        BigDecimal deposito = BigDecimal.valueOf(DEPOSITO);
+        BigDecimal comision = BigDecimal.valueOf(COMISION);
+        BigDecimal tasa = BigDecimal.valueOf(TASA);
+        for (int c = 0; c < ciclos; c++) {
+            saldo = saldo.add(deposito).subtract(comision);
+            saldo = saldo.add(saldo.multiply(tasa).setScale(2, RoundingMode.HALF_EVEN));
+        }
+        return saldo;
+    }
+}
@@ -0,0 +1,25 @@
+/**
+ * Interfaz para el destino de los mensajes legibles de las cuentas
+ * (depósitos, extracciones, errores de validación, etc.)
+ * Las cuentas solo arman el mensaje si la bitácora está habilitada
+ */
+public interface Bitacora {
+
+    /**
+     * Bitácora que descarta todo: las operaciones no arman ningún mensaje
+     */
+    Bitacora DESACTIVADA = new Bitacora() {
+        @Override
+        public boolean habilitada() {
+            return false;
+        }
+
+        @Override
+        public void registrar(String mensaje) {
+        }
+    };
+
+    boolean habilitada();
+
+    void registrar(String mensaje);
+}
@@ -0,0 +1,74 @@
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bitácora que encola los mensajes y los escribe desde un hilo propio,
+ * para que las operaciones no esperen a System.out
+ * Si la cola está llena el mensaje se descarta (y se cuenta) en lugar de
+ * frenar a la operación
+ */
+public class BitacoraAsincrona implements Bitacora {
+    private final BlockingQueue<String> cola;
+    private final Bitacora destino;
+    private final AtomicLong descartados;
+    private final Thread escritor;
+    private volatile boolean habilitada;
+
+    public BitacoraAsincrona(int capacidad) {
+        this(capacidad, new BitacoraConsola());
+    }
+
+    public BitacoraAsincrona(int capacidad, Bitacora destino) {
+        this.cola = new ArrayBlockingQueue<>(capacidad);
+        this.destino = destino;
+        this.descartados = new AtomicLong();
+        this.habilitada = true;
+        this.escritor = new Thread(this::escribir, "bitacora-asincrona");
+        this.escritor.setDaemon(true);
+        this.escritor.start();
+    }
+
+    @Override
+    public boolean habilitada() {
+        return habilitada;
+    }
+
+    public void setHabilitada(boolean habilitada) {
+        this.habilitada = habilitada;
+    }
+
+    @Override
+    public void registrar(String mensaje) {
+        if (!cola.offer(mensaje)) {
+            descartados.incrementAndGet();
+        }
+    }
+
+    public long getDescartados() {
+        return descartados.get();
+    }
+
+    /**
+     * Espera a que se escriban los mensajes pendientes y detiene el hilo escritor
+     */
+    public void cerrar() throws InterruptedException {
+        habilitada = false;
+        escritor.interrupt();
+        escritor.join();
+    }
+
+    private void escribir() {
+        try {
+            while (true) {
+                destino.registrar(cola.take());
+            }
+        } catch (InterruptedException e) {
+            // Al cerrar se vacía lo que haya quedado en la cola
+            String mensaje;
+            while ((mensaje = cola.poll()) != null) {
+                destino.registrar(mensaje);
+            }
+        }
+    }
+}
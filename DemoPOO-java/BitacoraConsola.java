@@ -0,0 +1,16 @@
+/**
+ * Bitácora que imprime cada mensaje en la consola en el momento
+ * Es la bitácora por defecto, la que usa la demostración de Main
+ */
+public class BitacoraConsola implements Bitacora {
+
+    @Override
+    public boolean habilitada() {
+        return true;
+    }
+
+    @Override
+    public void registrar(String mensaje) {
+        System.out.println(mensaje);
+    }
+}
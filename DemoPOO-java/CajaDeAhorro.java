@@ -3,97 +3,336 @@
  * Hereda de CuentaBancaria
  * Las cajas de ahorro están diseñadas para acumular dinero a largo plazo
  */
-public class CajaDeAhorro extends CuentaBancaria {
+public class CajaDeAhorro extends CuentaBancaria implements CuentaConSaldo {
     // Atributo específico de Caja de Ahorro
-    private double saldo;
-    private double tasaInteres;
+    // El saldo se guarda en unidades mínimas de la moneda (ver Dinero) y se
+    // modifica con operaciones atómicas (CAS) para soportar varios hilos
+    private final SaldoAtomico saldo;
+    // Tasa en millonésimas (0.05 = 50000)
+    private volatile long tasaInteres;
     
     // Constructor por defecto
     public CajaDeAhorro() {
         super(); // Llama al constructor de la clase padre
-        this.saldo = 0.0;
-        this.tasaInteres = 0.05; // 5% anual por defecto
+        this.saldo = new SaldoAtomico(0L);
+        this.tasaInteres = Dinero.tasaDesdeDouble(0.05); // 5% anual por defecto
     }
     
     // Constructor con parámetros
     public CajaDeAhorro(int id, String usuario, String moneda, boolean activa, double saldo, double tasaInteres) {
         super(id, usuario, moneda, activa); // Llama al constructor de la clase padre
-        this.saldo = saldo;
-        this.tasaInteres = tasaInteres;
+        this.saldo = new SaldoAtomico(unidadesMinimasValidas(saldo, "Saldo"));
+        this.tasaInteres = Dinero.tasaDesdeDouble(tasaInteres);
     }
     
     // Getters específicos
     public double getSaldo() {
-        return saldo;
+        return Dinero.aDouble(saldo.get(), getDecimales());
+    }
+    
+    public long getSaldoEnUnidadesMinimas() {
+        return saldo.get();
     }
     
     public double getTasaInteres() {
+        return Dinero.tasaADouble(tasaInteres);
+    }
+    
+    public long getTasaInteresEnMillonesimas() {
         return tasaInteres;
     }
     
     // Setters específicos
     public void setSaldo(double saldo) {
-        if (saldo >= 0) {
-            this.saldo = saldo;
+        long nuevoSaldo = Dinero.desdeDouble(saldo, getDecimales());
+        if (nuevoSaldo == Dinero.INVALIDO) {
+            registrar("Error: El saldo no es un importe válido");
+        } else if (saldo >= 0) {
+            DiarioTransacciones diario = entrarDiario();
+            try {
+                long saldoAnterior = this.saldo.set(nuevoSaldo);
+                notificarMovimiento(TipoOperacion.AJUSTE_SALDO, nuevoSaldo - saldoAnterior, saldoAnterior, nuevoSaldo);
+            } finally {
+                salirDiario(diario);
+            }
         } else {
-            System.out.println("Error: El saldo no puede ser negativo");
+            registrar("Error: El saldo no puede ser negativo");
         }
     }
     
     public void setTasaInteres(double tasaInteres) {
         if (tasaInteres >= 0 && tasaInteres <= 1) {
-            this.tasaInteres = tasaInteres;
+            this.tasaInteres = Dinero.tasaDesdeDouble(tasaInteres);
+            notificarCambioDatos();
         } else {
-            System.out.println("Error: La tasa de interés debe estar entre 0 y 1");
+            registrar("Error: La tasa de interés debe estar entre 0 y 1");
+        }
+    }
+    
+    @Override
+    protected void alCambiarDecimales(int decimalesAnteriores, int decimalesNuevos) {
+        saldo.reescalar(decimalesAnteriores, decimalesNuevos);
+    }
+    
+    // Usado al reconstruir la cuenta desde el diario: no notifica ni registra mensajes
+    void restaurar(long saldo, long tasaInteres) {
+        this.saldo.set(saldo);
+        this.tasaInteres = tasaInteres;
+    }
+    
+    // Usado por Transferencias para devolver un débito cuando el crédito no se
+    // pudo hacer (se acredita aunque la cuenta se haya desactivado en el medio)
+    void reintegrar(long monto) {
+        DiarioTransacciones diario = entrarDiario();
+        try {
+            long nuevoSaldo = saldo.sumarExacto(monto);
+            notificarMovimiento(TipoOperacion.REINTEGRO, monto, nuevoSaldo - monto, nuevoSaldo);
+        } finally {
+            salirDiario(diario);
+        }
+    }
+    
+    // Usado por LibroCajasDeAhorro al devolver los intereses calculados en bloque
+    void acreditarIntereses(long intereses) {
+        DiarioTransacciones diario = entrarDiario();
+        try {
+            long nuevoSaldo = saldo.sumarExacto(intereses);
+            notificarMovimiento(TipoOperacion.INTERESES, intereses, nuevoSaldo - intereses, nuevoSaldo);
+        } finally {
+            salirDiario(diario);
         }
     }
     
     // Métodos específicos de Caja de Ahorro
+    // Devuelven el resultado de la operación; los mensajes van a la bitácora
     
     /**
      * Método para depositar dinero en la caja de ahorro
      */
-    public void depositar(double monto) {
-        if (monto > 0 && isActiva()) {
-            saldo += monto;
-            System.out.println("Depósito exitoso. Nuevo saldo: " + saldo + " " + getMoneda());
-        } else if (!isActiva()) {
-            System.out.println("Error: La cuenta está inactiva");
-        } else {
-            System.out.println("Error: El monto debe ser mayor a 0");
+    public ResultadoOperacion depositar(double monto) {
+        return depositarUnidadesMinimas(Dinero.desdeDouble(monto, getDecimales()));
+    }
+    
+    /**
+     * Depósito con el monto ya expresado en unidades mínimas de la moneda
+     */
+    public ResultadoOperacion depositarUnidadesMinimas(long monto) {
+        return depositarUnidadesMinimas(monto, null);
+    }
+    
+    /**
+     * Depósito que además deja en el comprobante el saldo resultante
+     */
+    public ResultadoOperacion depositarUnidadesMinimas(long monto, ComprobanteOperacion comprobante) {
+        long inicio = inicioMedicion();
+        ResultadoOperacion resultado = depositarUnidadesMinimasSinMedir(monto, comprobante);
+        return medir(TipoOperacion.DEPOSITO, comprobar(resultado, comprobante), inicio);
+    }
+    
+    private ResultadoOperacion depositarUnidadesMinimasSinMedir(long monto, ComprobanteOperacion comprobante) {
+        if (!isActiva()) {
+            registrar("Error: La cuenta está inactiva");
+            return ResultadoOperacion.CUENTA_INACTIVA;
+        }
+        if (monto <= 0) {
+            registrar("Error: El monto debe ser mayor a 0");
+            return ResultadoOperacion.MONTO_INVALIDO;
+        }
+        long nuevoSaldo;
+        DiarioTransacciones diario = entrarDiario();
+        try {
+            nuevoSaldo = saldo.sumar(monto);
+            if (nuevoSaldo == SaldoAtomico.DESBORDE) {
+                registrar("Error: El saldo resultante está fuera de rango");
+                return ResultadoOperacion.SALDO_FUERA_DE_RANGO;
+            }
+            completar(comprobante, nuevoSaldo - monto, nuevoSaldo);
+            notificarMovimiento(TipoOperacion.DEPOSITO, monto, nuevoSaldo - monto, nuevoSaldo);
+        } finally {
+            salirDiario(diario);
         }
+        if (bitacoraHabilitada()) {
+            registrar("Depósito exitoso. Nuevo saldo: " + aDouble(nuevoSaldo) + " " + getMoneda());
+        }
+        return ResultadoOperacion.EXITO;
     }
     
     /**
      * Método para extraer dinero de la caja de ahorro
      */
-    public void extraer(double monto) {
-        if (monto > 0 && monto <= saldo && isActiva()) {
-            saldo -= monto;
-            System.out.println("Extracción exitosa. Nuevo saldo: " + saldo + " " + getMoneda());
-        } else if (!isActiva()) {
-            System.out.println("Error: La cuenta está inactiva");
-        } else if (monto > saldo) {
-            System.out.println("Error: Saldo insuficiente");
-        } else {
-            System.out.println("Error: El monto debe ser mayor a 0");
+    public ResultadoOperacion extraer(double monto) {
+        return extraerUnidadesMinimas(Dinero.desdeDouble(monto, getDecimales()));
+    }
+    
+    /**
+     * Extracción con el monto ya expresado en unidades mínimas de la moneda
+     */
+    public ResultadoOperacion extraerUnidadesMinimas(long monto) {
+        return extraerUnidadesMinimas(monto, null);
+    }
+    
+    /**
+     * Extracción que además deja en el comprobante el saldo resultante
+     */
+    public ResultadoOperacion extraerUnidadesMinimas(long monto, ComprobanteOperacion comprobante) {
+        long inicio = inicioMedicion();
+        ResultadoOperacion resultado = extraerUnidadesMinimasSinMedir(monto, comprobante);
+        return medir(TipoOperacion.EXTRACCION, comprobar(resultado, comprobante), inicio);
+    }
+    
+    private ResultadoOperacion extraerUnidadesMinimasSinMedir(long monto, ComprobanteOperacion comprobante) {
+        if (!isActiva()) {
+            registrar("Error: La cuenta está inactiva");
+            return ResultadoOperacion.CUENTA_INACTIVA;
+        }
+        if (monto <= 0) {
+            registrar("Error: El monto debe ser mayor a 0");
+            return ResultadoOperacion.MONTO_INVALIDO;
+        }
+        long instante = admitirVelocidad(monto);
+        if (instante == ControlVelocidad.RECHAZADA) {
+            registrar("Error: Se superó el límite de velocidad de la cuenta");
+            return ResultadoOperacion.LIMITE_VELOCIDAD_EXCEDIDO;
+        }
+        // La verificación de saldo y la resta son una única operación atómica
+        long nuevoSaldo;
+        DiarioTransacciones diario = entrarDiario();
+        try {
+            nuevoSaldo = saldo.restarSiAlcanza(monto, 0L);
+            if (nuevoSaldo == SaldoAtomico.RECHAZADO) {
+                deshacerVelocidad(monto, instante);
+                registrar("Error: Saldo insuficiente");
+                return ResultadoOperacion.SALDO_INSUFICIENTE;
+            }
+            completar(comprobante, nuevoSaldo + monto, nuevoSaldo);
+            notificarMovimiento(TipoOperacion.EXTRACCION, monto, nuevoSaldo + monto, nuevoSaldo);
+        } finally {
+            salirDiario(diario);
         }
+        if (bitacoraHabilitada()) {
+            registrar("Extracción exitosa. Nuevo saldo: " + aDouble(nuevoSaldo) + " " + getMoneda());
+        }
+        return ResultadoOperacion.EXITO;
     }
     
     /**
      * Método para calcular y aplicar intereses
+     * Los intereses se redondean a la unidad mínima de la moneda (mitad al par)
      */
-    public void aplicarIntereses() {
-        if (isActiva() && saldo > 0) {
-            double intereses = saldo * tasaInteres;
-            saldo += intereses;
-            System.out.println("Intereses aplicados: " + intereses + " " + getMoneda());
-            System.out.println("Nuevo saldo: " + saldo + " " + getMoneda());
-        } else if (!isActiva()) {
-            System.out.println("Error: La cuenta está inactiva");
-        } else {
-            System.out.println("No hay saldo para aplicar intereses");
+    public ResultadoOperacion aplicarIntereses() {
+        return aplicarIntereses((ComprobanteOperacion) null);
+    }
+    
+    /**
+     * Aplicación de intereses que además deja en el comprobante el saldo resultante
+     */
+    public ResultadoOperacion aplicarIntereses(ComprobanteOperacion comprobante) {
+        long inicio = inicioMedicion();
+        ResultadoOperacion resultado = aplicarInteresesSinMedir(comprobante);
+        return medir(TipoOperacion.INTERESES, comprobar(resultado, comprobante), inicio);
+    }
+    
+    private ResultadoOperacion aplicarInteresesSinMedir(ComprobanteOperacion comprobante) {
+        if (!isActiva()) {
+            registrar("Error: La cuenta está inactiva");
+            return ResultadoOperacion.CUENTA_INACTIVA;
+        }
+        long tasa = tasaInteres;
+        long saldoAnterior;
+        long intereses;
+        long nuevoSaldo;
+        DiarioTransacciones diario = entrarDiario();
+        try {
+            saldoAnterior = saldo.acreditarIntereses(tasa);
+            if (saldoAnterior == SaldoAtomico.RECHAZADO) {
+                registrar("No hay saldo para aplicar intereses");
+                return ResultadoOperacion.SIN_SALDO;
+            }
+            if (saldoAnterior == SaldoAtomico.DESBORDE) {
+                registrar("Error: El saldo resultante está fuera de rango");
+                return ResultadoOperacion.SALDO_FUERA_DE_RANGO;
+            }
+            intereses = Dinero.porcentaje(saldoAnterior, tasa);
+            nuevoSaldo = saldoAnterior + intereses;
+            completar(comprobante, saldoAnterior, nuevoSaldo);
+            notificarMovimiento(TipoOperacion.INTERESES, intereses, saldoAnterior, nuevoSaldo);
+        } finally {
+            salirDiario(diario);
         }
+        if (bitacoraHabilitada()) {
+            registrar("Intereses aplicados: " + aDouble(intereses) + " " + getMoneda());
+            registrar("Nuevo saldo: " + aDouble(nuevoSaldo) + " " + getMoneda());
+        }
+        return ResultadoOperacion.EXITO;
+    }
+    
+    /**
+     * Aplica de una vez varios períodos de intereses compuestos con la tasa
+     * de la cuenta, por ejemplo para ponerse al día después de una caída
+     * Cuesta lo mismo para cualquier cantidad de períodos; el redondeo se
+     * hace sobre el total (ver CalendarioTasas)
+     */
+    public ResultadoOperacion aplicarIntereses(int periodos) {
+        long inicio = inicioMedicion();
+        if (periodos < 0) {
+            registrar("Error: La cantidad de períodos no puede ser negativa");
+            return medir(TipoOperacion.INTERESES, ResultadoOperacion.MONTO_INVALIDO, inicio);
+        }
+        double crecimiento = CalendarioTasas.crecimientoConstante(tasaInteres, periodos);
+        return medir(TipoOperacion.INTERESES, aplicarCrecimientoSinMedir(crecimiento), inicio);
+    }
+    
+    /**
+     * Aplica de una vez los intereses compuestos de los períodos
+     * [desde, hasta) del calendario, con las tasas del calendario en lugar
+     * de la tasa de la cuenta
+     * Si el rango no está en el calendario devuelve MONTO_INVALIDO, como
+     * aplicarIntereses(int) con una cantidad negativa
+     */
+    public ResultadoOperacion aplicarIntereses(CalendarioTasas calendario, int desde, int hasta) {
+        long inicio = inicioMedicion();
+        if (!calendario.contiene(desde, hasta)) {
+            registrar("Error: Los períodos " + desde + " a " + hasta + " no están en el calendario");
+            return medir(TipoOperacion.INTERESES, ResultadoOperacion.MONTO_INVALIDO, inicio);
+        }
+        double crecimiento = calendario.crecimiento(desde, hasta);
+        return medir(TipoOperacion.INTERESES, aplicarCrecimientoSinMedir(crecimiento), inicio);
+    }
+    
+    private ResultadoOperacion aplicarCrecimientoSinMedir(double crecimiento) {
+        if (!isActiva()) {
+            registrar("Error: La cuenta está inactiva");
+            return ResultadoOperacion.CUENTA_INACTIVA;
+        }
+        long saldoAnterior;
+        long intereses;
+        long nuevoSaldo;
+        DiarioTransacciones diario = entrarDiario();
+        try {
+            saldoAnterior = saldo.acreditarCrecimiento(crecimiento);
+            if (saldoAnterior == SaldoAtomico.RECHAZADO) {
+                registrar("No hay saldo para aplicar intereses");
+                return ResultadoOperacion.SIN_SALDO;
+            }
+            if (saldoAnterior == SaldoAtomico.DESBORDE) {
+                registrar("Error: El saldo resultante está fuera de rango");
+                return ResultadoOperacion.SALDO_FUERA_DE_RANGO;
+            }
+            intereses = Dinero.aplicarCrecimiento(saldoAnterior, crecimiento);
+            nuevoSaldo = saldoAnterior + intereses;
+            notificarMovimiento(TipoOperacion.INTERESES, intereses, saldoAnterior, nuevoSaldo);
+        } finally {
+            salirDiario(diario);
+        }
+        if (bitacoraHabilitada()) {
+            registrar("Intereses aplicados: " + aDouble(intereses) + " " + getMoneda());
+            registrar("Nuevo saldo: " + aDouble(nuevoSaldo) + " " + getMoneda());
+        }
+        return ResultadoOperacion.EXITO;
+    }
+    
+    private double aDouble(long unidadesMinimas) {
+        return Dinero.aDouble(unidadesMinimas, getDecimales());
     }
     
     /**
@@ -103,8 +342,8 @@ public class CajaDeAhorro extends CuentaBancaria {
     public void mostrarInformacion() {
         super.mostrarInformacion(); // Llama al método de la clase padre
         System.out.println("=== Información de Caja de Ahorro ===");
-        System.out.println("Saldo: " + saldo + " " + getMoneda());
-        System.out.println("Tasa de Interés: " + (tasaInteres * 100) + "%");
+        System.out.println("Saldo: " + getSaldo() + " " + getMoneda());
+        System.out.println("Tasa de Interés: " + (getTasaInteres() * 100) + "%");
     }
     
     @Override
@@ -114,9 +353,8 @@ public class CajaDeAhorro extends CuentaBancaria {
                 ", usuario='" + getUsuario() + '\'' +
                 ", moneda='" + getMoneda() + '\'' +
                 ", activa=" + isActiva() +
-                ", saldo=" + saldo +
-                ", tasaInteres=" + tasaInteres +
+                ", saldo=" + getSaldo() +
+                ", tasaInteres=" + getTasaInteres() +
                 '}';
     }
 }
-
@@ -0,0 +1,159 @@
+import java.util.Arrays;
+
+/**
+ * Clase inmutable con las tasas de interés de una serie de períodos
+ * consecutivos (por ejemplo, la tasa de cada mes de una caja de ahorro),
+ * para acreditar varios períodos de una vez con interés compuesto
+ *
+ * Al crearla se precalcula, para cada período, la suma acumulada de
+ * log(1 + tasa); el crecimiento entre dos períodos cualesquiera sale de una
+ * resta y un exp, así que ponerse al día después de una caída o corregir un
+ * movimiento con fecha pasada cuesta lo mismo para un período que para mil
+ * Con logaritmos no hay desborde aunque el calendario sea muy largo
+ *
+ * El redondeo se hace una sola vez sobre el total (mitad al par), así que
+ * puede diferir en alguna unidad mínima de aplicar los períodos de a uno,
+ * que redondea en cada período
+ */
+public final class CalendarioTasas {
+    private final int periodoInicial;
+    // Tasa de cada período en millonésimas (ver Dinero)
+    private final long[] tasas;
+    // logAcumulado[k] = suma de log(1 + tasa) de los primeros k períodos
+    private final double[] logAcumulado;
+
+    /**
+     * Los períodos se numeran de a uno desde periodoInicial: conviene un
+     * índice (0 para el primer mes, o meses desde una fecha fija como
+     * año * 12 + mes), no un número como 202401, que después de 202412
+     * seguiría con 202413
+     *
+     * @param periodoInicial número del primer período (por ejemplo 0)
+     * @param tasas          tasa de cada período en millonésimas, desde periodoInicial
+     */
+    public CalendarioTasas(int periodoInicial, long... tasas) {
+        this(periodoInicial, tasas.clone(), null);
+    }
+
+    private CalendarioTasas(int periodoInicial, long[] tasas, double[] prefijo) {
+        for (long tasa : tasas) {
+            if (tasa <= -Dinero.ESCALA_TASA) {
+                throw new IllegalArgumentException("La tasa de un período debe ser mayor a -100%");
+            }
+        }
+        if ((long) periodoInicial + tasas.length > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("El calendario termina después del último período posible");
+        }
+        this.periodoInicial = periodoInicial;
+        this.tasas = tasas;
+        this.logAcumulado = new double[tasas.length + 1];
+        int desde = 0;
+        if (prefijo != null) {
+            System.arraycopy(prefijo, 0, logAcumulado, 0, prefijo.length);
+            desde = prefijo.length - 1;
+        }
+        for (int i = desde; i < tasas.length; i++) {
+            logAcumulado[i + 1] = logAcumulado[i] + Math.log1p(Dinero.tasaADouble(tasas[i]));
+        }
+    }
+
+    /**
+     * Calendario con la misma tasa para todos los períodos
+     */
+    public static CalendarioTasas constante(int periodoInicial, int periodos, long tasa) {
+        long[] tasas = new long[periodos];
+        Arrays.fill(tasas, tasa);
+        return new CalendarioTasas(periodoInicial, tasas, null);
+    }
+
+    /**
+     * Nuevo calendario con los períodos siguientes agregados al final
+     * Reutiliza lo ya precalculado, así que solo cuesta los períodos nuevos
+     */
+    public CalendarioTasas extender(long... tasasNuevas) {
+        long[] todas = Arrays.copyOf(tasas, tasas.length + tasasNuevas.length);
+        System.arraycopy(tasasNuevas, 0, todas, tasas.length, tasasNuevas.length);
+        return new CalendarioTasas(periodoInicial, todas, logAcumulado);
+    }
+
+    public int getPeriodoInicial() {
+        return periodoInicial;
+    }
+
+    /**
+     * Período siguiente al último del calendario
+     */
+    public int getPeriodoFinal() {
+        return periodoInicial + tasas.length;
+    }
+
+    /**
+     * true si [desde, hasta) es un rango válido de períodos del calendario
+     * (el que aceptan crecimiento e intereses)
+     */
+    public boolean contiene(int desde, int hasta) {
+        return desde <= hasta && desde >= periodoInicial && (long) hasta <= (long) periodoInicial + tasas.length;
+    }
+
+    public long getTasa(int periodo) {
+        int posicion = posicion(periodo);
+        if (posicion == tasas.length) {
+            throw new IllegalArgumentException("El período " + periodo + " no está en el calendario");
+        }
+        return tasas[posicion];
+    }
+
+    /**
+     * Crecimiento compuesto de los períodos [desde, hasta) menos 1: 0.1 si
+     * un monto crece un 10% en esos períodos
+     */
+    public double crecimiento(int desde, int hasta) {
+        if (hasta < desde) {
+            throw new IllegalArgumentException("El período final no puede ser anterior al inicial");
+        }
+        int inicio = posicion(desde);
+        long fin = (long) hasta - periodoInicial;
+        if (fin > tasas.length) {
+            throw new IllegalArgumentException("El período " + (hasta - 1) + " no está en el calendario");
+        }
+        // expm1 mantiene la precisión cuando el crecimiento es chico
+        return Math.expm1(logAcumulado[(int) fin] - logAcumulado[inicio]);
+    }
+
+    /**
+     * Intereses que genera el monto (en unidades mínimas) durante los
+     * períodos [desde, hasta), por ejemplo para corregir un depósito que
+     * debió acreditarse en el período desde
+     */
+    public long intereses(long monto, int desde, int hasta) {
+        return Dinero.aplicarCrecimiento(monto, crecimiento(desde, hasta));
+    }
+
+    /**
+     * Crecimiento de una tasa fija (en millonésimas) durante varios períodos,
+     * menos 1, sin necesidad de un calendario
+     */
+    public static double crecimientoConstante(long tasa, int periodos) {
+        if (periodos < 0) {
+            throw new IllegalArgumentException("La cantidad de períodos no puede ser negativa");
+        }
+        return Math.expm1(periodos * Math.log1p(Dinero.tasaADouble(tasa)));
+    }
+
+    private int posicion(int periodo) {
+        long posicion = (long) periodo - periodoInicial;
+        if (posicion < 0 || posicion > tasas.length) {
+            throw new IllegalArgumentException("El período " + periodo + " no está en el calendario");
+        }
+        return (int) posicion;
+    }
+
+    @Override
+    public String toString() {
+        return "CalendarioTasas{" +
+                "periodoInicial=" + periodoInicial +
+                ", periodos=" + tasas.length +
+                ", crecimientoTotal=" + (tasas.length > 0 ? crecimiento(periodoInicial, getPeriodoFinal()) : 0.0) +
+                '}';
+    }
+}
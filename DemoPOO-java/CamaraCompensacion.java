@@ -0,0 +1,202 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Clase que modela la cámara compensadora de cheques
+ *
+ * Al emitir, el monto se descuenta de la cuenta con emitirCheque (la
+ * verificación contra saldo + límite de descubierto es atómica), así los
+ * fondos quedan reservados, y el cheque se encola. Un hilo despachador saca
+ * los cheques de la cola en lotes de hasta tamanioLote y cada lote se
+ * compensa en un hilo virtual (o en un pool de hilos de plataforma si la
+ * JVM no los tiene): el cheque se acredita al beneficiario, o se rechaza y
+ * el monto vuelve a la cuenta
+ *
+ * Contrapresión: la cámara admite hasta 'capacidad' cheques sin compensar.
+ * Si está llena, emitir espera a lo sumo esperaMaximaMillis y, si no se
+ * liberó lugar, devuelve CAMARA_SATURADA sin tocar la cuenta, en lugar de
+ * dejar al cajero bloqueado
+ *
+ * Si compensar un cheque falla (por ejemplo, la devolución a la cuenta), el
+ * cheque queda FALLIDO, se cuenta en las métricas y el lote sigue con los
+ * demás cheques
+ */
+public class CamaraCompensacion {
+    private final BlockingQueue<Cheque> cola;
+    private final Semaphore lugares;
+    private final int capacidad;
+    private final int tamanioLote;
+    private final long esperaMaximaMillis;
+    private final Predicate<Cheque> validador;
+    private final Consumer<Cheque> alCompensar;
+    private final ExecutorService ejecutor;
+    private final Thread despachador;
+    private final AtomicLong numerador = new AtomicLong();
+    private final MetricasCompensacion metricas = new MetricasCompensacion();
+    private volatile boolean abierta = true;
+
+    public CamaraCompensacion(int capacidad, int tamanioLote) {
+        this(capacidad, tamanioLote, 10, cheque -> true, cheque -> { });
+    }
+
+    /**
+     * @param capacidad          cheques emitidos sin compensar que se admiten
+     * @param tamanioLote        cantidad máxima de cheques por lote
+     * @param esperaMaximaMillis cuánto espera emitir si la cámara está llena
+     * @param validador          decide al compensar si el cheque se acredita
+     *                           (true) o se rechaza (false); se llama desde varios hilos
+     * @param alCompensar        recibe cada cheque ya acreditado o rechazado
+     */
+    public CamaraCompensacion(int capacidad, int tamanioLote, long esperaMaximaMillis,
+                              Predicate<Cheque> validador, Consumer<Cheque> alCompensar) {
+        if (capacidad <= 0 || tamanioLote <= 0) {
+            throw new IllegalArgumentException("La capacidad y el tamaño de lote deben ser mayores a 0");
+        }
+        this.cola = new ArrayBlockingQueue<>(capacidad);
+        this.lugares = new Semaphore(capacidad);
+        this.capacidad = capacidad;
+        this.tamanioLote = tamanioLote;
+        this.esperaMaximaMillis = esperaMaximaMillis;
+        this.validador = validador;
+        this.alCompensar = alCompensar;
+        this.ejecutor = crearEjecutor();
+        this.despachador = new Thread(this::despachar, "camara-compensacion");
+        this.despachador.setDaemon(true);
+        this.despachador.start();
+    }
+
+    public ResultadoOperacion emitir(CuentaCorriente cuenta, double monto, String beneficiario) {
+        return emitir(cuenta, Dinero.desdeDouble(monto, cuenta.getDecimales()), beneficiario);
+    }
+
+    /**
+     * Emite el cheque (monto en unidades mínimas) reservando los fondos y lo
+     * deja pendiente de compensación
+     */
+    public ResultadoOperacion emitir(CuentaCorriente cuenta, long monto, String beneficiario) {
+        ResultadoOperacion resultado = reservarYEncolar(cuenta, monto, beneficiario);
+        metricas.registrarEmision(resultado);
+        return resultado;
+    }
+
+    private ResultadoOperacion reservarYEncolar(CuentaCorriente cuenta, long monto, String beneficiario) {
+        try {
+            if (!lugares.tryAcquire(esperaMaximaMillis, TimeUnit.MILLISECONDS)) {
+                return ResultadoOperacion.CAMARA_SATURADA;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return ResultadoOperacion.CAMARA_SATURADA;
+        }
+        if (!abierta) {
+            lugares.release();
+            return ResultadoOperacion.OPERACION_NO_SOPORTADA;
+        }
+        ResultadoOperacion resultado = cuenta.emitirChequeUnidadesMinimas(monto, beneficiario);
+        if (resultado != ResultadoOperacion.EXITO) {
+            lugares.release();
+            return resultado;
+        }
+        // Siempre hay lugar: la cola tiene la misma capacidad que el semáforo
+        cola.add(new Cheque(numerador.incrementAndGet(), cuenta, monto, beneficiario));
+        return ResultadoOperacion.EXITO;
+    }
+
+    public MetricasCompensacion getMetricas() {
+        return metricas;
+    }
+
+    // Cheques emitidos que todavía no se compensaron
+    public int getPendientes() {
+        return capacidad - lugares.availablePermits();
+    }
+
+    /**
+     * Deja de aceptar cheques, espera a que se compensen todos los pendientes
+     * y detiene los hilos de la cámara
+     */
+    public void cerrar() throws InterruptedException {
+        abierta = false;
+        lugares.acquire(capacidad);
+        despachador.interrupt();
+        despachador.join();
+        ejecutor.shutdown();
+        ejecutor.awaitTermination(1, TimeUnit.MINUTES);
+    }
+
+    private void despachar() {
+        try {
+            while (true) {
+                List<Cheque> lote = new ArrayList<>(tamanioLote);
+                lote.add(cola.take());
+                cola.drainTo(lote, tamanioLote - 1);
+                ejecutor.execute(() -> compensar(lote));
+            }
+        } catch (InterruptedException e) {
+            // Al cerrar ya no quedan cheques pendientes
+        }
+    }
+
+    private void compensar(List<Cheque> lote) {
+        metricas.registrarLote();
+        for (Cheque cheque : lote) {
+            // El lugar se devuelve siempre: si no, cerrar() esperaría para siempre
+            try {
+                compensar(cheque);
+            } catch (RuntimeException e) {
+                cheque.setEstado(Cheque.Estado.FALLIDO);
+                metricas.registrarFallo();
+                CuentaBancaria.getBitacora().registrar("Error al compensar el cheque " + cheque.getNumero() + ": " + e);
+            } finally {
+                lugares.release();
+            }
+            try {
+                alCompensar.accept(cheque);
+            } catch (RuntimeException e) {
+                CuentaBancaria.getBitacora().registrar("Error al informar el cheque " + cheque.getNumero() + ": " + e);
+            }
+        }
+    }
+
+    private void compensar(Cheque cheque) {
+        boolean acreditado;
+        try {
+            acreditado = cheque.getCuenta().isActiva() && validador.test(cheque);
+        } catch (RuntimeException e) {
+            acreditado = false;
+        }
+        if (acreditado) {
+            cheque.setEstado(Cheque.Estado.ACREDITADO);
+        } else {
+            cheque.getCuenta().revertirCheque(cheque.getMonto(), cheque.getBeneficiario());
+            cheque.setEstado(Cheque.Estado.RECHAZADO);
+        }
+        metricas.registrarCompensacion(acreditado, System.nanoTime() - cheque.getNanosEmision());
+    }
+
+    /**
+     * Hilos virtuales si la JVM los tiene (Java 21 o posterior); si no, un
+     * pool de hilos de plataforma, uno por núcleo
+     * Se busca el método por reflexión para seguir compilando con versiones anteriores
+     */
+    private static ExecutorService crearEjecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), tarea -> {
+                Thread hilo = new Thread(tarea, "camara-compensacion-lote");
+                hilo.setDaemon(true);
+                return hilo;
+            });
+        }
+    }
+}
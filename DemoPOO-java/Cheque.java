@@ -0,0 +1,70 @@
+/**
+ * Clase que representa un cheque emitido y pendiente de compensación
+ * El monto ya se descontó (reservó) de la cuenta al emitirlo; al compensar
+ * queda acreditado al beneficiario o se rechaza y vuelve a la cuenta
+ */
+public class Cheque {
+    public enum Estado {
+        PENDIENTE,
+        ACREDITADO,
+        RECHAZADO,
+        // La compensación falló (ver CamaraCompensacion); hay que revisarlo a mano
+        FALLIDO
+    }
+
+    private final long numero;
+    private final CuentaCorriente cuenta;
+    private final long monto;
+    private final String beneficiario;
+    private final long nanosEmision;
+    private volatile Estado estado;
+
+    public Cheque(long numero, CuentaCorriente cuenta, long monto, String beneficiario) {
+        this.numero = numero;
+        this.cuenta = cuenta;
+        this.monto = monto;
+        this.beneficiario = beneficiario;
+        this.nanosEmision = System.nanoTime();
+        this.estado = Estado.PENDIENTE;
+    }
+
+    public long getNumero() {
+        return numero;
+    }
+
+    public CuentaCorriente getCuenta() {
+        return cuenta;
+    }
+
+    // Monto en unidades mínimas de la moneda de la cuenta
+    public long getMonto() {
+        return monto;
+    }
+
+    public String getBeneficiario() {
+        return beneficiario;
+    }
+
+    public long getNanosEmision() {
+        return nanosEmision;
+    }
+
+    public Estado getEstado() {
+        return estado;
+    }
+
+    void setEstado(Estado estado) {
+        this.estado = estado;
+    }
+
+    @Override
+    public String toString() {
+        return "Cheque{" +
+                "numero=" + numero +
+                ", idCuenta=" + cuenta.getId() +
+                ", monto=" + Dinero.aDouble(monto, cuenta.getDecimales()) +
+                ", beneficiario='" + beneficiario + '\'' +
+                ", estado=" + estado +
+                '}';
+    }
+}
@@ -0,0 +1,290 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Clase que cobra la comisión de mantenimiento de un ciclo a muchas cuentas
+ * corrientes, en bloques que se procesan en paralelo
+ *
+ * El avance se guarda en un archivo de progreso (un byte por bloque, con
+ * fsync al terminar cada bloque); si el proceso se corta, al volver a
+ * ejecutar el mismo ciclo se saltean los bloques terminados. Dentro de un
+ * bloque interrumpido no se cobra dos veces porque cada cuenta guarda el
+ * último ciclo cobrado (ver CuentaCorriente.cobrarComisionMantenimiento(int)),
+ * y ese dato viaja en el diario junto con el débito
+ *
+ * Si las cuentas se registran en un DiarioTransacciones hay que pasarlo al
+ * constructor: antes de marcar un bloque como terminado se espera a que los
+ * débitos del bloque estén en disco (los bloques que terminan juntos
+ * comparten el mismo fsync). Si no, una caída podría dejar el bloque marcado
+ * y sus débitos perdidos, y al retomar no se volverían a cobrar
+ *
+ * Las cuentas se ordenan por id, así un mismo conjunto de cuentas arma
+ * siempre los mismos bloques. Si el conjunto cambió entre ejecuciones el
+ * progreso se descarta y se recorren todas (las marcas de ciclo evitan los
+ * cobros repetidos)
+ *
+ * Conviene desactivar la bitácora (CuentaBancaria.setBitacora) antes de
+ * cobrar a muchas cuentas
+ */
+public class CobroComisiones implements Closeable {
+    private static final int MAGIA = 0x434F4D49;
+    // magia + ciclo + cantidad de cuentas + firma + cantidad de bloques
+    private static final int ENCABEZADO = 4 + 4 + 4 + 8 + 4;
+    private static final byte BLOQUE_TERMINADO = 1;
+
+    // Índices en el arreglo de contadores
+    private static final int COBRADAS = 0;
+    private static final int YA_COBRADAS = 1;
+    private static final int INACTIVAS = 2;
+    private static final int TOTAL_COBRADO = 3;
+
+    private final FileChannel progreso;
+    private final int tamanioBloque;
+    private final ForkJoinPool pool;
+    private final DiarioTransacciones diario;
+
+    /**
+     * Cobro sobre cuentas que no se registran en un diario
+     */
+    public CobroComisiones(Path archivoProgreso) throws IOException {
+        this(archivoProgreso, 4096, ForkJoinPool.commonPool(), null);
+    }
+
+    /**
+     * Cobro sobre cuentas registradas en el diario
+     */
+    public CobroComisiones(Path archivoProgreso, DiarioTransacciones diario) throws IOException {
+        this(archivoProgreso, 4096, ForkJoinPool.commonPool(), diario);
+    }
+
+    /**
+     * @param archivoProgreso archivo donde se guarda qué bloques terminaron
+     * @param tamanioBloque   cantidad de cuentas por bloque
+     * @param pool            pool donde se procesan los bloques
+     * @param diario          diario donde se registran las cuentas (null si no se registran)
+     */
+    public CobroComisiones(Path archivoProgreso, int tamanioBloque, ForkJoinPool pool,
+                           DiarioTransacciones diario) throws IOException {
+        if (tamanioBloque <= 0) {
+            throw new IllegalArgumentException("El tamaño de bloque debe ser mayor a 0");
+        }
+        this.progreso = FileChannel.open(archivoProgreso, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.tamanioBloque = tamanioBloque;
+        this.pool = pool;
+        this.diario = diario;
+    }
+
+    /**
+     * Cobra la comisión del ciclo a todas las cuentas activas, retomando desde
+     * el archivo de progreso si una ejecución anterior del mismo ciclo quedó
+     * a medias
+     */
+    public ResumenCobro ejecutar(int ciclo, Collection<CuentaCorriente> cuentas) throws IOException {
+        long inicio = System.nanoTime();
+        CuentaCorriente[] ordenadas = cuentas.toArray(new CuentaCorriente[0]);
+        Arrays.sort(ordenadas, Comparator.comparingInt(CuentaCorriente::getId));
+        int cantidadBloques = (ordenadas.length + tamanioBloque - 1) / tamanioBloque;
+
+        boolean[] terminados = cargarProgreso(ciclo, ordenadas, cantidadBloques);
+        List<Integer> pendientes = new ArrayList<>();
+        for (int bloque = 0; bloque < cantidadBloques; bloque++) {
+            if (!terminados[bloque]) {
+                pendientes.add(bloque);
+            }
+        }
+
+        AtomicLongArray contadores = new AtomicLongArray(4);
+        ConcurrentLinkedQueue<CuentaCorriente> nuevasEnDescubierto = new ConcurrentLinkedQueue<>();
+        try {
+            pool.invoke(new TareaBloques(ciclo, ordenadas, pendientes, 0, pendientes.size(),
+                    contadores, nuevasEnDescubierto));
+        } catch (RuntimeException e) {
+            // El pool puede volver a envolver la excepción del bloque: se busca en toda la cadena
+            for (Throwable causa = e; causa != null; causa = causa.getCause()) {
+                if (causa instanceof UncheckedIOException) {
+                    throw ((UncheckedIOException) causa).getCause();
+                }
+            }
+            throw e;
+        }
+
+        List<CuentaCorriente> descubiertas = new ArrayList<>(nuevasEnDescubierto);
+        descubiertas.sort(Comparator.comparingInt(CuentaCorriente::getId));
+        return new ResumenCobro(ciclo, ordenadas.length, cantidadBloques, cantidadBloques - pendientes.size(),
+                (int) contadores.get(COBRADAS), (int) contadores.get(YA_COBRADAS),
+                (int) contadores.get(INACTIVAS), contadores.get(TOTAL_COBRADO),
+                descubiertas, System.nanoTime() - inicio);
+    }
+
+    @Override
+    public void close() throws IOException {
+        progreso.close();
+    }
+
+    /**
+     * Lee el archivo de progreso; si es de otro ciclo o de otro conjunto de
+     * cuentas lo reinicia. Devuelve qué bloques ya estaban terminados
+     */
+    private boolean[] cargarProgreso(int ciclo, CuentaCorriente[] cuentas, int cantidadBloques) throws IOException {
+        long firma = firma(cuentas);
+        boolean[] terminados = new boolean[cantidadBloques];
+        ByteBuffer encabezado = ByteBuffer.allocate(ENCABEZADO);
+        if (progreso.size() == ENCABEZADO + cantidadBloques) {
+            leerCompleto(encabezado, 0);
+            encabezado.flip();
+            if (encabezado.getInt() == MAGIA && encabezado.getInt() == ciclo
+                    && encabezado.getInt() == cuentas.length && encabezado.getLong() == firma
+                    && encabezado.getInt() == cantidadBloques) {
+                ByteBuffer bloques = ByteBuffer.allocate(cantidadBloques);
+                leerCompleto(bloques, ENCABEZADO);
+                for (int i = 0; i < cantidadBloques; i++) {
+                    terminados[i] = bloques.get(i) == BLOQUE_TERMINADO;
+                }
+                return terminados;
+            }
+        }
+        progreso.truncate(0);
+        encabezado.clear();
+        encabezado.putInt(MAGIA).putInt(ciclo).putInt(cuentas.length).putLong(firma).putInt(cantidadBloques);
+        encabezado.flip();
+        escribirCompleto(encabezado, 0);
+        escribirCompleto(ByteBuffer.allocate(cantidadBloques), ENCABEZADO);
+        progreso.force(true);
+        return terminados;
+    }
+
+    // La marca solo se guarda cuando los débitos del bloque ya están en disco
+    private void marcarTerminado(int bloque) throws IOException {
+        if (diario != null) {
+            diario.esperarDurabilidad(diario.getUltimaSecuencia());
+        }
+        escribirCompleto(ByteBuffer.wrap(new byte[] {BLOQUE_TERMINADO}), ENCABEZADO + bloque);
+        progreso.force(false);
+    }
+
+    // Las lecturas y escrituras con posición explícita se pueden hacer desde varios hilos
+    private void leerCompleto(ByteBuffer destino, long posicion) throws IOException {
+        while (destino.hasRemaining()) {
+            int leidos = progreso.read(destino, posicion + destino.position());
+            if (leidos < 0) {
+                throw new IOException("El archivo de progreso está incompleto");
+            }
+        }
+    }
+
+    private void escribirCompleto(ByteBuffer origen, long posicion) throws IOException {
+        while (origen.hasRemaining()) {
+            progreso.write(origen, posicion + origen.position());
+        }
+    }
+
+    // Identifica el conjunto de cuentas (ids ya ordenados)
+    private static long firma(CuentaCorriente[] cuentas) {
+        long hash = 1125899906842597L;
+        for (CuentaCorriente cuenta : cuentas) {
+            hash = 31 * hash + cuenta.getId();
+        }
+        return hash;
+    }
+
+    /**
+     * Reparte los bloques pendientes entre los hilos del pool
+     */
+    private class TareaBloques extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int ciclo;
+        private final CuentaCorriente[] cuentas;
+        private final List<Integer> pendientes;
+        private final int desde;
+        private final int hasta;
+        private final AtomicLongArray contadores;
+        private final ConcurrentLinkedQueue<CuentaCorriente> nuevasEnDescubierto;
+
+        TareaBloques(int ciclo, CuentaCorriente[] cuentas, List<Integer> pendientes, int desde, int hasta,
+                     AtomicLongArray contadores, ConcurrentLinkedQueue<CuentaCorriente> nuevasEnDescubierto) {
+            this.ciclo = ciclo;
+            this.cuentas = cuentas;
+            this.pendientes = pendientes;
+            this.desde = desde;
+            this.hasta = hasta;
+            this.contadores = contadores;
+            this.nuevasEnDescubierto = nuevasEnDescubierto;
+        }
+
+        @Override
+        protected void compute() {
+            if (hasta - desde <= 1) {
+                if (hasta > desde) {
+                    cobrarBloque(pendientes.get(desde));
+                }
+                return;
+            }
+            int medio = (desde + hasta) >>> 1;
+            invokeAll(new TareaBloques(ciclo, cuentas, pendientes, desde, medio, contadores, nuevasEnDescubierto),
+                      new TareaBloques(ciclo, cuentas, pendientes, medio, hasta, contadores, nuevasEnDescubierto));
+        }
+
+        private void cobrarBloque(int bloque) {
+            int inicio = bloque * tamanioBloque;
+            int fin = Math.min(inicio + tamanioBloque, cuentas.length);
+            long cobradas = 0;
+            long yaCobradas = 0;
+            long inactivas = 0;
+            long totalCobrado = 0;
+            long[] comisionCobrada = new long[1];
+            for (int i = inicio; i < fin; i++) {
+                CuentaCorriente cuenta = cuentas[i];
+                if (!cuenta.isActiva()) {
+                    inactivas++;
+                    continue;
+                }
+                long inicioMedicion = CuentaBancaria.inicioMedicion();
+                long nuevoSaldo = cuenta.cobrarComisionDelCiclo(ciclo, comisionCobrada);
+                if (nuevoSaldo == SaldoAtomico.RECHAZADO) {
+                    CuentaBancaria.medir(TipoOperacion.COMISION, ResultadoOperacion.YA_COBRADA, inicioMedicion);
+                    yaCobradas++;
+                    continue;
+                }
+                if (nuevoSaldo == SaldoAtomico.DESBORDE) {
+                    // No se cobró y el ciclo sigue pendiente para esta cuenta
+                    CuentaBancaria.medir(TipoOperacion.COMISION, ResultadoOperacion.SALDO_FUERA_DE_RANGO, inicioMedicion);
+                    continue;
+                }
+                CuentaBancaria.medir(TipoOperacion.COMISION, ResultadoOperacion.EXITO, inicioMedicion);
+                // El monto que se debitó, aunque la comisión haya cambiado en el medio
+                long comision = comisionCobrada[0];
+                cobradas++;
+                totalCobrado += comision;
+                // Entró en descubierto justo con este débito
+                if (nuevoSaldo < 0 && nuevoSaldo + comision >= 0) {
+                    nuevasEnDescubierto.add(cuenta);
+                }
+            }
+            contadores.addAndGet(COBRADAS, cobradas);
+            contadores.addAndGet(YA_COBRADAS, yaCobradas);
+            contadores.addAndGet(INACTIVAS, inactivas);
+            contadores.addAndGet(TOTAL_COBRADO, totalCobrado);
+            try {
+                marcarTerminado(bloque);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
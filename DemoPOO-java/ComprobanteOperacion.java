@@ -0,0 +1,55 @@
+/**
+ * Clase que recibe el saldo que dejó una operación sobre una cuenta
+ * Las operaciones lo completan con el valor del mismo CAS que aplicó el
+ * movimiento; un getSaldo() posterior, en cambio, puede incluir ya los
+ * movimientos de otros hilos
+ * Es mutable y se puede reutilizar entre operaciones (por ejemplo, uno por
+ * hilo), así el camino exitoso sigue sin reservar memoria
+ * No es seguro compartir un mismo comprobante entre hilos
+ */
+public class ComprobanteOperacion {
+    private ResultadoOperacion resultado;
+    private long saldoAnterior = SaldoAtomico.RECHAZADO;
+    private long saldoNuevo = SaldoAtomico.RECHAZADO;
+
+    // Usado por las cuentas al terminar la operación
+    void completar(ResultadoOperacion resultado, long saldoAnterior, long saldoNuevo) {
+        this.resultado = resultado;
+        this.saldoAnterior = saldoAnterior;
+        this.saldoNuevo = saldoNuevo;
+    }
+
+    // Usado por las cuentas cuando la operación se rechazó sin mover el saldo
+    void rechazar(ResultadoOperacion resultado) {
+        completar(resultado, SaldoAtomico.RECHAZADO, SaldoAtomico.RECHAZADO);
+    }
+
+    public ResultadoOperacion getResultado() {
+        return resultado;
+    }
+
+    /**
+     * Saldo anterior al movimiento, en unidades mínimas de la moneda, o
+     * SaldoAtomico.RECHAZADO si la operación no se aplicó
+     */
+    public long getSaldoAnterior() {
+        return saldoAnterior;
+    }
+
+    /**
+     * Saldo que dejó el movimiento, en unidades mínimas de la moneda, o
+     * SaldoAtomico.RECHAZADO si la operación no se aplicó
+     */
+    public long getSaldoNuevo() {
+        return saldoNuevo;
+    }
+
+    @Override
+    public String toString() {
+        return "ComprobanteOperacion{" +
+                "resultado=" + resultado +
+                ", saldoAnterior=" + saldoAnterior +
+                ", saldoNuevo=" + saldoNuevo +
+                '}';
+    }
+}
@@ -0,0 +1,288 @@
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Clase con la configuración de GeneradorCarga: cuántas cuentas crear,
+ * cuántos hilos, cuánto tiempo, qué tan concentrada está la carga en pocas
+ * cuentas (zipf) y en qué proporción sale cada operación (mezcla)
+ *
+ * Se puede armar con los setters o desde la línea de comandos con
+ * desdeArgumentos, por ejemplo:
+ *   --cuentas 1000000 --hilos 4 --duracion 30 --zipf 0.99
+ *   --mezcla deposito=40,extraccion=30,cheque=15,intereses=10,comision=5
+ */
+public class ConfiguracionCarga {
+    // Operaciones que puede generar la carga, en el orden de la mezcla
+    static final TipoOperacion[] OPERACIONES = {
+        TipoOperacion.DEPOSITO, TipoOperacion.EXTRACCION, TipoOperacion.CHEQUE,
+        TipoOperacion.INTERESES, TipoOperacion.COMISION
+    };
+    private static final String[] NOMBRES_MEZCLA = {"deposito", "extraccion", "cheque", "intereses", "comision"};
+
+    private int cuentas = 1_000_000;
+    private double proporcionCajas = 0.5;
+    private int hilos = Runtime.getRuntime().availableProcessors();
+    private int duracionSegundos = 10;
+    private int calentamientoSegundos = 3;
+    private double zipf = 0.99;
+    private boolean mezclarCuentas = true;
+    private int[] mezcla = {40, 30, 15, 10, 5};
+    private long montoMaximo = 100_000;
+    private int corridasCadaSegundos = 0;
+    private long semilla = 42;
+    private boolean json = false;
+
+    /**
+     * Configuración a partir de argumentos "--clave valor" (ver ayuda())
+     */
+    public static ConfiguracionCarga desdeArgumentos(String[] args) {
+        ConfiguracionCarga configuracion = new ConfiguracionCarga();
+        for (int i = 0; i < args.length; i++) {
+            String clave = args[i];
+            if (clave.equals("--json")) {
+                configuracion.setJson(true);
+                continue;
+            }
+            if (clave.equals("--sin-mezclar-cuentas")) {
+                configuracion.setMezclarCuentas(false);
+                continue;
+            }
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Falta el valor de " + clave);
+            }
+            String valor = args[++i];
+            try {
+                switch (clave) {
+                    case "--cuentas":
+                        configuracion.setCuentas(Integer.parseInt(valor));
+                        break;
+                    case "--proporcion-cajas":
+                        configuracion.setProporcionCajas(Double.parseDouble(valor));
+                        break;
+                    case "--hilos":
+                        configuracion.setHilos(Integer.parseInt(valor));
+                        break;
+                    case "--duracion":
+                        configuracion.setDuracionSegundos(Integer.parseInt(valor));
+                        break;
+                    case "--calentamiento":
+                        configuracion.setCalentamientoSegundos(Integer.parseInt(valor));
+                        break;
+                    case "--zipf":
+                        configuracion.setZipf(Double.parseDouble(valor));
+                        break;
+                    case "--mezcla":
+                        configuracion.setMezcla(valor);
+                        break;
+                    case "--monto-maximo":
+                        configuracion.setMontoMaximo(Long.parseLong(valor));
+                        break;
+                    case "--corridas-cada":
+                        configuracion.setCorridasCadaSegundos(Integer.parseInt(valor));
+                        break;
+                    case "--semilla":
+                        configuracion.setSemilla(Long.parseLong(valor));
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Opción desconocida: " + clave);
+                }
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Valor inválido para " + clave + ": " + valor);
+            }
+        }
+        return configuracion;
+    }
+
+    public static String ayuda() {
+        return "Uso: java GeneradorCarga [opciones]\n" +
+                "  --cuentas N              cuentas a crear (1000000)\n" +
+                "  --proporcion-cajas P     fracción de cajas de ahorro, el resto cuentas corrientes (0.5)\n" +
+                "  --hilos N                hilos que generan operaciones (núcleos disponibles)\n" +
+                "  --duracion S             segundos de medición (10)\n" +
+                "  --calentamiento S        segundos previos que no se miden (3)\n" +
+                "  --zipf THETA             concentración en cuentas calientes, 0 = uniforme (0.99)\n" +
+                "  --sin-mezclar-cuentas    las cuentas calientes son las de ids más bajos\n" +
+                "  --mezcla LISTA           pesos de deposito, extraccion, cheque, intereses y comision\n" +
+                "                           (deposito=40,extraccion=30,cheque=15,intereses=10,comision=5)\n" +
+                "  --monto-maximo N         monto máximo por operación, en unidades mínimas (100000)\n" +
+                "  --corridas-cada S        cada S segundos, intereses y comisiones masivos sobre todas las\n" +
+                "                           cuentas mientras sigue la carga (0 = nunca)\n" +
+                "  --semilla N              semilla de los números al azar (42)\n" +
+                "  --json                   imprime el resumen en JSON";
+    }
+
+    public int getCuentas() {
+        return cuentas;
+    }
+
+    public void setCuentas(int cuentas) {
+        if (cuentas < 2) {
+            throw new IllegalArgumentException("Se necesitan al menos 2 cuentas");
+        }
+        this.cuentas = cuentas;
+    }
+
+    public double getProporcionCajas() {
+        return proporcionCajas;
+    }
+
+    public void setProporcionCajas(double proporcionCajas) {
+        if (!(proporcionCajas > 0 && proporcionCajas < 1)) {
+            throw new IllegalArgumentException("La proporción de cajas debe estar entre 0 y 1 (sin incluirlos)");
+        }
+        this.proporcionCajas = proporcionCajas;
+    }
+
+    public int getHilos() {
+        return hilos;
+    }
+
+    public void setHilos(int hilos) {
+        if (hilos <= 0) {
+            throw new IllegalArgumentException("La cantidad de hilos debe ser mayor a 0");
+        }
+        this.hilos = hilos;
+    }
+
+    public int getDuracionSegundos() {
+        return duracionSegundos;
+    }
+
+    public void setDuracionSegundos(int duracionSegundos) {
+        if (duracionSegundos <= 0) {
+            throw new IllegalArgumentException("La duración debe ser mayor a 0");
+        }
+        this.duracionSegundos = duracionSegundos;
+    }
+
+    public int getCalentamientoSegundos() {
+        return calentamientoSegundos;
+    }
+
+    public void setCalentamientoSegundos(int calentamientoSegundos) {
+        if (calentamientoSegundos < 0) {
+            throw new IllegalArgumentException("El calentamiento no puede ser negativo");
+        }
+        this.calentamientoSegundos = calentamientoSegundos;
+    }
+
+    public double getZipf() {
+        return zipf;
+    }
+
+    public void setZipf(double zipf) {
+        if (zipf < 0 || zipf >= 1) {
+            throw new IllegalArgumentException("zipf debe estar entre 0 y 1 (sin incluir el 1)");
+        }
+        this.zipf = zipf;
+    }
+
+    public boolean isMezclarCuentas() {
+        return mezclarCuentas;
+    }
+
+    public void setMezclarCuentas(boolean mezclarCuentas) {
+        this.mezclarCuentas = mezclarCuentas;
+    }
+
+    /**
+     * Pesos de cada operación, en el orden de OPERACIONES
+     */
+    public int[] getMezcla() {
+        return mezcla.clone();
+    }
+
+    public void setMezcla(int[] mezcla) {
+        if (mezcla.length != OPERACIONES.length) {
+            throw new IllegalArgumentException("La mezcla debe tener " + OPERACIONES.length + " pesos");
+        }
+        long total = 0;
+        for (int peso : mezcla) {
+            if (peso < 0) {
+                throw new IllegalArgumentException("Los pesos de la mezcla no pueden ser negativos");
+            }
+            total += peso;
+        }
+        if (total == 0 || total > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("La suma de los pesos debe ser mayor a 0");
+        }
+        this.mezcla = mezcla.clone();
+    }
+
+    /**
+     * Mezcla como "deposito=40,extraccion=30,..." (las operaciones que no
+     * aparecen quedan con peso 0)
+     */
+    public void setMezcla(String mezcla) {
+        int[] pesos = new int[OPERACIONES.length];
+        for (String parte : mezcla.split(",")) {
+            String[] claveValor = parte.split("=");
+            int indice = claveValor.length == 2
+                    ? Arrays.asList(NOMBRES_MEZCLA).indexOf(claveValor[0].trim().toLowerCase(Locale.ROOT)) : -1;
+            if (indice < 0) {
+                throw new IllegalArgumentException("Parte de la mezcla inválida: " + parte);
+            }
+            pesos[indice] = Integer.parseInt(claveValor[1].trim());
+        }
+        setMezcla(pesos);
+    }
+
+    public long getMontoMaximo() {
+        return montoMaximo;
+    }
+
+    public void setMontoMaximo(long montoMaximo) {
+        if (montoMaximo <= 0) {
+            throw new IllegalArgumentException("El monto máximo debe ser mayor a 0");
+        }
+        this.montoMaximo = montoMaximo;
+    }
+
+    public int getCorridasCadaSegundos() {
+        return corridasCadaSegundos;
+    }
+
+    public void setCorridasCadaSegundos(int corridasCadaSegundos) {
+        if (corridasCadaSegundos < 0) {
+            throw new IllegalArgumentException("El intervalo de las corridas no puede ser negativo");
+        }
+        this.corridasCadaSegundos = corridasCadaSegundos;
+    }
+
+    public long getSemilla() {
+        return semilla;
+    }
+
+    public void setSemilla(long semilla) {
+        this.semilla = semilla;
+    }
+
+    public boolean isJson() {
+        return json;
+    }
+
+    public void setJson(boolean json) {
+        this.json = json;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < NOMBRES_MEZCLA.length; i++) {
+            sb.append(i == 0 ? "" : ",").append(NOMBRES_MEZCLA[i]).append('=').append(mezcla[i]);
+        }
+        return "ConfiguracionCarga{" +
+                "cuentas=" + cuentas +
+                ", proporcionCajas=" + proporcionCajas +
+                ", hilos=" + hilos +
+                ", duracionSegundos=" + duracionSegundos +
+                ", calentamientoSegundos=" + calentamientoSegundos +
+                ", zipf=" + zipf +
+                ", mezclarCuentas=" + mezclarCuentas +
+                ", mezcla=" + sb +
+                ", montoMaximo=" + montoMaximo +
+                ", corridasCadaSegundos=" + corridasCadaSegundos +
+                ", semilla=" + semilla +
+                '}';
+    }
+}
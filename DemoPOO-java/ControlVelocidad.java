@@ -0,0 +1,385 @@
+import java.util.Arrays;
+import java.util.function.LongSupplier;
+
+/**
+ * Clase que limita la velocidad de los débitos de cada cuenta: cuántas
+ * extracciones y cheques, y por cuánto dinero, se pueden hacer dentro de
+ * una ventana de tiempo (ver ReglaVelocidad)
+ * Se activa con CuentaBancaria.setControlVelocidad; las extracciones de
+ * CajaDeAhorro y CuentaCorriente y los cheques que superan alguna regla se
+ * rechazan con LIMITE_VELOCIDAD_EXCEDIDO
+ *
+ * Cada regla es una ventana dividida en cubetas (un contador de
+ * operaciones y uno de monto por cubeta) que se reutilizan en forma
+ * circular, más el total de la ventana: al avanzar el tiempo se restan del
+ * total las cubetas que vencieron y se ponen en cero, así verificar un
+ * débito no recorre las cubetas y no hay listas de operaciones ni objetos
+ * por débito. Los contadores van en una tabla por id con direccionamiento
+ * abierto dividida en segmentos (como AlmacenCuentas), y los de cada
+ * cuenta quedan seguidos en un long[] para que una verificación toque
+ * pocas líneas de caché. La verificación y el registro de un débito se
+ * hacen juntos con el lock de su segmento, así dos hilos no pueden pasar a
+ * la vez el último lugar de una ventana
+ *
+ * Solo cuentan los débitos que se hicieron: si después de admitirlo el
+ * débito se rechaza (por ejemplo, por saldo insuficiente) se descuenta con
+ * deshacer. Los montos se suman en unidades mínimas: tienen sentido si
+ * todas las cuentas usan la misma moneda
+ */
+public class ControlVelocidad {
+    // Lo que devuelve admitir() cuando el débito supera alguna regla
+    public static final long RECHAZADA = Long.MIN_VALUE;
+
+    private static final float FACTOR_CARGA = 0.7f;
+    private static final int LIBRE = Integer.MIN_VALUE;
+    private static final int CANTIDAD_SEGMENTOS = 64;
+    // Última época de una ventana que todavía no se usó
+    private static final long SIN_EPOCA = Long.MIN_VALUE;
+
+    // Campos de cada ventana (una por regla) dentro de los datos de una cuenta
+    private static final int ULTIMA_EPOCA = 0;
+    private static final int TOTAL_OPERACIONES = 1;
+    private static final int TOTAL_MONTO = 2;
+    private static final int CUBETA_ACTUAL = 3;
+    private static final int CAMPOS_VENTANA = 4;
+    // Campos de cada cubeta
+    private static final int OPERACIONES = 0;
+    private static final int MONTO = 1;
+    private static final int CAMPOS_CUBETA = 2;
+
+    private final ReglaVelocidad[] reglas;
+    private final LongSupplier relojMillis;
+    // Datos de cada regla copiados a arreglos para el camino rápido
+    private final long[] anchos;
+    private final int[] cubetas;
+    // Dónde empiezan las cubetas de cada regla dentro de los datos de una cuenta
+    private final int[] primerasCubetas;
+    private final int[] maxOperaciones;
+    private final long[] maxMontos;
+    // Cantidad de longs por cuenta: las ventanas de todas las reglas y después sus cubetas
+    private final int largoCuenta;
+    private final Segmento[] segmentos;
+
+    public ControlVelocidad(ReglaVelocidad... reglas) {
+        this(System::currentTimeMillis, reglas);
+    }
+
+    /**
+     * @param relojMillis de dónde se toma la hora, en milisegundos (para simulaciones y pruebas)
+     * @param reglas      reglas que debe cumplir cada cuenta
+     */
+    public ControlVelocidad(LongSupplier relojMillis, ReglaVelocidad... reglas) {
+        if (reglas.length == 0) {
+            throw new IllegalArgumentException("Se necesita al menos una regla");
+        }
+        this.reglas = reglas.clone();
+        this.relojMillis = relojMillis;
+        this.anchos = new long[reglas.length];
+        this.cubetas = new int[reglas.length];
+        this.primerasCubetas = new int[reglas.length];
+        this.maxOperaciones = new int[reglas.length];
+        this.maxMontos = new long[reglas.length];
+        int largo = reglas.length * CAMPOS_VENTANA;
+        for (int r = 0; r < reglas.length; r++) {
+            anchos[r] = reglas[r].getAnchoCubetaMillis();
+            cubetas[r] = reglas[r].getCubetas();
+            primerasCubetas[r] = largo;
+            maxOperaciones[r] = reglas[r].getMaxOperaciones();
+            maxMontos[r] = reglas[r].getMaxMonto();
+            largo += cubetas[r] * CAMPOS_CUBETA;
+        }
+        this.largoCuenta = largo;
+        this.segmentos = new Segmento[CANTIDAD_SEGMENTOS];
+        for (int i = 0; i < segmentos.length; i++) {
+            segmentos[i] = new Segmento(16);
+        }
+    }
+
+    /**
+     * Verifica si la cuenta puede debitar ese monto sin superar ninguna regla
+     * y, si puede, lo registra
+     * Devuelve el instante en que quedó registrado (para deshacer) o RECHAZADA
+     */
+    public long admitir(int id, long monto) {
+        long instante = relojMillis.getAsLong();
+        int hash = mezclar(id);
+        Segmento segmento = segmento(hash);
+        synchronized (segmento) {
+            int base = segmento.lugar(id, hash) * largoCuenta;
+            long[] epocas = segmento.epocasActuales(instante);
+            long[] datos = segmento.datos;
+            for (int r = 0; r < anchos.length; r++) {
+                int ventana = base + r * CAMPOS_VENTANA;
+                segmento.avanzar(ventana, base + primerasCubetas[r], cubetas[r], epocas[r]);
+                if (datos[ventana + TOTAL_OPERACIONES] >= maxOperaciones[r]
+                        || monto > maxMontos[r] - datos[ventana + TOTAL_MONTO]) {
+                    segmento.rechazadas++;
+                    return RECHAZADA;
+                }
+            }
+            for (int r = 0; r < anchos.length; r++) {
+                int ventana = base + r * CAMPOS_VENTANA;
+                int cubeta = base + primerasCubetas[r] + (int) datos[ventana + CUBETA_ACTUAL] * CAMPOS_CUBETA;
+                datos[cubeta + OPERACIONES]++;
+                datos[cubeta + MONTO] += monto;
+                datos[ventana + TOTAL_OPERACIONES]++;
+                datos[ventana + TOTAL_MONTO] += monto;
+            }
+            segmento.admitidas++;
+        }
+        return instante;
+    }
+
+    /**
+     * Descuenta un débito admitido que al final no se hizo
+     * Si su cubeta ya venció no hace nada (el débito ya salió de la ventana)
+     */
+    public void deshacer(int id, long monto, long instante) {
+        int hash = mezclar(id);
+        Segmento segmento = segmento(hash);
+        synchronized (segmento) {
+            int lugar = segmento.buscar(id, hash);
+            if (lugar < 0) {
+                return;
+            }
+            int base = lugar * largoCuenta;
+            long[] datos = segmento.datos;
+            for (int r = 0; r < anchos.length; r++) {
+                int ventana = base + r * CAMPOS_VENTANA;
+                long atraso = datos[ventana + ULTIMA_EPOCA] - Math.floorDiv(instante, anchos[r]);
+                if (atraso < 0 || atraso >= cubetas[r]) {
+                    continue;
+                }
+                long posicion = (datos[ventana + CUBETA_ACTUAL] - atraso + cubetas[r]) % cubetas[r];
+                int cubeta = base + primerasCubetas[r] + (int) posicion * CAMPOS_CUBETA;
+                if (datos[cubeta + OPERACIONES] > 0) {
+                    datos[cubeta + OPERACIONES]--;
+                    datos[cubeta + MONTO] -= monto;
+                    datos[ventana + TOTAL_OPERACIONES]--;
+                    datos[ventana + TOTAL_MONTO] -= monto;
+                }
+            }
+            segmento.admitidas--;
+        }
+    }
+
+    /**
+     * Operaciones y monto que la cuenta tiene ahora dentro de la ventana de
+     * la regla indicada: {operaciones, monto}
+     */
+    public long[] getUso(int id, int regla) {
+        long instante = relojMillis.getAsLong();
+        int hash = mezclar(id);
+        Segmento segmento = segmento(hash);
+        synchronized (segmento) {
+            int lugar = segmento.buscar(id, hash);
+            if (lugar < 0) {
+                return new long[2];
+            }
+            int base = lugar * largoCuenta;
+            int ventana = base + regla * CAMPOS_VENTANA;
+            segmento.avanzar(ventana, base + primerasCubetas[regla], cubetas[regla],
+                    segmento.epocasActuales(instante)[regla]);
+            return new long[] {segmento.datos[ventana + TOTAL_OPERACIONES], segmento.datos[ventana + TOTAL_MONTO]};
+        }
+    }
+
+    public ReglaVelocidad[] getReglas() {
+        return reglas.clone();
+    }
+
+    // Débitos admitidos (sin contar los deshechos)
+    public long getAdmitidas() {
+        long total = 0;
+        for (Segmento segmento : segmentos) {
+            synchronized (segmento) {
+                total += segmento.admitidas;
+            }
+        }
+        return total;
+    }
+
+    public long getRechazadas() {
+        long total = 0;
+        for (Segmento segmento : segmentos) {
+            synchronized (segmento) {
+                total += segmento.rechazadas;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Cantidad de cuentas con contadores (las que alguna vez debitaron)
+     */
+    public int getCuentas() {
+        int total = 0;
+        for (Segmento segmento : segmentos) {
+            synchronized (segmento) {
+                total += segmento.tamanio;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Bytes que ocupan los contadores de todas las cuentas
+     */
+    public long bytesOcupados() {
+        long total = 0;
+        for (Segmento segmento : segmentos) {
+            synchronized (segmento) {
+                total += 4L * segmento.claves.length + 8L * segmento.datos.length;
+            }
+        }
+        return total;
+    }
+
+    @Override
+    public String toString() {
+        return "ControlVelocidad{" +
+                "reglas=" + Arrays.toString(reglas) +
+                ", cuentas=" + getCuentas() +
+                ", admitidas=" + getAdmitidas() +
+                ", rechazadas=" + getRechazadas() +
+                '}';
+    }
+
+    private Segmento segmento(int hash) {
+        return segmentos[hash >>> (32 - Integer.numberOfTrailingZeros(CANTIDAD_SEGMENTOS))];
+    }
+
+    // Mezcla de bits (fmix32 de MurmurHash3) para repartir ids consecutivos
+    private static int mezclar(int id) {
+        int h = id;
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    /**
+     * Parte de la tabla: ids con sondeo lineal y, en un arreglo paralelo, los
+     * datos de cada id (largoCuenta longs por lugar: una ventana por regla
+     * con su última época, sus totales y su cubeta actual, y las cubetas)
+     * Solo se usa con el lock del segmento tomado
+     */
+    private final class Segmento {
+        int[] claves;
+        long[] datos;
+        int tamanio;
+        long admitidas;
+        long rechazadas;
+        // Época de cada regla para el último instante pedido (hay muchos
+        // débitos por milisegundo, así no se divide en cada uno)
+        private long instanteCalculado = Long.MIN_VALUE;
+        private final long[] epocasCalculadas = new long[anchos.length];
+
+        Segmento(int capacidad) {
+            reservar(capacidad);
+        }
+
+        private void reservar(int capacidad) {
+            claves = new int[capacidad];
+            Arrays.fill(claves, LIBRE);
+            datos = new long[capacidad * largoCuenta];
+        }
+
+        long[] epocasActuales(long instante) {
+            if (instante != instanteCalculado) {
+                for (int r = 0; r < anchos.length; r++) {
+                    epocasCalculadas[r] = Math.floorDiv(instante, anchos[r]);
+                }
+                instanteCalculado = instante;
+            }
+            return epocasCalculadas;
+        }
+
+        /**
+         * Lleva la ventana hasta la época indicada: las cubetas que vencieron
+         * se restan de los totales y quedan en cero para volver a usarse
+         * Si el reloj retrocedió se sigue usando la cubeta más nueva
+         */
+        void avanzar(int ventana, int primeraCubeta, int cantidadCubetas, long epoca) {
+            long ultima = datos[ventana + ULTIMA_EPOCA];
+            if (ultima == SIN_EPOCA) {
+                datos[ventana + ULTIMA_EPOCA] = epoca;
+                return;
+            }
+            long atraso = epoca - ultima;
+            if (atraso <= 0) {
+                return;
+            }
+            int pasos = atraso < cantidadCubetas ? (int) atraso : cantidadCubetas;
+            int posicion = (int) datos[ventana + CUBETA_ACTUAL];
+            for (int k = 0; k < pasos; k++) {
+                posicion = posicion + 1 == cantidadCubetas ? 0 : posicion + 1;
+                int cubeta = primeraCubeta + posicion * CAMPOS_CUBETA;
+                datos[ventana + TOTAL_OPERACIONES] -= datos[cubeta + OPERACIONES];
+                datos[ventana + TOTAL_MONTO] -= datos[cubeta + MONTO];
+                datos[cubeta + OPERACIONES] = 0;
+                datos[cubeta + MONTO] = 0;
+            }
+            datos[ventana + CUBETA_ACTUAL] = posicion;
+            datos[ventana + ULTIMA_EPOCA] = epoca;
+        }
+
+        // Lugar del id, o -1 si no tiene contadores
+        int buscar(int id, int hash) {
+            int mascara = claves.length - 1;
+            for (int i = hash & mascara; ; i = (i + 1) & mascara) {
+                int clave = claves[i];
+                if (clave == id) {
+                    return i;
+                }
+                if (clave == LIBRE) {
+                    return -1;
+                }
+            }
+        }
+
+        // Lugar del id, agregándolo si no estaba
+        int lugar(int id, int hash) {
+            int lugar = buscar(id, hash);
+            if (lugar >= 0) {
+                return lugar;
+            }
+            if (tamanio + 1 > claves.length * FACTOR_CARGA) {
+                crecer();
+            }
+            int mascara = claves.length - 1;
+            int i = hash & mascara;
+            while (claves[i] != LIBRE) {
+                i = (i + 1) & mascara;
+            }
+            claves[i] = id;
+            // Las cubetas de un lugar nuevo están en cero; la época se fija al usarlas
+            for (int r = 0; r < anchos.length; r++) {
+                datos[i * largoCuenta + r * CAMPOS_VENTANA + ULTIMA_EPOCA] = SIN_EPOCA;
+            }
+            tamanio++;
+            return i;
+        }
+
+        private void crecer() {
+            int[] clavesViejas = claves;
+            long[] datosViejos = datos;
+            reservar(clavesViejas.length * 2);
+            int mascara = claves.length - 1;
+            for (int viejo = 0; viejo < clavesViejas.length; viejo++) {
+                int clave = clavesViejas[viejo];
+                if (clave == LIBRE) {
+                    continue;
+                }
+                int i = mezclar(clave) & mascara;
+                while (claves[i] != LIBRE) {
+                    i = (i + 1) & mascara;
+                }
+                claves[i] = clave;
+                System.arraycopy(datosViejos, viejo * largoCuenta, datos, i * largoCuenta, largoCuenta);
+            }
+        }
+    }
+}
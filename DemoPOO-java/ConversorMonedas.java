@@ -0,0 +1,197 @@
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Clase que convierte importes en unidades mínimas de una moneda a otra
+ * con las cotizaciones de una TablaCotizaciones, para reportes consolidados
+ *
+ * Los factores de conversión (origen -> destino, ya ajustados por los
+ * decimales de cada moneda) se calculan una vez por versión de la tabla y
+ * se guardan en una matriz indexada por número de moneda (ver Monedas);
+ * cuando la tabla cambia de versión la matriz se vuelve a calcular en la
+ * siguiente conversión. Convertir es entonces una multiplicación por un
+ * double redondeada mitad al par, sin buscar Strings ni dividir
+ * Si el resultado no entra en un long se lanza ArithmeticException, tanto
+ * al convertir un importe como un arreglo; los códigos de moneda que nunca
+ * se registraron se rechazan con IllegalArgumentException
+ *
+ * Las conversiones son para informar: usan double (unos 15 dígitos
+ * significativos), no para mover dinero entre cuentas
+ */
+public class ConversorMonedas {
+    private static final double LIMITE_LONG = 0x1p63;
+
+    private final TablaCotizaciones tabla;
+    private volatile Factores factores;
+
+    public ConversorMonedas(TablaCotizaciones tabla) {
+        this.tabla = tabla;
+    }
+
+    public TablaCotizaciones getTabla() {
+        return tabla;
+    }
+
+    /**
+     * Factor por el que se multiplica un importe en unidades mínimas de
+     * origen para obtenerlo en unidades mínimas de destino (NaN si alguna
+     * de las dos monedas no tiene cotización)
+     */
+    public double getFactor(int origen, int destino) {
+        return factores().hacia[destino][origen];
+    }
+
+    public long convertir(long monto, String origen, String destino) {
+        return convertir(monto, idConocido(origen), idConocido(destino));
+    }
+
+    public long convertir(long monto, int origen, int destino) {
+        double factor = factores().hacia[destino][origen];
+        if (Double.isNaN(factor)) {
+            throw sinCotizacion(origen, destino);
+        }
+        return redondear(monto * factor);
+    }
+
+    /**
+     * Convierte montos[desde..hasta) (cada uno en la moneda monedas[i]) a la
+     * moneda destino y los deja en resultado[desde..hasta)
+     * Es una sola pasada sobre arreglos primitivos con los factores de
+     * destino en un arreglo chico indexado por moneda, sin saltos ni objetos
+     * Si alguna moneda no tiene cotización lanza IllegalStateException, y
+     * si algún resultado no entra en un long, ArithmeticException (en los
+     * dos casos resultado puede quedar a medio escribir)
+     */
+    public void convertir(long[] montos, int[] monedas, int desde, int hasta, int destino, long[] resultado) {
+        double[] factoresDestino = factores().hacia[destino];
+        boolean faltaCotizacion = false;
+        boolean desborde = false;
+        for (int i = desde; i < hasta; i++) {
+            double factor = factoresDestino[monedas[i]];
+            double redondeado = Math.rint(montos[i] * factor);
+            faltaCotizacion |= factor != factor;
+            // El cast satura: se anota y se informa después, como en redondear
+            desborde |= redondeado >= LIMITE_LONG | redondeado < -LIMITE_LONG;
+            resultado[i] = (long) redondeado;
+        }
+        if (faltaCotizacion) {
+            for (int i = desde; i < hasta; i++) {
+                if (Double.isNaN(factoresDestino[monedas[i]])) {
+                    throw sinCotizacion(monedas[i], destino);
+                }
+            }
+        }
+        if (desborde) {
+            throw fueraDeRango();
+        }
+    }
+
+    /**
+     * Saldos de las cuentas convertidos a la moneda destino (en unidades
+     * mínimas de destino), en el orden de la colección
+     */
+    public long[] convertirSaldos(Collection<? extends CuentaConSaldo> cuentas, String destino) {
+        long[] saldos = new long[cuentas.size()];
+        int[] monedas = new int[saldos.length];
+        int i = 0;
+        for (CuentaConSaldo cuenta : cuentas) {
+            saldos[i] = cuenta.getSaldoEnUnidadesMinimas();
+            monedas[i] = cuenta.getIdMoneda();
+            i++;
+        }
+        convertir(saldos, monedas, 0, saldos.length, idConocido(destino), saldos);
+        return saldos;
+    }
+
+    /**
+     * Suma de los saldos de las cuentas en la moneda destino (en unidades
+     * mínimas de destino)
+     * Primero suma los saldos de cada moneda (exacto, en long) y después
+     * convierte una vez cada suma, así el redondeo se aplica una sola vez por
+     * moneda y no una vez por cuenta
+     */
+    public long total(Iterable<? extends CuentaConSaldo> cuentas, String destino) {
+        long[] sumas = new long[Monedas.cantidad()];
+        for (CuentaConSaldo cuenta : cuentas) {
+            int moneda = cuenta.getIdMoneda();
+            if (moneda >= sumas.length) {
+                sumas = Arrays.copyOf(sumas, Monedas.cantidad());
+            }
+            sumas[moneda] = Dinero.sumar(sumas[moneda], cuenta.getSaldoEnUnidadesMinimas());
+        }
+        int idDestino = idConocido(destino);
+        long total = 0;
+        for (int moneda = 0; moneda < sumas.length; moneda++) {
+            if (sumas[moneda] != 0) {
+                total = Dinero.sumar(total, convertir(sumas[moneda], moneda, idDestino));
+            }
+        }
+        return total;
+    }
+
+    // Factores de la versión actual de la tabla (los recalcula si cambió la
+    // tabla o si se registraron monedas nuevas)
+    private Factores factores() {
+        Factores actuales = factores;
+        TablaCotizaciones.Version version = tabla.versionActual();
+        if (actuales != null && actuales.version == version.numero && actuales.hacia.length == Monedas.cantidad()) {
+            return actuales;
+        }
+        Factores nuevos = new Factores(version);
+        factores = nuevos;
+        return nuevos;
+    }
+
+    private static long redondear(double valor) {
+        double redondeado = Math.rint(valor);
+        if (redondeado >= LIMITE_LONG || redondeado < -LIMITE_LONG) {
+            throw fueraDeRango();
+        }
+        return (long) redondeado;
+    }
+
+    private static ArithmeticException fueraDeRango() {
+        return new ArithmeticException("El importe convertido no entra en un long");
+    }
+
+    // Consultar no registra monedas: un código desconocido es un error de quien llama
+    private static int idConocido(String codigo) {
+        int id = Monedas.buscar(codigo);
+        if (id < 0) {
+            throw new IllegalArgumentException("Moneda desconocida: " + codigo);
+        }
+        return id;
+    }
+
+    private IllegalStateException sinCotizacion(int origen, int destino) {
+        return new IllegalStateException("No hay cotización para convertir de " + Monedas.codigo(origen)
+                + " a " + Monedas.codigo(destino) + " (" + tabla + ")");
+    }
+
+    /**
+     * Matriz de factores de una versión de la tabla: hacia[destino][origen]
+     */
+    private static final class Factores {
+        final long version;
+        final double[][] hacia;
+
+        Factores(TablaCotizaciones.Version version) {
+            this.version = version.numero;
+            // Una sola lectura: si se registra otra moneda en el medio no se mezclan
+            Monedas.Registro monedas = Monedas.registro();
+            int cantidad = monedas.cantidad();
+            double[] cotizaciones = version.cotizaciones;
+            this.hacia = new double[cantidad][cantidad];
+            for (int destino = 0; destino < cantidad; destino++) {
+                double cotizacionDestino = destino < cotizaciones.length ? cotizaciones[destino] : Double.NaN;
+                double escalaDestino = Dinero.escala(monedas.decimales(destino));
+                for (int origen = 0; origen < cantidad; origen++) {
+                    double cotizacionOrigen = origen < cotizaciones.length ? cotizaciones[origen] : Double.NaN;
+                    // Unidades mínimas de origen -> unidades de origen -> moneda base -> unidades mínimas de destino
+                    hacia[destino][origen] = origen == destino ? 1.0
+                            : cotizacionDestino / cotizacionOrigen * escalaDestino / Dinero.escala(monedas.decimales(origen));
+                }
+            }
+        }
+    }
+}
@@ -1,3 +1,5 @@
+import java.util.Arrays;
+
 /**
  * Clase base que representa una cuenta bancaria genérica
  * Implementa encapsulamiento con atributos privados
@@ -7,7 +9,28 @@ public class CuentaBancaria {
     private int id;
     private String usuario;
     private String moneda;
-    private boolean activa;
+    private volatile boolean activa;
+    // Decimales de la moneda, para expresar los importes en unidades mínimas (ver Dinero)
+    private int decimales;
+    // Número de la moneda (ver Monedas), para indexar por moneda sin comparar Strings
+    private int idMoneda;
+    
+    // Observadores de los cambios de la cuenta (se reemplaza el arreglo completo al modificarlo)
+    private static final ObservadorMovimientos[] SIN_OBSERVADORES = new ObservadorMovimientos[0];
+    private volatile ObservadorMovimientos[] observadores = SIN_OBSERVADORES;
+    
+    // Diario donde está registrada la cuenta (null si no hay): cada cambio de
+    // saldo y su notificación se hacen con su orden tomado (ver entrarDiario)
+    private volatile DiarioTransacciones diario;
+    
+    // Destino de los mensajes de las operaciones (compartido por todas las cuentas)
+    private static volatile Bitacora bitacora = new BitacoraConsola();
+    
+    // Métricas de las operaciones (null = desactivadas)
+    private static volatile MetricasOperaciones metricas;
+    
+    // Límites de velocidad de los débitos (null = sin límites)
+    private static volatile ControlVelocidad controlVelocidad;
     
     // Constructor por defecto
     public CuentaBancaria() {
@@ -15,14 +38,19 @@ public class CuentaBancaria {
         this.usuario = "";
         this.moneda = "ARS"; // Peso argentino por defecto
         this.activa = true;
+        this.decimales = Monedas.decimales(Monedas.ARS);
+        this.idMoneda = Monedas.ARS;
     }
     
     // Constructor con parámetros
     public CuentaBancaria(int id, String usuario, String moneda, boolean activa) {
         this.id = id;
         this.usuario = usuario;
-        this.moneda = moneda;
         this.activa = activa;
+        // El código se normaliza una sola vez y de él salen el número y los decimales
+        this.idMoneda = Monedas.id(moneda);
+        this.moneda = Monedas.codigo(idMoneda);
+        this.decimales = Monedas.decimales(idMoneda);
     }
     
     // Getters (métodos de acceso)
@@ -42,33 +70,221 @@ public class CuentaBancaria {
         return activa;
     }
     
+    public int getDecimales() {
+        return decimales;
+    }
+    
+    public int getIdMoneda() {
+        return idMoneda;
+    }
+    
+    public static Bitacora getBitacora() {
+        return bitacora;
+    }
+    
+    /**
+     * Cambia el destino de los mensajes de todas las cuentas
+     * Con Bitacora.DESACTIVADA las operaciones no arman ni imprimen mensajes
+     */
+    public static void setBitacora(Bitacora bitacora) {
+        CuentaBancaria.bitacora = bitacora != null ? bitacora : Bitacora.DESACTIVADA;
+    }
+    
+    // Las subclases consultan esto antes de armar un mensaje concatenado
+    protected static boolean bitacoraHabilitada() {
+        return bitacora.habilitada();
+    }
+    
+    protected static void registrar(String mensaje) {
+        Bitacora actual = bitacora;
+        if (actual.habilitada()) {
+            actual.registrar(mensaje);
+        }
+    }
+    
+    public static MetricasOperaciones getMetricas() {
+        return metricas;
+    }
+    
+    /**
+     * Activa las métricas de las operaciones de todas las cuentas (null las desactiva)
+     */
+    public static void setMetricas(MetricasOperaciones metricas) {
+        CuentaBancaria.metricas = metricas;
+    }
+    
+    // Las subclases llaman a esto al empezar una operación y a medir() al terminarla
+    protected static long inicioMedicion() {
+        return metricas != null ? System.nanoTime() : 0L;
+    }
+    
+    protected static ResultadoOperacion medir(TipoOperacion tipo, ResultadoOperacion resultado, long inicio) {
+        MetricasOperaciones actual = metricas;
+        // inicio == 0: las métricas se activaron durante la operación
+        if (actual != null && inicio != 0L) {
+            actual.registrar(tipo, resultado, System.nanoTime() - inicio);
+        }
+        return resultado;
+    }
+    
+    // Para los constructores: un importe en double que no es finito o no
+    // entra en un long (ver Dinero.desdeDouble) no puede ser un saldo
+    protected long unidadesMinimasValidas(double monto, String descripcion) {
+        long unidadesMinimas = Dinero.desdeDouble(monto, decimales);
+        if (unidadesMinimas == Dinero.INVALIDO) {
+            throw new IllegalArgumentException(descripcion + " inválido: " + monto);
+        }
+        return unidadesMinimas;
+    }
+    
+    // Las operaciones exitosas completan el comprobante con los saldos de su
+    // CAS; esto completa el de las rechazadas (comprobante puede ser null)
+    protected static ResultadoOperacion comprobar(ResultadoOperacion resultado, ComprobanteOperacion comprobante) {
+        if (comprobante != null && resultado != ResultadoOperacion.EXITO) {
+            comprobante.rechazar(resultado);
+        }
+        return resultado;
+    }
+    
+    protected static void completar(ComprobanteOperacion comprobante, long saldoAnterior, long saldoNuevo) {
+        if (comprobante != null) {
+            comprobante.completar(ResultadoOperacion.EXITO, saldoAnterior, saldoNuevo);
+        }
+    }
+    
+    public static ControlVelocidad getControlVelocidad() {
+        return controlVelocidad;
+    }
+    
+    /**
+     * Activa los límites de velocidad de las extracciones y cheques de todas
+     * las cuentas (null los desactiva)
+     */
+    public static void setControlVelocidad(ControlVelocidad controlVelocidad) {
+        CuentaBancaria.controlVelocidad = controlVelocidad;
+    }
+    
+    // Las subclases llaman a esto antes de un débito: devuelve
+    // ControlVelocidad.RECHAZADA si supera algún límite y, si no, el instante
+    // con que quedó registrado, para pasárselo a deshacerVelocidad si el
+    // débito después no se hace
+    protected long admitirVelocidad(long monto) {
+        ControlVelocidad actual = controlVelocidad;
+        return actual != null ? actual.admitir(id, monto) : 0L;
+    }
+    
+    protected void deshacerVelocidad(long monto, long instante) {
+        ControlVelocidad actual = controlVelocidad;
+        if (actual != null) {
+            actual.deshacer(id, monto, instante);
+        }
+    }
+    
     // Setters (métodos de modificación)
     public void setId(int id) {
         if (id > 0) {
             this.id = id;
+            notificarCambioDatos();
         } else {
-            System.out.println("Error: El ID debe ser mayor a 0");
+            registrar("Error: El ID debe ser mayor a 0");
         }
     }
     
     public void setUsuario(String usuario) {
         if (usuario != null && !usuario.trim().isEmpty()) {
             this.usuario = usuario;
+            notificarCambioDatos();
         } else {
-            System.out.println("Error: El usuario no puede estar vacío");
+            registrar("Error: El usuario no puede estar vacío");
         }
     }
     
     public void setMoneda(String moneda) {
         if (moneda != null && !moneda.trim().isEmpty()) {
-            this.moneda = moneda.toUpperCase();
+            int nuevoIdMoneda = Monedas.id(moneda);
+            // El saldo se reescala: en el diario va en orden con los movimientos
+            DiarioTransacciones diarioActual = entrarDiario();
+            try {
+                this.moneda = Monedas.codigo(nuevoIdMoneda);
+                this.idMoneda = nuevoIdMoneda;
+                int decimalesAnteriores = decimales;
+                decimales = Monedas.decimales(nuevoIdMoneda);
+                if (decimales != decimalesAnteriores) {
+                    alCambiarDecimales(decimalesAnteriores, decimales);
+                }
+                notificarCambioDatos();
+            } finally {
+                salirDiario(diarioActual);
+            }
         } else {
-            System.out.println("Error: La moneda no puede estar vacía");
+            registrar("Error: La moneda no puede estar vacía");
         }
     }
     
     public void setActiva(boolean activa) {
         this.activa = activa;
+        notificarCambioDatos();
+    }
+    
+    /**
+     * Las subclases que guardan importes en unidades mínimas los reescalan
+     * cuando la nueva moneda tiene otra cantidad de decimales
+     */
+    protected void alCambiarDecimales(int decimalesAnteriores, int decimalesNuevos) {
+    }
+    
+    public synchronized void agregarObservador(ObservadorMovimientos observador) {
+        ObservadorMovimientos[] nuevos = Arrays.copyOf(observadores, observadores.length + 1);
+        nuevos[nuevos.length - 1] = observador;
+        observadores = nuevos;
+    }
+    
+    public synchronized void quitarObservador(ObservadorMovimientos observador) {
+        for (int i = 0; i < observadores.length; i++) {
+            if (observadores[i] == observador) {
+                ObservadorMovimientos[] nuevos = new ObservadorMovimientos[observadores.length - 1];
+                System.arraycopy(observadores, 0, nuevos, 0, i);
+                System.arraycopy(observadores, i + 1, nuevos, i, nuevos.length - i);
+                observadores = nuevos.length == 0 ? SIN_OBSERVADORES : nuevos;
+                return;
+            }
+        }
+    }
+    
+    // Usado por DiarioTransacciones al registrar la cuenta (null al cerrarse)
+    void setDiario(DiarioTransacciones diario) {
+        this.diario = diario;
+    }
+    
+    // Las subclases encierran cada cambio de saldo y su notificarMovimiento
+    // entre entrarDiario y salirDiario (en un finally). Si la cuenta está en
+    // un diario, así el diario los registra en el mismo orden en que otras
+    // operaciones pudieron verlos; sin diario no toma ningún lock
+    protected final DiarioTransacciones entrarDiario() {
+        DiarioTransacciones actual = diario;
+        if (actual != null) {
+            actual.entrar();
+        }
+        return actual;
+    }
+    
+    protected static void salirDiario(DiarioTransacciones diario) {
+        if (diario != null) {
+            diario.salir();
+        }
+    }
+    
+    // Las subclases llaman a esto después de cada cambio de saldo
+    protected void notificarMovimiento(TipoOperacion tipo, long monto, long saldoAnterior, long saldoNuevo) {
+        for (ObservadorMovimientos observador : observadores) {
+            observador.alMovimiento(this, tipo, monto, saldoAnterior, saldoNuevo);
+        }
+    }
+    
+    protected void notificarCambioDatos() {
+        for (ObservadorMovimientos observador : observadores) {
+            observador.alCambiarDatos(this);
+        }
     }
     
     // Método para mostrar información de la cuenta
@@ -83,13 +299,15 @@ public class CuentaBancaria {
     // Método para activar la cuenta
     public void activar() {
         this.activa = true;
-        System.out.println("Cuenta activada correctamente");
+        notificarCambioDatos();
+        registrar("Cuenta activada correctamente");
     }
     
     // Método para desactivar la cuenta
     public void desactivar() {
         this.activa = false;
-        System.out.println("Cuenta desactivada correctamente");
+        notificarCambioDatos();
+        registrar("Cuenta desactivada correctamente");
     }
     
     @Override
@@ -0,0 +1,32 @@
+/**
+ * Interfaz común de las cuentas que manejan saldo (CajaDeAhorro y CuentaCorriente)
+ * Permite operar sobre cualquiera de las dos sin conocer su tipo concreto
+ */
+public interface CuentaConSaldo {
+
+    int getId();
+
+    boolean isActiva();
+
+    String getMoneda();
+
+    int getIdMoneda();
+
+    int getDecimales();
+
+    double getSaldo();
+
+    long getSaldoEnUnidadesMinimas();
+
+    ResultadoOperacion depositar(double monto);
+
+    ResultadoOperacion extraer(double monto);
+
+    ResultadoOperacion depositarUnidadesMinimas(long monto);
+
+    ResultadoOperacion extraerUnidadesMinimas(long monto);
+
+    ResultadoOperacion depositarUnidadesMinimas(long monto, ComprobanteOperacion comprobante);
+
+    ResultadoOperacion extraerUnidadesMinimas(long monto, ComprobanteOperacion comprobante);
+}
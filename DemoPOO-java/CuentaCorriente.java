@@ -1,156 +1,446 @@
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
  * Clase que representa una Cuenta Corriente
  * Hereda de CuentaBancaria
  * Las cuentas corrientes permiten girar en descubierto hasta un límite
  */
-public class CuentaCorriente extends CuentaBancaria {
+public class CuentaCorriente extends CuentaBancaria implements CuentaConSaldo {
     // Atributos específicos de Cuenta Corriente
-    private double saldo;
-    private double limiteDescubierto;
-    private double comisionMantenimiento;
+    // Los importes se guardan en unidades mínimas de la moneda (ver Dinero)
+    // El saldo se modifica con operaciones atómicas (CAS) para soportar varios hilos
+    private final SaldoAtomico saldo;
+    private volatile long limiteDescubierto;
+    private volatile long comisionMantenimiento;
+    // Último ciclo en que se cobró la comisión con cobrarComisionMantenimiento(ciclo)
+    private final AtomicInteger ultimoCicloComision = new AtomicInteger();
     
     // Constructor por defecto
     public CuentaCorriente() {
         super(); // Llama al constructor de la clase padre
-        this.saldo = 0.0;
-        this.limiteDescubierto = 10000.0; // $10,000 por defecto
-        this.comisionMantenimiento = 500.0; // $500 por defecto
+        this.saldo = new SaldoAtomico(0L);
+        this.limiteDescubierto = Dinero.desdeDouble(10000.0, getDecimales()); // $10,000 por defecto
+        this.comisionMantenimiento = Dinero.desdeDouble(500.0, getDecimales()); // $500 por defecto
     }
     
     // Constructor con parámetros
-    public CuentaCorriente(int id, String usuario, String moneda, boolean activa, 
+    public CuentaCorriente(int id, String usuario, String moneda, boolean activa,
                           double saldo, double limiteDescubierto, double comisionMantenimiento) {
         super(id, usuario, moneda, activa); // Llama al constructor de la clase padre
-        this.saldo = saldo;
-        this.limiteDescubierto = limiteDescubierto;
-        this.comisionMantenimiento = comisionMantenimiento;
+        this.saldo = new SaldoAtomico(unidadesMinimasValidas(saldo, "Saldo"));
+        this.limiteDescubierto = unidadesMinimasValidas(limiteDescubierto, "Límite de descubierto");
+        this.comisionMantenimiento = unidadesMinimasValidas(comisionMantenimiento, "Comisión de mantenimiento");
     }
     
     // Getters específicos
     public double getSaldo() {
-        return saldo;
+        return aDouble(saldo.get());
+    }
+    
+    public long getSaldoEnUnidadesMinimas() {
+        return saldo.get();
     }
     
     public double getLimiteDescubierto() {
+        return aDouble(limiteDescubierto);
+    }
+    
+    public long getLimiteDescubiertoEnUnidadesMinimas() {
         return limiteDescubierto;
     }
     
     public double getComisionMantenimiento() {
+        return aDouble(comisionMantenimiento);
+    }
+    
+    public long getComisionMantenimientoEnUnidadesMinimas() {
         return comisionMantenimiento;
     }
     
+    public int getUltimoCicloComision() {
+        return ultimoCicloComision.get();
+    }
+    
     // Setters específicos
     public void setSaldo(double saldo) {
-        this.saldo = saldo;
+        long nuevoSaldo = Dinero.desdeDouble(saldo, getDecimales());
+        if (nuevoSaldo == Dinero.INVALIDO) {
+            registrar("Error: El saldo no es un importe válido");
+            return;
+        }
+        DiarioTransacciones diario = entrarDiario();
+        try {
+            long saldoAnterior = this.saldo.set(nuevoSaldo);
+            notificarMovimiento(TipoOperacion.AJUSTE_SALDO, nuevoSaldo - saldoAnterior, saldoAnterior, nuevoSaldo);
+        } finally {
+            salirDiario(diario);
+        }
     }
     
     public void setLimiteDescubierto(double limiteDescubierto) {
-        if (limiteDescubierto >= 0) {
-            this.limiteDescubierto = limiteDescubierto;
+        long limite = Dinero.desdeDouble(limiteDescubierto, getDecimales());
+        if (limite == Dinero.INVALIDO) {
+            registrar("Error: El límite de descubierto no es un importe válido");
+        } else if (limiteDescubierto >= 0) {
+            this.limiteDescubierto = limite;
+            notificarCambioDatos();
         } else {
-            System.out.println("Error: El límite de descubierto no puede ser negativo");
+            registrar("Error: El límite de descubierto no puede ser negativo");
         }
     }
     
     public void setComisionMantenimiento(double comisionMantenimiento) {
-        if (comisionMantenimiento >= 0) {
-            this.comisionMantenimiento = comisionMantenimiento;
+        long comision = Dinero.desdeDouble(comisionMantenimiento, getDecimales());
+        if (comision == Dinero.INVALIDO) {
+            registrar("Error: La comisión de mantenimiento no es un importe válido");
+        } else if (comisionMantenimiento >= 0) {
+            this.comisionMantenimiento = comision;
+            notificarCambioDatos();
         } else {
-            System.out.println("Error: La comisión de mantenimiento no puede ser negativa");
+            registrar("Error: La comisión de mantenimiento no puede ser negativa");
         }
     }
     
+    @Override
+    protected void alCambiarDecimales(int decimalesAnteriores, int decimalesNuevos) {
+        saldo.reescalar(decimalesAnteriores, decimalesNuevos);
+        limiteDescubierto = Dinero.reescalar(limiteDescubierto, decimalesAnteriores, decimalesNuevos);
+        comisionMantenimiento = Dinero.reescalar(comisionMantenimiento, decimalesAnteriores, decimalesNuevos);
+    }
+    
+    // Usado al reconstruir la cuenta desde el diario: no notifica ni registra mensajes
+    void restaurar(long saldo, long limiteDescubierto, long comisionMantenimiento, int ultimoCicloComision) {
+        this.saldo.set(saldo);
+        this.limiteDescubierto = limiteDescubierto;
+        this.comisionMantenimiento = comisionMantenimiento;
+        this.ultimoCicloComision.set(ultimoCicloComision);
+    }
+    
     // Métodos específicos de Cuenta Corriente
+    // Devuelven el resultado de la operación; los mensajes van a la bitácora
     
     /**
      * Método para depositar dinero en la cuenta corriente
      */
-    public void depositar(double monto) {
-        if (monto > 0 && isActiva()) {
-            saldo += monto;
-            System.out.println("Depósito exitoso. Nuevo saldo: " + saldo + " " + getMoneda());
-        } else if (!isActiva()) {
-            System.out.println("Error: La cuenta está inactiva");
-        } else {
-            System.out.println("Error: El monto debe ser mayor a 0");
+    public ResultadoOperacion depositar(double monto) {
+        return depositarUnidadesMinimas(Dinero.desdeDouble(monto, getDecimales()));
+    }
+    
+    /**
+     * Depósito con el monto ya expresado en unidades mínimas de la moneda
+     */
+    public ResultadoOperacion depositarUnidadesMinimas(long monto) {
+        return depositarUnidadesMinimas(monto, null);
+    }
+    
+    /**
+     * Depósito que además deja en el comprobante el saldo resultante
+     */
+    public ResultadoOperacion depositarUnidadesMinimas(long monto, ComprobanteOperacion comprobante) {
+        long inicio = inicioMedicion();
+        ResultadoOperacion resultado = depositarUnidadesMinimasSinMedir(monto, comprobante);
+        return medir(TipoOperacion.DEPOSITO, comprobar(resultado, comprobante), inicio);
+    }
+    
+    private ResultadoOperacion depositarUnidadesMinimasSinMedir(long monto, ComprobanteOperacion comprobante) {
+        if (!isActiva()) {
+            registrar("Error: La cuenta está inactiva");
+            return ResultadoOperacion.CUENTA_INACTIVA;
+        }
+        if (monto <= 0) {
+            registrar("Error: El monto debe ser mayor a 0");
+            return ResultadoOperacion.MONTO_INVALIDO;
+        }
+        long nuevoSaldo;
+        DiarioTransacciones diario = entrarDiario();
+        try {
+            nuevoSaldo = saldo.sumar(monto);
+            if (nuevoSaldo == SaldoAtomico.DESBORDE) {
+                registrar("Error: El saldo resultante está fuera de rango");
+                return ResultadoOperacion.SALDO_FUERA_DE_RANGO;
+            }
+            completar(comprobante, nuevoSaldo - monto, nuevoSaldo);
+            notificarMovimiento(TipoOperacion.DEPOSITO, monto, nuevoSaldo - monto, nuevoSaldo);
+        } finally {
+            salirDiario(diario);
         }
+        if (bitacoraHabilitada()) {
+            registrar("Depósito exitoso. Nuevo saldo: " + aDouble(nuevoSaldo) + " " + getMoneda());
+        }
+        return ResultadoOperacion.EXITO;
     }
     
     /**
      * Método para extraer dinero de la cuenta corriente (permite descubierto)
      */
-    public void extraer(double monto) {
-        if (monto > 0 && isActiva()) {
-            double saldoDisponible = saldo + limiteDescubierto;
-            if (monto <= saldoDisponible) {
-                saldo -= monto;
-                System.out.println("Extracción exitosa. Nuevo saldo: " + saldo + " " + getMoneda());
-                
-                // Verificar si está en descubierto
-                if (saldo < 0) {
-                    System.out.println("¡ATENCIÓN! La cuenta está en descubierto por: " + 
-                                     Math.abs(saldo) + " " + getMoneda());
+    public ResultadoOperacion extraer(double monto) {
+        return extraerUnidadesMinimas(Dinero.desdeDouble(monto, getDecimales()));
+    }
+    
+    /**
+     * Extracción con el monto ya expresado en unidades mínimas de la moneda
+     */
+    public ResultadoOperacion extraerUnidadesMinimas(long monto) {
+        return extraerUnidadesMinimas(monto, null);
+    }
+    
+    /**
+     * Extracción que además deja en el comprobante el saldo resultante
+     */
+    public ResultadoOperacion extraerUnidadesMinimas(long monto, ComprobanteOperacion comprobante) {
+        long inicio = inicioMedicion();
+        ResultadoOperacion resultado = extraerUnidadesMinimasSinMedir(monto, comprobante);
+        return medir(TipoOperacion.EXTRACCION, comprobar(resultado, comprobante), inicio);
+    }
+    
+    private ResultadoOperacion extraerUnidadesMinimasSinMedir(long monto, ComprobanteOperacion comprobante) {
+        if (!isActiva()) {
+            registrar("Error: La cuenta está inactiva");
+            return ResultadoOperacion.CUENTA_INACTIVA;
+        }
+        if (monto <= 0) {
+            registrar("Error: El monto debe ser mayor a 0");
+            return ResultadoOperacion.MONTO_INVALIDO;
+        }
+        long instante = admitirVelocidad(monto);
+        if (instante == ControlVelocidad.RECHAZADA) {
+            registrar("Error: Se superó el límite de velocidad de la cuenta");
+            return ResultadoOperacion.LIMITE_VELOCIDAD_EXCEDIDO;
+        }
+        // La verificación contra saldo + límite y la resta son una única operación atómica
+        long limite = limiteDescubierto;
+        long nuevoSaldo;
+        DiarioTransacciones diario = entrarDiario();
+        try {
+            nuevoSaldo = saldo.restarSiAlcanza(monto, -limite);
+            if (nuevoSaldo == SaldoAtomico.RECHAZADO) {
+                deshacerVelocidad(monto, instante);
+                if (bitacoraHabilitada()) {
+                    registrar("Error: Excede el límite de descubierto disponible");
+                    registrar("Saldo disponible: " + aDouble(saldo.get() + limite) + " " + getMoneda());
                 }
-            } else {
-                System.out.println("Error: Excede el límite de descubierto disponible");
-                System.out.println("Saldo disponible: " + saldoDisponible + " " + getMoneda());
+                return ResultadoOperacion.SALDO_INSUFICIENTE;
+            }
+            completar(comprobante, nuevoSaldo + monto, nuevoSaldo);
+            notificarMovimiento(TipoOperacion.EXTRACCION, monto, nuevoSaldo + monto, nuevoSaldo);
+        } finally {
+            salirDiario(diario);
+        }
+        if (bitacoraHabilitada()) {
+            registrar("Extracción exitosa. Nuevo saldo: " + aDouble(nuevoSaldo) + " " + getMoneda());
+    
+            // Verificar si está en descubierto
+            if (nuevoSaldo < 0) {
+                registrar("¡ATENCIÓN! La cuenta está en descubierto por: " +
+                          aDouble(-nuevoSaldo) + " " + getMoneda());
             }
-        } else if (!isActiva()) {
-            System.out.println("Error: La cuenta está inactiva");
-        } else {
-            System.out.println("Error: El monto debe ser mayor a 0");
         }
+        return ResultadoOperacion.EXITO;
     }
     
     /**
      * Método para emitir un cheque
      */
-    public void emitirCheque(double monto, String beneficiario) {
-        if (monto > 0 && isActiva()) {
-            System.out.println("=== EMISIÓN DE CHEQUE ===");
-            System.out.println("Beneficiario: " + beneficiario);
-            System.out.println("Monto: " + monto + " " + getMoneda());
-            
-            // Verificar si tiene fondos suficientes (incluyendo límite de descubierto)
-            double saldoDisponible = saldo + limiteDescubierto;
-            if (monto <= saldoDisponible) {
-                saldo -= monto;
-                System.out.println("Cheque emitido exitosamente");
-                System.out.println("Nuevo saldo: " + saldo + " " + getMoneda());
-                
-                if (saldo < 0) {
-                    System.out.println("¡ATENCIÓN! La cuenta está en descubierto por: " + 
-                                     Math.abs(saldo) + " " + getMoneda());
+    public ResultadoOperacion emitirCheque(double monto, String beneficiario) {
+        return emitirChequeUnidadesMinimas(Dinero.desdeDouble(monto, getDecimales()), beneficiario);
+    }
+    
+    /**
+     * Emisión de cheque con el monto ya expresado en unidades mínimas de la moneda
+     */
+    public ResultadoOperacion emitirChequeUnidadesMinimas(long monto, String beneficiario) {
+        return emitirChequeUnidadesMinimas(monto, beneficiario, null);
+    }
+    
+    /**
+     * Emisión de cheque que además deja en el comprobante el saldo resultante
+     */
+    public ResultadoOperacion emitirChequeUnidadesMinimas(long monto, String beneficiario,
+                                                          ComprobanteOperacion comprobante) {
+        long inicio = inicioMedicion();
+        ResultadoOperacion resultado = emitirChequeUnidadesMinimasSinMedir(monto, beneficiario, comprobante);
+        return medir(TipoOperacion.CHEQUE, comprobar(resultado, comprobante), inicio);
+    }
+    
+    private ResultadoOperacion emitirChequeUnidadesMinimasSinMedir(long monto, String beneficiario,
+                                                                   ComprobanteOperacion comprobante) {
+        if (!isActiva()) {
+            registrar("Error: La cuenta está inactiva");
+            return ResultadoOperacion.CUENTA_INACTIVA;
+        }
+        if (monto <= 0) {
+            registrar("Error: El monto debe ser mayor a 0");
+            return ResultadoOperacion.MONTO_INVALIDO;
+        }
+        if (bitacoraHabilitada()) {
+            registrar("=== EMISIÓN DE CHEQUE ===");
+            registrar("Beneficiario: " + beneficiario);
+            registrar("Monto: " + aDouble(monto) + " " + getMoneda());
+        }
+    
+        long instante = admitirVelocidad(monto);
+        if (instante == ControlVelocidad.RECHAZADA) {
+            registrar("Error: Se superó el límite de velocidad de la cuenta");
+            return ResultadoOperacion.LIMITE_VELOCIDAD_EXCEDIDO;
+        }
+    
+        // Verificar si tiene fondos suficientes (incluyendo límite de descubierto)
+        long limite = limiteDescubierto;
+        long nuevoSaldo;
+        DiarioTransacciones diario = entrarDiario();
+        try {
+            nuevoSaldo = saldo.restarSiAlcanza(monto, -limite);
+            if (nuevoSaldo == SaldoAtomico.RECHAZADO) {
+                deshacerVelocidad(monto, instante);
+                if (bitacoraHabilitada()) {
+                    registrar("Error: Fondos insuficientes para emitir el cheque");
+                    registrar("Saldo disponible: " + aDouble(saldo.get() + limite) + " " + getMoneda());
                 }
-            } else {
-                System.out.println("Error: Fondos insuficientes para emitir el cheque");
-                System.out.println("Saldo disponible: " + saldoDisponible + " " + getMoneda());
+                return ResultadoOperacion.SALDO_INSUFICIENTE;
+            }
+            completar(comprobante, nuevoSaldo + monto, nuevoSaldo);
+            notificarMovimiento(TipoOperacion.CHEQUE, monto, nuevoSaldo + monto, nuevoSaldo);
+        } finally {
+            salirDiario(diario);
+        }
+        if (bitacoraHabilitada()) {
+            registrar("Cheque emitido exitosamente");
+            registrar("Nuevo saldo: " + aDouble(nuevoSaldo) + " " + getMoneda());
+    
+            if (nuevoSaldo < 0) {
+                registrar("¡ATENCIÓN! La cuenta está en descubierto por: " +
+                          aDouble(-nuevoSaldo) + " " + getMoneda());
             }
-        } else if (!isActiva()) {
-            System.out.println("Error: La cuenta está inactiva");
-        } else {
-            System.out.println("Error: El monto debe ser mayor a 0");
         }
+        return ResultadoOperacion.EXITO;
     }
     
     /**
      * Método para cobrar comisión de mantenimiento
      */
-    public void cobrarComisionMantenimiento() {
-        if (isActiva()) {
-            saldo -= comisionMantenimiento;
-            System.out.println("Comisión de mantenimiento cobrada: " + comisionMantenimiento + " " + getMoneda());
-            System.out.println("Nuevo saldo: " + saldo + " " + getMoneda());
-        } else {
-            System.out.println("Error: La cuenta está inactiva");
+    public ResultadoOperacion cobrarComisionMantenimiento() {
+        long inicio = inicioMedicion();
+        return medir(TipoOperacion.COMISION, cobrarComisionMantenimientoSinMedir(), inicio);
+    }
+    
+    private ResultadoOperacion cobrarComisionMantenimientoSinMedir() {
+        if (!isActiva()) {
+            registrar("Error: La cuenta está inactiva");
+            return ResultadoOperacion.CUENTA_INACTIVA;
         }
+        if (debitarComision(null) == SaldoAtomico.DESBORDE) {
+            return ResultadoOperacion.SALDO_FUERA_DE_RANGO;
+        }
+        return ResultadoOperacion.EXITO;
+    }
+    
+    /**
+     * Cobra la comisión de mantenimiento del ciclo indicado (por ejemplo,
+     * 202610 para octubre de 2026) solo si todavía no se cobró ese ciclo
+     * La marca de ciclo se actualiza con CAS antes de debitar, así que aunque
+     * se reintente o varios hilos lo llamen a la vez se cobra una sola vez
+     */
+    public ResultadoOperacion cobrarComisionMantenimiento(int ciclo) {
+        long inicio = inicioMedicion();
+        return medir(TipoOperacion.COMISION, cobrarComisionMantenimientoSinMedir(ciclo), inicio);
+    }
+    
+    private ResultadoOperacion cobrarComisionMantenimientoSinMedir(int ciclo) {
+        if (!isActiva()) {
+            registrar("Error: La cuenta está inactiva");
+            return ResultadoOperacion.CUENTA_INACTIVA;
+        }
+        long nuevoSaldo = cobrarComisionDelCiclo(ciclo, null);
+        if (nuevoSaldo == SaldoAtomico.RECHAZADO) {
+            return ResultadoOperacion.YA_COBRADA;
+        }
+        return nuevoSaldo == SaldoAtomico.DESBORDE ? ResultadoOperacion.SALDO_FUERA_DE_RANGO : ResultadoOperacion.EXITO;
+    }
+    
+    // Usado por CobroComisiones: devuelve el nuevo saldo, RECHAZADO si el
+    // ciclo ya estaba cobrado o DESBORDE si el saldo quedaría fuera de rango
+    // (no verifica si la cuenta está activa). Si se cobró y comisionCobrada
+    // no es null, deja en comisionCobrada[0] el monto que se debitó
+    long cobrarComisionDelCiclo(int ciclo, long[] comisionCobrada) {
+        while (true) {
+            int actual = ultimoCicloComision.get();
+            if (actual >= ciclo) {
+                if (bitacoraHabilitada()) {
+                    registrar("La comisión del ciclo " + ciclo + " ya fue cobrada");
+                }
+                return SaldoAtomico.RECHAZADO;
+            }
+            if (ultimoCicloComision.compareAndSet(actual, ciclo)) {
+                long nuevoSaldo = debitarComision(comisionCobrada);
+                if (nuevoSaldo == SaldoAtomico.DESBORDE) {
+                    // No se cobró: el ciclo queda pendiente
+                    ultimoCicloComision.compareAndSet(ciclo, actual);
+                }
+                return nuevoSaldo;
+            }
+        }
+    }
+    
+    // Usado por Transferencias para devolver un débito cuando el crédito no se
+    // pudo hacer (se acredita aunque la cuenta se haya desactivado en el medio)
+    void reintegrar(long monto) {
+        DiarioTransacciones diario = entrarDiario();
+        try {
+            long nuevoSaldo = saldo.sumarExacto(monto);
+            notificarMovimiento(TipoOperacion.REINTEGRO, monto, nuevoSaldo - monto, nuevoSaldo);
+        } finally {
+            salirDiario(diario);
+        }
+    }
+    
+    // Usado por CamaraCompensacion: devuelve el monto de un cheque rechazado
+    // (se acredita aunque la cuenta se haya desactivado después de emitirlo)
+    void revertirCheque(long monto, String beneficiario) {
+        DiarioTransacciones diario = entrarDiario();
+        try {
+            long nuevoSaldo = saldo.sumarExacto(monto);
+            notificarMovimiento(TipoOperacion.CHEQUE_RECHAZADO, monto, nuevoSaldo - monto, nuevoSaldo);
+        } finally {
+            salirDiario(diario);
+        }
+        if (bitacoraHabilitada()) {
+            registrar("Cheque a " + beneficiario + " rechazado. Se devolvieron " + aDouble(monto) + " " + getMoneda());
+        }
+    }
+    
+    private long debitarComision(long[] comisionCobrada) {
+        long comision = comisionMantenimiento;
+        long nuevoSaldo;
+        DiarioTransacciones diario = entrarDiario();
+        try {
+            nuevoSaldo = saldo.sumar(-comision);
+            if (nuevoSaldo == SaldoAtomico.DESBORDE) {
+                registrar("Error: El saldo resultante está fuera de rango");
+                return SaldoAtomico.DESBORDE;
+            }
+            notificarMovimiento(TipoOperacion.COMISION, comision, nuevoSaldo + comision, nuevoSaldo);
+            if (comisionCobrada != null) {
+                comisionCobrada[0] = comision;
+            }
+        } finally {
+            salirDiario(diario);
+        }
+        if (bitacoraHabilitada()) {
+            registrar("Comisión de mantenimiento cobrada: " + aDouble(comision) + " " + getMoneda());
+            registrar("Nuevo saldo: " + aDouble(nuevoSaldo) + " " + getMoneda());
+        }
+        return nuevoSaldo;
     }
     
     /**
      * Método para verificar si la cuenta está en descubierto
      */
     public boolean estaEnDescubierto() {
-        return saldo < 0;
+        return saldo.get() < 0;
+    }
+    
+    private double aDouble(long unidadesMinimas) {
+        return Dinero.aDouble(unidadesMinimas, getDecimales());
     }
     
     /**
@@ -160,9 +450,9 @@ public class CuentaCorriente extends CuentaBancaria {
     public void mostrarInformacion() {
         super.mostrarInformacion(); // Llama al método de la clase padre
         System.out.println("=== Información de Cuenta Corriente ===");
-        System.out.println("Saldo: " + saldo + " " + getMoneda());
-        System.out.println("Límite de Descubierto: " + limiteDescubierto + " " + getMoneda());
-        System.out.println("Comisión de Mantenimiento: " + comisionMantenimiento + " " + getMoneda());
+        System.out.println("Saldo: " + getSaldo() + " " + getMoneda());
+        System.out.println("Límite de Descubierto: " + getLimiteDescubierto() + " " + getMoneda());
+        System.out.println("Comisión de Mantenimiento: " + getComisionMantenimiento() + " " + getMoneda());
         System.out.println("Estado: " + (estaEnDescubierto() ? "EN DESCUBIERTO" : "NORMAL"));
     }
     
@@ -173,10 +463,9 @@ public class CuentaCorriente extends CuentaBancaria {
                 ", usuario='" + getUsuario() + '\'' +
                 ", moneda='" + getMoneda() + '\'' +
                 ", activa=" + isActiva() +
-                ", saldo=" + saldo +
-                ", limiteDescubierto=" + limiteDescubierto +
-                ", comisionMantenimiento=" + comisionMantenimiento +
+                ", saldo=" + getSaldo() +
+                ", limiteDescubierto=" + getLimiteDescubierto() +
+                ", comisionMantenimiento=" + getComisionMantenimiento() +
                 '}';
     }
 }
-
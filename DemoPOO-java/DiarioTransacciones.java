@@ -0,0 +1,725 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+/**
+ * Clase que guarda en disco todos los cambios de las cuentas y permite
+ * reconstruirlas después de una caída
+ *
+ * Orden de los registros: en las cuentas registradas, cada cambio de saldo
+ * (el CAS), su notificación y el registro en el diario se hacen con el lock
+ * 'orden' del diario tomado (ver CuentaBancaria.entrarDiario). Así el orden
+ * de los registros es el orden en que los cambios se hicieron visibles: si
+ * una operación vio el saldo que dejó otra, el registro de la otra está
+ * antes en el diario, y lo que se recupera después de una caída (un prefijo
+ * del diario) es siempre un estado que existió, nunca uno que dependa de un
+ * movimiento perdido. Lo que todavía no tiene fsync se puede perder, pero
+ * siempre desde el final
+ * Con esperarDurabilidad = true la operación además no vuelve a quien la
+ * pidió hasta que su registro está en disco (la espera se hace después de
+ * soltar 'orden', para no frenar a los demás hilos), así que nunca se
+ * confirma un movimiento que se pierde
+ * Los observadores de las cuentas registradas se llaman con 'orden' tomado:
+ * no deben tomar el monitor de una cuenta ni esperar a otro hilo que opere
+ * con cuentas del diario
+ *
+ * Los registros se agregan al final de archivos "segmento" mapeados en
+ * memoria. Un hilo propio hace fsync cada intervaloCommit milisegundos,
+ * cubriendo de una vez todos los registros acumulados (commit agrupado);
+ * con esperarDurabilidad = true cada operación espera ese fsync antes de
+ * volver
+ *
+ * Un checkpoint cierra el segmento actual, aplica los segmentos cerrados a
+ * una copia del estado de las cuentas, la guarda en checkpoint.dat y borra
+ * esos segmentos. Al abrir el diario se carga el checkpoint y solo se
+ * reproducen los segmentos posteriores, así que el tiempo de recuperación
+ * depende de lo que cambió desde el último checkpoint y no de toda la historia
+ *
+ * Los movimientos se guardan como diferencias de saldo
+ * Las cuentas deben registrarse con registrarAlta antes de operar con ellas
+ * No se soporta cambiar el id de una cuenta registrada
+ *
+ * El checkpoint y cada segmento llevan la versión del formato; al abrir un
+ * diario escrito con otra versión se lanza IOException en lugar de leer
+ * mal el estado
+ */
+public class DiarioTransacciones implements ObservadorMovimientos, Closeable {
+    // Tipos de registro
+    private static final byte REGISTRO_ALTA = 1;
+    private static final byte REGISTRO_MOVIMIENTO = 2;
+    private static final byte REGISTRO_DATOS = 3;
+    private static final byte REGISTRO_VERSION = 4;
+
+    // Versión del formato del estado de las cuentas (la 2 agregó el último
+    // ciclo de comisión); los checkpoints y segmentos de otra versión se rechazan
+    private static final int VERSION_FORMATO = 2;
+
+    // Tipos de cuenta
+    private static final byte CUENTA_BANCARIA = 0;
+    private static final byte CAJA_DE_AHORRO = 1;
+    private static final byte CUENTA_CORRIENTE = 2;
+
+    // Cada registro empieza con su longitud y el CRC32 del contenido
+    private static final int ENCABEZADO = 8;
+    private static final int MAXIMO_REGISTRO = 64 * 1024;
+    private static final int MAGIA_CHECKPOINT = 0x44494152;
+    private static final String ARCHIVO_CHECKPOINT = "checkpoint.dat";
+
+    private final Path directorio;
+    private final int capacidadSegmento;
+    private final long intervaloCommitMillis;
+    private final boolean esperarDurabilidad;
+    private final Map<Integer, CuentaBancaria> cuentas = new ConcurrentHashMap<>();
+
+    // Estado de las cuentas según los segmentos ya cerrados (base de los checkpoints)
+    private final Map<Integer, EstadoCuenta> estadoCerrado;
+    private long ultimoSegmentoAplicado;
+    private final Object bloqueoCheckpoint = new Object();
+
+    // Escritura: todo lo de este bloque se usa con el lock 'escritura' tomado
+    private final Object escritura = new Object();
+    private final ByteBuffer registro = ByteBuffer.allocate(MAXIMO_REGISTRO);
+    private final CRC32 crc = new CRC32();
+    private FileChannel canal;
+    private MappedByteBuffer segmento;
+    private long numeroSegmento;
+    private long ultimaSecuencia;
+
+    // Orden de los cambios de saldo de las cuentas registradas (ver entrar/salir)
+    private final ReentrantLock orden = new ReentrantLock();
+
+    // Durabilidad (commit agrupado)
+    private final Object durabilidad = new Object();
+    private volatile long secuenciaDurable;
+    private volatile boolean cerrado;
+    private final Thread hiloCommit;
+    private final ScheduledExecutorService checkpoints;
+
+    private final long nanosRecuperacion;
+    private final int segmentosReproducidos;
+
+    /**
+     * Abre el diario con valores por defecto: segmentos de 64 MB, commit cada
+     * 2 ms, checkpoint cada 60 segundos y sin esperar el fsync en cada operación
+     */
+    public static DiarioTransacciones abrir(Path directorio) throws IOException {
+        return new DiarioTransacciones(directorio, 64 * 1024 * 1024, 2, 60_000, false);
+    }
+
+    /**
+     * Abre (o crea) el diario del directorio y reconstruye las cuentas guardadas
+     *
+     * @param capacidadSegmento         tamaño en bytes de cada archivo de segmento
+     * @param intervaloCommitMillis     cada cuánto se hace fsync de lo escrito
+     * @param intervaloCheckpointMillis cada cuánto se hace un checkpoint (0 = solo manual)
+     * @param esperarDurabilidad        si cada operación espera a que su registro esté en disco
+     */
+    public DiarioTransacciones(Path directorio, int capacidadSegmento, long intervaloCommitMillis,
+                               long intervaloCheckpointMillis, boolean esperarDurabilidad) throws IOException {
+        if (capacidadSegmento < MAXIMO_REGISTRO || intervaloCommitMillis <= 0) {
+            throw new IllegalArgumentException("Capacidad de segmento o intervalo de commit inválidos");
+        }
+        this.directorio = directorio;
+        this.capacidadSegmento = capacidadSegmento;
+        this.intervaloCommitMillis = intervaloCommitMillis;
+        this.esperarDurabilidad = esperarDurabilidad;
+        Files.createDirectories(directorio);
+
+        // Recuperación: checkpoint + segmentos posteriores
+        long inicio = System.nanoTime();
+        this.estadoCerrado = new HashMap<>();
+        this.ultimoSegmentoAplicado = leerCheckpoint(directorio.resolve(ARCHIVO_CHECKPOINT), estadoCerrado);
+        int reproducidos = 0;
+        for (long numero : listarSegmentos()) {
+            if (numero > ultimoSegmentoAplicado) {
+                reproducirSegmento(numero, estadoCerrado);
+                ultimoSegmentoAplicado = numero;
+                reproducidos++;
+            }
+        }
+        for (EstadoCuenta estado : estadoCerrado.values()) {
+            CuentaBancaria cuenta = estado.crearCuenta();
+            cuentas.put(cuenta.getId(), cuenta);
+            cuenta.agregarObservador(this);
+            cuenta.setDiario(this);
+        }
+        this.segmentosReproducidos = reproducidos;
+        this.nanosRecuperacion = System.nanoTime() - inicio;
+
+        abrirSegmento(ultimoSegmentoAplicado + 1);
+
+        this.hiloCommit = new Thread(this::commitPeriodico, "diario-commit");
+        this.hiloCommit.setDaemon(true);
+        this.hiloCommit.start();
+        if (intervaloCheckpointMillis > 0) {
+            this.checkpoints = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread hilo = new Thread(r, "diario-checkpoint");
+                hilo.setDaemon(true);
+                return hilo;
+            });
+            this.checkpoints.scheduleWithFixedDelay(this::checkpointPeriodico,
+                    intervaloCheckpointMillis, intervaloCheckpointMillis, TimeUnit.MILLISECONDS);
+        } else {
+            this.checkpoints = null;
+        }
+    }
+
+    /**
+     * Cuentas reconstruidas al abrir más las registradas después, por id
+     */
+    public Map<Integer, CuentaBancaria> getCuentas() {
+        return Collections.unmodifiableMap(cuentas);
+    }
+
+    public long getNanosRecuperacion() {
+        return nanosRecuperacion;
+    }
+
+    public int getSegmentosReproducidos() {
+        return segmentosReproducidos;
+    }
+
+    public long getSecuenciaDurable() {
+        return secuenciaDurable;
+    }
+
+    /**
+     * Secuencia del último registro agregado, esté o no en disco todavía
+     * (para pasársela a esperarDurabilidad)
+     */
+    public long getUltimaSecuencia() {
+        synchronized (escritura) {
+            return ultimaSecuencia;
+        }
+    }
+
+    /**
+     * Guarda el alta de la cuenta y empieza a registrar sus cambios
+     * Devuelve false si ya había una cuenta registrada con ese id
+     */
+    public boolean registrarAlta(CuentaBancaria cuenta) {
+        if (cuentas.putIfAbsent(cuenta.getId(), cuenta) != null) {
+            return false;
+        }
+        long secuencia;
+        synchronized (escritura) {
+            iniciarRegistro(REGISTRO_ALTA);
+            escribirEstado(registro, EstadoCuenta.de(cuenta));
+            secuencia = confirmarRegistro();
+        }
+        // Sin 'orden' tomado: agregarObservador toma el monitor de la cuenta
+        cuenta.agregarObservador(this);
+        cuenta.setDiario(this);
+        if (esperarDurabilidad) {
+            esperarDurabilidad(secuencia);
+        }
+        return true;
+    }
+
+    // Lo llaman las cuentas antes de cambiar el saldo; es reentrante
+    void entrar() {
+        orden.lock();
+    }
+
+    // Suelta 'orden' y, al salir del último nivel, espera (si corresponde)
+    // a que esté en disco todo lo registrado hasta ahora
+    void salir() {
+        long hasta = getUltimaSecuencia();
+        orden.unlock();
+        if (esperarDurabilidad && !orden.isHeldByCurrentThread()) {
+            esperarDurabilidad(hasta);
+        }
+    }
+
+    @Override
+    public void alMovimiento(CuentaBancaria cuenta, TipoOperacion tipo, long monto, long saldoAnterior, long saldoNuevo) {
+        long secuencia;
+        synchronized (escritura) {
+            iniciarRegistro(REGISTRO_MOVIMIENTO);
+            registro.putInt(cuenta.getId());
+            registro.put((byte) tipo.ordinal());
+            registro.putLong(saldoNuevo - saldoAnterior);
+            if (tipo == TipoOperacion.COMISION && cuenta instanceof CuentaCorriente) {
+                // El ciclo viaja con el débito para no volver a cobrarlo después de una caída
+                registro.putInt(((CuentaCorriente) cuenta).getUltimoCicloComision());
+            }
+            secuencia = confirmarRegistro();
+        }
+        // Con 'orden' tomado la espera la hace salir()
+        if (esperarDurabilidad && !orden.isHeldByCurrentThread()) {
+            esperarDurabilidad(secuencia);
+        }
+    }
+
+    @Override
+    public void alCambiarDatos(CuentaBancaria cuenta) {
+        long secuencia;
+        synchronized (escritura) {
+            iniciarRegistro(REGISTRO_DATOS);
+            escribirEstado(registro, EstadoCuenta.de(cuenta));
+            secuencia = confirmarRegistro();
+        }
+        // Con 'orden' tomado la espera la hace salir()
+        if (esperarDurabilidad && !orden.isHeldByCurrentThread()) {
+            esperarDurabilidad(secuencia);
+        }
+    }
+
+    /**
+     * Bloquea hasta que el registro con esa secuencia esté en disco
+     */
+    public void esperarDurabilidad(long secuencia) {
+        if (secuenciaDurable >= secuencia) {
+            return;
+        }
+        synchronized (durabilidad) {
+            boolean interrumpido = false;
+            while (secuenciaDurable < secuencia && !cerrado) {
+                try {
+                    durabilidad.wait();
+                } catch (InterruptedException e) {
+                    interrumpido = true;
+                }
+            }
+            if (interrumpido) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Cierra el segmento actual y guarda un checkpoint con todo lo cerrado
+     */
+    public void checkpoint() throws IOException {
+        synchronized (bloqueoCheckpoint) {
+            long hasta;
+            synchronized (escritura) {
+                hasta = numeroSegmento;
+                abrirSegmento(numeroSegmento + 1);
+            }
+            for (long numero = ultimoSegmentoAplicado + 1; numero <= hasta; numero++) {
+                reproducirSegmento(numero, estadoCerrado);
+            }
+            ultimoSegmentoAplicado = hasta;
+            escribirCheckpoint(hasta);
+            for (long numero : listarSegmentos()) {
+                if (numero <= hasta) {
+                    Files.deleteIfExists(rutaSegmento(numero));
+                }
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (checkpoints != null) {
+            checkpoints.shutdownNow();
+        }
+        synchronized (escritura) {
+            segmento.force();
+            secuenciaDurable = ultimaSecuencia;
+            canal.close();
+        }
+        cerrado = true;
+        hiloCommit.interrupt();
+        synchronized (durabilidad) {
+            durabilidad.notifyAll();
+        }
+        for (CuentaBancaria cuenta : cuentas.values()) {
+            cuenta.quitarObservador(this);
+            cuenta.setDiario(null);
+        }
+    }
+
+    // ---- Escritura de registros ----
+
+    private void iniciarRegistro(byte tipo) {
+        registro.clear();
+        registro.position(ENCABEZADO);
+        registro.put(tipo);
+    }
+
+    // Completa el encabezado, copia el registro al segmento y devuelve su secuencia
+    private long confirmarRegistro() {
+        int longitud = registro.position() - ENCABEZADO;
+        crc.reset();
+        crc.update(registro.array(), ENCABEZADO, longitud);
+        registro.putInt(0, longitud);
+        registro.putInt(4, (int) crc.getValue());
+        registro.flip();
+        // Se deja siempre lugar para un encabezado vacío que marca el fin del segmento
+        if (segmento.remaining() < registro.limit() + ENCABEZADO) {
+            try {
+                abrirSegmento(numeroSegmento + 1);
+            } catch (IOException e) {
+                throw new IllegalStateException("No se pudo abrir un nuevo segmento del diario", e);
+            }
+        }
+        segmento.put(registro);
+        return ++ultimaSecuencia;
+    }
+
+    // Se llama con 'escritura' tomado (o desde el constructor)
+    private void abrirSegmento(long numero) throws IOException {
+        if (segmento != null) {
+            // Al cerrar un segmento se baja completo a disco
+            segmento.force();
+            canal.close();
+            synchronized (durabilidad) {
+                secuenciaDurable = ultimaSecuencia;
+                durabilidad.notifyAll();
+            }
+        }
+        canal = FileChannel.open(rutaSegmento(numero),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        segmento = canal.map(FileChannel.MapMode.READ_WRITE, 0, capacidadSegmento);
+        numeroSegmento = numero;
+        escribirVersion(segmento);
+    }
+
+    // Primer registro de cada segmento (no usa 'registro', que puede tener
+    // un registro a medio escribir cuando el segmento anterior se llenó)
+    private static void escribirVersion(ByteBuffer destino) {
+        ByteBuffer version = ByteBuffer.allocate(ENCABEZADO + 5);
+        version.position(ENCABEZADO);
+        version.put(REGISTRO_VERSION);
+        version.putInt(VERSION_FORMATO);
+        CRC32 verificador = new CRC32();
+        verificador.update(version.array(), ENCABEZADO, 5);
+        version.putInt(0, 5);
+        version.putInt(4, (int) verificador.getValue());
+        version.flip();
+        destino.put(version);
+    }
+
+    private void commitPeriodico() {
+        while (!cerrado) {
+            try {
+                Thread.sleep(intervaloCommitMillis);
+            } catch (InterruptedException e) {
+                return;
+            }
+            long hasta;
+            MappedByteBuffer actual;
+            synchronized (escritura) {
+                hasta = ultimaSecuencia;
+                actual = segmento;
+            }
+            if (hasta > secuenciaDurable) {
+                actual.force();
+                synchronized (durabilidad) {
+                    if (hasta > secuenciaDurable) {
+                        secuenciaDurable = hasta;
+                    }
+                    durabilidad.notifyAll();
+                }
+            }
+        }
+    }
+
+    private void checkpointPeriodico() {
+        try {
+            checkpoint();
+        } catch (IOException e) {
+            registrarError("Error al guardar el checkpoint del diario: " + e.getMessage());
+        }
+    }
+
+    private static void registrarError(String mensaje) {
+        Bitacora bitacora = CuentaBancaria.getBitacora();
+        if (bitacora.habilitada()) {
+            bitacora.registrar(mensaje);
+        }
+    }
+
+    // ---- Lectura y reproducción ----
+
+    private Path rutaSegmento(long numero) {
+        return directorio.resolve(String.format("segmento-%020d.log", numero));
+    }
+
+    private List<Long> listarSegmentos() throws IOException {
+        List<Long> numeros = new ArrayList<>();
+        try (DirectoryStream<Path> archivos = Files.newDirectoryStream(directorio, "segmento-*.log")) {
+            for (Path archivo : archivos) {
+                String nombre = archivo.getFileName().toString();
+                numeros.add(Long.parseLong(nombre.substring("segmento-".length(), nombre.length() - ".log".length())));
+            }
+        }
+        Collections.sort(numeros);
+        return numeros;
+    }
+
+    /**
+     * Aplica al estado los registros de un segmento, hasta el primer registro
+     * vacío o dañado (una escritura que no llegó a completarse)
+     * El primer registro tiene que ser el de la versión del formato
+     */
+    private void reproducirSegmento(long numero, Map<Integer, EstadoCuenta> estado) throws IOException {
+        Path ruta = rutaSegmento(numero);
+        if (!Files.exists(ruta)) {
+            return;
+        }
+        try (FileChannel lectura = FileChannel.open(ruta, StandardOpenOption.READ)) {
+            MappedByteBuffer datos = lectura.map(FileChannel.MapMode.READ_ONLY, 0, lectura.size());
+            CRC32 verificador = new CRC32();
+            byte[] contenido = new byte[MAXIMO_REGISTRO];
+            boolean primero = true;
+            while (datos.remaining() >= ENCABEZADO) {
+                int longitud = datos.getInt();
+                int crcEsperado = datos.getInt();
+                if (longitud <= 0 || longitud > MAXIMO_REGISTRO || longitud > datos.remaining()) {
+                    break;
+                }
+                datos.get(contenido, 0, longitud);
+                verificador.reset();
+                verificador.update(contenido, 0, longitud);
+                if ((int) verificador.getValue() != crcEsperado) {
+                    break;
+                }
+                if (primero) {
+                    verificarVersion(ruta, ByteBuffer.wrap(contenido, 0, longitud));
+                    primero = false;
+                    continue;
+                }
+                aplicarRegistro(ByteBuffer.wrap(contenido, 0, longitud), estado);
+            }
+        }
+    }
+
+    private static void verificarVersion(Path ruta, ByteBuffer contenido) throws IOException {
+        if (contenido.remaining() != 5 || contenido.get() != REGISTRO_VERSION) {
+            throw new IOException("El segmento " + ruta + " es de una versión anterior del formato del diario");
+        }
+        int version = contenido.getInt();
+        if (version != VERSION_FORMATO) {
+            throw new IOException("El segmento " + ruta + " tiene la versión de formato " + version
+                    + " y se esperaba la " + VERSION_FORMATO);
+        }
+    }
+
+    private static void aplicarRegistro(ByteBuffer contenido, Map<Integer, EstadoCuenta> estado) {
+        byte tipo = contenido.get();
+        if (tipo == REGISTRO_MOVIMIENTO) {
+            EstadoCuenta cuenta = estado.get(contenido.getInt());
+            byte operacion = contenido.get();
+            if (cuenta != null) {
+                cuenta.saldo += contenido.getLong();
+                if (operacion == TipoOperacion.COMISION.ordinal() && contenido.hasRemaining()) {
+                    cuenta.ultimoCicloComision = Math.max(cuenta.ultimoCicloComision, contenido.getInt());
+                }
+            }
+        } else if (tipo == REGISTRO_ALTA) {
+            EstadoCuenta nuevo = leerEstado(contenido);
+            estado.put(nuevo.id, nuevo);
+        } else if (tipo == REGISTRO_DATOS) {
+            EstadoCuenta datos = leerEstado(contenido);
+            EstadoCuenta actual = estado.get(datos.id);
+            if (actual != null) {
+                // El saldo solo cambia por movimientos; si cambió la moneda se reescala
+                int decimalesAnteriores = Monedas.decimales(Monedas.id(actual.moneda));
+                int decimalesNuevos = Monedas.decimales(Monedas.id(datos.moneda));
+                datos.saldo = Dinero.reescalar(actual.saldo, decimalesAnteriores, decimalesNuevos);
+                datos.ultimoCicloComision = Math.max(datos.ultimoCicloComision, actual.ultimoCicloComision);
+                estado.put(datos.id, datos);
+            }
+        }
+    }
+
+    // ---- Checkpoints ----
+
+    private void escribirCheckpoint(long ultimoSegmento) throws IOException {
+        Path temporal = directorio.resolve(ARCHIVO_CHECKPOINT + ".tmp");
+        CRC32 verificador = new CRC32();
+        ByteBuffer buffer = ByteBuffer.allocate(1024 * 1024);
+        try (FileChannel salida = FileChannel.open(temporal, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            buffer.putInt(MAGIA_CHECKPOINT);
+            buffer.putInt(VERSION_FORMATO);
+            buffer.putLong(ultimoSegmento);
+            buffer.putInt(estadoCerrado.size());
+            for (EstadoCuenta estado : estadoCerrado.values()) {
+                if (buffer.remaining() < MAXIMO_REGISTRO) {
+                    volcar(buffer, salida, verificador);
+                }
+                escribirEstado(buffer, estado);
+            }
+            volcar(buffer, salida, verificador);
+            buffer.putInt((int) verificador.getValue());
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                salida.write(buffer);
+            }
+            salida.force(true);
+        }
+        Files.move(temporal, directorio.resolve(ARCHIVO_CHECKPOINT),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static void volcar(ByteBuffer buffer, FileChannel salida, CRC32 verificador) throws IOException {
+        buffer.flip();
+        verificador.update(buffer.array(), 0, buffer.limit());
+        while (buffer.hasRemaining()) {
+            salida.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Carga el checkpoint en el mapa y devuelve el último segmento que incluye
+     * (-1 si no hay checkpoint)
+     */
+    private static long leerCheckpoint(Path ruta, Map<Integer, EstadoCuenta> estado) throws IOException {
+        if (!Files.exists(ruta)) {
+            return -1;
+        }
+        try (FileChannel lectura = FileChannel.open(ruta, StandardOpenOption.READ)) {
+            MappedByteBuffer datos = lectura.map(FileChannel.MapMode.READ_ONLY, 0, lectura.size());
+            int largo = datos.limit() - 4;
+            CRC32 verificador = new CRC32();
+            ByteBuffer cuerpo = datos.duplicate();
+            cuerpo.limit(largo);
+            verificador.update(cuerpo);
+            if (largo < 20 || datos.getInt(0) != MAGIA_CHECKPOINT || datos.getInt(largo) != (int) verificador.getValue()) {
+                throw new IOException("El checkpoint " + ruta + " está dañado");
+            }
+            // Los checkpoints sin versión tenían aquí la mitad alta del último segmento
+            int version = datos.getInt(4);
+            if (version != VERSION_FORMATO) {
+                throw new IOException("El checkpoint " + ruta + " tiene la versión de formato " + version
+                        + " y se esperaba la " + VERSION_FORMATO);
+            }
+            datos.position(8);
+            long ultimoSegmento = datos.getLong();
+            int cantidad = datos.getInt();
+            for (int i = 0; i < cantidad; i++) {
+                EstadoCuenta cuenta = leerEstado(datos);
+                estado.put(cuenta.id, cuenta);
+            }
+            return ultimoSegmento;
+        }
+    }
+
+    // ---- Estado serializado de una cuenta ----
+
+    private static void escribirEstado(ByteBuffer destino, EstadoCuenta estado) {
+        destino.putInt(estado.id);
+        destino.put(estado.tipo);
+        destino.put((byte) (estado.activa ? 1 : 0));
+        destino.putLong(estado.saldo);
+        destino.putLong(estado.parametro1);
+        destino.putLong(estado.parametro2);
+        escribirTexto(destino, estado.usuario);
+        escribirTexto(destino, estado.moneda);
+        destino.putInt(estado.ultimoCicloComision);
+    }
+
+    private static EstadoCuenta leerEstado(ByteBuffer origen) {
+        EstadoCuenta estado = new EstadoCuenta();
+        estado.id = origen.getInt();
+        estado.tipo = origen.get();
+        estado.activa = origen.get() != 0;
+        estado.saldo = origen.getLong();
+        estado.parametro1 = origen.getLong();
+        estado.parametro2 = origen.getLong();
+        estado.usuario = leerTexto(origen);
+        estado.moneda = leerTexto(origen);
+        estado.ultimoCicloComision = origen.getInt();
+        return estado;
+    }
+
+    private static void escribirTexto(ByteBuffer destino, String texto) {
+        byte[] bytes = texto != null ? texto.getBytes(StandardCharsets.UTF_8) : new byte[0];
+        int largo = Math.min(bytes.length, 4096);
+        // Si se corta, que no sea en medio de un carácter (los bytes de
+        // continuación de UTF-8 son 10xxxxxx)
+        if (largo < bytes.length) {
+            while (largo > 0 && (bytes[largo] & 0xC0) == 0x80) {
+                largo--;
+            }
+        }
+        destino.putShort((short) largo);
+        destino.put(bytes, 0, largo);
+    }
+
+    private static String leerTexto(ByteBuffer origen) {
+        byte[] bytes = new byte[origen.getShort()];
+        origen.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Copia de los datos de una cuenta tal como se guardan en el diario
+     * parametro1/parametro2: tasa de interés (caja de ahorro) o límite de
+     * descubierto y comisión (cuenta corriente), en unidades mínimas
+     * ultimoCicloComision: último ciclo de comisión cobrado (cuenta corriente)
+     */
+    private static class EstadoCuenta {
+        int id;
+        byte tipo;
+        boolean activa;
+        long saldo;
+        long parametro1;
+        long parametro2;
+        String usuario;
+        String moneda;
+        int ultimoCicloComision;
+
+        static EstadoCuenta de(CuentaBancaria cuenta) {
+            EstadoCuenta estado = new EstadoCuenta();
+            estado.id = cuenta.getId();
+            estado.activa = cuenta.isActiva();
+            estado.usuario = cuenta.getUsuario();
+            estado.moneda = cuenta.getMoneda();
+            if (cuenta instanceof CajaDeAhorro) {
+                CajaDeAhorro caja = (CajaDeAhorro) cuenta;
+                estado.tipo = CAJA_DE_AHORRO;
+                estado.saldo = caja.getSaldoEnUnidadesMinimas();
+                estado.parametro1 = caja.getTasaInteresEnMillonesimas();
+            } else if (cuenta instanceof CuentaCorriente) {
+                CuentaCorriente corriente = (CuentaCorriente) cuenta;
+                estado.tipo = CUENTA_CORRIENTE;
+                estado.saldo = corriente.getSaldoEnUnidadesMinimas();
+                estado.parametro1 = corriente.getLimiteDescubiertoEnUnidadesMinimas();
+                estado.parametro2 = corriente.getComisionMantenimientoEnUnidadesMinimas();
+                estado.ultimoCicloComision = corriente.getUltimoCicloComision();
+            } else {
+                estado.tipo = CUENTA_BANCARIA;
+            }
+            return estado;
+        }
+
+        CuentaBancaria crearCuenta() {
+            if (tipo == CAJA_DE_AHORRO) {
+                CajaDeAhorro caja = new CajaDeAhorro(id, usuario, moneda, activa, 0.0, 0.0);
+                caja.restaurar(saldo, parametro1);
+                return caja;
+            }
+            if (tipo == CUENTA_CORRIENTE) {
+                CuentaCorriente corriente = new CuentaCorriente(id, usuario, moneda, activa, 0.0, 0.0, 0.0);
+                corriente.restaurar(saldo, parametro1, parametro2, ultimoCicloComision);
+                return corriente;
+            }
+            return new CuentaBancaria(id, usuario, moneda, activa);
+        }
+    }
+}
@@ -0,0 +1,161 @@
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Clase utilitaria para manejar dinero como un long en unidades mínimas
+ * de la moneda (centavos para ARS/USD/EUR, yenes para JPY, etc.)
+ * Todas las operaciones son estáticas y trabajan con primitivos, así que no
+ * crean objetos; el redondeo es siempre "mitad al par" (HALF_EVEN) para que
+ * los resultados sean deterministas
+ * Las tasas se expresan en millonésimas (0.05 = 50000)
+ */
+public final class Dinero {
+    public static final long ESCALA_TASA = 1_000_000L;
+
+    /**
+     * Valor que devuelve desdeDouble cuando el importe no es un número
+     * finito o no entra en un long
+     */
+    public static final long INVALIDO = Long.MIN_VALUE;
+
+    private static final long[] POTENCIAS_DE_10 = {
+        1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L
+    };
+
+    // Mayor monto que un double representa sin perder unidades (2^53)
+    private static final long MAXIMO_EXACTO_EN_DOUBLE = 1L << 53;
+    // 2^63: el primer double que ya no entra en un long
+    private static final double LIMITE_LONG = 0x1p63;
+
+    private Dinero() {
+    }
+
+    /**
+     * Cantidad de decimales de la moneda (ISO 4217); 2 si no se conoce
+     */
+    public static int decimales(String moneda) {
+        if (moneda == null) {
+            return 2;
+        }
+        switch (moneda) {
+            case "JPY":
+            case "CLP":
+            case "PYG":
+            case "KRW":
+            case "ISK":
+                return 0;
+            case "BHD":
+            case "KWD":
+            case "OMR":
+            case "TND":
+                return 3;
+            default:
+                return 2;
+        }
+    }
+
+    public static long escala(int decimales) {
+        return POTENCIAS_DE_10[decimales];
+    }
+
+    /**
+     * Convierte un importe en double a unidades mínimas de la moneda,
+     * redondeando mitad al par; devuelve INVALIDO si el importe es NaN,
+     * infinito o no entra en un long
+     */
+    public static long desdeDouble(double monto, int decimales) {
+        double escalado = Math.rint(monto * POTENCIAS_DE_10[decimales]);
+        // La comparación también es falsa para NaN
+        if (!(Math.abs(escalado) < LIMITE_LONG)) {
+            return INVALIDO;
+        }
+        return (long) escalado;
+    }
+
+    public static double aDouble(long unidadesMinimas, int decimales) {
+        return (double) unidadesMinimas / POTENCIAS_DE_10[decimales];
+    }
+
+    public static long sumar(long a, long b) {
+        return Math.addExact(a, b);
+    }
+
+    public static long restar(long a, long b) {
+        return Math.subtractExact(a, b);
+    }
+
+    public static long tasaDesdeDouble(double tasa) {
+        return (long) Math.rint(tasa * ESCALA_TASA);
+    }
+
+    public static double tasaADouble(long tasa) {
+        return (double) tasa / ESCALA_TASA;
+    }
+
+    /**
+     * Calcula monto * tasa (tasa en millonésimas) redondeando mitad al par
+     */
+    public static long porcentaje(long monto, long tasa) {
+        if (productoDesborda(monto, tasa)) {
+            // Producto fuera de rango: camino lento pero exacto
+            return BigDecimal.valueOf(monto).multiply(BigDecimal.valueOf(tasa))
+                    .divide(BigDecimal.valueOf(ESCALA_TASA), 0, RoundingMode.HALF_EVEN)
+                    .longValueExact();
+        }
+        return dividirRedondeando(monto * tasa, ESCALA_TASA);
+    }
+
+    /**
+     * Calcula monto * crecimiento redondeando mitad al par, por ejemplo los
+     * intereses de varios períodos con CalendarioTasas.crecimiento
+     */
+    public static long aplicarCrecimiento(long monto, double crecimiento) {
+        double resultado = monto * crecimiento;
+        if (Double.isNaN(resultado) || Double.isInfinite(resultado)) {
+            throw new ArithmeticException("long overflow");
+        }
+        if (Math.abs(monto) > MAXIMO_EXACTO_EN_DOUBLE || Math.abs(resultado) >= MAXIMO_EXACTO_EN_DOUBLE) {
+            // Montos fuera de rango: camino lento pero exacto (falla si no entra en un long)
+            return new BigDecimal(crecimiento).multiply(BigDecimal.valueOf(monto))
+                    .setScale(0, RoundingMode.HALF_EVEN)
+                    .longValueExact();
+        }
+        return (long) Math.rint(resultado);
+    }
+
+    /**
+     * Pasa un importe de una cantidad de decimales a otra (por ejemplo al
+     * cambiar la moneda de una cuenta)
+     */
+    public static long reescalar(long unidadesMinimas, int decimalesActuales, int decimalesNuevos) {
+        if (decimalesNuevos >= decimalesActuales) {
+            return Math.multiplyExact(unidadesMinimas, POTENCIAS_DE_10[decimalesNuevos - decimalesActuales]);
+        }
+        return dividirRedondeando(unidadesMinimas, POTENCIAS_DE_10[decimalesActuales - decimalesNuevos]);
+    }
+
+    // true si monto * tasa no entra en un long (se mira el producto, no cada
+    // factor por separado: un monto chico con una tasa enorme también desborda)
+    private static boolean productoDesborda(long monto, long tasa) {
+        if (monto == Long.MIN_VALUE || tasa == Long.MIN_VALUE) {
+            return true;
+        }
+        long absMonto = Math.abs(monto);
+        long absTasa = Math.abs(tasa);
+        return absTasa != 0 && absMonto > Long.MAX_VALUE / absTasa;
+    }
+
+    // División entera con redondeo mitad al par (divisor positivo)
+    private static long dividirRedondeando(long dividendo, long divisor) {
+        long cociente = dividendo / divisor;
+        long resto = dividendo % divisor;
+        if (resto == 0) {
+            return cociente;
+        }
+        long dobleResto = Math.abs(resto) * 2;
+        if (dobleResto > divisor || (dobleResto == divisor && (cociente & 1) != 0)) {
+            cociente += dividendo < 0 ? -1 : 1;
+        }
+        return cociente;
+    }
+}
@@ -0,0 +1,111 @@
+import java.util.SplittableRandom;
+
+/**
+ * Clase que elige números de 0 a n - 1 con distribución zipfiana: el
+ * elemento de rango k sale con probabilidad proporcional a 1 / (k + 1)^theta,
+ * así unos pocos elementos (las cuentas "calientes") concentran la mayoría
+ * de los pedidos. Con theta = 0 la distribución es uniforme
+ *
+ * Usa el método de Gray et al. ("Quickly Generating Billion-Record
+ * Synthetic Databases", el mismo que YCSB): una sola vez se calcula
+ * zeta(n) = suma de 1 / i^theta, y después cada número sale en tiempo
+ * constante, sin tablas por elemento
+ * Los rangos se pueden mezclar con una permutación fija, así las cuentas
+ * calientes no son las de ids más bajos
+ */
+public class DistribucionZipf {
+    private final int n;
+    private final double theta;
+    private final double zetaN;
+    private final double alfa;
+    private final double eta;
+    private final double umbralSegundo;
+    // Rango -> elemento (null = sin mezclar)
+    private final int[] permutacion;
+
+    public DistribucionZipf(int n, double theta) {
+        this(n, theta, 0L, false);
+    }
+
+    /**
+     * @param n       cantidad de elementos
+     * @param theta   asimetría, entre 0 (uniforme) y menos de 1 (0.99 es lo habitual)
+     * @param semilla semilla de la permutación
+     * @param mezclar si los rangos se reparten al azar entre los elementos
+     */
+    public DistribucionZipf(int n, double theta, long semilla, boolean mezclar) {
+        if (n <= 0) {
+            throw new IllegalArgumentException("La cantidad de elementos debe ser mayor a 0");
+        }
+        if (theta < 0 || theta >= 1) {
+            throw new IllegalArgumentException("theta debe estar entre 0 y 1 (sin incluir el 1)");
+        }
+        this.n = n;
+        this.theta = theta;
+        double zeta = 0;
+        for (int i = 1; i <= n; i++) {
+            zeta += 1.0 / Math.pow(i, theta);
+        }
+        this.zetaN = zeta;
+        double zeta2 = 1.0 + 1.0 / Math.pow(2, theta);
+        this.alfa = 1.0 / (1.0 - theta);
+        this.eta = n > 1 ? (1 - Math.pow(2.0 / n, 1 - theta)) / (1 - zeta2 / zetaN) : 0;
+        this.umbralSegundo = 1.0 + Math.pow(0.5, theta);
+        this.permutacion = mezclar ? permutacion(n, semilla) : null;
+    }
+
+    public int getN() {
+        return n;
+    }
+
+    public double getTheta() {
+        return theta;
+    }
+
+    /**
+     * Próximo elemento, de 0 a n - 1
+     */
+    public int siguiente(SplittableRandom azar) {
+        int rango = siguienteRango(azar);
+        return permutacion != null ? permutacion[rango] : rango;
+    }
+
+    /**
+     * Probabilidad del elemento de rango k (0 es el más pedido)
+     */
+    public double probabilidad(int rango) {
+        return 1.0 / Math.pow(rango + 1, theta) / zetaN;
+    }
+
+    private int siguienteRango(SplittableRandom azar) {
+        if (theta == 0) {
+            return azar.nextInt(n);
+        }
+        double u = azar.nextDouble();
+        double uz = u * zetaN;
+        if (uz < 1.0) {
+            return 0;
+        }
+        if (uz < umbralSegundo) {
+            return Math.min(1, n - 1);
+        }
+        int rango = (int) (n * Math.pow(eta * u - eta + 1, alfa));
+        return Math.min(rango, n - 1);
+    }
+
+    // Fisher-Yates con semilla fija, para que la carga se pueda repetir
+    private static int[] permutacion(int n, long semilla) {
+        int[] permutacion = new int[n];
+        for (int i = 0; i < n; i++) {
+            permutacion[i] = i;
+        }
+        SplittableRandom azar = new SplittableRandom(semilla);
+        for (int i = n - 1; i > 0; i--) {
+            int j = azar.nextInt(i + 1);
+            int temporal = permutacion[i];
+            permutacion[i] = permutacion[j];
+            permutacion[j] = temporal;
+        }
+        return permutacion;
+    }
+}
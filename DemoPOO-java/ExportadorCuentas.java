@@ -0,0 +1,343 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Clase que exporta los datos de muchas cuentas a CSV o a un formato binario
+ * compacto, escribiendo directamente en un ByteBuffer que se vuelca a un
+ * canal NIO cuando se llena
+ * Cada exportador guarda un buffer directo por hilo y lo reutiliza en las
+ * exportaciones siguientes de ese hilo (exportarEnPartes usa uno por hilo
+ * del pool), así no se reserva un buffer nuevo por llamada; los buffers
+ * se liberan cuando se descarta el exportador o termina el hilo
+ *
+ * Los números se escriben dígito por dígito y los textos se codifican en
+ * UTF-8 carácter por carácter, así exportar una cuenta no crea Strings ni
+ * otros objetos (a diferencia de toString o mostrarInformacion)
+ *
+ * Formato CSV (una línea por cuenta, con encabezado):
+ *   id,tipo,usuario,moneda,activa,saldo,tasaInteres,limiteDescubierto,comisionMantenimiento
+ * Los importes van con los decimales de la moneda y la tasa con 6 decimales;
+ * las columnas que no corresponden al tipo de cuenta quedan vacías
+ *
+ * Formato binario (little endian, un registro por cuenta):
+ *   int id, byte tipo (0 cuenta, 1 caja de ahorro, 2 cuenta corriente),
+ *   byte activa, byte decimales, long saldo, long parametro1, long parametro2,
+ *   short + bytes UTF-8 del usuario, short + bytes UTF-8 de la moneda
+ *   (parametro1/2: tasa en millonésimas, o límite y comisión en unidades mínimas)
+ */
+public class ExportadorCuentas {
+    public enum Formato {
+        CSV,
+        BINARIO
+    }
+
+    private static final byte[] ENCABEZADO_CSV = ascii(
+            "id,tipo,usuario,moneda,activa,saldo,tasaInteres,limiteDescubierto,comisionMantenimiento\n");
+    private static final byte[] TIPO_CUENTA = ascii("CuentaBancaria");
+    private static final byte[] TIPO_CAJA = ascii("CajaDeAhorro");
+    private static final byte[] TIPO_CORRIENTE = ascii("CuentaCorriente");
+    private static final byte[] VERDADERO = ascii("true");
+    private static final byte[] FALSO = ascii("false");
+
+    // Largo máximo de un texto (en caracteres) y espacio que se deja libre por registro
+    private static final int MAXIMO_TEXTO = 4096;
+    private static final int MAXIMO_REGISTRO = 2 * 3 * MAXIMO_TEXTO + 256;
+
+    private final Formato formato;
+    private final ThreadLocal<ByteBuffer> buffers;
+
+    public ExportadorCuentas(Formato formato) {
+        this(formato, 1024 * 1024);
+    }
+
+    public ExportadorCuentas(Formato formato, int tamanioBuffer) {
+        if (tamanioBuffer < MAXIMO_REGISTRO) {
+            throw new IllegalArgumentException("El buffer debe tener al menos " + MAXIMO_REGISTRO + " bytes");
+        }
+        this.formato = formato;
+        this.buffers = ThreadLocal.withInitial(
+                () -> ByteBuffer.allocateDirect(tamanioBuffer).order(ByteOrder.LITTLE_ENDIAN));
+    }
+
+    /**
+     * Escribe todas las cuentas en el canal y devuelve la cantidad de bytes escritos
+     */
+    public long exportar(Iterable<? extends CuentaBancaria> cuentas, WritableByteChannel canal) throws IOException {
+        Escritor escritor = new Escritor(canal);
+        for (CuentaBancaria cuenta : cuentas) {
+            escritor.escribir(cuenta);
+        }
+        return escritor.terminar();
+    }
+
+    /**
+     * Exporta las cuentas repartidas en 'partes' archivos (prefijo-00000.csv,
+     * prefijo-00001.csv, ...) que se escriben en paralelo
+     */
+    public ResumenExportacion exportarEnPartes(List<? extends CuentaBancaria> cuentas, Path directorio,
+                                               String prefijo, int partes) throws IOException {
+        return exportarEnPartes(cuentas, directorio, prefijo, partes, ForkJoinPool.commonPool());
+    }
+
+    public ResumenExportacion exportarEnPartes(List<? extends CuentaBancaria> cuentas, Path directorio,
+                                               String prefijo, int partes, ForkJoinPool pool) throws IOException {
+        if (partes <= 0) {
+            throw new IllegalArgumentException("La cantidad de partes debe ser mayor a 0");
+        }
+        long inicio = System.nanoTime();
+        Files.createDirectories(directorio);
+        String extension = formato == Formato.CSV ? ".csv" : ".bin";
+        List<Callable<Long>> tareas = new ArrayList<>(partes);
+        List<Path> archivos = new ArrayList<>(partes);
+        for (int parte = 0; parte < partes; parte++) {
+            List<? extends CuentaBancaria> rango = cuentas.subList(
+                    (int) ((long) cuentas.size() * parte / partes),
+                    (int) ((long) cuentas.size() * (parte + 1) / partes));
+            Path archivo = directorio.resolve(String.format("%s-%05d%s", prefijo, parte, extension));
+            archivos.add(archivo);
+            tareas.add(() -> {
+                try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.CREATE,
+                        StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                    return exportar(rango, canal);
+                }
+            });
+        }
+        long bytes = 0;
+        for (Future<Long> resultado : pool.invokeAll(tareas)) {
+            try {
+                bytes += resultado.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Exportación interrumpida", e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof IOException) {
+                    throw (IOException) e.getCause();
+                }
+                throw new IOException("Error al exportar", e.getCause());
+            }
+        }
+        return new ResumenExportacion(cuentas.size(), archivos, bytes, System.nanoTime() - inicio);
+    }
+
+    private static byte[] ascii(String texto) {
+        byte[] bytes = new byte[texto.length()];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) texto.charAt(i);
+        }
+        return bytes;
+    }
+
+    /**
+     * Estado de una exportación en curso: el buffer del hilo y el canal de destino
+     * Lo usa un solo hilo
+     */
+    private final class Escritor {
+        private final WritableByteChannel canal;
+        private final ByteBuffer buffer;
+        private final byte[] digitos = new byte[20];
+        private long bytesEscritos;
+
+        Escritor(WritableByteChannel canal) {
+            this.canal = canal;
+            // Puede tener restos de una exportación anterior que terminó con un error
+            this.buffer = buffers.get();
+            buffer.clear();
+            if (formato == Formato.CSV) {
+                buffer.put(ENCABEZADO_CSV);
+            }
+        }
+
+        void escribir(CuentaBancaria cuenta) throws IOException {
+            if (buffer.remaining() < MAXIMO_REGISTRO) {
+                volcar();
+            }
+            if (formato == Formato.CSV) {
+                escribirCsv(cuenta);
+            } else {
+                escribirBinario(cuenta);
+            }
+        }
+
+        long terminar() throws IOException {
+            volcar();
+            return bytesEscritos;
+        }
+
+        private void volcar() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                bytesEscritos += canal.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        private void escribirCsv(CuentaBancaria cuenta) {
+            int decimales = cuenta.getDecimales();
+            escribirEntero(cuenta.getId());
+            buffer.put((byte) ',');
+            if (cuenta instanceof CajaDeAhorro) {
+                CajaDeAhorro caja = (CajaDeAhorro) cuenta;
+                buffer.put(TIPO_CAJA);
+                escribirDatosCsv(cuenta);
+                escribirDecimal(caja.getSaldoEnUnidadesMinimas(), decimales);
+                buffer.put((byte) ',');
+                escribirDecimal(caja.getTasaInteresEnMillonesimas(), 6);
+                buffer.put((byte) ',').put((byte) ',');
+            } else if (cuenta instanceof CuentaCorriente) {
+                CuentaCorriente corriente = (CuentaCorriente) cuenta;
+                buffer.put(TIPO_CORRIENTE);
+                escribirDatosCsv(cuenta);
+                escribirDecimal(corriente.getSaldoEnUnidadesMinimas(), decimales);
+                buffer.put((byte) ',').put((byte) ',');
+                escribirDecimal(corriente.getLimiteDescubiertoEnUnidadesMinimas(), decimales);
+                buffer.put((byte) ',');
+                escribirDecimal(corriente.getComisionMantenimientoEnUnidadesMinimas(), decimales);
+            } else {
+                buffer.put(TIPO_CUENTA);
+                escribirDatosCsv(cuenta);
+                buffer.put((byte) ',').put((byte) ',').put((byte) ',');
+            }
+            buffer.put((byte) '\n');
+        }
+
+        // ,usuario,moneda,activa, (deja la coma antes del saldo)
+        private void escribirDatosCsv(CuentaBancaria cuenta) {
+            buffer.put((byte) ',');
+            escribirTextoCsv(cuenta.getUsuario());
+            buffer.put((byte) ',');
+            escribirTextoCsv(cuenta.getMoneda());
+            buffer.put((byte) ',');
+            buffer.put(cuenta.isActiva() ? VERDADERO : FALSO);
+            buffer.put((byte) ',');
+        }
+
+        private void escribirTextoCsv(String texto) {
+            if (texto == null) {
+                return;
+            }
+            int largo = Math.min(texto.length(), MAXIMO_TEXTO);
+            boolean comillas = false;
+            for (int i = 0; i < largo && !comillas; i++) {
+                char c = texto.charAt(i);
+                comillas = c == ',' || c == '"' || c == '\n' || c == '\r';
+            }
+            if (!comillas) {
+                escribirUtf8(texto, largo);
+                return;
+            }
+            buffer.put((byte) '"');
+            for (int i = 0; i < largo; i++) {
+                char c = texto.charAt(i);
+                if (c == '"') {
+                    buffer.put((byte) '"');
+                }
+                i = escribirCaracter(texto, i, largo);
+            }
+            buffer.put((byte) '"');
+        }
+
+        private void escribirBinario(CuentaBancaria cuenta) {
+            buffer.putInt(cuenta.getId());
+            int posicionTipo = buffer.position();
+            buffer.put((byte) 0);
+            buffer.put((byte) (cuenta.isActiva() ? 1 : 0));
+            buffer.put((byte) cuenta.getDecimales());
+            if (cuenta instanceof CajaDeAhorro) {
+                CajaDeAhorro caja = (CajaDeAhorro) cuenta;
+                buffer.put(posicionTipo, (byte) 1);
+                buffer.putLong(caja.getSaldoEnUnidadesMinimas());
+                buffer.putLong(caja.getTasaInteresEnMillonesimas());
+                buffer.putLong(0L);
+            } else if (cuenta instanceof CuentaCorriente) {
+                CuentaCorriente corriente = (CuentaCorriente) cuenta;
+                buffer.put(posicionTipo, (byte) 2);
+                buffer.putLong(corriente.getSaldoEnUnidadesMinimas());
+                buffer.putLong(corriente.getLimiteDescubiertoEnUnidadesMinimas());
+                buffer.putLong(corriente.getComisionMantenimientoEnUnidadesMinimas());
+            } else {
+                buffer.putLong(0L).putLong(0L).putLong(0L);
+            }
+            escribirTextoBinario(cuenta.getUsuario());
+            escribirTextoBinario(cuenta.getMoneda());
+        }
+
+        // El largo en bytes se completa después de codificar el texto
+        private void escribirTextoBinario(String texto) {
+            int posicionLargo = buffer.position();
+            buffer.putShort((short) 0);
+            if (texto != null) {
+                escribirUtf8(texto, Math.min(texto.length(), MAXIMO_TEXTO));
+            }
+            buffer.putShort(posicionLargo, (short) (buffer.position() - posicionLargo - 2));
+        }
+
+        private void escribirUtf8(String texto, int largo) {
+            for (int i = 0; i < largo; i++) {
+                i = escribirCaracter(texto, i, largo);
+            }
+        }
+
+        // Codifica el carácter en la posición i y devuelve la posición del último carácter usado
+        private int escribirCaracter(String texto, int i, int largo) {
+            char c = texto.charAt(i);
+            if (c < 0x80) {
+                buffer.put((byte) c);
+            } else if (c < 0x800) {
+                buffer.put((byte) (0xC0 | (c >> 6)));
+                buffer.put((byte) (0x80 | (c & 0x3F)));
+            } else if (Character.isHighSurrogate(c) && i + 1 < largo && Character.isLowSurrogate(texto.charAt(i + 1))) {
+                int punto = Character.toCodePoint(c, texto.charAt(i + 1));
+                buffer.put((byte) (0xF0 | (punto >> 18)));
+                buffer.put((byte) (0x80 | ((punto >> 12) & 0x3F)));
+                buffer.put((byte) (0x80 | ((punto >> 6) & 0x3F)));
+                buffer.put((byte) (0x80 | (punto & 0x3F)));
+                return i + 1;
+            } else if (Character.isSurrogate(c)) {
+                buffer.put((byte) '?');
+            } else {
+                buffer.put((byte) (0xE0 | (c >> 12)));
+                buffer.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+                buffer.put((byte) (0x80 | (c & 0x3F)));
+            }
+            return i;
+        }
+
+        private void escribirEntero(long valor) {
+            escribirDecimal(valor, 0);
+        }
+
+        /**
+         * Escribe valor / 10^decimales con exactamente esa cantidad de decimales
+         */
+        private void escribirDecimal(long valor, int decimales) {
+            if (valor < 0) {
+                buffer.put((byte) '-');
+            }
+            // Se trabaja con el valor negativo para que Long.MIN_VALUE también funcione
+            long resto = valor < 0 ? valor : -valor;
+            int cantidad = 0;
+            do {
+                digitos[cantidad++] = (byte) ('0' - (resto % 10));
+                resto /= 10;
+            } while (resto != 0 || cantidad <= decimales);
+            for (int i = cantidad - 1; i >= 0; i--) {
+                if (i == decimales - 1) {
+                    buffer.put((byte) '.');
+                }
+                buffer.put(digitos[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,48 @@
+/**
+ * Clase que registra una operación de un lote que no se pudo aplicar
+ */
+public class FalloOperacion {
+    private final long indice;
+    private final Operacion operacion;
+    private final ResultadoOperacion resultado;
+    private final Throwable causa;
+
+    public FalloOperacion(long indice, Operacion operacion, ResultadoOperacion resultado) {
+        this(indice, operacion, resultado, null);
+    }
+
+    public FalloOperacion(long indice, Operacion operacion, ResultadoOperacion resultado, Throwable causa) {
+        this.indice = indice;
+        this.operacion = operacion;
+        this.resultado = resultado;
+        this.causa = causa;
+    }
+
+    // Posición de la operación dentro de todo el flujo procesado (desde 0)
+    public long getIndice() {
+        return indice;
+    }
+
+    public Operacion getOperacion() {
+        return operacion;
+    }
+
+    public ResultadoOperacion getResultado() {
+        return resultado;
+    }
+
+    // Excepción que lanzó la operación (resultado ERROR_INESPERADO), o null
+    public Throwable getCausa() {
+        return causa;
+    }
+
+    @Override
+    public String toString() {
+        return "FalloOperacion{" +
+                "indice=" + indice +
+                ", operacion=" + operacion +
+                ", resultado=" + resultado +
+                (causa != null ? ", causa=" + causa : "") +
+                '}';
+    }
+}
@@ -0,0 +1,396 @@
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Generador de carga sobre el modelo del banco: crea muchas cajas de ahorro
+ * y cuentas corrientes y las opera desde varios hilos con una mezcla
+ * configurable de depósitos, extracciones, cheques, intereses y comisiones
+ * (ver ConfiguracionCarga), para planificar capacidad y reproducir la
+ * contención de producción en una máquina local
+ *
+ * Las cuentas de cada operación se eligen con una distribución zipfiana
+ * (DistribucionZipf): unas pocas cuentas calientes reciben la mayoría de
+ * las operaciones, como pasa con las cuentas de empresas o comercios
+ * Opcionalmente, cada tantos segundos corre intereses (LibroCajasDeAhorro)
+ * y comisiones (CobroComisiones) sobre todas las cuentas mientras sigue la
+ * carga
+ *
+ * Las latencias salen de MetricasOperaciones (se activa durante la carga)
+ * y el resumen incluye operaciones por segundo, percentiles por tipo de
+ * operación, recolecciones de basura y bytes reservados por operación
+ *
+ * Una operación que lanza una excepción se cuenta como error y la carga
+ * sigue; si un hilo de carga o una corrida de intereses y comisiones
+ * termina por un error, ejecutar() lanza IllegalStateException en lugar de
+ * devolver un resumen incompleto. Los intereses de una caja caliente cuyo
+ * saldo ya no entra en un long no fallan: devuelven SALDO_FUERA_DE_RANGO y
+ * el saldo queda como estaba
+ *
+ * Uso: java GeneradorCarga --cuentas 1000000 --hilos 4 --duracion 30
+ */
+public class GeneradorCarga {
+    private static final String BENEFICIARIO = "Carga";
+    // Cada cuántas operaciones un hilo publica su contador y mira si tiene que parar
+    private static final int OPERACIONES_POR_TANDA = 256;
+
+    private final ConfiguracionCarga configuracion;
+    private CajaDeAhorro[] cajas;
+    private CuentaCorriente[] corrientes;
+    private DistribucionZipf zipfCajas;
+    private DistribucionZipf zipfCorrientes;
+    private volatile boolean detener;
+
+    public GeneradorCarga(ConfiguracionCarga configuracion) {
+        this.configuracion = configuracion;
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (Arrays.asList(args).contains("--ayuda") || Arrays.asList(args).contains("-h")) {
+            System.out.println(ConfiguracionCarga.ayuda());
+            return;
+        }
+        ConfiguracionCarga configuracion;
+        try {
+            configuracion = ConfiguracionCarga.desdeArgumentos(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Error: " + e.getMessage());
+            System.err.println(ConfiguracionCarga.ayuda());
+            System.exit(2);
+            return;
+        }
+        GeneradorCarga generador = new GeneradorCarga(configuracion);
+        if (!configuracion.isJson()) {
+            System.out.println("Creando " + configuracion.getCuentas() + " cuentas...");
+        }
+        generador.crearCuentas();
+        if (!configuracion.isJson()) {
+            System.out.println("Calentando " + configuracion.getCalentamientoSegundos() + " s y midiendo "
+                    + configuracion.getDuracionSegundos() + " s con " + configuracion.getHilos() + " hilos...");
+        }
+        ResumenCarga resumen = generador.ejecutar();
+        System.out.println(configuracion.isJson() ? resumen.aJson() : resumen.aTexto());
+    }
+
+    /**
+     * Crea las cuentas (ids desde 1, primero las cajas de ahorro) con saldos
+     * al azar; ejecutar() las crea si no se llamó antes
+     */
+    public void crearCuentas() {
+        int cantidadCajas = (int) Math.max(1, Math.min(configuracion.getCuentas() - 1,
+                Math.round(configuracion.getCuentas() * configuracion.getProporcionCajas())));
+        int cantidadCorrientes = configuracion.getCuentas() - cantidadCajas;
+        SplittableRandom azar = new SplittableRandom(configuracion.getSemilla());
+        // Saldos y límites en pesos, con decimales de centavos
+        double montoMaximo = configuracion.getMontoMaximo() / 100.0;
+        cajas = new CajaDeAhorro[cantidadCajas];
+        for (int i = 0; i < cantidadCajas; i++) {
+            cajas[i] = new CajaDeAhorro(i + 1, "Cliente " + (i + 1), "ARS", true,
+                    Math.floor(azar.nextDouble() * 100 * montoMaximo), 0.0001);
+        }
+        corrientes = new CuentaCorriente[cantidadCorrientes];
+        for (int i = 0; i < cantidadCorrientes; i++) {
+            int id = cantidadCajas + i + 1;
+            corrientes[i] = new CuentaCorriente(id, "Cliente " + id, "ARS", true,
+                    Math.floor(azar.nextDouble() * 100 * montoMaximo), 20 * montoMaximo, montoMaximo / 100);
+        }
+        zipfCajas = new DistribucionZipf(cantidadCajas, configuracion.getZipf(),
+                configuracion.getSemilla(), configuracion.isMezclarCuentas());
+        zipfCorrientes = new DistribucionZipf(cantidadCorrientes, configuracion.getZipf(),
+                configuracion.getSemilla() + 1, configuracion.isMezclarCuentas());
+    }
+
+    public CajaDeAhorro[] getCajas() {
+        return cajas;
+    }
+
+    public CuentaCorriente[] getCorrientes() {
+        return corrientes;
+    }
+
+    /**
+     * Corre el calentamiento y la medición y devuelve el resumen de la medición
+     * Mientras corre, la bitácora queda desactivada y las métricas de las
+     * cuentas apuntan a las de la carga; al terminar se restauran
+     */
+    public ResumenCarga ejecutar() throws InterruptedException, IOException {
+        if (cajas == null) {
+            crearCuentas();
+        }
+        Bitacora bitacoraAnterior = CuentaBancaria.getBitacora();
+        MetricasOperaciones metricasAnteriores = CuentaBancaria.getMetricas();
+        MetricasOperaciones metricas = new MetricasOperaciones();
+        CuentaBancaria.setBitacora(Bitacora.DESACTIVADA);
+        CuentaBancaria.setMetricas(metricas);
+        detener = false;
+        Trabajador[] trabajadores = new Trabajador[configuracion.getHilos()];
+        AtomicInteger corridas = new AtomicInteger();
+        AtomicReference<Throwable> falloCorridas = new AtomicReference<>();
+        ScheduledExecutorService planificador = null;
+        Path archivoProgreso = null;
+        try {
+            for (int i = 0; i < trabajadores.length; i++) {
+                trabajadores[i] = new Trabajador(i, new SplittableRandom(configuracion.getSemilla() * 31 + i));
+                trabajadores[i].start();
+            }
+            if (configuracion.getCorridasCadaSegundos() > 0) {
+                archivoProgreso = Files.createTempFile("carga-comisiones", ".progreso");
+                planificador = iniciarCorridas(archivoProgreso, corridas, falloCorridas);
+            }
+            TimeUnit.SECONDS.sleep(configuracion.getCalentamientoSegundos());
+
+            // Comienzo de la medición
+            metricas.reiniciar();
+            long operacionesIniciales = operaciones(trabajadores);
+            long erroresIniciales = errores(trabajadores);
+            long[] recoleccionesIniciales = recolecciones();
+            long[] milisIniciales = milisRecolectando();
+            long bytesIniciales = bytesReservados(trabajadores);
+            int corridasIniciales = corridas.get();
+            long inicio = System.nanoTime();
+            TimeUnit.SECONDS.sleep(configuracion.getDuracionSegundos());
+
+            detener = true;
+            long bytesFinales = bytesReservados(trabajadores);
+            for (Trabajador trabajador : trabajadores) {
+                trabajador.join();
+            }
+            long duracion = System.nanoTime() - inicio;
+            for (Trabajador trabajador : trabajadores) {
+                if (trabajador.fallo != null) {
+                    throw new IllegalStateException("El hilo " + trabajador.getName()
+                            + " terminó por un error; la carga no se completó", trabajador.fallo);
+                }
+            }
+            if (falloCorridas.get() != null) {
+                throw new IllegalStateException("Una corrida de intereses y comisiones terminó por un error;"
+                        + " la carga no se completó", falloCorridas.get());
+            }
+            long[] recolecciones = recolecciones();
+            long[] milis = milisRecolectando();
+            for (int i = 0; i < recolecciones.length; i++) {
+                recolecciones[i] -= recoleccionesIniciales[i];
+                milis[i] -= milisIniciales[i];
+            }
+            List<String> recolectores = new ArrayList<>();
+            for (GarbageCollectorMXBean recolector : ManagementFactory.getGarbageCollectorMXBeans()) {
+                recolectores.add(recolector.getName());
+            }
+            long bytes = bytesIniciales >= 0 && bytesFinales >= 0 ? bytesFinales - bytesIniciales : -1;
+            long heapUsado = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+            return new ResumenCarga(configuracion, operaciones(trabajadores) - operacionesIniciales, duracion,
+                    metricas, recolectores, recolecciones, milis, bytes, heapUsado,
+                    corridas.get() - corridasIniciales, errores(trabajadores) - erroresIniciales);
+        } finally {
+            detener = true;
+            for (Trabajador trabajador : trabajadores) {
+                if (trabajador != null) {
+                    trabajador.join();
+                }
+            }
+            if (planificador != null) {
+                planificador.shutdownNow();
+                planificador.awaitTermination(1, TimeUnit.MINUTES);
+            }
+            if (archivoProgreso != null) {
+                Files.deleteIfExists(archivoProgreso);
+            }
+            CuentaBancaria.setMetricas(metricasAnteriores);
+            CuentaBancaria.setBitacora(bitacoraAnterior);
+        }
+    }
+
+    // Intereses y comisiones masivos cada tantos segundos, en un hilo aparte
+    // El primer error se guarda en 'fallo' (el planificador se tragaría una
+    // excepción) y ya no se hacen más corridas
+    private ScheduledExecutorService iniciarCorridas(Path archivoProgreso, AtomicInteger corridas,
+                                                     AtomicReference<Throwable> fallo) {
+        List<CajaDeAhorro> listaCajas = Arrays.asList(cajas);
+        List<CuentaCorriente> listaCorrientes = Arrays.asList(corrientes);
+        ScheduledExecutorService planificador = Executors.newSingleThreadScheduledExecutor(tarea -> {
+            Thread hilo = new Thread(tarea, "carga-corridas");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        int intervalo = configuracion.getCorridasCadaSegundos();
+        planificador.scheduleWithFixedDelay(() -> {
+            if (fallo.get() != null) {
+                return;
+            }
+            try {
+                LibroCajasDeAhorro libro = LibroCajasDeAhorro.desde(listaCajas);
+                libro.aplicarIntereses();
+                libro.sincronizar();
+                try (CobroComisiones cobro = new CobroComisiones(archivoProgreso)) {
+                    cobro.ejecutar(corridas.get() + 1, listaCorrientes);
+                }
+                corridas.incrementAndGet();
+            } catch (Throwable e) {
+                fallo.compareAndSet(null, e);
+            }
+        }, intervalo, intervalo, TimeUnit.SECONDS);
+        return planificador;
+    }
+
+    private static long operaciones(Trabajador[] trabajadores) {
+        long total = 0;
+        for (Trabajador trabajador : trabajadores) {
+            total += trabajador.operaciones;
+        }
+        return total;
+    }
+
+    private static long errores(Trabajador[] trabajadores) {
+        long total = 0;
+        for (Trabajador trabajador : trabajadores) {
+            total += trabajador.errores;
+        }
+        return total;
+    }
+
+    // Bytes reservados por los hilos de carga hasta ahora (-1 si la JVM no lo informa)
+    private static long bytesReservados(Trabajador[] trabajadores) {
+        ThreadMXBean hilos = ManagementFactory.getThreadMXBean();
+        if (!(hilos instanceof com.sun.management.ThreadMXBean)) {
+            return -1;
+        }
+        com.sun.management.ThreadMXBean hilosHotSpot = (com.sun.management.ThreadMXBean) hilos;
+        if (!hilosHotSpot.isThreadAllocatedMemorySupported() || !hilosHotSpot.isThreadAllocatedMemoryEnabled()) {
+            return -1;
+        }
+        long total = 0;
+        for (Trabajador trabajador : trabajadores) {
+            long bytes = hilosHotSpot.getThreadAllocatedBytes(trabajador.getId());
+            if (bytes < 0) {
+                return -1;
+            }
+            total += bytes;
+        }
+        return total;
+    }
+
+    private static long[] recolecciones() {
+        List<GarbageCollectorMXBean> recolectores = ManagementFactory.getGarbageCollectorMXBeans();
+        long[] cantidades = new long[recolectores.size()];
+        for (int i = 0; i < cantidades.length; i++) {
+            cantidades[i] = Math.max(0, recolectores.get(i).getCollectionCount());
+        }
+        return cantidades;
+    }
+
+    private static long[] milisRecolectando() {
+        List<GarbageCollectorMXBean> recolectores = ManagementFactory.getGarbageCollectorMXBeans();
+        long[] milis = new long[recolectores.size()];
+        for (int i = 0; i < milis.length; i++) {
+            milis[i] = Math.max(0, recolectores.get(i).getCollectionTime());
+        }
+        return milis;
+    }
+
+    /**
+     * Hilo que genera operaciones hasta que se pide detener
+     */
+    private final class Trabajador extends Thread {
+        private final SplittableRandom azar;
+        private final int[] pesosAcumulados;
+        private final int pesoTotal;
+        private final double proporcionCajas;
+        private final long montoMaximo;
+        // Se publican cada OPERACIONES_POR_TANDA operaciones
+        volatile long operaciones;
+        volatile long errores;
+        // Error que terminó el hilo antes de que se pidiera detener (null si no hubo)
+        volatile Throwable fallo;
+
+        Trabajador(int numero, SplittableRandom azar) {
+            super("carga-" + numero);
+            setDaemon(true);
+            this.azar = azar;
+            int[] mezcla = configuracion.getMezcla();
+            this.pesosAcumulados = new int[mezcla.length];
+            int acumulado = 0;
+            for (int i = 0; i < mezcla.length; i++) {
+                acumulado += mezcla[i];
+                pesosAcumulados[i] = acumulado;
+            }
+            this.pesoTotal = acumulado;
+            this.proporcionCajas = configuracion.getProporcionCajas();
+            this.montoMaximo = configuracion.getMontoMaximo();
+        }
+
+        @Override
+        public void run() {
+            long hechas = 0;
+            long fallidas = 0;
+            try {
+                while (!detener) {
+                    for (int i = 0; i < OPERACIONES_POR_TANDA; i++) {
+                        try {
+                            operar(ConfiguracionCarga.OPERACIONES[elegirOperacion()]);
+                        } catch (RuntimeException e) {
+                            // Por ejemplo, un desborde del saldo: se cuenta y la carga sigue
+                            fallidas++;
+                        }
+                    }
+                    hechas += OPERACIONES_POR_TANDA;
+                    operaciones = hechas;
+                    errores = fallidas;
+                }
+            } catch (Throwable e) {
+                fallo = e;
+            }
+        }
+
+        private int elegirOperacion() {
+            int sorteo = azar.nextInt(pesoTotal);
+            int i = 0;
+            while (sorteo >= pesosAcumulados[i]) {
+                i++;
+            }
+            return i;
+        }
+
+        private void operar(TipoOperacion tipo) {
+            long monto = 1 + azar.nextLong(montoMaximo);
+            switch (tipo) {
+                case DEPOSITO:
+                    if (azar.nextDouble() < proporcionCajas) {
+                        cajas[zipfCajas.siguiente(azar)].depositarUnidadesMinimas(monto);
+                    } else {
+                        corrientes[zipfCorrientes.siguiente(azar)].depositarUnidadesMinimas(monto);
+                    }
+                    break;
+                case EXTRACCION:
+                    if (azar.nextDouble() < proporcionCajas) {
+                        cajas[zipfCajas.siguiente(azar)].extraerUnidadesMinimas(monto);
+                    } else {
+                        corrientes[zipfCorrientes.siguiente(azar)].extraerUnidadesMinimas(monto);
+                    }
+                    break;
+                case CHEQUE:
+                    corrientes[zipfCorrientes.siguiente(azar)].emitirChequeUnidadesMinimas(monto, BENEFICIARIO);
+                    break;
+                case INTERESES:
+                    cajas[zipfCajas.siguiente(azar)].aplicarIntereses();
+                    break;
+                case COMISION:
+                    corrientes[zipfCorrientes.siguiente(azar)].cobrarComisionMantenimiento();
+                    break;
+                default:
+                    throw new IllegalStateException("Operación no soportada por la carga: " + tipo);
+            }
+        }
+    }
+}
@@ -0,0 +1,173 @@
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Índice de las cuentas corrientes que están en descubierto, mantenido a
+ * medida que cambian los saldos (es un ObservadorMovimientos), así contar,
+ * recorrer o sumar la exposición no requiere revisar todas las cuentas
+ *
+ * Cada cuenta registrada guarda el saldo con que figura en el índice. Con
+ * cada notificación, bajo el monitor de ese seguimiento, se vuelve a leer el
+ * saldo de la cuenta y se aplica la diferencia con el que figuraba; la
+ * cantidad y la exposición se actualizan sumando esas diferencias. Así no
+ * importa en qué orden lleguen las notificaciones de varios hilos, ni si
+ * llega una repetida o una tardía: la última en ejecutarse leyó un saldo
+ * posterior a todos los movimientos notificados
+ *
+ * Al registrar, el observador se agrega antes de leer el saldo, así no se
+ * pierde ningún movimiento en el medio; al quitar, el seguimiento se marca
+ * como terminado y las notificaciones que todavía estaban en curso no lo
+ * vuelven a cambiar
+ *
+ * Los importes se suman en unidades mínimas: tienen sentido si todas las
+ * cuentas usan la misma moneda. No se soporta cambiar la moneda de una
+ * cuenta registrada
+ */
+public class IndiceDescubiertos implements ObservadorMovimientos {
+    private final Map<CuentaCorriente, Seguimiento> seguimientos = new ConcurrentHashMap<>();
+    // Cuentas que figuran en descubierto (las que recorre paraCada)
+    private final Set<CuentaCorriente> enDescubierto = ConcurrentHashMap.newKeySet();
+    private final AtomicLong cantidad = new AtomicLong();
+    private final AtomicLong exposicion = new AtomicLong();
+    private final AtomicLong limiteTotal = new AtomicLong();
+
+    /**
+     * Empieza a seguir la cuenta; devuelve false si ya estaba registrada
+     */
+    public boolean registrar(CuentaCorriente cuenta) {
+        Seguimiento seguimiento = new Seguimiento();
+        if (seguimientos.putIfAbsent(cuenta, seguimiento) != null) {
+            return false;
+        }
+        cuenta.agregarObservador(this);
+        reconciliar(cuenta, seguimiento);
+        return true;
+    }
+
+    /**
+     * Deja de seguir la cuenta y la saca del índice
+     */
+    public boolean quitar(CuentaCorriente cuenta) {
+        Seguimiento seguimiento = seguimientos.remove(cuenta);
+        if (seguimiento == null) {
+            return false;
+        }
+        cuenta.quitarObservador(this);
+        synchronized (seguimiento) {
+            seguimiento.terminado = true;
+            aplicar(cuenta, seguimiento, 0, 0);
+        }
+        return true;
+    }
+
+    // El saldo notificado puede ser viejo para cuando llega: se usa el actual
+    @Override
+    public void alMovimiento(CuentaBancaria cuenta, TipoOperacion tipo, long monto, long saldoAnterior, long saldoNuevo) {
+        alCambiarDatos(cuenta);
+    }
+
+    @Override
+    public void alCambiarDatos(CuentaBancaria cuenta) {
+        if (!(cuenta instanceof CuentaCorriente)) {
+            return;
+        }
+        Seguimiento seguimiento = seguimientos.get(cuenta);
+        if (seguimiento != null) {
+            reconciliar((CuentaCorriente) cuenta, seguimiento);
+        }
+    }
+
+    private void reconciliar(CuentaCorriente cuenta, Seguimiento seguimiento) {
+        synchronized (seguimiento) {
+            if (!seguimiento.terminado) {
+                aplicar(cuenta, seguimiento, cuenta.getSaldoEnUnidadesMinimas(), cuenta.getLimiteDescubiertoEnUnidadesMinimas());
+            }
+        }
+    }
+
+    // Se llama con el monitor del seguimiento tomado
+    private void aplicar(CuentaCorriente cuenta, Seguimiento seguimiento, long saldo, long limite) {
+        long anterior = seguimiento.saldo;
+        long diferencia = Math.max(0, -saldo) - Math.max(0, -anterior);
+        if (diferencia != 0) {
+            exposicion.addAndGet(diferencia);
+        }
+        boolean antes = anterior < 0;
+        boolean despues = saldo < 0;
+        if (antes != despues) {
+            if (despues) {
+                enDescubierto.add(cuenta);
+                cantidad.incrementAndGet();
+            } else {
+                enDescubierto.remove(cuenta);
+                cantidad.decrementAndGet();
+            }
+        }
+        if (limite != seguimiento.limite) {
+            limiteTotal.addAndGet(limite - seguimiento.limite);
+        }
+        seguimiento.saldo = saldo;
+        seguimiento.limite = limite;
+    }
+
+    /**
+     * Cantidad de cuentas en descubierto
+     */
+    public long getCantidad() {
+        return cantidad.get();
+    }
+
+    /**
+     * Suma de lo que deben las cuentas en descubierto (en unidades mínimas)
+     */
+    public long getExposicion() {
+        return exposicion.get();
+    }
+
+    /**
+     * Suma de los límites de descubierto de las cuentas registradas
+     */
+    public long getLimiteTotal() {
+        return limiteTotal.get();
+    }
+
+    /**
+     * Fracción del límite de descubierto total que está en uso (0 a 1)
+     */
+    public double getUsoDelLimite() {
+        long limite = limiteTotal.get();
+        return limite > 0 ? (double) exposicion.get() / limite : 0.0;
+    }
+
+    /**
+     * Recorre las cuentas en descubierto (solo las del índice, sin revisar las demás)
+     */
+    public void paraCada(Consumer<? super CuentaCorriente> accion) {
+        for (CuentaCorriente cuenta : enDescubierto) {
+            accion.accept(cuenta);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "IndiceDescubiertos{" +
+                "cantidad=" + getCantidad() +
+                ", exposicion=" + getExposicion() +
+                ", limiteTotal=" + getLimiteTotal() +
+                ", usoDelLimite=" + String.format("%.4f", getUsoDelLimite()) +
+                '}';
+    }
+
+    /**
+     * Saldo y límite con que una cuenta figura en el índice
+     * Se modifican con el monitor del seguimiento tomado
+     */
+    private static class Seguimiento {
+        long saldo;
+        long limite;
+        boolean terminado;
+    }
+}
@@ -85,6 +85,16 @@ public class Main {
         cuentaCorriente.extraer(1000.0); // Ahora sí debería funcionar
         System.out.println();
         
+        // Demostrar operaciones silenciosas que devuelven un resultado
+        System.out.println("11. OPERACIONES SILENCIOSAS CON RESULTADO:");
+        CuentaBancaria.setBitacora(Bitacora.DESACTIVADA);
+        ResultadoOperacion resultado = cajaAhorro.extraer(1000000.0);
+        System.out.println("Extracción de 1000000.0: " + resultado);
+        resultado = cuentaCorriente.depositar(2000.0);
+        System.out.println("Depósito de 2000.0: " + resultado + " - Saldo: " + cuentaCorriente.getSaldo());
+        CuentaBancaria.setBitacora(new BitacoraConsola());
+        System.out.println();
+        
         System.out.println("=== FIN DE LA DEMOSTRACIÓN ===");
     }
 }
@@ -0,0 +1,139 @@
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Clase con las métricas de una CamaraCompensacion: cantidades por
+ * resultado, lotes, cheques compensados por segundo y latencia desde la
+ * emisión hasta la compensación
+ *
+ * La latencia se acumula en un histograma de potencias de 2 (en
+ * nanosegundos), así registrar un valor es un incremento atómico y los
+ * percentiles se informan como la cota superior de su intervalo
+ */
+public class MetricasCompensacion {
+    private static final int INTERVALOS = 64;
+
+    private final long nanosInicio = System.nanoTime();
+    private final AtomicLong emitidos = new AtomicLong();
+    private final AtomicLong rechazadosEnEmision = new AtomicLong();
+    private final AtomicLong saturados = new AtomicLong();
+    private final AtomicLong acreditados = new AtomicLong();
+    private final AtomicLong rebotados = new AtomicLong();
+    private final AtomicLong fallidos = new AtomicLong();
+    private final AtomicLong lotes = new AtomicLong();
+    private final AtomicLong latenciaMaxima = new AtomicLong();
+    private final AtomicLongArray histograma = new AtomicLongArray(INTERVALOS);
+
+    void registrarEmision(ResultadoOperacion resultado) {
+        if (resultado == ResultadoOperacion.EXITO) {
+            emitidos.incrementAndGet();
+        } else if (resultado == ResultadoOperacion.CAMARA_SATURADA) {
+            saturados.incrementAndGet();
+        } else {
+            rechazadosEnEmision.incrementAndGet();
+        }
+    }
+
+    void registrarLote() {
+        lotes.incrementAndGet();
+    }
+
+    void registrarFallo() {
+        fallidos.incrementAndGet();
+    }
+
+    void registrarCompensacion(boolean acreditado, long latenciaNanos) {
+        (acreditado ? acreditados : rebotados).incrementAndGet();
+        histograma.incrementAndGet(63 - Long.numberOfLeadingZeros(Math.max(latenciaNanos, 1)));
+        long maxima = latenciaMaxima.get();
+        while (latenciaNanos > maxima && !latenciaMaxima.compareAndSet(maxima, latenciaNanos)) {
+            maxima = latenciaMaxima.get();
+        }
+    }
+
+    public long getEmitidos() {
+        return emitidos.get();
+    }
+
+    // Cheques que no se emitieron por la cuenta (inactiva, sin fondos, monto inválido)
+    public long getRechazadosEnEmision() {
+        return rechazadosEnEmision.get();
+    }
+
+    // Cheques que no se emitieron porque la cámara estaba llena
+    public long getSaturados() {
+        return saturados.get();
+    }
+
+    public long getAcreditados() {
+        return acreditados.get();
+    }
+
+    public long getRebotados() {
+        return rebotados.get();
+    }
+
+    // Cheques cuya compensación falló con una excepción
+    public long getFallidos() {
+        return fallidos.get();
+    }
+
+    public long getCompensados() {
+        return acreditados.get() + rebotados.get();
+    }
+
+    public long getLotes() {
+        return lotes.get();
+    }
+
+    public double getCompensadosPorSegundo() {
+        long nanos = System.nanoTime() - nanosInicio;
+        return nanos > 0 ? getCompensados() * 1_000_000_000.0 / nanos : 0.0;
+    }
+
+    public long getLatenciaMaximaNanos() {
+        return latenciaMaxima.get();
+    }
+
+    /**
+     * Latencia (cota superior, en nanosegundos) por debajo de la cual quedó
+     * la fracción indicada de los cheques compensados (por ejemplo 0.99)
+     */
+    public long getPercentilLatenciaNanos(double fraccion) {
+        long total = 0;
+        long[] conteo = new long[INTERVALOS];
+        for (int i = 0; i < INTERVALOS; i++) {
+            conteo[i] = histograma.get(i);
+            total += conteo[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long objetivo = (long) Math.ceil(total * fraccion);
+        long acumulado = 0;
+        for (int i = 0; i < INTERVALOS; i++) {
+            acumulado += conteo[i];
+            if (acumulado >= objetivo) {
+                return i >= 62 ? Long.MAX_VALUE : (1L << (i + 1)) - 1;
+            }
+        }
+        return latenciaMaxima.get();
+    }
+
+    @Override
+    public String toString() {
+        return "MetricasCompensacion{" +
+                "emitidos=" + getEmitidos() +
+                ", rechazadosEnEmision=" + getRechazadosEnEmision() +
+                ", saturados=" + getSaturados() +
+                ", acreditados=" + getAcreditados() +
+                ", rebotados=" + getRebotados() +
+                ", fallidos=" + getFallidos() +
+                ", lotes=" + getLotes() +
+                ", compensadosPorSegundo=" + (long) getCompensadosPorSegundo() +
+                ", latenciaP50Micros=" + getPercentilLatenciaNanos(0.50) / 1000 +
+                ", latenciaP99Micros=" + getPercentilLatenciaNanos(0.99) / 1000 +
+                ", latenciaMaximaMicros=" + getLatenciaMaximaNanos() / 1000 +
+                '}';
+    }
+}
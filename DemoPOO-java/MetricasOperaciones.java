@@ -0,0 +1,252 @@
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Clase que mide cuántas veces se ejecuta cada operación de las cuentas,
+ * con qué resultado y cuánto tarda
+ * Se activa con CuentaBancaria.setMetricas; desactivada no cuesta nada más
+ * que leer un campo
+ *
+ * Por cada par (tipo de operación, resultado) hay un contador y un
+ * histograma de latencias log-lineal (como HdrHistogram): cada potencia de
+ * 2 se divide en SUBINTERVALOS partes iguales, así el error relativo de los
+ * percentiles es menor al 1 / SUBINTERVALOS (~3%) para cualquier latencia
+ * Registrar una medición son incrementos atómicos sin locks y no crea
+ * objetos (cada histograma se crea la primera vez que se usa su par)
+ */
+public class MetricasOperaciones {
+    private static final int BITS_SUBINTERVALO = 5;
+    private static final int SUBINTERVALOS = 1 << BITS_SUBINTERVALO;
+    // Hasta 2^40 ns (unos 18 minutos); los valores mayores van al último intervalo
+    private static final int MAXIMO_EXPONENTE = 40;
+    private static final int INTERVALOS = (MAXIMO_EXPONENTE - BITS_SUBINTERVALO + 2) * SUBINTERVALOS;
+
+    private static final TipoOperacion[] TIPOS = TipoOperacion.values();
+    private static final ResultadoOperacion[] RESULTADOS = ResultadoOperacion.values();
+
+    private final AtomicReferenceArray<Histograma> histogramas =
+            new AtomicReferenceArray<>(TIPOS.length * RESULTADOS.length);
+
+    /**
+     * Registra una operación que tardó latenciaNanos
+     */
+    public void registrar(TipoOperacion tipo, ResultadoOperacion resultado, long latenciaNanos) {
+        int indice = tipo.ordinal() * RESULTADOS.length + resultado.ordinal();
+        Histograma histograma = histogramas.get(indice);
+        if (histograma == null) {
+            histogramas.compareAndSet(indice, null, new Histograma());
+            histograma = histogramas.get(indice);
+        }
+        histograma.registrar(latenciaNanos);
+    }
+
+    public long getCantidad(TipoOperacion tipo, ResultadoOperacion resultado) {
+        Histograma histograma = histograma(tipo, resultado);
+        return histograma != null ? histograma.cantidad() : 0;
+    }
+
+    /**
+     * Cantidad de operaciones de ese tipo, con cualquier resultado
+     */
+    public long getCantidad(TipoOperacion tipo) {
+        long total = 0;
+        for (ResultadoOperacion resultado : RESULTADOS) {
+            total += getCantidad(tipo, resultado);
+        }
+        return total;
+    }
+
+    public double getPromedioNanos(TipoOperacion tipo, ResultadoOperacion resultado) {
+        Histograma histograma = histograma(tipo, resultado);
+        if (histograma == null) {
+            return 0.0;
+        }
+        long cantidad = histograma.cantidad();
+        return cantidad > 0 ? (double) histograma.sumaNanos.sum() / cantidad : 0.0;
+    }
+
+    /**
+     * Latencia por debajo de la cual quedó la fracción indicada de las
+     * operaciones (por ejemplo 0.99 para el percentil 99)
+     */
+    public long getPercentilNanos(TipoOperacion tipo, ResultadoOperacion resultado, double fraccion) {
+        Histograma histograma = histograma(tipo, resultado);
+        return histograma != null ? histograma.percentil(fraccion) : 0;
+    }
+
+    /**
+     * Percentil de las operaciones de ese tipo, con cualquier resultado
+     */
+    public long getPercentilNanos(TipoOperacion tipo, double fraccion) {
+        long[] conteo = new long[INTERVALOS];
+        long total = 0;
+        for (ResultadoOperacion resultado : RESULTADOS) {
+            Histograma h = histograma(tipo, resultado);
+            if (h == null) {
+                continue;
+            }
+            for (int i = 0; i < INTERVALOS; i++) {
+                long c = h.conteo.get(i);
+                conteo[i] += c;
+                total += c;
+            }
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long objetivo = Math.max(1, (long) Math.ceil(total * fraccion));
+        long acumulado = 0;
+        for (int i = 0; i < INTERVALOS; i++) {
+            acumulado += conteo[i];
+            if (acumulado >= objetivo) {
+                return limiteSuperior(i);
+            }
+        }
+        return limiteSuperior(INTERVALOS - 1);
+    }
+
+    /**
+     * Vuelve todos los contadores a cero
+     */
+    public void reiniciar() {
+        for (int i = 0; i < histogramas.length(); i++) {
+            histogramas.set(i, null);
+        }
+    }
+
+    /**
+     * Resumen en texto: una línea por cada par (operación, resultado) que se usó
+     */
+    public String aTexto() {
+        StringBuilder sb = new StringBuilder("=== Métricas de Operaciones ===\n");
+        for (TipoOperacion tipo : TIPOS) {
+            for (ResultadoOperacion resultado : RESULTADOS) {
+                Histograma h = histograma(tipo, resultado);
+                if (h == null) {
+                    continue;
+                }
+                sb.append(String.format(Locale.ROOT,
+                        "%-16s %-24s cantidad=%d promedio=%.0fns p50=%dns p99=%dns p999=%dns max=%dns%n",
+                        tipo, resultado, h.cantidad(), getPromedioNanos(tipo, resultado),
+                        h.percentil(0.50), h.percentil(0.99), h.percentil(0.999), h.maximo()));
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Resumen en JSON: {"DEPOSITO": {"EXITO": {"cantidad": ..., ...}, ...}, ...}
+     */
+    public String aJson() {
+        StringBuilder sb = new StringBuilder("{");
+        boolean primerTipo = true;
+        for (TipoOperacion tipo : TIPOS) {
+            boolean primerResultado = true;
+            for (ResultadoOperacion resultado : RESULTADOS) {
+                Histograma h = histograma(tipo, resultado);
+                if (h == null) {
+                    continue;
+                }
+                if (primerResultado) {
+                    sb.append(primerTipo ? "" : ",").append('"').append(tipo).append("\":{");
+                    primerTipo = false;
+                    primerResultado = false;
+                } else {
+                    sb.append(',');
+                }
+                sb.append('"').append(resultado).append("\":{")
+                  .append("\"cantidad\":").append(h.cantidad())
+                  .append(",\"promedioNanos\":").append(String.format(Locale.ROOT, "%.1f", getPromedioNanos(tipo, resultado)))
+                  .append(",\"p50Nanos\":").append(h.percentil(0.50))
+                  .append(",\"p90Nanos\":").append(h.percentil(0.90))
+                  .append(",\"p99Nanos\":").append(h.percentil(0.99))
+                  .append(",\"p999Nanos\":").append(h.percentil(0.999))
+                  .append(",\"maximoNanos\":").append(h.maximo())
+                  .append('}');
+            }
+            if (!primerResultado) {
+                sb.append('}');
+            }
+        }
+        return sb.append('}').toString();
+    }
+
+    @Override
+    public String toString() {
+        return aTexto();
+    }
+
+    private Histograma histograma(TipoOperacion tipo, ResultadoOperacion resultado) {
+        return histogramas.get(tipo.ordinal() * RESULTADOS.length + resultado.ordinal());
+    }
+
+    // Intervalo de una latencia: los valores chicos van uno por intervalo, los
+    // demás según su potencia de 2 y los BITS_SUBINTERVALO bits siguientes
+    static int intervalo(long nanos) {
+        if (nanos < SUBINTERVALOS) {
+            return (int) Math.max(nanos, 0);
+        }
+        int exponente = 63 - Long.numberOfLeadingZeros(nanos);
+        if (exponente > MAXIMO_EXPONENTE) {
+            return INTERVALOS - 1;
+        }
+        int desplazamiento = exponente - BITS_SUBINTERVALO;
+        int sub = (int) (nanos >>> desplazamiento) & (SUBINTERVALOS - 1);
+        return (desplazamiento + 1) * SUBINTERVALOS + sub;
+    }
+
+    // Mayor latencia que cae en el intervalo
+    static long limiteSuperior(int intervalo) {
+        if (intervalo < SUBINTERVALOS) {
+            return intervalo;
+        }
+        int desplazamiento = intervalo / SUBINTERVALOS - 1;
+        long base = (long) (SUBINTERVALOS + intervalo % SUBINTERVALOS) << desplazamiento;
+        return base + (1L << desplazamiento) - 1;
+    }
+
+    private static final class Histograma {
+        final AtomicLongArray conteo = new AtomicLongArray(INTERVALOS);
+        final LongAdder sumaNanos = new LongAdder();
+
+        void registrar(long nanos) {
+            conteo.incrementAndGet(intervalo(nanos));
+            sumaNanos.add(nanos);
+        }
+
+        long cantidad() {
+            long total = 0;
+            for (int i = 0; i < INTERVALOS; i++) {
+                total += conteo.get(i);
+            }
+            return total;
+        }
+
+        long percentil(double fraccion) {
+            long total = cantidad();
+            if (total == 0) {
+                return 0;
+            }
+            long objetivo = Math.max(1, (long) Math.ceil(total * fraccion));
+            long acumulado = 0;
+            for (int i = 0; i < INTERVALOS; i++) {
+                acumulado += conteo.get(i);
+                if (acumulado >= objetivo) {
+                    return limiteSuperior(i);
+                }
+            }
+            return maximo();
+        }
+
+        long maximo() {
+            for (int i = INTERVALOS - 1; i >= 0; i--) {
+                if (conteo.get(i) > 0) {
+                    return limiteSuperior(i);
+                }
+            }
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Clase utilitaria que asigna a cada código de moneda (ISO 4217) un número
+ * chico y fijo mientras dure el programa, para indexar arreglos por moneda
+ * (cotizaciones, totales por moneda) en lugar de usar mapas por String
+ *
+ * Los códigos se normalizan a mayúsculas; id registra los desconocidos la
+ * primera vez que se piden y buscar no. Una cuenta sin moneda usa XXX
+ * ("sin moneda")
+ *
+ * Los códigos y los decimales se publican juntos en un Registro inmutable:
+ * quien necesite varios datos de una vez (por ejemplo, recorrer todas las
+ * monedas) toma un Registro con registro() y trabaja sobre él
+ */
+public final class Monedas {
+    private static final Map<String, Integer> IDS = new ConcurrentHashMap<>();
+    // Se reemplaza completo al registrar una moneda
+    private static volatile Registro registro = new Registro(new String[0], new int[0]);
+
+    public static final int ARS = id("ARS");
+    public static final int USD = id("USD");
+    public static final int EUR = id("EUR");
+    public static final int SIN_MONEDA = id("XXX");
+
+    private Monedas() {
+    }
+
+    /**
+     * Número de la moneda, registrándola si es la primera vez que se usa
+     */
+    public static int id(String codigo) {
+        String normalizado = normalizar(codigo);
+        Integer id = IDS.get(normalizado);
+        return id != null ? id : registrar(normalizado);
+    }
+
+    /**
+     * Número de la moneda, o -1 si nunca se registró
+     */
+    public static int buscar(String codigo) {
+        Integer id = IDS.get(normalizar(codigo));
+        return id != null ? id : -1;
+    }
+
+    public static String codigo(int id) {
+        return registro.codigos[id];
+    }
+
+    public static int decimales(int id) {
+        return registro.decimales[id];
+    }
+
+    /**
+     * Cantidad de monedas registradas (los números van de 0 a cantidad() - 1)
+     */
+    public static int cantidad() {
+        return registro.codigos.length;
+    }
+
+    /**
+     * Monedas registradas hasta ahora; no cambia aunque se registren otras
+     */
+    public static Registro registro() {
+        return registro;
+    }
+
+    private static synchronized int registrar(String codigo) {
+        Integer existente = IDS.get(codigo);
+        if (existente != null) {
+            return existente;
+        }
+        Registro actual = registro;
+        int id = actual.codigos.length;
+        String[] codigos = Arrays.copyOf(actual.codigos, id + 1);
+        int[] decimales = Arrays.copyOf(actual.decimales, id + 1);
+        codigos[id] = codigo;
+        decimales[id] = Dinero.decimales(codigo);
+        // Primero el registro: quien vea el id en el mapa ya encuentra su código
+        registro = new Registro(codigos, decimales);
+        IDS.put(codigo, id);
+        return id;
+    }
+
+    private static String normalizar(String codigo) {
+        if (codigo == null || codigo.trim().isEmpty()) {
+            return "XXX";
+        }
+        return codigo.trim().toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * Códigos y decimales de las monedas registradas en un momento dado
+     */
+    public static final class Registro {
+        private final String[] codigos;
+        private final int[] decimales;
+
+        private Registro(String[] codigos, int[] decimales) {
+            this.codigos = codigos;
+            this.decimales = decimales;
+        }
+
+        public int cantidad() {
+            return codigos.length;
+        }
+
+        public String codigo(int id) {
+            return codigos[id];
+        }
+
+        public int decimales(int id) {
+            return decimales[id];
+        }
+    }
+}
@@ -0,0 +1,219 @@
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntFunction;
+import java.util.stream.Stream;
+
+/**
+ * Clase que aplica grandes volúmenes de operaciones (depósitos, extracciones
+ * y cheques) en paralelo
+ *
+ * Las operaciones se leen en lotes de tamaño fijo; cada lote se reparte en
+ * particiones según el id de la cuenta, así todas las operaciones de una
+ * misma cuenta caen en la misma partición y se aplican en el orden en que
+ * llegaron. Las particiones se ejecutan en paralelo en un ForkJoinPool y un
+ * lote termina por completo antes de empezar el siguiente
+ *
+ * Una operación que lanza una excepción (por ejemplo, sin tipo) no corta el
+ * lote: queda como fallo con resultado ERROR_INESPERADO y la excepción como
+ * causa, y las demás se siguen aplicando
+ *
+ * Conviene desactivar la bitácora (CuentaBancaria.setBitacora) antes de
+ * procesar lotes grandes
+ */
+public class MotorLotes {
+    private final IntFunction<? extends CuentaBancaria> buscadorCuentas;
+    private final int tamanioLote;
+    private final int particiones;
+    private final ForkJoinPool pool;
+
+    public MotorLotes(IntFunction<? extends CuentaBancaria> buscadorCuentas, int tamanioLote) {
+        this(buscadorCuentas, tamanioLote, ForkJoinPool.commonPool().getParallelism() * 4,
+             ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param buscadorCuentas devuelve la cuenta de un id, o null si no existe
+     *                        (por ejemplo mapa::get); se llama desde varios hilos
+     * @param tamanioLote     cantidad de operaciones por lote
+     * @param particiones     cantidad de particiones en que se divide cada lote
+     * @param pool            pool donde se ejecutan las particiones
+     */
+    public MotorLotes(IntFunction<? extends CuentaBancaria> buscadorCuentas, int tamanioLote,
+                      int particiones, ForkJoinPool pool) {
+        if (tamanioLote <= 0 || particiones <= 0) {
+            throw new IllegalArgumentException("El tamaño de lote y las particiones deben ser mayores a 0");
+        }
+        this.buscadorCuentas = buscadorCuentas;
+        this.tamanioLote = tamanioLote;
+        this.particiones = particiones;
+        this.pool = pool;
+    }
+
+    public List<ResumenLote> procesar(Stream<Operacion> operaciones) {
+        return procesar(operaciones.iterator());
+    }
+
+    /**
+     * Procesa todas las operaciones y devuelve un resumen por lote
+     */
+    public List<ResumenLote> procesar(Iterator<Operacion> operaciones) {
+        List<ResumenLote> resumenes = new ArrayList<>();
+        Operacion[] lote = new Operacion[tamanioLote];
+        long indiceBase = 0;
+        long numeroLote = 0;
+        while (operaciones.hasNext()) {
+            int cantidad = 0;
+            while (cantidad < tamanioLote && operaciones.hasNext()) {
+                lote[cantidad++] = operaciones.next();
+            }
+            resumenes.add(procesarLote(numeroLote++, lote, cantidad, indiceBase));
+            indiceBase += cantidad;
+        }
+        return resumenes;
+    }
+
+    /**
+     * Procesa las primeras 'cantidad' operaciones del arreglo como un lote
+     *
+     * @param indiceBase posición de la primera operación en el flujo completo,
+     *                   para informar los fallos
+     */
+    public ResumenLote procesarLote(long numeroLote, Operacion[] lote, int cantidad, long indiceBase) {
+        long inicio = System.nanoTime();
+
+        // Ordenamiento por conteo: índices de las operaciones agrupados por partición,
+        // conservando el orden original dentro de cada una
+        int[] inicioParticion = new int[particiones + 1];
+        int[] particionDe = new int[cantidad];
+        for (int i = 0; i < cantidad; i++) {
+            int particion = particion(lote[i].getIdCuenta());
+            particionDe[i] = particion;
+            inicioParticion[particion + 1]++;
+        }
+        for (int p = 0; p < particiones; p++) {
+            inicioParticion[p + 1] += inicioParticion[p];
+        }
+        int[] indices = new int[cantidad];
+        int[] siguiente = inicioParticion.clone();
+        for (int i = 0; i < cantidad; i++) {
+            indices[siguiente[particionDe[i]]++] = i;
+        }
+
+        List<TareaParticion> tareas = new ArrayList<>(particiones);
+        for (int p = 0; p < particiones; p++) {
+            if (inicioParticion[p] < inicioParticion[p + 1]) {
+                tareas.add(new TareaParticion(lote, indices, inicioParticion[p], inicioParticion[p + 1], indiceBase));
+            }
+        }
+        pool.invoke(new RecursiveAction() {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected void compute() {
+                invokeAll(tareas);
+            }
+        });
+
+        int[] conteo = new int[ResultadoOperacion.values().length];
+        List<FalloOperacion> fallos = new ArrayList<>();
+        for (TareaParticion tarea : tareas) {
+            for (int r = 0; r < conteo.length; r++) {
+                conteo[r] += tarea.conteo[r];
+            }
+            fallos.addAll(tarea.fallos);
+        }
+        fallos.sort((a, b) -> Long.compare(a.getIndice(), b.getIndice()));
+        return new ResumenLote(numeroLote, cantidad, conteo, fallos, System.nanoTime() - inicio);
+    }
+
+    private int particion(int idCuenta) {
+        // Mezcla los bits del id para repartir bien ids consecutivos
+        int h = idCuenta * 0x9E3779B9;
+        return Math.floorMod(h ^ (h >>> 16), particiones);
+    }
+
+    /**
+     * Aplica una operación sobre su cuenta y devuelve el resultado
+     */
+    public ResultadoOperacion aplicar(Operacion operacion) {
+        CuentaBancaria cuenta = buscadorCuentas.apply(operacion.getIdCuenta());
+        if (cuenta == null) {
+            return ResultadoOperacion.CUENTA_INEXISTENTE;
+        }
+        switch (operacion.getTipo()) {
+            case DEPOSITO:
+                if (cuenta instanceof CuentaConSaldo) {
+                    return ((CuentaConSaldo) cuenta).depositar(operacion.getMonto());
+                }
+                break;
+            case EXTRACCION:
+                if (cuenta instanceof CuentaConSaldo) {
+                    return ((CuentaConSaldo) cuenta).extraer(operacion.getMonto());
+                }
+                break;
+            case CHEQUE:
+                if (cuenta instanceof CuentaCorriente) {
+                    return ((CuentaCorriente) cuenta).emitirCheque(operacion.getMonto(), operacion.getBeneficiario());
+                }
+                break;
+            case INTERESES:
+                if (cuenta instanceof CajaDeAhorro) {
+                    return ((CajaDeAhorro) cuenta).aplicarIntereses();
+                }
+                break;
+            case COMISION:
+                if (cuenta instanceof CuentaCorriente) {
+                    return ((CuentaCorriente) cuenta).cobrarComisionMantenimiento();
+                }
+                break;
+            default:
+                break;
+        }
+        return ResultadoOperacion.OPERACION_NO_SOPORTADA;
+    }
+
+    /**
+     * Tarea que aplica, en orden, las operaciones de una partición
+     */
+    private class TareaParticion extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Operacion[] lote;
+        private final int[] indices;
+        private final int desde;
+        private final int hasta;
+        private final long indiceBase;
+        private final int[] conteo = new int[ResultadoOperacion.values().length];
+        private final List<FalloOperacion> fallos = new ArrayList<>();
+
+        TareaParticion(Operacion[] lote, int[] indices, int desde, int hasta, long indiceBase) {
+            this.lote = lote;
+            this.indices = indices;
+            this.desde = desde;
+            this.hasta = hasta;
+            this.indiceBase = indiceBase;
+        }
+
+        @Override
+        protected void compute() {
+            for (int i = desde; i < hasta; i++) {
+                Operacion operacion = lote[indices[i]];
+                ResultadoOperacion resultado;
+                Throwable causa = null;
+                try {
+                    resultado = aplicar(operacion);
+                } catch (RuntimeException e) {
+                    resultado = ResultadoOperacion.ERROR_INESPERADO;
+                    causa = e;
+                }
+                conteo[resultado.ordinal()]++;
+                if (!resultado.esExitoso()) {
+                    fallos.add(new FalloOperacion(indiceBase + indices[i], operacion, resultado, causa));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,22 @@
+/**
+ * Interfaz para quien necesita enterarse de los cambios de una cuenta
+ * (por ejemplo, el diario de transacciones)
+ * Se notifica después de aplicar cada cambio, desde el hilo que lo hizo,
+ * así que las implementaciones deben ser rápidas y seguras entre hilos
+ */
+public interface ObservadorMovimientos {
+
+    /**
+     * Se llama cuando cambia el saldo de la cuenta
+     * Los importes están en unidades mínimas de la moneda; saldoNuevo - saldoAnterior
+     * es exactamente el efecto de esta operación aunque otros hilos operen a la vez
+     */
+    void alMovimiento(CuentaBancaria cuenta, TipoOperacion tipo, long monto, long saldoAnterior, long saldoNuevo);
+
+    /**
+     * Se llama cuando cambian los datos de la cuenta que no son el saldo
+     * (usuario, moneda, estado activa, límites, tasas, etc.)
+     */
+    default void alCambiarDatos(CuentaBancaria cuenta) {
+    }
+}
@@ -0,0 +1,49 @@
+/**
+ * Clase que representa una operación a aplicar sobre una cuenta
+ * (por ejemplo, una línea de un archivo de novedades)
+ * Es inmutable para poder compartirla entre hilos
+ */
+public class Operacion {
+    private final TipoOperacion tipo;
+    private final int idCuenta;
+    private final double monto;
+    private final String beneficiario;
+
+    public Operacion(TipoOperacion tipo, int idCuenta, double monto) {
+        this(tipo, idCuenta, monto, null);
+    }
+
+    // Constructor para cheques, que además llevan beneficiario
+    public Operacion(TipoOperacion tipo, int idCuenta, double monto, String beneficiario) {
+        this.tipo = tipo;
+        this.idCuenta = idCuenta;
+        this.monto = monto;
+        this.beneficiario = beneficiario;
+    }
+
+    public TipoOperacion getTipo() {
+        return tipo;
+    }
+
+    public int getIdCuenta() {
+        return idCuenta;
+    }
+
+    public double getMonto() {
+        return monto;
+    }
+
+    public String getBeneficiario() {
+        return beneficiario;
+    }
+
+    @Override
+    public String toString() {
+        return "Operacion{" +
+                "tipo=" + tipo +
+                ", idCuenta=" + idCuenta +
+                ", monto=" + monto +
+                (beneficiario != null ? ", beneficiario='" + beneficiario + '\'' : "") +
+                '}';
+    }
+}
@@ -0,0 +1,84 @@
+/**
+ * Clase que representa un límite de velocidad de ControlVelocidad: cuántas
+ * extracciones y cheques, y por cuánto dinero, puede hacer una cuenta
+ * dentro de una ventana de tiempo
+ *
+ * La ventana se divide en cubetas del mismo ancho; al vencer la cubeta más
+ * vieja la ventana avanza de a un ancho de cubeta (con más cubetas el
+ * deslizamiento es más fino, pero cada cuenta ocupa más memoria)
+ */
+public class ReglaVelocidad {
+    // Valor de maxOperaciones o maxMonto para no limitar ese aspecto
+    public static final int SIN_LIMITE_OPERACIONES = Integer.MAX_VALUE;
+    public static final long SIN_LIMITE_MONTO = Long.MAX_VALUE;
+
+    private final long ventanaMillis;
+    private final int cubetas;
+    private final long anchoCubetaMillis;
+    private final int maxOperaciones;
+    private final long maxMonto;
+
+    /**
+     * @param ventanaMillis  duración de la ventana
+     * @param cubetas        cantidad de cubetas en que se divide la ventana
+     * @param maxOperaciones operaciones permitidas dentro de la ventana
+     * @param maxMonto       suma de montos permitida dentro de la ventana (en unidades mínimas)
+     */
+    public ReglaVelocidad(long ventanaMillis, int cubetas, int maxOperaciones, long maxMonto) {
+        if (cubetas <= 0 || ventanaMillis < cubetas) {
+            throw new IllegalArgumentException("La ventana debe durar al menos un milisegundo por cubeta");
+        }
+        if (maxOperaciones <= 0 || maxMonto <= 0) {
+            throw new IllegalArgumentException("Los límites deben ser mayores a 0");
+        }
+        this.ventanaMillis = ventanaMillis;
+        this.cubetas = cubetas;
+        this.anchoCubetaMillis = (ventanaMillis + cubetas - 1) / cubetas;
+        this.maxOperaciones = maxOperaciones;
+        this.maxMonto = maxMonto;
+    }
+
+    /**
+     * Regla que solo limita la cantidad de operaciones (ventana en 10 cubetas)
+     */
+    public static ReglaVelocidad operaciones(long ventanaMillis, int maxOperaciones) {
+        return new ReglaVelocidad(ventanaMillis, 10, maxOperaciones, SIN_LIMITE_MONTO);
+    }
+
+    /**
+     * Regla que solo limita la suma de los montos (ventana en 10 cubetas)
+     */
+    public static ReglaVelocidad monto(long ventanaMillis, long maxMonto) {
+        return new ReglaVelocidad(ventanaMillis, 10, SIN_LIMITE_OPERACIONES, maxMonto);
+    }
+
+    public long getVentanaMillis() {
+        return ventanaMillis;
+    }
+
+    public int getCubetas() {
+        return cubetas;
+    }
+
+    public long getAnchoCubetaMillis() {
+        return anchoCubetaMillis;
+    }
+
+    public int getMaxOperaciones() {
+        return maxOperaciones;
+    }
+
+    public long getMaxMonto() {
+        return maxMonto;
+    }
+
+    @Override
+    public String toString() {
+        return "ReglaVelocidad{" +
+                "ventanaMillis=" + ventanaMillis +
+                ", cubetas=" + cubetas +
+                ", maxOperaciones=" + (maxOperaciones == SIN_LIMITE_OPERACIONES ? "sin límite" : maxOperaciones) +
+                ", maxMonto=" + (maxMonto == SIN_LIMITE_MONTO ? "sin límite" : maxMonto) +
+                '}';
+    }
+}
@@ -0,0 +1,30 @@
+/**
+ * Enumeración con el resultado de una operación sobre una cuenta
+ * Las operaciones devuelven una de estas constantes en lugar de imprimir,
+ * así el camino exitoso no arma mensajes ni reserva memoria
+ * El saldo que dejó la operación se obtiene pasándole un ComprobanteOperacion:
+ * es el del mismo CAS que la aplicó, mientras que un getSaldo() posterior
+ * puede incluir ya los movimientos de otros hilos
+ * SALDO_FUERA_DE_RANGO indica que el saldo resultante no entraría en un
+ * long; el saldo queda como estaba
+ * ERROR_INESPERADO lo usan los procesos masivos (por ejemplo MotorLotes)
+ * para una operación que lanzó una excepción, así el resto sigue
+ */
+public enum ResultadoOperacion {
+    EXITO,
+    SALDO_INSUFICIENTE,
+    CUENTA_INACTIVA,
+    MONTO_INVALIDO,
+    SIN_SALDO,
+    CUENTA_INEXISTENTE,
+    OPERACION_NO_SOPORTADA,
+    YA_COBRADA,
+    CAMARA_SATURADA,
+    LIMITE_VELOCIDAD_EXCEDIDO,
+    SALDO_FUERA_DE_RANGO,
+    ERROR_INESPERADO;
+
+    public boolean esExitoso() {
+        return this == EXITO;
+    }
+}
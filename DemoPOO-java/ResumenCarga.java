@@ -0,0 +1,169 @@
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Clase con el resumen de una ejecución de GeneradorCarga: operaciones por
+ * segundo, latencias por tipo de operación (de MetricasOperaciones) y lo
+ * que hizo el recolector de basura durante la medición
+ */
+public class ResumenCarga {
+    private static final double[] PERCENTILES = {0.50, 0.90, 0.99, 0.999};
+    private static final String[] NOMBRES_PERCENTILES = {"p50", "p90", "p99", "p999"};
+
+    private final ConfiguracionCarga configuracion;
+    private final long operaciones;
+    private final long duracionNanos;
+    private final MetricasOperaciones metricas;
+    private final List<String> recolectores;
+    private final long[] recoleccionesPorRecolector;
+    private final long[] milisPorRecolector;
+    private final long bytesReservados;
+    private final long heapUsado;
+    private final int corridas;
+    private final long errores;
+
+    public ResumenCarga(ConfiguracionCarga configuracion, long operaciones, long duracionNanos,
+                        MetricasOperaciones metricas, List<String> recolectores,
+                        long[] recoleccionesPorRecolector, long[] milisPorRecolector,
+                        long bytesReservados, long heapUsado, int corridas, long errores) {
+        this.configuracion = configuracion;
+        this.operaciones = operaciones;
+        this.duracionNanos = duracionNanos;
+        this.metricas = metricas;
+        this.recolectores = Collections.unmodifiableList(recolectores);
+        this.recoleccionesPorRecolector = recoleccionesPorRecolector;
+        this.milisPorRecolector = milisPorRecolector;
+        this.bytesReservados = bytesReservados;
+        this.heapUsado = heapUsado;
+        this.corridas = corridas;
+        this.errores = errores;
+    }
+
+    public ConfiguracionCarga getConfiguracion() {
+        return configuracion;
+    }
+
+    public long getOperaciones() {
+        return operaciones;
+    }
+
+    public long getDuracionNanos() {
+        return duracionNanos;
+    }
+
+    public double getOperacionesPorSegundo() {
+        return duracionNanos > 0 ? operaciones * 1_000_000_000.0 / duracionNanos : 0.0;
+    }
+
+    public MetricasOperaciones getMetricas() {
+        return metricas;
+    }
+
+    public long getRecolecciones() {
+        long total = 0;
+        for (long cantidad : recoleccionesPorRecolector) {
+            total += cantidad;
+        }
+        return total;
+    }
+
+    public long getMilisEnRecolecciones() {
+        long total = 0;
+        for (long milis : milisPorRecolector) {
+            total += milis;
+        }
+        return total;
+    }
+
+    // Bytes reservados por los hilos de carga (-1 si la JVM no lo informa)
+    public long getBytesReservados() {
+        return bytesReservados;
+    }
+
+    public double getBytesPorOperacion() {
+        return bytesReservados >= 0 && operaciones > 0 ? (double) bytesReservados / operaciones : -1;
+    }
+
+    public long getHeapUsado() {
+        return heapUsado;
+    }
+
+    // Corridas masivas de intereses y comisiones hechas durante la medición
+    public int getCorridas() {
+        return corridas;
+    }
+
+    // Operaciones que terminaron con una excepción durante la medición
+    public long getErrores() {
+        return errores;
+    }
+
+    public String aTexto() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("=== Resumen de Carga ===\n");
+        sb.append(configuracion).append('\n');
+        sb.append(String.format(Locale.ROOT, "Operaciones: %d en %.1f s (%.0f op/s), %d con error%n",
+                operaciones, duracionNanos / 1e9, getOperacionesPorSegundo(), errores));
+        sb.append(String.format(Locale.ROOT, "%-12s %12s", "operación", "cantidad"));
+        for (String nombre : NOMBRES_PERCENTILES) {
+            sb.append(String.format(Locale.ROOT, " %10s", nombre + " ns"));
+        }
+        sb.append('\n');
+        for (TipoOperacion tipo : ConfiguracionCarga.OPERACIONES) {
+            sb.append(String.format(Locale.ROOT, "%-12s %12d", tipo, metricas.getCantidad(tipo)));
+            for (double percentil : PERCENTILES) {
+                sb.append(String.format(Locale.ROOT, " %10d", metricas.getPercentilNanos(tipo, percentil)));
+            }
+            sb.append('\n');
+        }
+        sb.append("Corridas masivas: ").append(corridas).append('\n');
+        sb.append("GC: ").append(getRecolecciones()).append(" recolecciones, ")
+          .append(getMilisEnRecolecciones()).append(" ms");
+        for (int i = 0; i < recolectores.size(); i++) {
+            sb.append(i == 0 ? " (" : ", ").append(recolectores.get(i)).append(": ")
+              .append(recoleccionesPorRecolector[i]).append(" / ").append(milisPorRecolector[i]).append(" ms");
+        }
+        sb.append(recolectores.isEmpty() ? "\n" : ")\n");
+        sb.append(String.format(Locale.ROOT, "Memoria: %.1f bytes/op reservados, heap usado %d MB%n",
+                getBytesPorOperacion(), heapUsado / (1024 * 1024)));
+        sb.append(metricas.aTexto());
+        return sb.toString();
+    }
+
+    public String aJson() {
+        StringBuilder sb = new StringBuilder("{");
+        sb.append("\"operaciones\":").append(operaciones)
+          .append(",\"duracionNanos\":").append(duracionNanos)
+          .append(",\"operacionesPorSegundo\":").append(String.format(Locale.ROOT, "%.1f", getOperacionesPorSegundo()))
+          .append(",\"errores\":").append(errores)
+          .append(",\"latencias\":{");
+        for (int i = 0; i < ConfiguracionCarga.OPERACIONES.length; i++) {
+            TipoOperacion tipo = ConfiguracionCarga.OPERACIONES[i];
+            sb.append(i == 0 ? "" : ",").append('"').append(tipo).append("\":{\"cantidad\":")
+              .append(metricas.getCantidad(tipo));
+            for (int p = 0; p < PERCENTILES.length; p++) {
+                sb.append(",\"").append(NOMBRES_PERCENTILES[p]).append("Nanos\":")
+                  .append(metricas.getPercentilNanos(tipo, PERCENTILES[p]));
+            }
+            sb.append('}');
+        }
+        sb.append("},\"corridas\":").append(corridas)
+          .append(",\"gc\":{\"recolecciones\":").append(getRecolecciones())
+          .append(",\"milis\":").append(getMilisEnRecolecciones()).append(",\"recolectores\":{");
+        for (int i = 0; i < recolectores.size(); i++) {
+            sb.append(i == 0 ? "" : ",").append('"').append(recolectores.get(i)).append("\":{\"recolecciones\":")
+              .append(recoleccionesPorRecolector[i]).append(",\"milis\":").append(milisPorRecolector[i]).append('}');
+        }
+        sb.append("}},\"bytesPorOperacion\":").append(String.format(Locale.ROOT, "%.1f", getBytesPorOperacion()))
+          .append(",\"heapUsado\":").append(heapUsado)
+          .append(",\"metricas\":").append(metricas.aJson())
+          .append('}');
+        return sb.toString();
+    }
+
+    @Override
+    public String toString() {
+        return aTexto();
+    }
+}
@@ -0,0 +1,93 @@
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Clase con el resumen de una ejecución de CobroComisiones
+ * Incluye las cuentas que quedaron en descubierto por el cobro, así no hace
+ * falta recorrer todas las cuentas otra vez para encontrarlas
+ */
+public class ResumenCobro {
+    private final int ciclo;
+    private final int cuentas;
+    private final int bloques;
+    private final int bloquesReanudados;
+    private final int cobradas;
+    private final int yaCobradas;
+    private final int inactivas;
+    private final long totalCobrado;
+    private final List<CuentaCorriente> nuevasEnDescubierto;
+    private final long duracionNanos;
+
+    public ResumenCobro(int ciclo, int cuentas, int bloques, int bloquesReanudados, int cobradas,
+                        int yaCobradas, int inactivas, long totalCobrado,
+                        List<CuentaCorriente> nuevasEnDescubierto, long duracionNanos) {
+        this.ciclo = ciclo;
+        this.cuentas = cuentas;
+        this.bloques = bloques;
+        this.bloquesReanudados = bloquesReanudados;
+        this.cobradas = cobradas;
+        this.yaCobradas = yaCobradas;
+        this.inactivas = inactivas;
+        this.totalCobrado = totalCobrado;
+        this.nuevasEnDescubierto = Collections.unmodifiableList(nuevasEnDescubierto);
+        this.duracionNanos = duracionNanos;
+    }
+
+    public int getCiclo() {
+        return ciclo;
+    }
+
+    public int getCuentas() {
+        return cuentas;
+    }
+
+    public int getBloques() {
+        return bloques;
+    }
+
+    // Bloques que ya estaban terminados en una ejecución anterior y se saltearon
+    public int getBloquesReanudados() {
+        return bloquesReanudados;
+    }
+
+    public int getCobradas() {
+        return cobradas;
+    }
+
+    public int getYaCobradas() {
+        return yaCobradas;
+    }
+
+    public int getInactivas() {
+        return inactivas;
+    }
+
+    // Suma en unidades mínimas; solo tiene sentido si todas las cuentas usan la misma moneda
+    public long getTotalCobrado() {
+        return totalCobrado;
+    }
+
+    public List<CuentaCorriente> getNuevasEnDescubierto() {
+        return nuevasEnDescubierto;
+    }
+
+    public long getDuracionNanos() {
+        return duracionNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "ResumenCobro{" +
+                "ciclo=" + ciclo +
+                ", cuentas=" + cuentas +
+                ", bloques=" + bloques +
+                ", bloquesReanudados=" + bloquesReanudados +
+                ", cobradas=" + cobradas +
+                ", yaCobradas=" + yaCobradas +
+                ", inactivas=" + inactivas +
+                ", totalCobrado=" + totalCobrado +
+                ", nuevasEnDescubierto=" + nuevasEnDescubierto.size() +
+                ", duracionMs=" + duracionNanos / 1_000_000 +
+                '}';
+    }
+}
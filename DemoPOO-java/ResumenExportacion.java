@@ -0,0 +1,55 @@
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Clase con el resumen de una exportación hecha con ExportadorCuentas
+ */
+public class ResumenExportacion {
+    private final int cuentas;
+    private final List<Path> archivos;
+    private final long bytes;
+    private final long duracionNanos;
+
+    public ResumenExportacion(int cuentas, List<Path> archivos, long bytes, long duracionNanos) {
+        this.cuentas = cuentas;
+        this.archivos = Collections.unmodifiableList(archivos);
+        this.bytes = bytes;
+        this.duracionNanos = duracionNanos;
+    }
+
+    public int getCuentas() {
+        return cuentas;
+    }
+
+    public List<Path> getArchivos() {
+        return archivos;
+    }
+
+    public long getBytes() {
+        return bytes;
+    }
+
+    public long getDuracionNanos() {
+        return duracionNanos;
+    }
+
+    public double getBytesPorSegundo() {
+        return duracionNanos > 0 ? bytes * 1_000_000_000.0 / duracionNanos : 0.0;
+    }
+
+    public double getCuentasPorSegundo() {
+        return duracionNanos > 0 ? cuentas * 1_000_000_000.0 / duracionNanos : 0.0;
+    }
+
+    @Override
+    public String toString() {
+        return "ResumenExportacion{" +
+                "cuentas=" + cuentas +
+                ", archivos=" + archivos.size() +
+                ", bytes=" + bytes +
+                ", duracionMs=" + duracionNanos / 1_000_000 +
+                ", mbPorSegundo=" + String.format("%.1f", getBytesPorSegundo() / (1024 * 1024)) +
+                '}';
+    }
+}
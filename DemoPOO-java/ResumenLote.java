@@ -0,0 +1,71 @@
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Clase con el resumen de un lote procesado por MotorLotes
+ * Incluye cuántas operaciones hubo de cada resultado y el detalle de las fallidas
+ */
+public class ResumenLote {
+    private final long numeroLote;
+    private final int operaciones;
+    private final int[] conteoPorResultado;
+    private final List<FalloOperacion> fallos;
+    private final long duracionNanos;
+
+    public ResumenLote(long numeroLote, int operaciones, int[] conteoPorResultado,
+                       List<FalloOperacion> fallos, long duracionNanos) {
+        this.numeroLote = numeroLote;
+        this.operaciones = operaciones;
+        this.conteoPorResultado = conteoPorResultado;
+        this.fallos = Collections.unmodifiableList(fallos);
+        this.duracionNanos = duracionNanos;
+    }
+
+    public long getNumeroLote() {
+        return numeroLote;
+    }
+
+    public int getOperaciones() {
+        return operaciones;
+    }
+
+    public int getExitosas() {
+        return getCantidad(ResultadoOperacion.EXITO);
+    }
+
+    public int getFallidas() {
+        return operaciones - getExitosas();
+    }
+
+    public int getCantidad(ResultadoOperacion resultado) {
+        return conteoPorResultado[resultado.ordinal()];
+    }
+
+    public List<FalloOperacion> getFallos() {
+        return fallos;
+    }
+
+    public long getDuracionNanos() {
+        return duracionNanos;
+    }
+
+    // Operaciones por segundo dentro del lote
+    public double getOperacionesPorSegundo() {
+        return duracionNanos > 0 ? operaciones * 1_000_000_000.0 / duracionNanos : 0.0;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("ResumenLote{");
+        sb.append("numeroLote=").append(numeroLote);
+        sb.append(", operaciones=").append(operaciones);
+        for (ResultadoOperacion resultado : ResultadoOperacion.values()) {
+            int cantidad = getCantidad(resultado);
+            if (cantidad > 0) {
+                sb.append(", ").append(resultado).append('=').append(cantidad);
+            }
+        }
+        sb.append(", opsPorSegundo=").append((long) getOperacionesPorSegundo());
+        return sb.append('}').toString();
+    }
+}
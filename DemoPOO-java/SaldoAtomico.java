@@ -0,0 +1,165 @@
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Clase que encapsula el saldo de una cuenta para uso concurrente
+ * Guarda el saldo en unidades mínimas de la moneda (ver Dinero) dentro de
+ * un AtomicLong y lo modifica con CAS, sin usar locks: cada operación lee,
+ * calcula y reintenta si otro hilo modificó el saldo en el medio
+ * Las operaciones no lanzan excepciones si el resultado no entra en un
+ * long: lo informan con DESBORDE y dejan el saldo como estaba
+ */
+public class SaldoAtomico {
+    /**
+     * Valor que devuelven las operaciones condicionales cuando no se aplicaron
+     */
+    public static final long RECHAZADO = Long.MIN_VALUE;
+
+    /**
+     * Valor que devuelven las operaciones cuando el saldo resultante no
+     * entraría en un long (el saldo no se modifica)
+     */
+    public static final long DESBORDE = Long.MIN_VALUE + 1;
+
+    private final AtomicLong valor;
+
+    public SaldoAtomico(long saldoInicial) {
+        this.valor = new AtomicLong(saldoInicial);
+    }
+
+    public long get() {
+        return valor.get();
+    }
+
+    /**
+     * Reemplaza el saldo y devuelve el saldo anterior
+     */
+    public long set(long saldo) {
+        return valor.getAndSet(saldo);
+    }
+
+    /**
+     * Suma el monto al saldo y devuelve el nuevo saldo, o DESBORDE si no
+     * entraría en un long
+     */
+    public long sumar(long monto) {
+        while (true) {
+            long actual = valor.get();
+            long nuevo = sumarSinDesborde(actual, monto);
+            if (nuevo == DESBORDE) {
+                return DESBORDE;
+            }
+            if (valor.compareAndSet(actual, nuevo)) {
+                return nuevo;
+            }
+        }
+    }
+
+    /**
+     * Como sumar, pero lanza ArithmeticException si el resultado no entra en
+     * un long. Para devolver importes que salieron de la misma cuenta, que no
+     * pueden quedar sin aplicar
+     */
+    public long sumarExacto(long monto) {
+        long nuevo = sumar(monto);
+        if (nuevo == DESBORDE) {
+            throw new ArithmeticException("El saldo no entra en un long");
+        }
+        return nuevo;
+    }
+
+    /**
+     * Resta el monto solo si el saldo resultante no queda por debajo del piso
+     * (0 para una caja de ahorro, -limiteDescubierto para una cuenta corriente)
+     * La verificación y la resta ocurren en el mismo CAS, así que la regla
+     * se cumple aunque varios hilos extraigan a la vez
+     * Devuelve el nuevo saldo, o RECHAZADO si no alcanzaba
+     */
+    public long restarSiAlcanza(long monto, long piso) {
+        while (true) {
+            long actual = valor.get();
+            long nuevo = sumarSinDesborde(actual, -monto);
+            if (nuevo == DESBORDE || nuevo < piso) {
+                return RECHAZADO;
+            }
+            if (valor.compareAndSet(actual, nuevo)) {
+                return nuevo;
+            }
+        }
+    }
+
+    /**
+     * Acredita saldo * tasa (tasa en millonésimas) si el saldo es positivo
+     * Devuelve el saldo sobre el que se calcularon los intereses (el anterior
+     * a acreditarlos), RECHAZADO si no había saldo o DESBORDE si el nuevo
+     * saldo no entraría en un long
+     */
+    public long acreditarIntereses(long tasa) {
+        while (true) {
+            long actual = valor.get();
+            if (actual <= 0) {
+                return RECHAZADO;
+            }
+            long nuevo;
+            try {
+                nuevo = sumarSinDesborde(actual, Dinero.porcentaje(actual, tasa));
+            } catch (ArithmeticException e) {
+                return DESBORDE;
+            }
+            if (nuevo == DESBORDE) {
+                return DESBORDE;
+            }
+            if (valor.compareAndSet(actual, nuevo)) {
+                return actual;
+            }
+        }
+    }
+
+    /**
+     * Como acreditarIntereses, pero con el crecimiento de varios períodos
+     * (ver CalendarioTasas): acredita saldo * crecimiento si el saldo es positivo
+     */
+    public long acreditarCrecimiento(double crecimiento) {
+        while (true) {
+            long actual = valor.get();
+            if (actual <= 0) {
+                return RECHAZADO;
+            }
+            long nuevo;
+            try {
+                nuevo = sumarSinDesborde(actual, Dinero.aplicarCrecimiento(actual, crecimiento));
+            } catch (ArithmeticException e) {
+                return DESBORDE;
+            }
+            if (nuevo == DESBORDE) {
+                return DESBORDE;
+            }
+            if (valor.compareAndSet(actual, nuevo)) {
+                return actual;
+            }
+        }
+    }
+
+    // a + b, o DESBORDE si no entra en un long (tampoco se aceptan los dos
+    // valores reservados, así ningún saldo se confunde con ellos)
+    private static long sumarSinDesborde(long a, long b) {
+        long resultado = a + b;
+        // Desborda si los dos sumandos tienen el mismo signo y el resultado otro
+        if (((a ^ resultado) & (b ^ resultado)) < 0 || resultado <= DESBORDE) {
+            return DESBORDE;
+        }
+        return resultado;
+    }
+
+    /**
+     * Cambia la cantidad de decimales en que está expresado el saldo
+     */
+    public void reescalar(int decimalesActuales, int decimalesNuevos) {
+        while (true) {
+            long actual = valor.get();
+            long nuevo = Dinero.reescalar(actual, decimalesActuales, decimalesNuevos);
+            if (valor.compareAndSet(actual, nuevo)) {
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,213 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+
+/**
+ * Clase con las cotizaciones de las monedas respecto de una moneda base,
+ * cargadas desde un archivo local de texto:
+ *
+ *   # Unidades de cada moneda por 1 unidad de la moneda base
+ *   base=USD
+ *   ARS=1050.25
+ *   EUR=0.9235
+ *
+ * Las cotizaciones se guardan en un arreglo indexado por número de moneda
+ * (ver Monedas). Cada cambio (actualizar, recargar) publica un arreglo
+ * nuevo con un número de versión mayor, así quien guarda cálculos hechos
+ * con una versión (por ejemplo ConversorMonedas) sabe cuándo descartarlos;
+ * las lecturas no usan locks
+ */
+public class TablaCotizaciones {
+    private final String base;
+    private final Path archivo;
+    private volatile Version version;
+    // Fecha de modificación del archivo la última vez que se leyó
+    private FileTime leido;
+
+    public TablaCotizaciones(String base) {
+        this(base, null);
+    }
+
+    private TablaCotizaciones(String base, Path archivo) {
+        this.base = Monedas.codigo(Monedas.id(base));
+        this.archivo = archivo;
+        double[] cotizaciones = sinCotizaciones(Monedas.cantidad());
+        cotizaciones[Monedas.id(base)] = 1.0;
+        this.version = new Version(1, cotizaciones);
+    }
+
+    /**
+     * Lee las cotizaciones del archivo; después se pueden volver a leer con
+     * recargar o recargarSiCambio
+     */
+    public static TablaCotizaciones cargar(Path archivo) throws IOException {
+        String base = null;
+        try (BufferedReader lector = Files.newBufferedReader(archivo, StandardCharsets.UTF_8)) {
+            String linea;
+            while ((linea = lector.readLine()) != null) {
+                linea = linea.trim();
+                if (linea.startsWith("base=")) {
+                    base = linea.substring(5).trim();
+                    break;
+                }
+            }
+        }
+        if (base == null) {
+            throw new IOException("El archivo de cotizaciones no indica la moneda base (base=...)");
+        }
+        TablaCotizaciones tabla = new TablaCotizaciones(base, archivo);
+        tabla.recargar();
+        return tabla;
+    }
+
+    public String getBase() {
+        return base;
+    }
+
+    /**
+     * Número que aumenta con cada cambio de las cotizaciones
+     */
+    public long getVersion() {
+        return version.numero;
+    }
+
+    /**
+     * Unidades de la moneda por 1 unidad de la moneda base (NaN si no tiene
+     * cotización o si es un código que nunca se registró; no lo registra)
+     */
+    public double getCotizacion(String moneda) {
+        int id = Monedas.buscar(moneda);
+        return id >= 0 ? getCotizacion(id) : Double.NaN;
+    }
+
+    public double getCotizacion(int idMoneda) {
+        double[] cotizaciones = version.cotizaciones;
+        return idMoneda < cotizaciones.length ? cotizaciones[idMoneda] : Double.NaN;
+    }
+
+    /**
+     * Cambia la cotización de una moneda (publica una versión nueva)
+     */
+    public synchronized void actualizar(String moneda, double cotizacion) {
+        if (!(cotizacion > 0) || Double.isInfinite(cotizacion)) {
+            throw new IllegalArgumentException("La cotización de " + moneda + " debe ser un número mayor a 0");
+        }
+        int id = Monedas.id(moneda);
+        if (id == Monedas.id(base)) {
+            throw new IllegalArgumentException("La cotización de la moneda base es siempre 1");
+        }
+        Version actual = version;
+        double[] cotizaciones = Arrays.copyOf(actual.cotizaciones, Math.max(actual.cotizaciones.length, id + 1));
+        Arrays.fill(cotizaciones, actual.cotizaciones.length, cotizaciones.length, Double.NaN);
+        cotizaciones[id] = cotizacion;
+        version = new Version(actual.numero + 1, cotizaciones);
+    }
+
+    /**
+     * Vuelve a leer el archivo y reemplaza todas las cotizaciones
+     * Si el archivo tiene errores no cambia nada
+     */
+    public synchronized void recargar() throws IOException {
+        if (archivo == null) {
+            throw new IllegalStateException("La tabla no se cargó desde un archivo");
+        }
+        FileTime modificado = Files.getLastModifiedTime(archivo);
+        int idBase = Monedas.id(base);
+        double[] cotizaciones = sinCotizaciones(Monedas.cantidad());
+        try (BufferedReader lector = Files.newBufferedReader(archivo, StandardCharsets.UTF_8)) {
+            String linea;
+            int numeroLinea = 0;
+            while ((linea = lector.readLine()) != null) {
+                numeroLinea++;
+                linea = linea.trim();
+                if (linea.isEmpty() || linea.startsWith("#")) {
+                    continue;
+                }
+                int igual = linea.indexOf('=');
+                if (igual <= 0) {
+                    throw new IOException("Línea " + numeroLinea + " inválida: " + linea);
+                }
+                String clave = linea.substring(0, igual).trim();
+                String valor = linea.substring(igual + 1).trim();
+                if (clave.equals("base")) {
+                    if (Monedas.id(valor) != idBase) {
+                        throw new IOException("No se puede cambiar la moneda base de " + base + " a " + valor);
+                    }
+                    continue;
+                }
+                double cotizacion;
+                try {
+                    cotizacion = Double.parseDouble(valor);
+                } catch (NumberFormatException e) {
+                    throw new IOException("Línea " + numeroLinea + ": cotización inválida: " + valor);
+                }
+                if (!(cotizacion > 0) || Double.isInfinite(cotizacion)) {
+                    throw new IOException("Línea " + numeroLinea + ": la cotización debe ser mayor a 0");
+                }
+                int id = Monedas.id(clave);
+                if (id >= cotizaciones.length) {
+                    int anterior = cotizaciones.length;
+                    cotizaciones = Arrays.copyOf(cotizaciones, Monedas.cantidad());
+                    Arrays.fill(cotizaciones, anterior, cotizaciones.length, Double.NaN);
+                }
+                cotizaciones[id] = cotizacion;
+            }
+        }
+        cotizaciones[idBase] = 1.0;
+        version = new Version(version.numero + 1, cotizaciones);
+        leido = modificado;
+    }
+
+    /**
+     * Vuelve a leer el archivo solo si se modificó desde la última lectura;
+     * devuelve true si lo leyó
+     */
+    public synchronized boolean recargarSiCambio() throws IOException {
+        if (archivo == null) {
+            throw new IllegalStateException("La tabla no se cargó desde un archivo");
+        }
+        if (Files.getLastModifiedTime(archivo).equals(leido)) {
+            return false;
+        }
+        recargar();
+        return true;
+    }
+
+    // Versión y cotizaciones leídas juntas (el arreglo no se modifica después de publicarlo)
+    Version versionActual() {
+        return version;
+    }
+
+    @Override
+    public String toString() {
+        Version actual = version;
+        StringBuilder sb = new StringBuilder("TablaCotizaciones{base=").append(base)
+                .append(", version=").append(actual.numero);
+        for (int id = 0; id < actual.cotizaciones.length; id++) {
+            if (!Double.isNaN(actual.cotizaciones[id])) {
+                sb.append(", ").append(Monedas.codigo(id)).append('=').append(actual.cotizaciones[id]);
+            }
+        }
+        return sb.append('}').toString();
+    }
+
+    private static double[] sinCotizaciones(int cantidad) {
+        double[] cotizaciones = new double[cantidad];
+        Arrays.fill(cotizaciones, Double.NaN);
+        return cotizaciones;
+    }
+
+    static final class Version {
+        final long numero;
+        final double[] cotizaciones;
+
+        Version(long numero, double[] cotizaciones) {
+            this.numero = numero;
+            this.cotizaciones = cotizaciones;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+/**
+ * Enumeración con los tipos de operación que se pueden hacer sobre una cuenta
+ */
+public enum TipoOperacion {
+    DEPOSITO,
+    EXTRACCION,
+    CHEQUE,
+    INTERESES,
+    COMISION,
+    AJUSTE_SALDO,
+    CHEQUE_RECHAZADO,
+    REINTEGRO
+}
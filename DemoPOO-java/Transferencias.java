@@ -0,0 +1,92 @@
+/**
+ * Clase utilitaria para transferir dinero entre dos cuentas con saldo
+ * (CajaDeAhorro o CuentaCorriente) de la misma moneda
+ *
+ * La transferencia es "todo o nada": primero se debita el origen con su
+ * propia regla (una caja de ahorro no queda negativa, una cuenta corriente
+ * no pasa su límite de descubierto) y después se acredita el destino; si el
+ * crédito no se puede hacer (por ejemplo, el destino se desactivó en el
+ * medio) el monto se reintegra al origen
+ *
+ * Los dos tramos se hacen con los monitores de las dos cuentas tomados,
+ * siempre en orden de id, así dos transferencias en sentidos opuestos no se
+ * bloquean entre sí y ninguna otra transferencia ve el monto a mitad de
+ * camino. Los depósitos y extracciones sueltos no toman esos monitores: ven
+ * cada cuenta con su saldo correcto, pero la suma de las dos puede estar
+ * entre un tramo y el otro
+ * Los observadores de las cuentas se llaman con los dos monitores tomados,
+ * así que no deben tomar el monitor de otra cuenta
+ */
+public final class Transferencias {
+    // Para ordenar los monitores cuando las dos cuentas tienen el mismo id
+    private static final Object DESEMPATE = new Object();
+
+    private Transferencias() {
+    }
+
+    public static ResultadoOperacion transferir(CuentaConSaldo origen, CuentaConSaldo destino, double monto) {
+        return transferirUnidadesMinimas(origen, destino, Dinero.desdeDouble(monto, origen.getDecimales()));
+    }
+
+    /**
+     * Transferencia con el monto ya expresado en unidades mínimas de la moneda
+     */
+    public static ResultadoOperacion transferirUnidadesMinimas(CuentaConSaldo origen, CuentaConSaldo destino,
+                                                               long monto) {
+        // Los decimales se comparan aparte: durante un setMoneda el número y los
+        // decimales de una cuenta no cambian juntos
+        if (origen == destino || origen.getIdMoneda() != destino.getIdMoneda()
+                || origen.getDecimales() != destino.getDecimales()) {
+            return ResultadoOperacion.OPERACION_NO_SOPORTADA;
+        }
+        if (origen.getId() != destino.getId()) {
+            CuentaConSaldo primera = origen.getId() < destino.getId() ? origen : destino;
+            CuentaConSaldo segunda = primera == origen ? destino : origen;
+            synchronized (primera) {
+                synchronized (segunda) {
+                    return transferirConMonitores(origen, destino, monto);
+                }
+            }
+        }
+        synchronized (DESEMPATE) {
+            synchronized (origen) {
+                synchronized (destino) {
+                    return transferirConMonitores(origen, destino, monto);
+                }
+            }
+        }
+    }
+
+    private static ResultadoOperacion transferirConMonitores(CuentaConSaldo origen, CuentaConSaldo destino,
+                                                             long monto) {
+        if (!destino.isActiva()) {
+            return ResultadoOperacion.CUENTA_INACTIVA;
+        }
+        ResultadoOperacion debito = origen.extraerUnidadesMinimas(monto);
+        if (debito != ResultadoOperacion.EXITO) {
+            return debito;
+        }
+        ResultadoOperacion credito;
+        try {
+            credito = destino.depositarUnidadesMinimas(monto);
+        } catch (RuntimeException e) {
+            // Por ejemplo, un observador del destino que lanza una excepción
+            reintegrar(origen, monto);
+            throw e;
+        }
+        if (credito != ResultadoOperacion.EXITO) {
+            reintegrar(origen, monto);
+        }
+        return credito;
+    }
+
+    private static void reintegrar(CuentaConSaldo cuenta, long monto) {
+        if (cuenta instanceof CajaDeAhorro) {
+            ((CajaDeAhorro) cuenta).reintegrar(monto);
+        } else if (cuenta instanceof CuentaCorriente) {
+            ((CuentaCorriente) cuenta).reintegrar(monto);
+        } else {
+            throw new IllegalStateException("No se puede reintegrar en " + cuenta);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package banco;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Operaciones de CajaDeAhorro en un solo hilo (cada hilo con su cuenta)
+ * La bitácora se desactiva para medir solo la operación
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CajaDeAhorroBenchmark {
+    private CajaDeAhorro caja;
+    private CajaDeAhorro cajaIntereses;
+
+    @Setup(Level.Iteration)
+    public void preparar() {
+        CuentaBancaria.setBitacora(Bitacora.DESACTIVADA);
+        // Saldo alto para que las extracciones de una iteración nunca se queden sin fondos
+        caja = new CajaDeAhorro(1, "Benchmark", "ARS", true, 1_000_000_000.0, 0.05);
+        // Con una tasa de una millonésima los intereses redondean a 0 y el saldo no crece,
+        // pero se hace todo el cálculo
+        cajaIntereses = new CajaDeAhorro(2, "Benchmark", "ARS", true, 1000.0, 0.000001);
+    }
+
+    @Benchmark
+    public ResultadoOperacion depositar() {
+        return caja.depositar(100.0);
+    }
+
+    @Benchmark
+    public ResultadoOperacion extraer() {
+        return caja.extraer(1.0);
+    }
+
+    @Benchmark
+    public ResultadoOperacion extraerSinFondos() {
+        return cajaIntereses.extraer(1_000_000.0);
+    }
+
+    @Benchmark
+    public ResultadoOperacion aplicarIntereses() {
+        return cajaIntereses.aplicarIntereses();
+    }
+}
@@ -0,0 +1,87 @@
+package banco;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Varios hilos operando sobre la misma cuenta, para medir el costo de los
+ * reintentos de CAS cuando hay contención
+ * Cada grupo de hilos (@Group) comparte sus propias cuentas; los grupos de
+ * la caja de ahorro combinan depósitos y extracciones para que el saldo no
+ * se agote
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Group)
+public class ContencionBenchmark {
+    private CajaDeAhorro caja;
+    private CajaDeAhorro cajaIntereses;
+    private CuentaCorriente cuenta;
+
+    @Setup(Level.Iteration)
+    public void preparar() {
+        CuentaBancaria.setBitacora(Bitacora.DESACTIVADA);
+        caja = new CajaDeAhorro(1, "Benchmark", "ARS", true, 1_000_000_000.0, 0.05);
+        // Intereses que redondean a 0: el saldo no crece entre iteraciones
+        cajaIntereses = new CajaDeAhorro(3, "Benchmark", "ARS", true, 1000.0, 0.000001);
+        cuenta = new CuentaCorriente(2, "Benchmark", "ARS", true, 0.0, 1_000_000_000.0, 500.0);
+    }
+
+    @Benchmark
+    @Group("cajaDepositoExtraccion")
+    @GroupThreads(2)
+    public ResultadoOperacion cajaDepositar() {
+        return caja.depositar(1.0);
+    }
+
+    @Benchmark
+    @Group("cajaDepositoExtraccion")
+    @GroupThreads(2)
+    public ResultadoOperacion cajaExtraer() {
+        return caja.extraer(1.0);
+    }
+
+    @Benchmark
+    @Group("cajaIntereses")
+    @GroupThreads(4)
+    public ResultadoOperacion cajaAplicarIntereses() {
+        return cajaIntereses.aplicarIntereses();
+    }
+
+    @Benchmark
+    @Group("corrienteChequesComisiones")
+    @GroupThreads(3)
+    public ResultadoOperacion corrienteEmitirCheque() {
+        return cuenta.emitirCheque(1.0, "Proveedor");
+    }
+
+    @Benchmark
+    @Group("corrienteChequesComisiones")
+    @GroupThreads(1)
+    public ResultadoOperacion corrienteCobrarComision() {
+        return cuenta.cobrarComisionMantenimiento();
+    }
+
+    @Benchmark
+    @Group("corrienteExtraccion")
+    @GroupThreads(4)
+    public ResultadoOperacion corrienteExtraer() {
+        return cuenta.extraer(1.0);
+    }
+}
@@ -0,0 +1,78 @@
+package banco;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Costo de los límites de velocidad (ControlVelocidad) en extracciones que
+ * los cumplen: una regla de operaciones por minuto y una de monto por día
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ControlVelocidadBenchmark {
+    private static final int CUENTAS = 100_000;
+
+    @Param({"false", "true"})
+    public boolean control;
+
+    private ControlVelocidad controlVelocidad;
+    private CuentaCorriente cuenta;
+    private CuentaCorriente[] cuentas;
+    private int siguiente;
+
+    // Un solo ControlVelocidad para todas las iteraciones: la tabla crece durante el calentamiento
+    @Setup(Level.Trial)
+    public void crearControl() {
+        controlVelocidad = new ControlVelocidad(
+                ReglaVelocidad.operaciones(60_000, ReglaVelocidad.SIN_LIMITE_OPERACIONES - 1),
+                ReglaVelocidad.monto(86_400_000, Long.MAX_VALUE / 2));
+    }
+
+    @Setup(Level.Iteration)
+    public void preparar() {
+        CuentaBancaria.setBitacora(Bitacora.DESACTIVADA);
+        CuentaBancaria.setControlVelocidad(control ? controlVelocidad : null);
+        cuenta = new CuentaCorriente(1, "Benchmark", "ARS", true, 0.0, 1_000_000_000_000.0, 0.0);
+        cuentas = new CuentaCorriente[CUENTAS];
+        for (int i = 0; i < CUENTAS; i++) {
+            cuentas[i] = new CuentaCorriente(i + 2, "Benchmark", "ARS", true, 0.0, 1_000_000_000_000.0, 0.0);
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void terminar() {
+        CuentaBancaria.setControlVelocidad(null);
+    }
+
+    @Benchmark
+    public ResultadoOperacion extraer() {
+        return cuenta.extraer(1.0);
+    }
+
+    /**
+     * Extracciones repartidas entre muchas cuentas (los contadores no están en la caché)
+     */
+    @Benchmark
+    public ResultadoOperacion extraerMuchasCuentas() {
+        CuentaCorriente actual = cuentas[siguiente];
+        siguiente = siguiente + 1 == CUENTAS ? 0 : siguiente + 1;
+        return actual.extraer(1.0);
+    }
+}
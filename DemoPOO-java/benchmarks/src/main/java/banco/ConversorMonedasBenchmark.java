@@ -0,0 +1,79 @@
+package banco;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Reporte consolidado en USD de 100.000 cuentas en ARS, USD y EUR:
+ * convirtiendo cuenta por cuenta con los códigos de moneda, con los
+ * factores de ConversorMonedas en una pasada, y sumando por moneda
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ConversorMonedasBenchmark {
+    private static final int CUENTAS = 100_000;
+    private static final String[] MONEDAS = {"ARS", "USD", "EUR"};
+
+    private List<CuentaConSaldo> cuentas;
+    private TablaCotizaciones tabla;
+    private ConversorMonedas conversor;
+
+    @Setup
+    public void preparar() {
+        CuentaBancaria.setBitacora(Bitacora.DESACTIVADA);
+        tabla = new TablaCotizaciones("USD");
+        tabla.actualizar("ARS", 1050.25);
+        tabla.actualizar("EUR", 0.9235);
+        conversor = new ConversorMonedas(tabla);
+        Random azar = new Random(42);
+        cuentas = new ArrayList<>(CUENTAS);
+        for (int i = 0; i < CUENTAS; i++) {
+            String moneda = MONEDAS[azar.nextInt(MONEDAS.length)];
+            double saldo = azar.nextInt(10_000_000) / 100.0;
+            cuentas.add(i % 2 == 0
+                    ? new CajaDeAhorro(i + 1, "Benchmark", moneda, true, saldo, 0.05)
+                    : new CuentaCorriente(i + 1, "Benchmark", moneda, true, saldo, 0.0, 0.0));
+        }
+    }
+
+    /**
+     * Como se hacía antes: buscar las cotizaciones por código y calcular el factor en cada cuenta
+     */
+    @Benchmark
+    public long cuentaPorCuenta() {
+        long total = 0;
+        for (CuentaConSaldo cuenta : cuentas) {
+            double factor = tabla.getCotizacion("USD") / tabla.getCotizacion(cuenta.getMoneda())
+                    * Dinero.escala(Dinero.decimales("USD")) / Dinero.escala(cuenta.getDecimales());
+            total += Math.round(cuenta.getSaldoEnUnidadesMinimas() * factor);
+        }
+        return total;
+    }
+
+    @Benchmark
+    public long[] convertirSaldos() {
+        return conversor.convertirSaldos(cuentas, "USD");
+    }
+
+    @Benchmark
+    public long total() {
+        return conversor.total(cuentas, "USD");
+    }
+}
@@ -0,0 +1,51 @@
+package banco;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Operaciones de CuentaCorriente en un solo hilo (cada hilo con su cuenta)
+ * El límite de descubierto es muy alto para que ninguna operación de una
+ * iteración sea rechazada
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CuentaCorrienteBenchmark {
+    private CuentaCorriente cuenta;
+
+    @Setup(Level.Iteration)
+    public void preparar() {
+        CuentaBancaria.setBitacora(Bitacora.DESACTIVADA);
+        cuenta = new CuentaCorriente(1, "Benchmark", "ARS", true, 0.0, 1_000_000_000.0, 500.0);
+    }
+
+    @Benchmark
+    public ResultadoOperacion extraer() {
+        return cuenta.extraer(1.0);
+    }
+
+    @Benchmark
+    public ResultadoOperacion emitirCheque() {
+        return cuenta.emitirCheque(1.0, "Proveedor");
+    }
+
+    @Benchmark
+    public ResultadoOperacion cobrarComisionMantenimiento() {
+        return cuenta.cobrarComisionMantenimiento();
+    }
+}
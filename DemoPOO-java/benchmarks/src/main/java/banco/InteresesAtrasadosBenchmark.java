@@ -0,0 +1,71 @@
+package banco;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Ponerse al día con los intereses de varios períodos atrasados en una caja
+ * de ahorro: aplicando un período por vez contra el interés compuesto de una
+ * vez, con la tasa de la cuenta y con un calendario de tasas
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class InteresesAtrasadosBenchmark {
+    private static final long SALDO = 12_345_678L;
+    private static final long TASA = 4_000L;
+
+    @Param({"12", "120"})
+    private int periodos;
+
+    private CajaDeAhorro caja;
+    private CalendarioTasas calendario;
+
+    @Setup
+    public void preparar() {
+        CuentaBancaria.setBitacora(Bitacora.DESACTIVADA);
+        caja = new CajaDeAhorro(1, "Benchmark", "ARS", true, 0.0, 0.0);
+        long[] tasas = new long[periodos];
+        for (int i = 0; i < periodos; i++) {
+            tasas[i] = 3_000L + (i % 7) * 250L;
+        }
+        calendario = new CalendarioTasas(0, tasas);
+    }
+
+    @Benchmark
+    public long periodoPorPeriodo() {
+        caja.restaurar(SALDO, TASA);
+        for (int i = 0; i < periodos; i++) {
+            caja.aplicarIntereses();
+        }
+        return caja.getSaldoEnUnidadesMinimas();
+    }
+
+    @Benchmark
+    public long deUnaVez() {
+        caja.restaurar(SALDO, TASA);
+        caja.aplicarIntereses(periodos);
+        return caja.getSaldoEnUnidadesMinimas();
+    }
+
+    @Benchmark
+    public long conCalendario() {
+        caja.restaurar(SALDO, TASA);
+        caja.aplicarIntereses(calendario, 0, periodos);
+        return caja.getSaldoEnUnidadesMinimas();
+    }
+}
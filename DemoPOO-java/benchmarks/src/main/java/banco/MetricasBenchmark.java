@@ -0,0 +1,66 @@
+package banco;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Costo de las métricas de operaciones (MetricasOperaciones): la misma
+ * operación con las métricas desactivadas y activadas
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MetricasBenchmark {
+    @Param({"false", "true"})
+    public boolean metricas;
+
+    private CajaDeAhorro caja;
+    private CuentaCorriente cuenta;
+
+    @Setup(Level.Iteration)
+    public void preparar() {
+        CuentaBancaria.setBitacora(Bitacora.DESACTIVADA);
+        CuentaBancaria.setMetricas(metricas ? new MetricasOperaciones() : null);
+        caja = new CajaDeAhorro(1, "Benchmark", "ARS", true, 1_000_000_000.0, 0.05);
+        cuenta = new CuentaCorriente(2, "Benchmark", "ARS", true, 0.0, 1_000_000_000.0, 500.0);
+    }
+
+    @TearDown(Level.Iteration)
+    public void terminar() {
+        CuentaBancaria.setMetricas(null);
+    }
+
+    @Benchmark
+    public ResultadoOperacion depositar() {
+        return caja.depositar(100.0);
+    }
+
+    @Benchmark
+    public ResultadoOperacion emitirCheque() {
+        return cuenta.emitirCheque(1.0, "Proveedor");
+    }
+
+    /**
+     * Referencia: lo que cuesta System.nanoTime en esta máquina (las métricas lo llaman dos veces)
+     */
+    @Benchmark
+    public long nanoTime() {
+        return System.nanoTime();
+    }
+}
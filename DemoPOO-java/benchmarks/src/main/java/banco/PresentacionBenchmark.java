@@ -0,0 +1,75 @@
+package banco;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * toString y mostrarInformacion de las cuentas
+ * mostrarInformacion escribe en System.out, que se redirige a un flujo que
+ * descarta todo: se mide el armado de los textos y no la consola
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PresentacionBenchmark {
+    private CajaDeAhorro caja;
+    private CuentaCorriente cuenta;
+    private PrintStream salidaOriginal;
+
+    @Setup
+    public void preparar() {
+        caja = new CajaDeAhorro(1, "Juan Pérez", "ARS", true, 15000.0, 0.08);
+        cuenta = new CuentaCorriente(2, "María García", "USD", true, 5000.0, 10000.0, 250.0);
+        salidaOriginal = System.out;
+        System.setOut(new PrintStream(new OutputStream() {
+            @Override
+            public void write(int b) {
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+            }
+        }));
+    }
+
+    @TearDown
+    public void restaurar() {
+        System.setOut(salidaOriginal);
+    }
+
+    @Benchmark
+    public String cajaToString() {
+        return caja.toString();
+    }
+
+    @Benchmark
+    public String corrienteToString() {
+        return cuenta.toString();
+    }
+
+    @Benchmark
+    public void cajaMostrarInformacion() {
+        caja.mostrarInformacion();
+    }
+
+    @Benchmark
+    public void corrienteMostrarInformacion() {
+        cuenta.mostrarInformacion();
+    }
+}
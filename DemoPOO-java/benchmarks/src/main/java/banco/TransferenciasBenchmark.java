@@ -0,0 +1,80 @@
+package banco;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Transferencias en sentidos opuestos sobre un mismo par de cuentas (el caso
+ * que con locks ingenuos termina en deadlock)
+ * Compara Transferencias (monitores de las dos cuentas tomados en orden de
+ * id) con los mismos dos tramos como CAS sueltos, sin locks ni atomicidad
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Group)
+public class TransferenciasBenchmark {
+    private CajaDeAhorro caja;
+    private CuentaCorriente cuenta;
+
+    @Setup(Level.Iteration)
+    public void preparar() {
+        CuentaBancaria.setBitacora(Bitacora.DESACTIVADA);
+        caja = new CajaDeAhorro(1, "Benchmark", "ARS", true, 1_000_000_000.0, 0.05);
+        cuenta = new CuentaCorriente(2, "Benchmark", "ARS", true, 1_000_000_000.0, 1_000_000.0, 500.0);
+    }
+
+    @Benchmark
+    @Group("transferencias")
+    @GroupThreads(2)
+    public ResultadoOperacion transferenciasCajaACuenta() {
+        return Transferencias.transferir(caja, cuenta, 1.0);
+    }
+
+    @Benchmark
+    @Group("transferencias")
+    @GroupThreads(2)
+    public ResultadoOperacion transferenciasCuentaACaja() {
+        return Transferencias.transferir(cuenta, caja, 1.0);
+    }
+
+    @Benchmark
+    @Group("dosTramosSinLocks")
+    @GroupThreads(2)
+    public ResultadoOperacion dosTramosSinLocksCajaACuenta() {
+        return transferirSinLocks(caja, cuenta, 1.0);
+    }
+
+    @Benchmark
+    @Group("dosTramosSinLocks")
+    @GroupThreads(2)
+    public ResultadoOperacion dosTramosSinLocksCuentaACaja() {
+        return transferirSinLocks(cuenta, caja, 1.0);
+    }
+
+    // Referencia: extraer + depositar como dos CAS sueltos, sin monitores
+    // (no es atómica: otro hilo puede ver el monto a mitad de camino)
+    private static ResultadoOperacion transferirSinLocks(CuentaConSaldo origen, CuentaConSaldo destino,
+                                                         double monto) {
+        ResultadoOperacion debito = origen.extraer(monto);
+        if (debito != ResultadoOperacion.EXITO) {
+            return debito;
+        }
+        return destino.depositar(monto);
+    }
+}
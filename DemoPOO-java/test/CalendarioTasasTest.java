@@ -0,0 +1,43 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+
+public class CalendarioTasasTest {
+
+    @BeforeEach
+    public void setUp() {
+        CuentaBancaria.setBitacora(Bitacora.DESACTIVADA);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        CuentaBancaria.setBitacora(new BitacoraConsola());
+    }
+
+    @Test
+    public void testRangoFueraDelCalendarioDevuelveMontoInvalido() {
+        CalendarioTasas calendario = CalendarioTasas.constante(0, 12, 10_000);
+        CajaDeAhorro caja = new CajaDeAhorro(1, "Ana", "ARS", true, 1000.0, 0.01);
+
+        assertEquals(ResultadoOperacion.MONTO_INVALIDO, caja.aplicarIntereses(calendario, 6, 13));
+        assertEquals(ResultadoOperacion.MONTO_INVALIDO, caja.aplicarIntereses(calendario, 5, 4));
+        assertEquals(ResultadoOperacion.MONTO_INVALIDO, caja.aplicarIntereses(-1));
+        assertEquals(100000, caja.getSaldoEnUnidadesMinimas());
+
+        assertEquals(ResultadoOperacion.EXITO, caja.aplicarIntereses(calendario, 0, 12));
+        assertEquals(100000 + calendario.intereses(100000, 0, 12), caja.getSaldoEnUnidadesMinimas());
+    }
+
+    @Test
+    public void testContieneAceptaLoMismoQueCrecimiento() {
+        CalendarioTasas calendario = CalendarioTasas.constante(10, 3, 10_000);
+        assertTrue(calendario.contiene(10, 13));
+        assertTrue(calendario.contiene(13, 13));
+        assertFalse(calendario.contiene(9, 11));
+        assertFalse(calendario.contiene(11, 14));
+        assertThrows(IllegalArgumentException.class, () -> calendario.crecimiento(11, 14));
+        assertEquals(0.0, calendario.crecimiento(13, 13));
+    }
+}
@@ -0,0 +1,63 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import static org.junit.jupiter.api.Assertions.*;
+
+
+public class CobroComisionesTest {
+
+    @TempDir
+    Path directorio;
+
+    private ForkJoinPool pool;
+    private final List<CuentaCorriente> cuentas = new ArrayList<>();
+
+    @BeforeEach
+    public void setUp() {
+        CuentaBancaria.setBitacora(Bitacora.DESACTIVADA);
+        for (int id = 1; id <= 10; id++) {
+            cuentas.add(new CuentaCorriente(id, "Usuario" + id, "ARS", true, 100.0, 50.0, 2.5));
+        }
+        pool = new ForkJoinPool(4);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        pool.shutdown();
+        CuentaBancaria.setBitacora(new BitacoraConsola());
+    }
+
+    @Test
+    public void testElTotalEsLoQueSeDebito() throws IOException {
+        ResumenCobro resumen;
+        try (CobroComisiones cobro = new CobroComisiones(directorio.resolve("progreso"), 3, pool, null)) {
+            resumen = cobro.ejecutar(202610, cuentas);
+        }
+        long debitado = 0;
+        for (CuentaCorriente cuenta : cuentas) {
+            debitado += 10000 - cuenta.getSaldoEnUnidadesMinimas();
+        }
+        assertEquals(10, resumen.getCobradas());
+        assertEquals(debitado, resumen.getTotalCobrado());
+        assertTrue(resumen.toString().contains("totalCobrado=" + debitado));
+    }
+
+    @Test
+    public void testUnErrorDeEntradaSalidaEnUnBloqueLlegaComoIOException() throws IOException {
+        IOException original = new IOException("Disco lleno");
+        cuentas.get(7).agregarObservador((cuenta, tipo, monto, saldoAnterior, saldoNuevo) -> {
+            throw new UncheckedIOException(original);
+        });
+        try (CobroComisiones cobro = new CobroComisiones(directorio.resolve("progreso"), 3, pool, null)) {
+            IOException error = assertThrows(IOException.class, () -> cobro.ejecutar(202610, cuentas));
+            assertSame(original, error);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+
+public class ConversorMonedasTest {
+
+    private ConversorMonedas conversor;
+
+    @BeforeEach
+    public void setUp() {
+        TablaCotizaciones tabla = new TablaCotizaciones("USD");
+        tabla.actualizar("ARS", 1000.0);
+        conversor = new ConversorMonedas(tabla);
+    }
+
+    @Test
+    public void testDesbordeIgualEnImporteYEnArreglo() {
+        long grande = Long.MAX_VALUE / 10;
+        assertThrows(ArithmeticException.class,
+                () -> conversor.convertir(grande, Monedas.USD, Monedas.ARS));
+
+        long[] montos = {100, grande, 200};
+        int[] monedas = {Monedas.USD, Monedas.USD, Monedas.USD};
+        long[] resultado = new long[montos.length];
+        assertThrows(ArithmeticException.class,
+                () -> conversor.convertir(montos, monedas, 0, montos.length, Monedas.ARS, resultado));
+    }
+
+    @Test
+    public void testArregloSinDesbordeRedondeaComoElImporte() {
+        long[] montos = {12345, -999, 0};
+        int[] monedas = {Monedas.ARS, Monedas.ARS, Monedas.USD};
+        long[] resultado = new long[montos.length];
+        conversor.convertir(montos, monedas, 0, montos.length, Monedas.USD, resultado);
+        for (int i = 0; i < montos.length; i++) {
+            assertEquals(conversor.convertir(montos[i], monedas[i], Monedas.USD), resultado[i]);
+        }
+    }
+
+    @Test
+    public void testConsultarUnaMonedaDesconocidaNoLaRegistra() {
+        int cantidad = Monedas.cantidad();
+        assertTrue(Double.isNaN(conversor.getTabla().getCotizacion("QQQ")));
+        assertThrows(IllegalArgumentException.class, () -> conversor.convertir(100, "QQQ", "USD"));
+        assertEquals(-1, Monedas.buscar("QQQ"));
+        assertEquals(cantidad, Monedas.cantidad());
+    }
+}
@@ -0,0 +1,89 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.jupiter.api.Assertions.*;
+
+
+public class DiarioTransaccionesTest {
+
+    @TempDir
+    Path directorio;
+
+    @BeforeEach
+    public void setUp() {
+        CuentaBancaria.setBitacora(Bitacora.DESACTIVADA);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        CuentaBancaria.setBitacora(new BitacoraConsola());
+    }
+
+    @Test
+    public void testTransferenciasConcurrentesSeRecuperanConLosMismosSaldos() throws Exception {
+        CajaDeAhorro caja = new CajaDeAhorro(1, "Ana", "ARS", true, 1000.0, 0.0);
+        CuentaCorriente corriente = new CuentaCorriente(2, "Beto", "ARS", true, 1000.0, 100.0, 0.0);
+        AtomicInteger fallos = new AtomicInteger();
+        try (DiarioTransacciones diario = new DiarioTransacciones(directorio, 1 << 20, 1, 0, true)) {
+            assertTrue(diario.registrarAlta(caja));
+            assertTrue(diario.registrarAlta(corriente));
+            Thread[] hilos = new Thread[4];
+            for (int i = 0; i < hilos.length; i++) {
+                boolean haciaCorriente = i % 2 == 0;
+                hilos[i] = new Thread(() -> {
+                    try {
+                        for (int j = 0; j < 500; j++) {
+                            if (haciaCorriente) {
+                                Transferencias.transferir(caja, corriente, 1.0);
+                            } else {
+                                Transferencias.transferir(corriente, caja, 1.0);
+                            }
+                            caja.depositar(0.5);
+                        }
+                    } catch (RuntimeException e) {
+                        fallos.incrementAndGet();
+                    }
+                });
+                hilos[i].start();
+            }
+            for (Thread hilo : hilos) {
+                hilo.join();
+            }
+        }
+        assertEquals(0, fallos.get());
+
+        try (DiarioTransacciones recuperado = new DiarioTransacciones(directorio, 1 << 20, 1, 0, false)) {
+            CajaDeAhorro cajaRecuperada = (CajaDeAhorro) recuperado.getCuentas().get(1);
+            CuentaCorriente corrienteRecuperada = (CuentaCorriente) recuperado.getCuentas().get(2);
+            assertEquals(caja.getSaldoEnUnidadesMinimas(), cajaRecuperada.getSaldoEnUnidadesMinimas());
+            assertEquals(corriente.getSaldoEnUnidadesMinimas(), corrienteRecuperada.getSaldoEnUnidadesMinimas());
+            // 2000 iniciales + 2000 depósitos de 0,50
+            assertEquals(300000, cajaRecuperada.getSaldoEnUnidadesMinimas()
+                    + corrienteRecuperada.getSaldoEnUnidadesMinimas());
+        }
+    }
+
+    @Test
+    public void testUnUsuarioLargoSeCortaSinPartirUnCaracter() throws Exception {
+        // "ñ" ocupa dos bytes: 4096 bytes caen en medio de uno
+        String usuario = "a" + repetir("ñ", 3000);
+        try (DiarioTransacciones diario = new DiarioTransacciones(directorio, 1 << 20, 1, 0, true)) {
+            diario.registrarAlta(new CajaDeAhorro(1, usuario, "ARS", true, 10.0, 0.0));
+        }
+        try (DiarioTransacciones recuperado = new DiarioTransacciones(directorio, 1 << 20, 1, 0, false)) {
+            String guardado = recuperado.getCuentas().get(1).getUsuario();
+            assertEquals("a" + repetir("ñ", 2047), guardado);
+        }
+    }
+
+    private static String repetir(String texto, int veces) {
+        StringBuilder resultado = new StringBuilder();
+        for (int i = 0; i < veces; i++) {
+            resultado.append(texto);
+        }
+        return resultado.toString();
+    }
+}
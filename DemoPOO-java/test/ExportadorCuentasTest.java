@@ -0,0 +1,57 @@
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+
+public class ExportadorCuentasTest {
+
+    private final List<CuentaBancaria> cuentas = new ArrayList<>();
+
+    @BeforeEach
+    public void setUp() {
+        for (int id = 1; id <= 200; id++) {
+            cuentas.add(id % 2 == 0
+                    ? new CajaDeAhorro(id, "Usuario" + id, "ARS", true, id * 10.0, 0.05)
+                    : new CuentaCorriente(id, "Usuario" + id, "USD", true, id * 5.0, 100.0, 2.5));
+        }
+    }
+
+    @Test
+    public void testElBufferReutilizadoNoArrastraRestosDeUnErrorAnterior() throws IOException {
+        ExportadorCuentas exportador = new ExportadorCuentas(ExportadorCuentas.Formato.CSV, 64 * 1024);
+        byte[] primera = exportar(exportador);
+
+        WritableByteChannel roto = new WritableByteChannel() {
+            @Override
+            public int write(ByteBuffer origen) throws IOException {
+                throw new IOException("Disco lleno");
+            }
+
+            @Override
+            public boolean isOpen() {
+                return true;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        assertThrows(IOException.class, () -> exportador.exportar(cuentas, roto));
+
+        assertArrayEquals(primera, exportar(exportador));
+    }
+
+    private byte[] exportar(ExportadorCuentas exportador) throws IOException {
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        long bytes = exportador.exportar(cuentas, Channels.newChannel(salida));
+        assertEquals(salida.size(), bytes);
+        return salida.toByteArray();
+    }
+}
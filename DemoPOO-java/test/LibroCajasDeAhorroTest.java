@@ -0,0 +1,41 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.util.Arrays;
+import static org.junit.jupiter.api.Assertions.*;
+
+
+public class LibroCajasDeAhorroTest {
+
+    @BeforeEach
+    public void setUp() {
+        CuentaBancaria.setBitacora(Bitacora.DESACTIVADA);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        CuentaBancaria.setBitacora(new BitacoraConsola());
+    }
+
+    @Test
+    public void testSincronizarOmiteLasCajasDesactivadasDespuesDeCargar() {
+        CajaDeAhorro activa = new CajaDeAhorro(1, "Ana", "ARS", true, 1000.0, 0.10);
+        CajaDeAhorro desactivada = new CajaDeAhorro(2, "Beto", "ARS", true, 1000.0, 0.10);
+        LibroCajasDeAhorro libro = LibroCajasDeAhorro.desde(Arrays.asList(activa, desactivada));
+
+        assertEquals(20000, libro.aplicarIntereses());
+        desactivada.setActiva(false);
+        // Un depósito después de cargar se conserva: solo se acredita la diferencia
+        activa.depositar(50.0);
+
+        assertEquals(1, libro.sincronizar());
+        assertEquals(115000, activa.getSaldoEnUnidadesMinimas());
+        assertEquals(100000, desactivada.getSaldoEnUnidadesMinimas());
+        assertEquals(100000, libro.getSaldoEnUnidadesMinimas(1));
+
+        // Ya no vuelve a intentarlo en el período siguiente
+        libro.aplicarIntereses();
+        assertEquals(0, libro.sincronizar());
+        assertEquals(100000, desactivada.getSaldoEnUnidadesMinimas());
+    }
+}
@@ -0,0 +1,90 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import static org.junit.jupiter.api.Assertions.*;
+
+
+public class MotorLotesTest {
+
+    private final Map<Integer, CuentaBancaria> cuentas = new HashMap<>();
+    private ForkJoinPool pool;
+
+    @BeforeEach
+    public void setUp() {
+        CuentaBancaria.setBitacora(Bitacora.DESACTIVADA);
+        for (int id = 1; id <= 8; id++) {
+            cuentas.put(id, new CajaDeAhorro(id, "Usuario" + id, "ARS", true, 100.0, 0.05));
+        }
+        pool = new ForkJoinPool(4);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        pool.shutdown();
+        CuentaBancaria.setBitacora(new BitacoraConsola());
+    }
+
+    @Test
+    public void testUnaOperacionQueDesbordaNoCortaElLote() {
+        CajaDeAhorro llena = (CajaDeAhorro) cuentas.get(3);
+        llena.depositarUnidadesMinimas(Long.MAX_VALUE - llena.getSaldoEnUnidadesMinimas() - 100);
+        long saldoLlena = llena.getSaldoEnUnidadesMinimas();
+        MotorLotes motor = new MotorLotes(cuentas::get, 16, 8, pool);
+
+        List<ResumenLote> resumenes = motor.procesar(Arrays.asList(
+                new Operacion(TipoOperacion.DEPOSITO, 1, 5.0),
+                new Operacion(TipoOperacion.DEPOSITO, 2, 5.0),
+                new Operacion(TipoOperacion.DEPOSITO, 3, 5.0),
+                new Operacion(null, 4, 5.0),
+                new Operacion(TipoOperacion.DEPOSITO, 5, 5.0),
+                new Operacion(TipoOperacion.EXTRACCION, 6, 5.0),
+                new Operacion(TipoOperacion.DEPOSITO, 7, 5.0),
+                new Operacion(TipoOperacion.DEPOSITO, 8, 5.0)).stream());
+
+        assertEquals(1, resumenes.size());
+        ResumenLote resumen = resumenes.get(0);
+        assertEquals(6, resumen.getExitosas());
+        assertEquals(1, resumen.getCantidad(ResultadoOperacion.SALDO_FUERA_DE_RANGO));
+        assertEquals(1, resumen.getCantidad(ResultadoOperacion.ERROR_INESPERADO));
+        assertEquals(2, resumen.getFallos().size());
+        FalloOperacion desborde = resumen.getFallos().get(0);
+        assertEquals(2, desborde.getIndice());
+        assertNull(desborde.getCausa());
+        FalloOperacion sinTipo = resumen.getFallos().get(1);
+        assertEquals(3, sinTipo.getIndice());
+        assertTrue(sinTipo.getCausa() instanceof NullPointerException);
+
+        assertEquals(saldoLlena, llena.getSaldoEnUnidadesMinimas());
+        assertEquals(105.0, ((CajaDeAhorro) cuentas.get(2)).getSaldo());
+        assertEquals(105.0, ((CajaDeAhorro) cuentas.get(8)).getSaldo());
+        assertEquals(95.0, ((CajaDeAhorro) cuentas.get(6)).getSaldo());
+    }
+
+    @Test
+    public void testUnaCuentaQueFallaAlBuscarseNoCortaElLote() {
+        MotorLotes motor = new MotorLotes(id -> {
+            if (id == 5) {
+                throw new IllegalStateException("Almacén no disponible");
+            }
+            return cuentas.get(id);
+        }, 4, 4, pool);
+
+        List<ResumenLote> resumenes = motor.procesar(Arrays.asList(
+                new Operacion(TipoOperacion.DEPOSITO, 5, 1.0),
+                new Operacion(TipoOperacion.DEPOSITO, 1, 1.0),
+                new Operacion(TipoOperacion.DEPOSITO, 2, 1.0),
+                new Operacion(TipoOperacion.DEPOSITO, 3, 1.0),
+                new Operacion(TipoOperacion.DEPOSITO, 4, 1.0)).stream());
+
+        assertEquals(2, resumenes.size());
+        assertEquals(3, resumenes.get(0).getExitosas());
+        assertEquals(ResultadoOperacion.ERROR_INESPERADO, resumenes.get(0).getFallos().get(0).getResultado());
+        assertEquals(1, resumenes.get(1).getExitosas());
+        assertEquals(101.0, ((CajaDeAhorro) cuentas.get(4)).getSaldo());
+    }
+}
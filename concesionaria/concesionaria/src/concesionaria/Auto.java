@@ -27,9 +27,4 @@ public abstract class Auto extends Vehiculo{
         this.traccion = traccion;
     }
 
-    @Override
-    public int calcularPrecio() {
-        return getPrecio();
-    }
-
 }
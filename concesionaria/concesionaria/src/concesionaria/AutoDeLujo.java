@@ -7,9 +7,4 @@ public class AutoDeLujo extends Auto{
         super(marca, modelo, placa, anio, precio, nroMotor, cantPasajeros, traccion);
     }
 
-    @Override
-    public int calcularPrecio() {
-        int precioCalculado = (int)(getPrecio() * 0.9);
-        return precioCalculado < 0 ? 0 : precioCalculado;
-    }
 }
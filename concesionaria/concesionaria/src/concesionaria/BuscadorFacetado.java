@@ -0,0 +1,631 @@
+package concesionaria;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntFunction;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Búsqueda por facetas sobre un CatalogoCompacto, para consultas como
+ * "Auto 4x4 con cantPasajeros >= 5 y precio hasta X" y para contar cuántos
+ * vehículos hay de cada marca, modelo o año dentro del resultado
+ *
+ * Cada posición del catálogo es un bit. Se arma una vez:
+ * - un mapa de bits por cada tipo, marca, modelo y traccion (si un valor
+ *   tiene pocos vehículos se guarda como lista de posiciones, que ocupa
+ *   menos, igual que los contenedores de los "roaring bitmaps")
+ * - para anio, precio, capacidadDeCargaKg, cantDeEjes, cantPasajeros y
+ *   autonomiaEnKm, hasta 64 rangos con la misma cantidad de vehículos, y
+ *   para cada rango el mapa de todos los vehículos hasta ese rango; un filtro
+ *   por rango es una resta de dos mapas y solo se revisan uno por uno los
+ *   vehículos de los dos rangos de los extremos
+ * Así una consulta combina mapas de bits (64 vehículos por operación) sin
+ * recorrer el catálogo. Los índices ocupan unos 100 bytes por vehículo
+ *
+ * Los filtros por un atributo que el tipo no tiene (cantDeEjes en un SUV)
+ * nunca incluyen a ese vehículo
+ * Es una foto del catálogo al crearlo: si después cambia (setPrecio o
+ * vehículos agregados), hay que crear otro buscador. Se puede consultar desde
+ * varios hilos
+ */
+public class BuscadorFacetado {
+    private static final int MAXIMO_RANGOS = 64;
+
+    private final CatalogoCompacto catalogo;
+    private final int cantidad;
+    private final int palabras;
+    private final long[] todos;
+
+    private final IndiceValores porTipo;
+    private final List<Class<?>> tipos = new ArrayList<>();
+    // Unión de los tipos que son subclase de cada clase consultada
+    private final Map<Class<?>, long[]> porClase = new ConcurrentHashMap<>();
+    private final IndiceValores porMarca;
+    private final IndiceValores porModelo;
+    private final IndiceValores porTraccion;
+    private final IndiceRangos porAnio;
+    private final IndiceRangos porPrecio;
+    private final IndiceRangos porCapacidadDeCargaKg;
+    private final IndiceRangos porCantDeEjes;
+    private final IndiceRangos porCantPasajeros;
+    private final IndiceRangos porAutonomiaEnKm;
+    private final long[] soportaAcoplado;
+    private final long[] esDobleCabina;
+
+    public BuscadorFacetado(CatalogoCompacto catalogo) {
+        this.catalogo = catalogo;
+        this.cantidad = catalogo.getCantidad();
+        this.palabras = (cantidad + 63) >>> 6;
+        this.todos = new long[palabras];
+        for (int i = 0; i < cantidad; i++) {
+            marcar(todos, i);
+        }
+        porTipo = new IndiceValores(i -> catalogo.getTipo(i).getSimpleName());
+        for (int i = 0; i < cantidad; i++) {
+            if (!tipos.contains(catalogo.getTipo(i))) {
+                tipos.add(catalogo.getTipo(i));
+            }
+        }
+        porMarca = new IndiceValores(catalogo::getMarca);
+        porModelo = new IndiceValores(catalogo::getModelo);
+        porTraccion = new IndiceValores(catalogo::getTraccion);
+        long[] conPasajeros = unionDeTipos(Auto.class);
+        or(conPasajeros, unionDeTipos(Camioneta.class));
+        porAnio = new IndiceRangos(todos, catalogo::getAnio);
+        porPrecio = new IndiceRangos(todos, catalogo::getPrecio);
+        porCapacidadDeCargaKg = new IndiceRangos(unionDeTipos(VehiculoUtiliario.class), catalogo::getCapacidadDeCargaKg);
+        porCantDeEjes = new IndiceRangos(unionDeTipos(Camion.class), catalogo::getCantDeEjes);
+        porCantPasajeros = new IndiceRangos(conPasajeros, catalogo::getCantPasajeros);
+        porAutonomiaEnKm = new IndiceRangos(unionDeTipos(SUV.class), catalogo::getAutonomiaEnKm);
+        soportaAcoplado = new long[palabras];
+        esDobleCabina = new long[palabras];
+        for (int i = 0; i < cantidad; i++) {
+            if (catalogo.isSoportaAcoplado(i)) {
+                marcar(soportaAcoplado, i);
+            }
+            if (catalogo.isEsDobleCabina(i)) {
+                marcar(esDobleCabina, i);
+            }
+        }
+    }
+
+    public CatalogoCompacto getCatalogo() {
+        return catalogo;
+    }
+
+    /**
+     * Cantidad de vehículos que cumplen la consulta
+     */
+    public int contar(Consulta consulta) {
+        return cardinalidad(filtrar(consulta));
+    }
+
+    /**
+     * Posiciones en el catálogo (de menor a mayor) de los primeros vehículos
+     * que cumplen la consulta, hasta limite; se leen con catalogo.vista
+     */
+    public int[] buscar(Consulta consulta, int limite) {
+        long[] resultado = filtrar(consulta);
+        int[] posiciones = new int[Math.min(limite, cardinalidad(resultado))];
+        int encontrados = 0;
+        for (int w = 0; w < palabras && encontrados < posiciones.length; w++) {
+            long palabra = resultado[w];
+            while (palabra != 0 && encontrados < posiciones.length) {
+                posiciones[encontrados++] = (w << 6) + Long.numberOfTrailingZeros(palabra);
+                palabra &= palabra - 1;
+            }
+        }
+        return posiciones;
+    }
+
+    /**
+     * Las marcas con más vehículos dentro de la consulta (hasta cuantas), de
+     * mayor a menor cantidad
+     */
+    public Map<String, Integer> contarPorMarca(Consulta consulta, int cuantas) {
+        return porMarca.contar(filtrar(consulta), cuantas);
+    }
+
+    public Map<String, Integer> contarPorModelo(Consulta consulta, int cuantas) {
+        return porModelo.contar(filtrar(consulta), cuantas);
+    }
+
+    public Map<String, Integer> contarPorTraccion(Consulta consulta, int cuantas) {
+        return porTraccion.contar(filtrar(consulta), cuantas);
+    }
+
+    /**
+     * Cantidad de vehículos de cada tipo (nombre de la clase) en la consulta
+     */
+    public Map<String, Integer> contarPorTipo(Consulta consulta) {
+        return porTipo.contar(filtrar(consulta), Integer.MAX_VALUE);
+    }
+
+    /**
+     * Cantidad de vehículos de cada año en la consulta, ordenado por año
+     */
+    public SortedMap<Integer, Integer> contarPorAnio(Consulta consulta) {
+        return porAnio.contarPorValor(filtrar(consulta));
+    }
+
+    private long[] filtrar(Consulta consulta) {
+        long[] resultado = todos.clone();
+        for (Filtro filtro : consulta.filtros) {
+            filtro.aplicar(this, resultado);
+        }
+        return resultado;
+    }
+
+    private long[] mapaDeTipo(Class<?> clase) {
+        return porClase.computeIfAbsent(clase, this::unionDeTipos);
+    }
+
+    private long[] unionDeTipos(Class<?> clase) {
+        long[] union = new long[palabras];
+        for (Class<?> tipo : tipos) {
+            if (clase.isAssignableFrom(tipo)) {
+                or(union, porTipo.mapa(tipo.getSimpleName()));
+            }
+        }
+        return union;
+    }
+
+    /**
+     * Condiciones que tienen que cumplir los vehículos, todas a la vez
+     *   new BuscadorFacetado.Consulta().tipo(Auto.class).traccion("4x4")
+     *           .cantPasajeros(5, Integer.MAX_VALUE).precio(0, 30000000)
+     * Varios valores en marca, modelo o traccion se combinan con "o"
+     * Los rangos son inclusive
+     */
+    public static class Consulta {
+        private final List<Filtro> filtros = new ArrayList<>();
+
+        public Consulta tipo(Class<? extends Vehiculo> clase) {
+            filtros.add((b, resultado) -> and(resultado, b.mapaDeTipo(clase)));
+            return this;
+        }
+
+        public Consulta marca(String... marcas) {
+            filtros.add((b, resultado) -> b.porMarca.filtrar(resultado, marcas));
+            return this;
+        }
+
+        public Consulta modelo(String... modelos) {
+            filtros.add((b, resultado) -> b.porModelo.filtrar(resultado, modelos));
+            return this;
+        }
+
+        public Consulta traccion(String... tracciones) {
+            filtros.add((b, resultado) -> b.porTraccion.filtrar(resultado, tracciones));
+            return this;
+        }
+
+        public Consulta anio(int desde, int hasta) {
+            filtros.add((b, resultado) -> b.porAnio.filtrar(resultado, desde, hasta));
+            return this;
+        }
+
+        public Consulta precio(int desde, int hasta) {
+            filtros.add((b, resultado) -> b.porPrecio.filtrar(resultado, desde, hasta));
+            return this;
+        }
+
+        public Consulta capacidadDeCargaKg(int desde, int hasta) {
+            filtros.add((b, resultado) -> b.porCapacidadDeCargaKg.filtrar(resultado, desde, hasta));
+            return this;
+        }
+
+        public Consulta cantDeEjes(int desde, int hasta) {
+            filtros.add((b, resultado) -> b.porCantDeEjes.filtrar(resultado, desde, hasta));
+            return this;
+        }
+
+        public Consulta cantPasajeros(int desde, int hasta) {
+            filtros.add((b, resultado) -> b.porCantPasajeros.filtrar(resultado, desde, hasta));
+            return this;
+        }
+
+        public Consulta autonomiaEnKm(int desde, int hasta) {
+            filtros.add((b, resultado) -> b.porAutonomiaEnKm.filtrar(resultado, desde, hasta));
+            return this;
+        }
+
+        public Consulta soportaAcoplado() {
+            filtros.add((b, resultado) -> and(resultado, b.soportaAcoplado));
+            return this;
+        }
+
+        public Consulta esDobleCabina() {
+            filtros.add((b, resultado) -> and(resultado, b.esDobleCabina));
+            return this;
+        }
+    }
+
+    /**
+     * Deja en resultado solo los vehículos que cumplen una condición
+     */
+    private interface Filtro {
+        void aplicar(BuscadorFacetado buscador, long[] resultado);
+    }
+
+    /**
+     * Un mapa de posiciones por cada valor de un atributo de texto; los
+     * valores con pocos vehículos guardan la lista de posiciones en lugar
+     * del mapa de bits
+     */
+    private final class IndiceValores {
+        private final Map<String, Integer> ids = new HashMap<>();
+        private final List<String> valores = new ArrayList<>();
+        // Para cada valor, uno de los dos es null
+        private long[][] densos;
+        private int[][] dispersos;
+        // Valor de cada posición (-1 = null), para contar recorriendo pocos resultados
+        private final int[] idPorPosicion = new int[cantidad];
+
+        IndiceValores(IntFunction<String> atributo) {
+            List<int[]> posiciones = new ArrayList<>();
+            int[] cantidades = new int[16];
+            for (int i = 0; i < cantidad; i++) {
+                String valor = atributo.apply(i);
+                if (valor == null) {
+                    idPorPosicion[i] = -1;
+                    continue;
+                }
+                Integer id = ids.get(valor);
+                if (id == null) {
+                    id = valores.size();
+                    ids.put(valor, id);
+                    valores.add(valor);
+                    posiciones.add(new int[4]);
+                    if (id == cantidades.length) {
+                        cantidades = Arrays.copyOf(cantidades, id * 2);
+                    }
+                }
+                int[] lista = posiciones.get(id);
+                if (cantidades[id] == lista.length) {
+                    lista = Arrays.copyOf(lista, lista.length * 2);
+                    posiciones.set(id, lista);
+                }
+                lista[cantidades[id]++] = i;
+                idPorPosicion[i] = id;
+            }
+            densos = new long[valores.size()][];
+            dispersos = new int[valores.size()][];
+            for (int id = 0; id < valores.size(); id++) {
+                int[] lista = posiciones.get(id);
+                // Una posición ocupa 32 bits; el mapa de bits, 1 bit por vehículo del catálogo
+                if ((long) cantidades[id] * 32 < cantidad) {
+                    dispersos[id] = Arrays.copyOf(lista, cantidades[id]);
+                } else {
+                    long[] mapa = new long[palabras];
+                    for (int k = 0; k < cantidades[id]; k++) {
+                        marcar(mapa, lista[k]);
+                    }
+                    densos[id] = mapa;
+                }
+            }
+        }
+
+        long[] mapa(String valor) {
+            return union(valor);
+        }
+
+        void filtrar(long[] resultado, String... buscados) {
+            if (buscados.length == 1) {
+                Integer id = ids.get(buscados[0]);
+                if (id != null && densos[id] != null) {
+                    and(resultado, densos[id]);
+                    return;
+                }
+            }
+            and(resultado, union(buscados));
+        }
+
+        private long[] union(String... buscados) {
+            long[] union = new long[palabras];
+            for (String valor : buscados) {
+                Integer id = ids.get(valor);
+                if (id == null) {
+                    continue;
+                }
+                if (densos[id] != null) {
+                    or(union, densos[id]);
+                } else {
+                    for (int posicion : dispersos[id]) {
+                        marcar(union, posicion);
+                    }
+                }
+            }
+            return union;
+        }
+
+        Map<String, Integer> contar(long[] filtro, int cuantas) {
+            Integer[] orden = new Integer[valores.size()];
+            int[] conteo = new int[valores.size()];
+            for (int id = 0; id < valores.size(); id++) {
+                orden[id] = id;
+            }
+            // Con pocos resultados conviene recorrerlos en lugar de cruzar el filtro con cada valor
+            if ((long) cardinalidad(filtro) * 8 < (long) valores.size() * palabras) {
+                for (int w = 0; w < palabras; w++) {
+                    long palabra = filtro[w];
+                    while (palabra != 0) {
+                        int id = idPorPosicion[(w << 6) + Long.numberOfTrailingZeros(palabra)];
+                        if (id >= 0) {
+                            conteo[id]++;
+                        }
+                        palabra &= palabra - 1;
+                    }
+                }
+            } else {
+                for (int id = 0; id < valores.size(); id++) {
+                    if (densos[id] != null) {
+                        conteo[id] = cardinalidadInterseccion(filtro, densos[id]);
+                    } else {
+                        for (int posicion : dispersos[id]) {
+                            if (marcado(filtro, posicion)) {
+                                conteo[id]++;
+                            }
+                        }
+                    }
+                }
+            }
+            Arrays.sort(orden, (a, b) -> conteo[b] != conteo[a] ? Integer.compare(conteo[b], conteo[a])
+                    : valores.get(a).compareTo(valores.get(b)));
+            Map<String, Integer> resultado = new LinkedHashMap<>();
+            for (int k = 0; k < Math.min(cuantas, orden.length) && conteo[orden[k]] > 0; k++) {
+                resultado.put(valores.get(orden[k]), conteo[orden[k]]);
+            }
+            return resultado;
+        }
+    }
+
+    /**
+     * Índice de un atributo numérico partido en rangos con la misma
+     * cantidad de vehículos (un valor nunca queda en dos rangos; si hay
+     * pocos valores distintos, cada uno es un rango)
+     */
+    private final class IndiceRangos {
+        // Valor del atributo en cada posición del catálogo
+        private final int[] valores;
+        // Posiciones de los vehículos con el atributo ordenadas por valor, y sus valores
+        private final int[] posicionesOrdenadas;
+        private final int[] valoresOrdenados;
+        // Cada rango r ocupa [inicios[r], inicios[r + 1]) de posicionesOrdenadas
+        private final int[] inicios;
+        // Valores mínimo y máximo de cada rango, de menor a mayor
+        private final int[] minimos;
+        private final int[] maximos;
+        // acumulados[k] = vehículos de los rangos 0..k
+        private final long[][] acumulados;
+
+        IndiceRangos(long[] conAtributo, IntUnaryOperator atributo) {
+            valores = new int[cantidad];
+            int conValor = cardinalidad(conAtributo);
+            // valor en los 32 bits altos y posición en los bajos: ordenar ordena por valor
+            long[] claves = new long[conValor];
+            int k = 0;
+            for (int i = 0; i < cantidad; i++) {
+                if (marcado(conAtributo, i)) {
+                    valores[i] = atributo.applyAsInt(i);
+                    claves[k++] = ((long) valores[i] << 32) | i;
+                }
+            }
+            Arrays.sort(claves);
+            posicionesOrdenadas = new int[conValor];
+            valoresOrdenados = new int[conValor];
+            for (int i = 0; i < conValor; i++) {
+                posicionesOrdenadas[i] = (int) claves[i];
+                valoresOrdenados[i] = (int) (claves[i] >> 32);
+            }
+            int[] ordenados = valoresOrdenados;
+            // Cortes: el rango termina en el primer cambio de valor después de conValor / MAXIMO_RANGOS
+            int[] inicios = new int[MAXIMO_RANGOS + 1];
+            int rangos = 0;
+            int tamanio = Math.max(1, (conValor + MAXIMO_RANGOS - 1) / MAXIMO_RANGOS);
+            int distintos = 0;
+            for (int i = 0; i < conValor; i++) {
+                if (i == 0 || ordenados[i] != ordenados[i - 1]) {
+                    distintos++;
+                }
+            }
+            for (int i = 0; i < conValor; ) {
+                inicios[rangos++] = i;
+                int fin = distintos <= MAXIMO_RANGOS ? i + 1 : Math.min(conValor, i + tamanio);
+                while (fin < conValor && ordenados[fin] == ordenados[fin - 1]) {
+                    fin++;
+                }
+                i = fin;
+            }
+            inicios[rangos] = conValor;
+            this.inicios = Arrays.copyOf(inicios, rangos + 1);
+            minimos = new int[rangos];
+            maximos = new int[rangos];
+            for (int r = 0; r < rangos; r++) {
+                minimos[r] = ordenados[inicios[r]];
+                maximos[r] = ordenados[inicios[r + 1] - 1];
+            }
+            long[][] deRango = new long[rangos][palabras];
+            for (int r = 0; r < rangos; r++) {
+                for (int i = inicios[r]; i < inicios[r + 1]; i++) {
+                    marcar(deRango[r], posicionesOrdenadas[i]);
+                }
+            }
+            acumulados = deRango;
+            for (int r = 1; r < rangos; r++) {
+                or(acumulados[r], acumulados[r - 1]);
+            }
+        }
+
+        /**
+         * Deja en resultado solo los vehículos con el atributo entre desde y
+         * hasta, inclusive
+         */
+        void filtrar(long[] resultado, int desde, int hasta) {
+            int primero = primerRangoConMaximoDesde(desde);
+            int ultimo = ultimoRangoConMinimoHasta(hasta);
+            if (desde > hasta || primero > ultimo) {
+                Arrays.fill(resultado, 0);
+                return;
+            }
+            long[] hastaUltimo = acumulados[ultimo];
+            if (primero > 0) {
+                long[] antesDelPrimero = acumulados[primero - 1];
+                for (int w = 0; w < palabras; w++) {
+                    resultado[w] &= hastaUltimo[w] & ~antesDelPrimero[w];
+                }
+            } else {
+                and(resultado, hastaUltimo);
+            }
+            // Los rangos de los extremos pueden tener valores afuera
+            if (minimos[primero] < desde || maximos[primero] > hasta) {
+                sacarFueraDeRango(resultado, primero, desde, hasta);
+            }
+            if (ultimo != primero && maximos[ultimo] > hasta) {
+                sacarFueraDeRango(resultado, ultimo, desde, hasta);
+            }
+        }
+
+        SortedMap<Integer, Integer> contarPorValor(long[] filtro) {
+            SortedMap<Integer, Integer> resultado = new TreeMap<>();
+            int rangos = minimos.length;
+            if (rangos == 0) {
+                return resultado;
+            }
+            int[] porRango = new int[rangos];
+            long[] conAtributo = acumulados[rangos - 1];
+            // Recorrer cuesta una búsqueda binaria por resultado; cruzar, una pasada por rango
+            if ((long) cardinalidad(filtro) * 32 < (long) rangos * palabras) {
+                for (int w = 0; w < palabras; w++) {
+                    long palabra = filtro[w] & conAtributo[w];
+                    while (palabra != 0) {
+                        int valor = valores[(w << 6) + Long.numberOfTrailingZeros(palabra)];
+                        int r = rango(valor);
+                        if (minimos[r] == maximos[r]) {
+                            porRango[r]++;
+                        } else {
+                            resultado.merge(valor, 1, Integer::sum);
+                        }
+                        palabra &= palabra - 1;
+                    }
+                }
+            } else {
+                long[] anterior = null;
+                int hastaAnterior = 0;
+                for (int r = 0; r < rangos; r++) {
+                    int hastaEste = cardinalidadInterseccion(filtro, acumulados[r]);
+                    if (minimos[r] == maximos[r]) {
+                        porRango[r] = hastaEste - hastaAnterior;
+                    } else if (hastaEste > hastaAnterior) {
+                        for (int w = 0; w < palabras; w++) {
+                            long palabra = filtro[w] & acumulados[r][w] & (anterior != null ? ~anterior[w] : -1L);
+                            while (palabra != 0) {
+                                int posicion = (w << 6) + Long.numberOfTrailingZeros(palabra);
+                                resultado.merge(valores[posicion], 1, Integer::sum);
+                                palabra &= palabra - 1;
+                            }
+                        }
+                    }
+                    anterior = acumulados[r];
+                    hastaAnterior = hastaEste;
+                }
+            }
+            for (int r = 0; r < rangos; r++) {
+                if (porRango[r] > 0) {
+                    resultado.put(minimos[r], porRango[r]);
+                }
+            }
+            return resultado;
+        }
+
+        private void sacarFueraDeRango(long[] resultado, int rango, int desde, int hasta) {
+            int inicio = inicios[rango];
+            int fin = inicios[rango + 1];
+            // Dentro del rango están ordenados por valor: los de afuera son un principio y un final
+            int primeroAdentro = primerIndiceConValorDesde(inicio, fin, desde);
+            int primeroDespues = hasta == Integer.MAX_VALUE ? fin : primerIndiceConValorDesde(primeroAdentro, fin, hasta + 1);
+            for (int i = inicio; i < primeroAdentro; i++) {
+                desmarcar(resultado, posicionesOrdenadas[i]);
+            }
+            for (int i = primeroDespues; i < fin; i++) {
+                desmarcar(resultado, posicionesOrdenadas[i]);
+            }
+        }
+
+        private int primerIndiceConValorDesde(int inicio, int fin, int valor) {
+            while (inicio < fin) {
+                int medio = (inicio + fin) >>> 1;
+                if (valoresOrdenados[medio] < valor) {
+                    inicio = medio + 1;
+                } else {
+                    fin = medio;
+                }
+            }
+            return inicio;
+        }
+
+        private int rango(int valor) {
+            int r = Arrays.binarySearch(minimos, valor);
+            return r >= 0 ? r : -r - 2;
+        }
+
+        private int primerRangoConMaximoDesde(int desde) {
+            int r = Arrays.binarySearch(maximos, desde);
+            return r >= 0 ? r : -r - 1;
+        }
+
+        private int ultimoRangoConMinimoHasta(int hasta) {
+            int r = Arrays.binarySearch(minimos, hasta);
+            return r >= 0 ? r : -r - 2;
+        }
+    }
+
+    // Operaciones sobre mapas de bits de largo palabras
+
+    private static void marcar(long[] mapa, int posicion) {
+        mapa[posicion >>> 6] |= 1L << posicion;
+    }
+
+    private static void desmarcar(long[] mapa, int posicion) {
+        mapa[posicion >>> 6] &= ~(1L << posicion);
+    }
+
+    private static boolean marcado(long[] mapa, int posicion) {
+        return (mapa[posicion >>> 6] & (1L << posicion)) != 0;
+    }
+
+    private static void and(long[] destino, long[] mapa) {
+        for (int w = 0; w < destino.length; w++) {
+            destino[w] &= mapa[w];
+        }
+    }
+
+    private static void or(long[] destino, long[] mapa) {
+        for (int w = 0; w < destino.length; w++) {
+            destino[w] |= mapa[w];
+        }
+    }
+
+    private static int cardinalidad(long[] mapa) {
+        int total = 0;
+        for (long palabra : mapa) {
+            total += Long.bitCount(palabra);
+        }
+        return total;
+    }
+
+    private static int cardinalidadInterseccion(long[] a, long[] b) {
+        int total = 0;
+        for (int w = 0; w < a.length; w++) {
+            total += Long.bitCount(a[w] & b[w]);
+        }
+        return total;
+    }
+}
@@ -11,11 +11,6 @@ public class Camion extends VehiculoUtiliario{
         this.soportaAcoplado = soportaAcoplado;
     }
 
-    @Override
-    public int calcularPrecio() {
-        return getPrecio();
-    }
-
     public int getCantDeEjes() {
         return cantDeEjes;
     }
@@ -11,11 +11,6 @@ public class Camioneta extends VehiculoUtiliario{
         this.cantPasajeros = cantPasajeros;
     }
 
-    @Override
-    public int calcularPrecio() {
-        return getPrecio();
-    }
-
     public boolean isEsDobleCabina() {
         return esDobleCabina;
     }
@@ -0,0 +1,439 @@
+package concesionaria;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Catálogo de vehículos guardado "por columnas" para ocupar poca memoria:
+ * - marca, modelo y traccion se guardan como un número de un diccionario
+ *   (cada texto distinto se guarda una sola vez)
+ * - placa y nroMotor se empaquetan en un único arreglo de bytes
+ * - los atributos numéricos van en arreglos primitivos, uno por atributo
+ * Así un vehículo ocupa unos 70 bytes en lugar de los ~250 de un objeto
+ * AutoDeLujo con sus cuatro String; reporteMemoria compara las dos cifras
+ * calculadas sobre los vehículos guardados
+ *
+ * Para leerlo se usa VistaVehiculo, un objeto liviano que apunta a una
+ * posición y lee las columnas; aVehiculo arma el objeto completo cuando
+ * hace falta
+ *
+ * Se arma agregando vehículos desde un hilo; una vez armado se puede leer
+ * desde varios hilos
+ */
+public class CatalogoCompacto {
+    // Tipos que sabe guardar, en el orden de la columna tipos
+    private static final Class<?>[] TIPOS = {AutoDeLujo.class, SUV.class, Camion.class, Camioneta.class};
+    private static final int TIPO_AUTO_DE_LUJO = 0;
+    private static final int TIPO_SUV = 1;
+    private static final int TIPO_CAMION = 2;
+    private static final int TIPO_CAMIONETA = 3;
+
+    private static final int SOPORTA_ACOPLADO = 1;
+    private static final int DOBLE_CABINA = 2;
+    // Largo que marca un texto null en el arreglo de textos
+    private static final int TEXTO_NULO = 0xFF;
+
+    private final Diccionario marcas = new Diccionario();
+    private final Diccionario modelos = new Diccionario();
+    private final Diccionario tracciones = new Diccionario();
+
+    private byte[] tipos;
+    private int[] marca;
+    private int[] modelo;
+    private int[] traccion;
+    private int[] anio;
+    private int[] precio;
+    private int[] capacidadDeCargaKg;
+    private int[] cantDeEjes;
+    private int[] cantPasajeros;
+    private int[] autonomiaEnKm;
+    private byte[] banderas;
+    // Posición en textos donde empiezan la placa y el nroMotor de cada vehículo
+    private int[] inicioTextos;
+    private byte[] textos;
+    private int largoTextos;
+    private int cantidad;
+
+    public CatalogoCompacto(int capacidadInicial) {
+        int capacidad = Math.max(capacidadInicial, 16);
+        tipos = new byte[capacidad];
+        marca = new int[capacidad];
+        modelo = new int[capacidad];
+        traccion = new int[capacidad];
+        anio = new int[capacidad];
+        precio = new int[capacidad];
+        capacidadDeCargaKg = new int[capacidad];
+        cantDeEjes = new int[capacidad];
+        cantPasajeros = new int[capacidad];
+        autonomiaEnKm = new int[capacidad];
+        banderas = new byte[capacidad];
+        inicioTextos = new int[capacidad];
+        textos = new byte[capacidad * 16];
+    }
+
+    public static CatalogoCompacto desde(Collection<? extends Vehiculo> vehiculos) {
+        CatalogoCompacto catalogo = new CatalogoCompacto(vehiculos.size());
+        for (Vehiculo vehiculo : vehiculos) {
+            catalogo.agregar(vehiculo);
+        }
+        return catalogo;
+    }
+
+    /**
+     * Copia los datos del vehículo al catálogo y devuelve su posición
+     * Lanza IllegalArgumentException si el tipo de vehículo no se puede
+     * guardar o si la placa o el nroMotor ocupan más de 254 bytes
+     */
+    public int agregar(Vehiculo vehiculo) {
+        int tipo = Arrays.asList(TIPOS).indexOf(vehiculo.getClass());
+        if (tipo < 0) {
+            throw new IllegalArgumentException("Tipo de vehículo no soportado: " + vehiculo.getClass().getSimpleName());
+        }
+        if (cantidad == tipos.length) {
+            crecer();
+        }
+        int i = cantidad;
+        tipos[i] = (byte) tipo;
+        marca[i] = marcas.id(vehiculo.getMarca());
+        modelo[i] = modelos.id(vehiculo.getModelo());
+        traccion[i] = -1;
+        anio[i] = vehiculo.getAnio();
+        precio[i] = vehiculo.getPrecio();
+        byte bandera = 0;
+        if (vehiculo instanceof Auto) {
+            Auto auto = (Auto) vehiculo;
+            traccion[i] = tracciones.id(auto.getTraccion());
+            cantPasajeros[i] = auto.getCantPasajeros();
+        } else if (vehiculo instanceof SUV) {
+            autonomiaEnKm[i] = ((SUV) vehiculo).getAutonomiaEnKm();
+        } else if (vehiculo instanceof Camion) {
+            Camion camion = (Camion) vehiculo;
+            capacidadDeCargaKg[i] = camion.getCapacidadDeCargaKg();
+            cantDeEjes[i] = camion.getCantDeEjes();
+            bandera |= camion.isSoportaAcoplado() ? SOPORTA_ACOPLADO : 0;
+        } else {
+            Camioneta camioneta = (Camioneta) vehiculo;
+            capacidadDeCargaKg[i] = camioneta.getCapacidadDeCargaKg();
+            cantPasajeros[i] = camioneta.getCantPasajeros();
+            bandera |= camioneta.isEsDobleCabina() ? DOBLE_CABINA : 0;
+        }
+        banderas[i] = bandera;
+        byte[] placa = aBytes(vehiculo.getPlaca());
+        byte[] nroMotor = aBytes(vehiculo.getNroMotor());
+        inicioTextos[i] = largoTextos;
+        escribirTexto(placa);
+        escribirTexto(nroMotor);
+        return cantidad++;
+    }
+
+    public int getCantidad() {
+        return cantidad;
+    }
+
+    /**
+     * Vista del vehículo en esa posición (se puede mover con posicionar)
+     */
+    public VistaVehiculo vista(int posicion) {
+        return new VistaVehiculo(this).posicionar(posicion);
+    }
+
+    /**
+     * Arma un objeto Vehiculo con los datos de esa posición
+     */
+    public Vehiculo aVehiculo(int posicion) {
+        validar(posicion);
+        String placa = getPlaca(posicion);
+        String nroMotor = getNroMotor(posicion);
+        String m = getMarca(posicion);
+        String mod = getModelo(posicion);
+        switch (tipos[posicion]) {
+            case TIPO_AUTO_DE_LUJO:
+                return new AutoDeLujo(m, mod, placa, anio[posicion], precio[posicion], nroMotor,
+                        cantPasajeros[posicion], getTraccion(posicion));
+            case TIPO_SUV:
+                return new SUV(m, mod, placa, anio[posicion], precio[posicion], nroMotor, autonomiaEnKm[posicion]);
+            case TIPO_CAMION:
+                return new Camion(m, mod, placa, anio[posicion], precio[posicion], nroMotor, capacidadDeCargaKg[posicion],
+                        cantDeEjes[posicion], (banderas[posicion] & SOPORTA_ACOPLADO) != 0);
+            default:
+                return new Camioneta(m, mod, placa, anio[posicion], precio[posicion], nroMotor, capacidadDeCargaKg[posicion],
+                        (banderas[posicion] & DOBLE_CABINA) != 0, cantPasajeros[posicion]);
+        }
+    }
+
+    public void setPrecio(int posicion, int nuevoPrecio) {
+        validar(posicion);
+        precio[posicion] = nuevoPrecio;
+    }
+
+    /**
+     * Cantidad de marcas, modelos y tracciones distintas
+     */
+    public int getCantidadTextosDistintos() {
+        return marcas.cantidad() + modelos.cantidad() + tracciones.cantidad();
+    }
+
+    /**
+     * Bytes que ocupan los datos guardados: las columnas hasta la cantidad de
+     * vehículos, los textos empaquetados y los diccionarios (cada entrada con
+     * su String, su nodo del HashMap, el Integer del id si no es de los que
+     * Java ya tiene creados y su lugar en la lista y en la tabla)
+     * No incluye la capacidad de reserva de los arreglos
+     */
+    public long bytesOcupados() {
+        // tipos y banderas: 1 byte; diez columnas de int: 4 bytes cada una
+        long columnas = (long) cantidad * (1 + 1 + 10 * 4);
+        return columnas + largoTextos + marcas.bytesOcupados() + modelos.bytesOcupados() + tracciones.bytesOcupados();
+    }
+
+    /**
+     * Bytes que ocuparían los mismos vehículos como objetos en una lista:
+     * cada objeto con sus campos, cada String no nulo (placa, nroMotor,
+     * marca, modelo, traccion) y su lugar en la lista
+     */
+    public long bytesComoObjetos() {
+        int referencia = bytesPorReferencia();
+        long[] bytesPorTipo = new long[TIPOS.length];
+        for (int t = 0; t < TIPOS.length; t++) {
+            bytesPorTipo[t] = bytesObjeto(TIPOS[t], referencia);
+        }
+        long total = (long) cantidad * referencia;
+        for (int i = 0; i < cantidad; i++) {
+            total += bytesPorTipo[tipos[i]] + bytesString(getPlaca(i), referencia) + bytesString(getNroMotor(i), referencia)
+                    + bytesString(getMarca(i), referencia) + bytesString(getModelo(i), referencia)
+                    + bytesString(getTraccion(i), referencia);
+        }
+        return total;
+    }
+
+    /**
+     * Informe de memoria comparado con lo que ocuparían los mismos vehículos
+     * como objetos
+     */
+    public String reporteMemoria() {
+        long bytes = bytesOcupados();
+        long bytesObjetos = bytesComoObjetos();
+        StringBuilder sb = new StringBuilder();
+        sb.append("=== Memoria del Catálogo Compacto ===\n");
+        sb.append("Vehículos: ").append(cantidad).append('\n');
+        sb.append("Textos distintos en diccionarios: ").append(getCantidadTextosDistintos()).append('\n');
+        sb.append("Bytes ocupados: ").append(bytes).append('\n');
+        sb.append("Bytes por vehículo: ").append(cantidad > 0 ? bytes / cantidad : 0).append('\n');
+        sb.append("Como objetos: ").append(bytesObjetos)
+          .append(" (").append(cantidad > 0 ? bytesObjetos / cantidad : 0).append(" por vehículo)");
+        return sb.toString();
+    }
+
+    // Acceso por posición para VistaVehiculo
+
+    Class<?> getTipo(int posicion) {
+        return TIPOS[tipos[posicion]];
+    }
+
+    String getMarca(int posicion) {
+        return marcas.texto(marca[posicion]);
+    }
+
+    String getModelo(int posicion) {
+        return modelos.texto(modelo[posicion]);
+    }
+
+    String getTraccion(int posicion) {
+        return tracciones.texto(traccion[posicion]);
+    }
+
+    String getPlaca(int posicion) {
+        return leerTexto(inicioTextos[posicion]);
+    }
+
+    String getNroMotor(int posicion) {
+        int inicio = inicioTextos[posicion];
+        int largo = textos[inicio] & 0xFF;
+        return leerTexto(inicio + 1 + (largo == TEXTO_NULO ? 0 : largo));
+    }
+
+    int getAnio(int posicion) {
+        return anio[posicion];
+    }
+
+    int getPrecio(int posicion) {
+        return precio[posicion];
+    }
+
+    int getCapacidadDeCargaKg(int posicion) {
+        return capacidadDeCargaKg[posicion];
+    }
+
+    int getCantDeEjes(int posicion) {
+        return cantDeEjes[posicion];
+    }
+
+    int getCantPasajeros(int posicion) {
+        return cantPasajeros[posicion];
+    }
+
+    int getAutonomiaEnKm(int posicion) {
+        return autonomiaEnKm[posicion];
+    }
+
+    boolean isSoportaAcoplado(int posicion) {
+        return (banderas[posicion] & SOPORTA_ACOPLADO) != 0;
+    }
+
+    boolean isEsDobleCabina(int posicion) {
+        return (banderas[posicion] & DOBLE_CABINA) != 0;
+    }
+
+    void validar(int posicion) {
+        if (posicion < 0 || posicion >= cantidad) {
+            throw new IndexOutOfBoundsException("Posición " + posicion + " fuera del catálogo (" + cantidad + " vehículos)");
+        }
+    }
+
+    private static byte[] aBytes(String texto) {
+        if (texto == null) {
+            return null;
+        }
+        byte[] bytes = texto.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length >= TEXTO_NULO) {
+            throw new IllegalArgumentException("Texto demasiado largo para el catálogo: " + texto);
+        }
+        return bytes;
+    }
+
+    private void escribirTexto(byte[] bytes) {
+        int largo = bytes == null ? 0 : bytes.length;
+        if (largoTextos + 1 + largo > textos.length) {
+            textos = Arrays.copyOf(textos, Math.max(textos.length * 2, largoTextos + 1 + largo));
+        }
+        textos[largoTextos++] = (byte) (bytes == null ? TEXTO_NULO : largo);
+        if (bytes != null) {
+            System.arraycopy(bytes, 0, textos, largoTextos, largo);
+            largoTextos += largo;
+        }
+    }
+
+    private String leerTexto(int inicio) {
+        int largo = textos[inicio] & 0xFF;
+        return largo == TEXTO_NULO ? null : new String(textos, inicio + 1, largo, StandardCharsets.UTF_8);
+    }
+
+    private void crecer() {
+        int capacidad = tipos.length * 2;
+        tipos = Arrays.copyOf(tipos, capacidad);
+        marca = Arrays.copyOf(marca, capacidad);
+        modelo = Arrays.copyOf(modelo, capacidad);
+        traccion = Arrays.copyOf(traccion, capacidad);
+        anio = Arrays.copyOf(anio, capacidad);
+        precio = Arrays.copyOf(precio, capacidad);
+        capacidadDeCargaKg = Arrays.copyOf(capacidadDeCargaKg, capacidad);
+        cantDeEjes = Arrays.copyOf(cantDeEjes, capacidad);
+        cantPasajeros = Arrays.copyOf(cantPasajeros, capacidad);
+        autonomiaEnKm = Arrays.copyOf(autonomiaEnKm, capacidad);
+        banderas = Arrays.copyOf(banderas, capacidad);
+        inicioTextos = Arrays.copyOf(inicioTextos, capacidad);
+    }
+
+    // Encabezado de 12 bytes más los campos de la clase y sus superclases
+    // (sin contar los huecos que la JVM pueda dejar entre campos)
+    private static long bytesObjeto(Class<?> clase, int referencia) {
+        long bytes = 12;
+        for (Class<?> c = clase; c != null; c = c.getSuperclass()) {
+            for (Field campo : c.getDeclaredFields()) {
+                if (Modifier.isStatic(campo.getModifiers())) {
+                    continue;
+                }
+                Class<?> tipo = campo.getType();
+                if (tipo == long.class || tipo == double.class) {
+                    bytes += 8;
+                } else if (tipo == int.class || tipo == float.class) {
+                    bytes += 4;
+                } else if (tipo == short.class || tipo == char.class) {
+                    bytes += 2;
+                } else if (tipo == boolean.class || tipo == byte.class) {
+                    bytes += 1;
+                } else {
+                    bytes += referencia;
+                }
+            }
+        }
+        return alinear(bytes);
+    }
+
+    // String (encabezado + value + hash + coder + hashIsZero) más su arreglo
+    // de bytes: uno por carácter si todos entran en Latin-1, si no dos
+    private static long bytesString(String texto, int referencia) {
+        if (texto == null) {
+            return 0;
+        }
+        int porCaracter = 1;
+        for (int i = 0; i < texto.length(); i++) {
+            if (texto.charAt(i) > 0xFF) {
+                porCaracter = 2;
+                break;
+            }
+        }
+        return alinear(12 + referencia + 4 + 1 + 1) + alinear(16 + (long) texto.length() * porCaracter);
+    }
+
+    // Referencias comprimidas (4 bytes) salvo con heaps de 32 GB o más
+    private static int bytesPorReferencia() {
+        return Runtime.getRuntime().maxMemory() < 32L * 1024 * 1024 * 1024 ? 4 : 8;
+    }
+
+    private static long alinear(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+
+    /**
+     * Textos distintos numerados desde 0 (-1 = null)
+     */
+    private static final class Diccionario {
+        private final Map<String, Integer> ids = new HashMap<>();
+        private final List<String> textos = new ArrayList<>();
+        private long bytes;
+
+        int id(String texto) {
+            if (texto == null) {
+                return -1;
+            }
+            Integer id = ids.get(texto);
+            if (id == null) {
+                id = textos.size();
+                ids.put(texto, id);
+                textos.add(texto);
+                bytes += bytesEntrada(texto, id);
+            }
+            return id;
+        }
+
+        String texto(int id) {
+            return id < 0 ? null : textos.get(id);
+        }
+
+        int cantidad() {
+            return textos.size();
+        }
+
+        long bytesOcupados() {
+            return bytes;
+        }
+
+        // El String, el nodo del HashMap (encabezado + hash + 3 referencias),
+        // el Integer (los de -128 a 127 son compartidos) y una referencia en
+        // la lista y otra en la tabla del mapa (factor de carga 0.75)
+        private static long bytesEntrada(String texto, int id) {
+            int referencia = bytesPorReferencia();
+            long nodo = alinear(12 + 4 + 3L * referencia);
+            long entero = id < 128 ? 0 : alinear(12 + 4);
+            return bytesString(texto, referencia) + nodo + entero + referencia + (long) (referencia / 0.75);
+        }
+    }
+}
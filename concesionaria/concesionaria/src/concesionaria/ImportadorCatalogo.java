@@ -0,0 +1,633 @@
+package concesionaria;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
+
+/**
+ * Importa vehículos en cantidad desde archivos de texto (CSV o de ancho fijo)
+ * de los proveedores, una fila por vehículo:
+ *   tipo, marca, modelo, placa, anio, precio, nroMotor, y según el tipo:
+ *   AutoDeLujo  cantPasajeros, traccion
+ *   SUV         autonomiaEnKm
+ *   Camion      capacidadDeCargaKg, cantDeEjes, soportaAcoplado
+ *   Camioneta   capacidadDeCargaKg, esDobleCabina, cantPasajeros
+ * (mismo orden que los constructores; los booleanos pueden ser true/false,
+ * si/no o 1/0)
+ *
+ * El archivo se lee mapeado en memoria (FileChannel.map) y se parte en
+ * bloques que terminan en un fin de línea; cada bloque se procesa en el pool
+ * por separado. Como mucho hay dos bloques por hilo del pool en proceso o
+ * esperando a ser entregados, así la memoria no depende del tamaño del
+ * archivo si los vehículos van a un destino (ver importar(Path, Consumer)).
+ * Los campos se leen directamente de los bytes: no se arma un
+ * String por línea, los números se convierten sin String y, dentro de cada
+ * bloque, marca, modelo y traccion repetidos comparten el mismo String.
+ * Sirve para archivos de varios GB, siempre que ningún campo tenga un salto
+ * de línea
+ *
+ * Las filas inválidas no cortan la importación: se informan en el resultado
+ * con su número de línea
+ */
+public class ImportadorCatalogo {
+    // Tamaño de los bloques en que se parte el archivo
+    private static final long BLOQUE_MINIMO = 1 << 20;
+    private static final long BLOQUE_MAXIMO = 256L << 20;
+    // Filas rechazadas que se guardan con su detalle; las demás solo se cuentan
+    private static final int MAXIMO_RECHAZOS_GUARDADOS = 1000;
+
+    private static final String[] TIPOS = {"AutoDeLujo", "SUV", "Camion", "Camioneta"};
+    private static final byte[][] TIPOS_BYTES = new byte[TIPOS.length][];
+    // Campos de cada tipo, en el mismo orden que TIPOS
+    private static final int[] CAMPOS_POR_TIPO = {9, 8, 10, 10};
+    private static final int CAMPOS_MAXIMOS = 10;
+
+    static {
+        for (int i = 0; i < TIPOS.length; i++) {
+            TIPOS_BYTES[i] = TIPOS[i].getBytes(StandardCharsets.US_ASCII);
+        }
+    }
+
+    private final char separador;
+    // null = CSV
+    private final int[] anchos;
+    private final boolean conEncabezado;
+    private final ForkJoinPool pool;
+
+    private ImportadorCatalogo(char separador, int[] anchos, boolean conEncabezado, ForkJoinPool pool) {
+        this.separador = separador;
+        this.anchos = anchos;
+        this.conEncabezado = conEncabezado;
+        this.pool = pool;
+    }
+
+    /**
+     * Archivo con los campos separados por ese carácter; un campo puede ir
+     * entre comillas dobles ("" dentro de las comillas es una comilla)
+     */
+    public static ImportadorCatalogo csv(char separador) {
+        if (separador == '"' || separador == '\n' || separador == '\r' || separador > 0x7F) {
+            throw new IllegalArgumentException("Separador inválido: " + separador);
+        }
+        return new ImportadorCatalogo(separador, null, false, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Archivo de ancho fijo: cada campo ocupa esa cantidad de bytes y se le
+     * quitan los espacios de los extremos. Si la línea termina antes, los
+     * campos que faltan quedan vacíos
+     */
+    public static ImportadorCatalogo anchoFijo(int... anchos) {
+        if (anchos.length < CAMPOS_MAXIMOS) {
+            throw new IllegalArgumentException("Hacen falta los anchos de los " + CAMPOS_MAXIMOS + " campos");
+        }
+        for (int ancho : anchos) {
+            if (ancho <= 0) {
+                throw new IllegalArgumentException("Los anchos de los campos deben ser positivos");
+            }
+        }
+        return new ImportadorCatalogo(',', anchos.clone(), false, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Mismo importador, salteando la primera línea del archivo
+     */
+    public ImportadorCatalogo conEncabezado() {
+        return new ImportadorCatalogo(separador, anchos, true, pool);
+    }
+
+    public ImportadorCatalogo conPool(ForkJoinPool pool) {
+        return new ImportadorCatalogo(separador, anchos, conEncabezado, pool);
+    }
+
+    /**
+     * Importa el archivo y devuelve los vehículos en el orden del archivo,
+     * junto con las filas rechazadas y el tiempo que llevó
+     */
+    public ResultadoImportacion importar(Path archivo) throws IOException {
+        List<Vehiculo> vehiculos = new ArrayList<>();
+        return importar(archivo, vehiculos, vehiculos::add);
+    }
+
+    /**
+     * Importa el archivo entregando cada vehículo al destino, en el orden del
+     * archivo y siempre desde el hilo que llamó (por ejemplo
+     * catalogo::agregar de un CatalogoCompacto). Los vehículos no quedan en
+     * el resultado: getVehiculos() devuelve una lista vacía
+     */
+    public ResultadoImportacion importar(Path archivo, Consumer<? super Vehiculo> destino) throws IOException {
+        return importar(archivo, new ArrayList<>(), destino);
+    }
+
+    private ResultadoImportacion importar(Path archivo, List<Vehiculo> vehiculos,
+                                          Consumer<? super Vehiculo> destino) throws IOException {
+        long inicio = System.nanoTime();
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ)) {
+            long tamanio = canal.size();
+            long[] limites = partir(canal, tamanio);
+            int enVuelo = 2 * Math.max(1, pool.getParallelism());
+            ArrayDeque<ForkJoinTask<Bloque>> tareas = new ArrayDeque<>();
+            int siguiente = 0;
+            List<ResultadoImportacion.FilaRechazada> rechazadas = new ArrayList<>();
+            long filas = 0;
+            long rechazos = 0;
+            // Las líneas se numeran desde 1, contando el encabezado
+            long lineasAnteriores = conEncabezado && tamanio > 0 ? 1 : 0;
+            try {
+                while (siguiente + 1 < limites.length || !tareas.isEmpty()) {
+                    // Se encolan bloques nuevos a medida que se entregan los anteriores
+                    while (tareas.size() < enVuelo && siguiente + 1 < limites.length) {
+                        long desde = limites[siguiente];
+                        long hasta = limites[siguiente + 1];
+                        tareas.add(pool.submit(() -> procesar(canal, desde, hasta)));
+                        siguiente++;
+                    }
+                    Bloque bloque = tareas.poll().join();
+                    for (Vehiculo vehiculo : bloque.vehiculos) {
+                        destino.accept(vehiculo);
+                    }
+                    for (int i = 0; i < bloque.rechazadas.size() && rechazadas.size() < MAXIMO_RECHAZOS_GUARDADOS; i++) {
+                        ResultadoImportacion.FilaRechazada fila = bloque.rechazadas.get(i);
+                        rechazadas.add(new ResultadoImportacion.FilaRechazada(lineasAnteriores + fila.getLinea(),
+                                fila.getMotivo()));
+                    }
+                    filas += bloque.filas;
+                    rechazos += bloque.rechazos;
+                    lineasAnteriores += bloque.lineas;
+                }
+            } catch (RuntimeException e) {
+                for (ForkJoinTask<Bloque> tarea : tareas) {
+                    tarea.cancel(false);
+                }
+                // join puede devolver una copia de la excepción del otro hilo con la original como causa
+                for (Throwable causa = e; causa != null; causa = causa.getCause()) {
+                    if (causa instanceof UncheckedIOException) {
+                        throw ((UncheckedIOException) causa).getCause();
+                    }
+                }
+                throw e;
+            }
+            return new ResultadoImportacion(vehiculos, rechazadas, filas, rechazos, tamanio, System.nanoTime() - inicio);
+        }
+    }
+
+    /**
+     * Posiciones donde empieza cada bloque (y al final el tamaño del
+     * archivo); todas, salvo la última, están justo después de un '\n'
+     */
+    private long[] partir(FileChannel canal, long tamanio) throws IOException {
+        int paralelismo = Math.max(1, pool.getParallelism());
+        long bloque = Math.max(BLOQUE_MINIMO, Math.min(BLOQUE_MAXIMO, tamanio / (paralelismo * 4L)));
+        long[] limites = new long[16];
+        int cantidad = 0;
+        long posicion = conEncabezado ? despuesDeLinea(canal, 0, tamanio) : 0;
+        limites[cantidad++] = posicion;
+        while (posicion < tamanio) {
+            posicion = posicion + bloque >= tamanio ? tamanio : despuesDeLinea(canal, posicion + bloque, tamanio);
+            if (cantidad == limites.length) {
+                limites = Arrays.copyOf(limites, cantidad * 2);
+            }
+            limites[cantidad++] = posicion;
+        }
+        return Arrays.copyOf(limites, cantidad);
+    }
+
+    private static long despuesDeLinea(FileChannel canal, long desde, long tamanio) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+        long posicion = desde;
+        while (posicion < tamanio) {
+            buffer.clear();
+            int leidos = canal.read(buffer, posicion);
+            if (leidos <= 0) {
+                break;
+            }
+            for (int i = 0; i < leidos; i++) {
+                if (buffer.get(i) == '\n') {
+                    return posicion + i + 1;
+                }
+            }
+            posicion += leidos;
+        }
+        return tamanio;
+    }
+
+    private Bloque procesar(FileChannel canal, long desde, long hasta) {
+        MappedByteBuffer datos;
+        try {
+            datos = canal.map(FileChannel.MapMode.READ_ONLY, desde, hasta - desde);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        Bloque bloque = new Bloque(datos);
+        int inicioLinea = 0;
+        int largo = datos.limit();
+        while (inicioLinea < largo) {
+            int finLinea = inicioLinea;
+            while (finLinea < largo && datos.get(finLinea) != '\n') {
+                finLinea++;
+            }
+            bloque.lineas++;
+            int fin = finLinea > inicioLinea && datos.get(finLinea - 1) == '\r' ? finLinea - 1 : finLinea;
+            // Las líneas vacías no cuentan como filas
+            if (fin > inicioLinea) {
+                bloque.filas++;
+                String motivo = anchos == null ? bloque.separarCsv(inicioLinea, fin, separador)
+                        : bloque.separarAnchoFijo(inicioLinea, fin, anchos);
+                if (motivo == null) {
+                    motivo = bloque.armarVehiculo();
+                }
+                if (motivo != null) {
+                    bloque.rechazar(motivo);
+                }
+            }
+            inicioLinea = finLinea + 1;
+        }
+        return bloque;
+    }
+
+    /**
+     * Uso: ImportadorCatalogo archivo [--separador=;] [--anchos=12,20,...] [--encabezado]
+     * Importa el archivo e imprime cuántas filas leyó por segundo
+     */
+    public static void main(String[] args) throws IOException {
+        Path archivo = null;
+        ImportadorCatalogo importador = csv(',');
+        boolean encabezado = false;
+        for (String argumento : args) {
+            if (argumento.startsWith("--separador=") && argumento.length() == "--separador=".length() + 1) {
+                importador = csv(argumento.charAt(argumento.length() - 1));
+            } else if (argumento.startsWith("--anchos=")) {
+                String[] partes = argumento.substring("--anchos=".length()).split(",");
+                int[] anchos = new int[partes.length];
+                for (int i = 0; i < partes.length; i++) {
+                    anchos[i] = Integer.parseInt(partes[i].trim());
+                }
+                importador = anchoFijo(anchos);
+            } else if (argumento.equals("--encabezado")) {
+                encabezado = true;
+            } else if (!argumento.startsWith("--") && archivo == null) {
+                archivo = Paths.get(argumento);
+            } else {
+                System.err.println("Argumento desconocido: " + argumento);
+                archivo = null;
+                break;
+            }
+        }
+        if (archivo == null) {
+            System.err.println("Uso: ImportadorCatalogo archivo [--separador=;] [--anchos=12,20,...] [--encabezado]");
+            System.exit(2);
+        }
+        if (encabezado) {
+            importador = importador.conEncabezado();
+        }
+        ResultadoImportacion resultado = importador.importar(archivo);
+        System.out.println(resultado);
+        List<ResultadoImportacion.FilaRechazada> rechazadas = resultado.getRechazadas();
+        for (int i = 0; i < Math.min(20, rechazadas.size()); i++) {
+            System.out.println("  " + rechazadas.get(i));
+        }
+        if (resultado.getRechazos() > 20) {
+            System.out.println("  ...");
+        }
+    }
+
+    /**
+     * Estado de la lectura de un bloque; lo usa un solo hilo
+     */
+    private static final class Bloque {
+        final MappedByteBuffer datos;
+        final List<Vehiculo> vehiculos = new ArrayList<>();
+        final List<ResultadoImportacion.FilaRechazada> rechazadas = new ArrayList<>();
+        long filas;
+        long rechazos;
+        long lineas;
+        // Campos de la fila actual: [inicioCampo[i], finCampo[i]) en datos
+        // (en ancho fijo siempre son CAMPOS_MAXIMOS; los que no usa el tipo quedan vacíos)
+        final int[] inicioCampo = new int[CAMPOS_MAXIMOS];
+        final int[] finCampo = new int[CAMPOS_MAXIMOS];
+        final boolean[] entreComillas = new boolean[CAMPOS_MAXIMOS];
+        int cantidadCampos;
+        // Para armar los String sin pasar por la línea
+        byte[] copia = new byte[64];
+        final TextosRepetidos repetidos = new TextosRepetidos();
+
+        Bloque(MappedByteBuffer datos) {
+            this.datos = datos;
+        }
+
+        String separarCsv(int inicio, int fin, char separador) {
+            cantidadCampos = 0;
+            int posicion = inicio;
+            while (true) {
+                if (cantidadCampos == CAMPOS_MAXIMOS) {
+                    return "más de " + CAMPOS_MAXIMOS + " campos";
+                }
+                int inicioDelCampo = saltearEspacios(posicion, fin);
+                int finDelCampo;
+                boolean comillas = inicioDelCampo < fin && datos.get(inicioDelCampo) == '"';
+                if (comillas) {
+                    inicioDelCampo++;
+                    finDelCampo = inicioDelCampo;
+                    while (true) {
+                        if (finDelCampo >= fin) {
+                            return "comillas sin cerrar en el campo " + (cantidadCampos + 1);
+                        }
+                        if (datos.get(finDelCampo) == '"') {
+                            if (finDelCampo + 1 < fin && datos.get(finDelCampo + 1) == '"') {
+                                finDelCampo += 2;
+                                continue;
+                            }
+                            break;
+                        }
+                        finDelCampo++;
+                    }
+                    posicion = saltearEspacios(finDelCampo + 1, fin);
+                    if (posicion < fin && datos.get(posicion) != separador) {
+                        return "texto después de las comillas en el campo " + (cantidadCampos + 1);
+                    }
+                } else {
+                    finDelCampo = inicioDelCampo;
+                    while (finDelCampo < fin && datos.get(finDelCampo) != separador) {
+                        finDelCampo++;
+                    }
+                    posicion = finDelCampo;
+                    while (finDelCampo > inicioDelCampo && datos.get(finDelCampo - 1) == ' ') {
+                        finDelCampo--;
+                    }
+                }
+                inicioCampo[cantidadCampos] = inicioDelCampo;
+                finCampo[cantidadCampos] = finDelCampo;
+                entreComillas[cantidadCampos] = comillas;
+                cantidadCampos++;
+                if (posicion >= fin) {
+                    return null;
+                }
+                posicion++;
+            }
+        }
+
+        String separarAnchoFijo(int inicio, int fin, int[] anchos) {
+            cantidadCampos = 0;
+            int posicion = inicio;
+            for (int i = 0; i < CAMPOS_MAXIMOS; i++) {
+                int finDelCampo = (int) Math.min(fin, (long) posicion + anchos[i]);
+                int inicioDelCampo = saltearEspacios(posicion, finDelCampo);
+                posicion = finDelCampo;
+                while (finDelCampo > inicioDelCampo && datos.get(finDelCampo - 1) == ' ') {
+                    finDelCampo--;
+                }
+                inicioCampo[i] = inicioDelCampo;
+                finCampo[i] = finDelCampo;
+                entreComillas[i] = false;
+                cantidadCampos++;
+            }
+            return posicion < fin ? "la línea es más larga que los campos" : null;
+        }
+
+        /**
+         * Arma el vehículo de la fila actual; devuelve el motivo si es inválida
+         */
+        String armarVehiculo() {
+            int tipo = tipo();
+            if (tipo < 0) {
+                return "tipo desconocido '" + texto(0) + "'";
+            }
+            if (cantidadCampos < CAMPOS_POR_TIPO[tipo]) {
+                return TIPOS[tipo] + " lleva " + CAMPOS_POR_TIPO[tipo] + " campos y la fila tiene " + cantidadCampos;
+            }
+            for (int i = CAMPOS_POR_TIPO[tipo]; i < cantidadCampos; i++) {
+                if (finCampo[i] > inicioCampo[i]) {
+                    return TIPOS[tipo] + " lleva " + CAMPOS_POR_TIPO[tipo] + " campos y la fila tiene más";
+                }
+            }
+            String marca = repetido(1);
+            String modelo = repetido(2);
+            String placa = texto(3);
+            String nroMotor = texto(6);
+            if (marca == null || modelo == null || placa == null || nroMotor == null) {
+                return "faltan marca, modelo, placa o nroMotor";
+            }
+            long anio = numero(4);
+            long precio = numero(5);
+            if (anio <= 0) {
+                return "anio inválido '" + texto(4) + "'";
+            }
+            if (precio < 0) {
+                return "precio inválido '" + texto(5) + "'";
+            }
+            Vehiculo vehiculo;
+            switch (tipo) {
+                case 0: {
+                    long cantPasajeros = numero(7);
+                    if (cantPasajeros < 0) {
+                        return "cantPasajeros inválido '" + texto(7) + "'";
+                    }
+                    vehiculo = new AutoDeLujo(marca, modelo, placa, (int) anio, (int) precio, nroMotor,
+                            (int) cantPasajeros, repetido(8));
+                    break;
+                }
+                case 1: {
+                    long autonomia = numero(7);
+                    if (autonomia < 0) {
+                        return "autonomiaEnKm inválido '" + texto(7) + "'";
+                    }
+                    vehiculo = new SUV(marca, modelo, placa, (int) anio, (int) precio, nroMotor, (int) autonomia);
+                    break;
+                }
+                case 2: {
+                    long capacidad = numero(7);
+                    long ejes = numero(8);
+                    int acoplado = booleano(9);
+                    if (capacidad < 0 || ejes < 0 || acoplado < 0) {
+                        return "capacidadDeCargaKg, cantDeEjes o soportaAcoplado inválido";
+                    }
+                    vehiculo = new Camion(marca, modelo, placa, (int) anio, (int) precio, nroMotor, (int) capacidad,
+                            (int) ejes, acoplado == 1);
+                    break;
+                }
+                default: {
+                    long capacidad = numero(7);
+                    int dobleCabina = booleano(8);
+                    long cantPasajeros = numero(9);
+                    if (capacidad < 0 || dobleCabina < 0 || cantPasajeros < 0) {
+                        return "capacidadDeCargaKg, esDobleCabina o cantPasajeros inválido";
+                    }
+                    vehiculo = new Camioneta(marca, modelo, placa, (int) anio, (int) precio, nroMotor, (int) capacidad,
+                            dobleCabina == 1, (int) cantPasajeros);
+                    break;
+                }
+            }
+            vehiculos.add(vehiculo);
+            return null;
+        }
+
+        void rechazar(String motivo) {
+            rechazos++;
+            if (rechazadas.size() < MAXIMO_RECHAZOS_GUARDADOS) {
+                rechazadas.add(new ResultadoImportacion.FilaRechazada(lineas, motivo));
+            }
+        }
+
+        private int saltearEspacios(int posicion, int fin) {
+            while (posicion < fin && datos.get(posicion) == ' ') {
+                posicion++;
+            }
+            return posicion;
+        }
+
+        private int tipo() {
+            int largo = finCampo[0] - inicioCampo[0];
+            for (int t = 0; t < TIPOS_BYTES.length; t++) {
+                byte[] nombre = TIPOS_BYTES[t];
+                if (nombre.length != largo) {
+                    continue;
+                }
+                int i = 0;
+                while (i < largo && datos.get(inicioCampo[0] + i) == nombre[i]) {
+                    i++;
+                }
+                if (i == largo) {
+                    return t;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Número entero no negativo del campo, o -1 si no es un número válido
+         * o no entra en un int
+         */
+        private long numero(int campo) {
+            int inicio = inicioCampo[campo];
+            int fin = finCampo[campo];
+            if (inicio == fin || entreComillas[campo]) {
+                return -1;
+            }
+            long valor = 0;
+            for (int i = inicio; i < fin; i++) {
+                int digito = datos.get(i) - '0';
+                if (digito < 0 || digito > 9) {
+                    return -1;
+                }
+                valor = valor * 10 + digito;
+                if (valor > Integer.MAX_VALUE) {
+                    return -1;
+                }
+            }
+            return valor;
+        }
+
+        /**
+         * 1 si el campo es true/si/1, 0 si es false/no/0, -1 si no es ninguno
+         */
+        private int booleano(int campo) {
+            int inicio = inicioCampo[campo];
+            int largo = finCampo[campo] - inicio;
+            if (largo == 1) {
+                byte b = datos.get(inicio);
+                return b == '1' ? 1 : b == '0' ? 0 : -1;
+            }
+            if (largo > 5) {
+                return -1;
+            }
+            String valor = texto(campo).toLowerCase(Locale.ROOT);
+            if (valor.equals("true") || valor.equals("si")) {
+                return 1;
+            }
+            return valor.equals("false") || valor.equals("no") ? 0 : -1;
+        }
+
+        /**
+         * Texto del campo, o null si está vacío
+         */
+        private String texto(int campo) {
+            int largo = copiar(campo);
+            if (largo == 0) {
+                return null;
+            }
+            String texto = new String(copia, 0, largo, StandardCharsets.UTF_8);
+            return entreComillas[campo] ? texto.replace("\"\"", "\"") : texto;
+        }
+
+        /**
+         * Como texto, pero devuelve el mismo String para los mismos bytes
+         * (para marca, modelo y traccion, que se repiten mucho)
+         */
+        private String repetido(int campo) {
+            if (entreComillas[campo]) {
+                return texto(campo);
+            }
+            int largo = copiar(campo);
+            return largo == 0 ? null : repetidos.texto(copia, largo);
+        }
+
+        private int copiar(int campo) {
+            int inicio = inicioCampo[campo];
+            int largo = finCampo[campo] - inicio;
+            if (largo > copia.length) {
+                copia = new byte[Math.max(largo, copia.length * 2)];
+            }
+            for (int i = 0; i < largo; i++) {
+                copia[i] = datos.get(inicio + i);
+            }
+            return largo;
+        }
+    }
+
+    /**
+     * Tabla chica (direccionamiento abierto) de textos ya vistos, buscados
+     * por sus bytes para no crear un String en cada fila. Cuando se llena a
+     * la mitad deja de agregar y crea Strings nuevos
+     */
+    private static final class TextosRepetidos {
+        private static final int CAPACIDAD = 1024;
+        private final byte[][] claves = new byte[CAPACIDAD][];
+        private final String[] textos = new String[CAPACIDAD];
+        private int cantidad;
+
+        String texto(byte[] bytes, int largo) {
+            int hash = 1;
+            for (int i = 0; i < largo; i++) {
+                hash = 31 * hash + bytes[i];
+            }
+            int posicion = (hash ^ (hash >>> 16)) & (CAPACIDAD - 1);
+            while (claves[posicion] != null) {
+                byte[] clave = claves[posicion];
+                if (clave.length == largo && iguales(clave, bytes, largo)) {
+                    return textos[posicion];
+                }
+                posicion = (posicion + 1) & (CAPACIDAD - 1);
+            }
+            String texto = new String(bytes, 0, largo, StandardCharsets.UTF_8);
+            if (cantidad < CAPACIDAD / 2) {
+                claves[posicion] = Arrays.copyOf(bytes, largo);
+                textos[posicion] = texto;
+                cantidad++;
+            }
+            return texto;
+        }
+
+        private static boolean iguales(byte[] a, byte[] b, int largo) {
+            for (int i = 0; i < largo; i++) {
+                if (a[i] != b[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
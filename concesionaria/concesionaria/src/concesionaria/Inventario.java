@@ -0,0 +1,326 @@
+package concesionaria;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Inventario de vehículos en memoria con índices por varios atributos:
+ * - placa y nroMotor: hash, únicos
+ * - marca y marca + modelo: hash
+ * - anio y precio: ordenados, para buscar por rango
+ *
+ * Se registra como ObservadorVehiculo de cada vehículo que agrega, así que
+ * setPrecio, setPlaca, etc. mantienen los índices al día. Cambiar la placa o
+ * el nroMotor a uno que ya tiene otro vehículo lanza IllegalArgumentException
+ * y el vehículo queda sin cambios
+ *
+ * Se puede usar desde varios hilos: las búsquedas comparten un lock de
+ * lectura y los cambios toman el de escritura
+ */
+public class Inventario implements ObservadorVehiculo {
+    private final ReentrantReadWriteLock cerrojo = new ReentrantReadWriteLock();
+    private final Map<String, Vehiculo> porPlaca = new HashMap<>();
+    private final Map<String, Vehiculo> porNroMotor = new HashMap<>();
+    private final Map<String, Map<String, Set<Vehiculo>>> porMarcaYModelo = new HashMap<>();
+    private final TreeMap<Integer, Set<Vehiculo>> porAnio = new TreeMap<>();
+    private final TreeMap<Integer, Set<Vehiculo>> porPrecio = new TreeMap<>();
+
+    public Inventario() {
+    }
+
+    public Inventario(Collection<? extends Vehiculo> vehiculos) {
+        for (Vehiculo vehiculo : vehiculos) {
+            agregar(vehiculo);
+        }
+    }
+
+    /**
+     * Agrega el vehículo; lanza IllegalArgumentException si no tiene placa o
+     * nroMotor, o si otro vehículo ya tiene la misma placa o nroMotor
+     * Devuelve false si el vehículo ya estaba
+     */
+    public boolean agregar(Vehiculo vehiculo) {
+        // Mismo orden que los setters del vehículo: primero el vehículo, después el inventario
+        synchronized (vehiculo) {
+            cerrojo.writeLock().lock();
+            try {
+                String placa = vehiculo.getPlaca();
+                String nroMotor = vehiculo.getNroMotor();
+                if (placa == null || nroMotor == null) {
+                    throw new IllegalArgumentException("El vehículo debe tener placa y número de motor");
+                }
+                Vehiculo conPlaca = porPlaca.get(placa);
+                if (conPlaca == vehiculo) {
+                    return false;
+                }
+                if (conPlaca != null) {
+                    throw new IllegalArgumentException("Ya hay un vehículo con la placa " + placa);
+                }
+                if (porNroMotor.containsKey(nroMotor)) {
+                    throw new IllegalArgumentException("Ya hay un vehículo con el número de motor " + nroMotor);
+                }
+                porPlaca.put(placa, vehiculo);
+                porNroMotor.put(nroMotor, vehiculo);
+                agregarA(porMarcaYModelo.computeIfAbsent(vehiculo.getMarca(), m -> new HashMap<>()),
+                        vehiculo.getModelo(), vehiculo);
+                agregarA(porAnio, vehiculo.getAnio(), vehiculo);
+                agregarA(porPrecio, vehiculo.getPrecio(), vehiculo);
+                vehiculo.agregarObservador(this);
+                return true;
+            } finally {
+                cerrojo.writeLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Quita el vehículo; devuelve false si no estaba
+     */
+    public boolean quitar(Vehiculo vehiculo) {
+        synchronized (vehiculo) {
+            cerrojo.writeLock().lock();
+            try {
+                if (!contiene(vehiculo)) {
+                    return false;
+                }
+                porPlaca.remove(vehiculo.getPlaca());
+                porNroMotor.remove(vehiculo.getNroMotor());
+                quitarDeMarcaYModelo(vehiculo.getMarca(), vehiculo.getModelo(), vehiculo);
+                quitarDe(porAnio, vehiculo.getAnio(), vehiculo);
+                quitarDe(porPrecio, vehiculo.getPrecio(), vehiculo);
+                vehiculo.quitarObservador(this);
+                return true;
+            } finally {
+                cerrojo.writeLock().unlock();
+            }
+        }
+    }
+
+    public int getCantidad() {
+        cerrojo.readLock().lock();
+        try {
+            return porPlaca.size();
+        } finally {
+            cerrojo.readLock().unlock();
+        }
+    }
+
+    public List<Vehiculo> getVehiculos() {
+        cerrojo.readLock().lock();
+        try {
+            return new ArrayList<>(porPlaca.values());
+        } finally {
+            cerrojo.readLock().unlock();
+        }
+    }
+
+    /**
+     * Vehículo con esa placa, o null si no hay
+     */
+    public Vehiculo buscarPorPlaca(String placa) {
+        cerrojo.readLock().lock();
+        try {
+            return porPlaca.get(placa);
+        } finally {
+            cerrojo.readLock().unlock();
+        }
+    }
+
+    /**
+     * Vehículo con ese número de motor, o null si no hay
+     */
+    public Vehiculo buscarPorNroMotor(String nroMotor) {
+        cerrojo.readLock().lock();
+        try {
+            return porNroMotor.get(nroMotor);
+        } finally {
+            cerrojo.readLock().unlock();
+        }
+    }
+
+    public List<Vehiculo> buscarPorMarca(String marca) {
+        cerrojo.readLock().lock();
+        try {
+            Map<String, Set<Vehiculo>> modelos = porMarcaYModelo.get(marca);
+            if (modelos == null) {
+                return Collections.emptyList();
+            }
+            List<Vehiculo> resultado = new ArrayList<>();
+            for (Set<Vehiculo> vehiculos : modelos.values()) {
+                resultado.addAll(vehiculos);
+            }
+            return resultado;
+        } finally {
+            cerrojo.readLock().unlock();
+        }
+    }
+
+    public List<Vehiculo> buscarPorMarcaYModelo(String marca, String modelo) {
+        cerrojo.readLock().lock();
+        try {
+            Map<String, Set<Vehiculo>> modelos = porMarcaYModelo.get(marca);
+            Set<Vehiculo> vehiculos = modelos != null ? modelos.get(modelo) : null;
+            return vehiculos != null ? new ArrayList<>(vehiculos) : Collections.<Vehiculo>emptyList();
+        } finally {
+            cerrojo.readLock().unlock();
+        }
+    }
+
+    /**
+     * Vehículos con año entre desde y hasta (inclusive), de menor a mayor año
+     */
+    public List<Vehiculo> buscarPorAnio(int desde, int hasta) {
+        return buscarEnRango(porAnio, desde, hasta);
+    }
+
+    /**
+     * Vehículos con precio entre desde y hasta (inclusive), de menor a mayor precio
+     */
+    public List<Vehiculo> buscarPorPrecio(int desde, int hasta) {
+        return buscarEnRango(porPrecio, desde, hasta);
+    }
+
+    @Override
+    public void validarCambio(Vehiculo vehiculo, Atributo atributo, String anterior, String nuevo) {
+        if (atributo != Atributo.PLACA && atributo != Atributo.NRO_MOTOR) {
+            return;
+        }
+        cerrojo.readLock().lock();
+        try {
+            if (!contiene(vehiculo)) {
+                return;
+            }
+            if (atributo == Atributo.PLACA) {
+                validarClaveUnica(porPlaca, nuevo, vehiculo, "la placa");
+            } else {
+                validarClaveUnica(porNroMotor, nuevo, vehiculo, "el número de motor");
+            }
+        } finally {
+            cerrojo.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void antesDeCambiar(Vehiculo vehiculo, Atributo atributo, String anterior, String nuevo) {
+        cerrojo.writeLock().lock();
+        try {
+            if (!contiene(vehiculo)) {
+                return;
+            }
+            switch (atributo) {
+                case PLACA:
+                    cambiarClaveUnica(porPlaca, anterior, nuevo, vehiculo, "la placa");
+                    break;
+                case NRO_MOTOR:
+                    cambiarClaveUnica(porNroMotor, anterior, nuevo, vehiculo, "el número de motor");
+                    break;
+                case MARCA:
+                    quitarDeMarcaYModelo(anterior, vehiculo.getModelo(), vehiculo);
+                    agregarA(porMarcaYModelo.computeIfAbsent(nuevo, m -> new HashMap<>()), vehiculo.getModelo(), vehiculo);
+                    break;
+                case MODELO:
+                    quitarDeMarcaYModelo(vehiculo.getMarca(), anterior, vehiculo);
+                    agregarA(porMarcaYModelo.computeIfAbsent(vehiculo.getMarca(), m -> new HashMap<>()), nuevo, vehiculo);
+                    break;
+                default:
+                    break;
+            }
+        } finally {
+            cerrojo.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void antesDeCambiar(Vehiculo vehiculo, Atributo atributo, int anterior, int nuevo) {
+        if (anterior == nuevo) {
+            return;
+        }
+        cerrojo.writeLock().lock();
+        try {
+            if (!contiene(vehiculo)) {
+                return;
+            }
+            if (atributo == Atributo.ANIO) {
+                quitarDe(porAnio, anterior, vehiculo);
+                agregarA(porAnio, nuevo, vehiculo);
+            } else if (atributo == Atributo.PRECIO) {
+                quitarDe(porPrecio, anterior, vehiculo);
+                agregarA(porPrecio, nuevo, vehiculo);
+            }
+        } finally {
+            cerrojo.writeLock().unlock();
+        }
+    }
+
+    private List<Vehiculo> buscarEnRango(TreeMap<Integer, Set<Vehiculo>> indice, int desde, int hasta) {
+        if (desde > hasta) {
+            return Collections.emptyList();
+        }
+        cerrojo.readLock().lock();
+        try {
+            List<Vehiculo> resultado = new ArrayList<>();
+            for (Set<Vehiculo> vehiculos : indice.subMap(desde, true, hasta, true).values()) {
+                resultado.addAll(vehiculos);
+            }
+            return resultado;
+        } finally {
+            cerrojo.readLock().unlock();
+        }
+    }
+
+    // Se llama con el lock de escritura tomado; los atributos del vehículo todavía tienen el valor anterior
+    private boolean contiene(Vehiculo vehiculo) {
+        return porPlaca.get(vehiculo.getPlaca()) == vehiculo;
+    }
+
+    private static void validarClaveUnica(Map<String, Vehiculo> indice, String nuevo, Vehiculo vehiculo,
+                                          String descripcion) {
+        if (nuevo == null) {
+            throw new IllegalArgumentException("No se puede quitar " + descripcion + " a un vehículo del inventario");
+        }
+        Vehiculo conClave = indice.get(nuevo);
+        if (conClave != null && conClave != vehiculo) {
+            throw new IllegalArgumentException("Ya hay un vehículo con " + descripcion + " " + nuevo);
+        }
+    }
+
+    // Se vuelve a validar por si otro vehículo tomó la clave después de validarCambio
+    private static void cambiarClaveUnica(Map<String, Vehiculo> indice, String anterior, String nuevo,
+                                          Vehiculo vehiculo, String descripcion) {
+        validarClaveUnica(indice, nuevo, vehiculo, descripcion);
+        if (indice.get(nuevo) == vehiculo) {
+            return;
+        }
+        indice.remove(anterior);
+        indice.put(nuevo, vehiculo);
+    }
+
+    private void quitarDeMarcaYModelo(String marca, String modelo, Vehiculo vehiculo) {
+        Map<String, Set<Vehiculo>> modelos = porMarcaYModelo.get(marca);
+        if (modelos != null) {
+            quitarDe(modelos, modelo, vehiculo);
+            if (modelos.isEmpty()) {
+                porMarcaYModelo.remove(marca);
+            }
+        }
+    }
+
+    private static <K> void agregarA(Map<K, Set<Vehiculo>> indice, K clave, Vehiculo vehiculo) {
+        indice.computeIfAbsent(clave, k -> Collections.newSetFromMap(new IdentityHashMap<>(4))).add(vehiculo);
+    }
+
+    private static <K> void quitarDe(Map<K, Set<Vehiculo>> indice, K clave, Vehiculo vehiculo) {
+        Set<Vehiculo> vehiculos = indice.get(clave);
+        if (vehiculos != null && vehiculos.remove(vehiculo) && vehiculos.isEmpty()) {
+            indice.remove(clave);
+        }
+    }
+}
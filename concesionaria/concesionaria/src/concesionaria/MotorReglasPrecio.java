@@ -0,0 +1,269 @@
+package concesionaria;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Motor de reglas que calcula el precio de venta de un vehículo a partir de
+ * su precio de lista, con descuentos, recargos y topes cargados de un
+ * archivo en lugar de programados en cada subclase
+ *
+ * Formato: una regla por línea, con pares clave=valor separados por ';'
+ * (las líneas vacías y las que empiezan con # se ignoran)
+ *   tipo=AutoDeLujo; factor=0.9; minimo=0
+ *   tipo=Camion; marca=Mercedes Benz; anioHasta=2015; recargo=-50000
+ * Condiciones (si faltan, vale cualquiera):
+ *   tipo       nombre de la clase del vehículo o de una superclase (Auto, Vehiculo...)
+ *   marca      marca exacta
+ *   anioDesde, anioHasta  rango de años, inclusive
+ * Cálculo: precio = (int) (precio * factor) + recargo, acotado a [minimo, maximo]
+ *   (por defecto factor=1, recargo=0, sin mínimo ni máximo)
+ * Se aplica la primera regla que cumple las condiciones; si ninguna cumple,
+ * el precio es el de lista
+ *
+ * Las reglas se compilan a arreglos paralelos (uno por campo) y, para cada
+ * clase de vehículo, se guarda la lista de reglas de su tipo (ClassValue),
+ * así evaluar es recorrer unos pocos enteros sin llamadas virtuales
+ * recargarSiCambio() vuelve a leer el archivo si cambió; si tiene errores
+ * se lanza IllegalArgumentException y siguen valiendo las reglas anteriores
+ */
+public class MotorReglasPrecio {
+    /**
+     * Reglas que reproducen los precios de las subclases antes del motor:
+     * los autos de lujo tienen 10% de descuento y nunca precio negativo
+     */
+    public static final String REGLAS_PREDETERMINADAS = "tipo=AutoDeLujo; factor=0.9; minimo=0";
+
+    private static final String[] CLAVES = {"tipo", "marca", "anioDesde", "anioHasta", "factor", "recargo", "minimo", "maximo"};
+    private static final int TIPO = 0;
+    private static final int MARCA = 1;
+    private static final int ANIO_DESDE = 2;
+    private static final int ANIO_HASTA = 3;
+    private static final int FACTOR = 4;
+    private static final int RECARGO = 5;
+    private static final int MINIMO = 6;
+    private static final int MAXIMO = 7;
+
+    private static volatile MotorReglasPrecio predeterminado = new MotorReglasPrecio();
+
+    private volatile Tabla tabla;
+    private final List<Runnable> alRecargar = new CopyOnWriteArrayList<>();
+    private Path archivo;
+    private FileTime ultimaModificacion;
+    private long ultimoTamanio;
+
+    public MotorReglasPrecio() {
+        this.tabla = compilar(REGLAS_PREDETERMINADAS, 1);
+    }
+
+    /**
+     * Motor que usa Vehiculo.calcularPrecio()
+     */
+    public static MotorReglasPrecio getPredeterminado() {
+        return predeterminado;
+    }
+
+    public static void setPredeterminado(MotorReglasPrecio motor) {
+        predeterminado = motor;
+    }
+
+    /**
+     * Carga las reglas del archivo y lo recuerda para recargarSiCambio()
+     */
+    public synchronized void cargar(Path archivo) throws IOException {
+        FileTime modificacion = Files.getLastModifiedTime(archivo);
+        long tamanio = Files.size(archivo);
+        String texto = new String(Files.readAllBytes(archivo), StandardCharsets.UTF_8);
+        reemplazar(compilar(texto, tabla.version + 1));
+        this.archivo = archivo;
+        this.ultimaModificacion = modificacion;
+        this.ultimoTamanio = tamanio;
+    }
+
+    /**
+     * Reemplaza las reglas por las del texto (mismo formato que el archivo)
+     */
+    public synchronized void actualizar(String reglas) {
+        reemplazar(compilar(reglas, tabla.version + 1));
+    }
+
+    /**
+     * Vuelve a leer el archivo si cambió desde la última carga; devuelve true
+     * si recargó
+     */
+    public synchronized boolean recargarSiCambio() throws IOException {
+        if (archivo == null) {
+            return false;
+        }
+        if (Files.getLastModifiedTime(archivo).equals(ultimaModificacion) && Files.size(archivo) == ultimoTamanio) {
+            return false;
+        }
+        cargar(archivo);
+        return true;
+    }
+
+    /**
+     * Acción a ejecutar cada vez que cambian las reglas (por ejemplo,
+     * servicioPrecios::invalidarTodos)
+     */
+    public void agregarAlRecargar(Runnable accion) {
+        alRecargar.add(accion);
+    }
+
+    /**
+     * Número de versión de las reglas; aumenta con cada carga
+     */
+    public long getVersion() {
+        return tabla.version;
+    }
+
+    public int getCantidadReglas() {
+        return tabla.factor.length;
+    }
+
+    public int calcular(Vehiculo vehiculo) {
+        return tabla.calcular(vehiculo.getClass(), vehiculo.getMarca(), vehiculo.getAnio(), vehiculo.getPrecio());
+    }
+
+    /**
+     * Precio de un vehículo del tipo indicado sin tener el objeto (por
+     * ejemplo, desde las columnas de CatalogoCompacto)
+     */
+    public int calcular(Class<? extends Vehiculo> tipo, String marca, int anio, int precio) {
+        return tabla.calcular(tipo, marca, anio, precio);
+    }
+
+    private void reemplazar(Tabla nueva) {
+        tabla = nueva;
+        for (Runnable accion : alRecargar) {
+            accion.run();
+        }
+    }
+
+    private static Tabla compilar(String texto, long version) {
+        List<String[]> reglas = new ArrayList<>();
+        String[] lineas = texto.split("\r?\n");
+        for (int numero = 0; numero < lineas.length; numero++) {
+            String linea = lineas[numero].trim();
+            if (linea.isEmpty() || linea.startsWith("#")) {
+                continue;
+            }
+            reglas.add(leerRegla(linea, numero + 1));
+        }
+        Tabla tabla = new Tabla(reglas.size(), version);
+        for (int i = 0; i < reglas.size(); i++) {
+            String[] regla = reglas.get(i);
+            tabla.tipo[i] = regla[TIPO];
+            tabla.marca[i] = regla[MARCA];
+            tabla.anioDesde[i] = regla[ANIO_DESDE] != null ? Integer.parseInt(regla[ANIO_DESDE]) : Integer.MIN_VALUE;
+            tabla.anioHasta[i] = regla[ANIO_HASTA] != null ? Integer.parseInt(regla[ANIO_HASTA]) : Integer.MAX_VALUE;
+            tabla.factor[i] = regla[FACTOR] != null ? Double.parseDouble(regla[FACTOR]) : 1.0;
+            tabla.recargo[i] = regla[RECARGO] != null ? Integer.parseInt(regla[RECARGO]) : 0;
+            tabla.minimo[i] = regla[MINIMO] != null ? Integer.parseInt(regla[MINIMO]) : Integer.MIN_VALUE;
+            tabla.maximo[i] = regla[MAXIMO] != null ? Integer.parseInt(regla[MAXIMO]) : Integer.MAX_VALUE;
+        }
+        return tabla;
+    }
+
+    private static String[] leerRegla(String linea, int numero) {
+        String[] valores = new String[CLAVES.length];
+        for (String parte : linea.split(";")) {
+            if (parte.trim().isEmpty()) {
+                continue;
+            }
+            int igual = parte.indexOf('=');
+            int clave = igual > 0 ? Arrays.asList(CLAVES).indexOf(parte.substring(0, igual).trim()) : -1;
+            if (clave < 0) {
+                throw new IllegalArgumentException("Línea " + numero + ": parte inválida '" + parte.trim() + "'");
+            }
+            valores[clave] = parte.substring(igual + 1).trim();
+        }
+        try {
+            for (int i = ANIO_DESDE; i < CLAVES.length; i++) {
+                if (valores[i] == null) {
+                    continue;
+                }
+                if (i == FACTOR) {
+                    double factor = Double.parseDouble(valores[i]);
+                    if (Double.isNaN(factor) || Double.isInfinite(factor)) {
+                        throw new NumberFormatException();
+                    }
+                } else {
+                    Integer.parseInt(valores[i]);
+                }
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Línea " + numero + ": número inválido");
+        }
+        return valores;
+    }
+
+    /**
+     * Reglas compiladas: un arreglo por campo, en el orden del archivo
+     */
+    private static final class Tabla {
+        final long version;
+        final String[] tipo;
+        // null = cualquier marca
+        final String[] marca;
+        final int[] anioDesde;
+        final int[] anioHasta;
+        final double[] factor;
+        final int[] recargo;
+        final int[] minimo;
+        final int[] maximo;
+        // Reglas que pueden aplicarse a cada clase de vehículo, según su tipo
+        final ClassValue<int[]> reglasPorClase = new ClassValue<int[]>() {
+            @Override
+            protected int[] computeValue(Class<?> clase) {
+                return reglasDe(clase);
+            }
+        };
+
+        Tabla(int cantidad, long version) {
+            this.version = version;
+            this.tipo = new String[cantidad];
+            this.marca = new String[cantidad];
+            this.anioDesde = new int[cantidad];
+            this.anioHasta = new int[cantidad];
+            this.factor = new double[cantidad];
+            this.recargo = new int[cantidad];
+            this.minimo = new int[cantidad];
+            this.maximo = new int[cantidad];
+        }
+
+        int calcular(Class<?> clase, String marcaVehiculo, int anio, int precio) {
+            for (int i : reglasPorClase.get(clase)) {
+                String marcaRegla = marca[i];
+                if (anio >= anioDesde[i] & anio <= anioHasta[i]
+                        && (marcaRegla == null || marcaRegla.equals(marcaVehiculo))) {
+                    long resultado = (long) (int) (precio * factor[i]) + recargo[i];
+                    return (int) Math.max(minimo[i], Math.min(maximo[i], resultado));
+                }
+            }
+            return precio;
+        }
+
+        private int[] reglasDe(Class<?> clase) {
+            List<String> tipos = new ArrayList<>();
+            for (Class<?> c = clase; c != null; c = c.getSuperclass()) {
+                tipos.add(c.getSimpleName());
+            }
+            int[] reglas = new int[tipo.length];
+            int cantidad = 0;
+            for (int i = 0; i < tipo.length; i++) {
+                if (tipo[i] == null || tipos.contains(tipo[i])) {
+                    reglas[cantidad++] = i;
+                }
+            }
+            return Arrays.copyOf(reglas, cantidad);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package concesionaria;
+
+/**
+ * Interfaz para enterarse de los cambios de un vehículo (por ejemplo, para
+ * mantener al día los índices de Inventario)
+ * Cada cambio se avisa en dos pasos, antes de asignar el valor nuevo:
+ * primero validarCambio a todos los observadores y después antesDeCambiar a
+ * todos. Para rechazar un cambio hay que lanzar la excepción en
+ * validarCambio: así ningún observador llegó a aplicarlo y el vehículo queda
+ * sin cambios. antesDeCambiar no debería lanzar excepciones
+ */
+public interface ObservadorVehiculo {
+
+    enum Atributo {
+        MARCA, MODELO, PLACA, ANIO, PRECIO, NRO_MOTOR
+    }
+
+    /**
+     * Lanza una excepción si el cambio no se puede hacer
+     */
+    default void validarCambio(Vehiculo vehiculo, Atributo atributo, String anterior, String nuevo) {
+    }
+
+    default void validarCambio(Vehiculo vehiculo, Atributo atributo, int anterior, int nuevo) {
+    }
+
+    void antesDeCambiar(Vehiculo vehiculo, Atributo atributo, String anterior, String nuevo);
+
+    void antesDeCambiar(Vehiculo vehiculo, Atributo atributo, int anterior, int nuevo);
+}
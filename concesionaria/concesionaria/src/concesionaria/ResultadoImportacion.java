@@ -0,0 +1,109 @@
+package concesionaria;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Resultado de ImportadorCatalogo: los vehículos importados, las filas
+ * rechazadas y cuánto tardó
+ */
+public class ResultadoImportacion {
+    private final List<Vehiculo> vehiculos;
+    private final List<FilaRechazada> rechazadas;
+    private final long filas;
+    private final long rechazos;
+    private final long bytes;
+    private final long nanos;
+
+    ResultadoImportacion(List<Vehiculo> vehiculos, List<FilaRechazada> rechazadas, long filas, long rechazos,
+                         long bytes, long nanos) {
+        this.vehiculos = Collections.unmodifiableList(vehiculos);
+        this.rechazadas = Collections.unmodifiableList(rechazadas);
+        this.filas = filas;
+        this.rechazos = rechazos;
+        this.bytes = bytes;
+        this.nanos = nanos;
+    }
+
+    /**
+     * Vehículos importados, en el orden del archivo; vacía si se importó
+     * con un destino (ImportadorCatalogo.importar(Path, Consumer))
+     */
+    public List<Vehiculo> getVehiculos() {
+        return vehiculos;
+    }
+
+    /**
+     * Detalle de las primeras filas rechazadas (hasta 1000); el total está
+     * en getRechazos()
+     */
+    public List<FilaRechazada> getRechazadas() {
+        return rechazadas;
+    }
+
+    /**
+     * Filas leídas, sin contar el encabezado ni las líneas vacías
+     */
+    public long getFilas() {
+        return filas;
+    }
+
+    /**
+     * Vehículos importados (filas leídas menos rechazadas)
+     */
+    public long getImportados() {
+        return filas - rechazos;
+    }
+
+    public long getRechazos() {
+        return rechazos;
+    }
+
+    public long getBytes() {
+        return bytes;
+    }
+
+    public long getNanos() {
+        return nanos;
+    }
+
+    public double getFilasPorSegundo() {
+        return nanos > 0 ? filas * 1e9 / nanos : 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Importadas %d de %d filas (%d rechazadas) en %.1f ms: %.0f filas/s, %.1f MB/s",
+                getImportados(), filas, rechazos, nanos / 1e6, getFilasPorSegundo(),
+                nanos > 0 ? bytes * 1e3 / nanos : 0.0);
+    }
+
+    /**
+     * Fila que no se pudo importar
+     */
+    public static final class FilaRechazada {
+        private final long linea;
+        private final String motivo;
+
+        FilaRechazada(long linea, String motivo) {
+            this.linea = linea;
+            this.motivo = motivo;
+        }
+
+        /**
+         * Número de línea en el archivo, desde 1
+         */
+        public long getLinea() {
+            return linea;
+        }
+
+        public String getMotivo() {
+            return motivo;
+        }
+
+        @Override
+        public String toString() {
+            return "línea " + linea + ": " + motivo;
+        }
+    }
+}
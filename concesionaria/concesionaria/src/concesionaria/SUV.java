@@ -9,8 +9,11 @@ public class SUV extends Vehiculo{
         this.autonomiaEnKm = autonomiaEnKm;
     }
 
-    @Override
-    public int calcularPrecio() {
-        return getPrecio();
+    public int getAutonomiaEnKm() {
+        return autonomiaEnKm;
+    }
+
+    public void setAutonomiaEnKm(int autonomiaEnKm) {
+        this.autonomiaEnKm = autonomiaEnKm;
     }
 }
@@ -0,0 +1,234 @@
+package concesionaria;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Servicio que guarda el precio calculado (calcularPrecio) de cada vehículo
+ * del catálogo y solo lo recalcula cuando cambia algo que lo afecta
+ *
+ * Se registra como ObservadorVehiculo: setPrecio, setMarca, setModelo y
+ * setAnio marcan el vehículo como pendiente, y actualizar() recalcula solo
+ * los pendientes, en paralelo si son muchos. Así refrescar la lista de
+ * precios cuesta según la cantidad de cambios y no la de vehículos
+ *
+ * El cálculo se hace fuera del lock del servicio; solo la anotación de
+ * pendientes y la publicación de los resultados lo toman
+ */
+public class ServicioPrecios implements ObservadorVehiculo {
+    // Con menos pendientes que esto no vale la pena repartir el cálculo
+    private static final int UMBRAL_PARALELO = 2048;
+
+    private final ForkJoinPool pool;
+    // Lo que sigue se protege con el lock de this
+    private final Map<Vehiculo, Integer> posiciones = new IdentityHashMap<>();
+    private Vehiculo[] vehiculos = new Vehiculo[16];
+    private int[] precios = new int[16];
+    private boolean[] pendiente = new boolean[16];
+    private int[] pendientes = new int[16];
+    private int cantidadPendientes;
+    private int[] libres = new int[16];
+    private int cantidadLibres;
+    private int cantidad;
+    private int usadas;
+    private long recalculados;
+
+    public ServicioPrecios() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public ServicioPrecios(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    public void agregarTodos(Collection<? extends Vehiculo> vehiculos) {
+        for (Vehiculo vehiculo : vehiculos) {
+            agregar(vehiculo);
+        }
+    }
+
+    /**
+     * Agrega el vehículo como pendiente; su precio se calcula en el próximo
+     * actualizar(). Devuelve false si ya estaba
+     */
+    public boolean agregar(Vehiculo vehiculo) {
+        // Fuera del lock de this: los setters del vehículo avisan con su lock tomado
+        vehiculo.agregarObservador(this);
+        synchronized (this) {
+            if (!posiciones.containsKey(vehiculo)) {
+                int posicion = cantidadLibres > 0 ? libres[--cantidadLibres] : nuevaPosicion();
+                vehiculos[posicion] = vehiculo;
+                posiciones.put(vehiculo, posicion);
+                cantidad++;
+                marcarPendiente(posicion);
+                return true;
+            }
+        }
+        vehiculo.quitarObservador(this);
+        return false;
+    }
+
+    public boolean quitar(Vehiculo vehiculo) {
+        synchronized (this) {
+            Integer posicion = posiciones.remove(vehiculo);
+            if (posicion == null) {
+                return false;
+            }
+            vehiculos[posicion] = null;
+            precios[posicion] = 0;
+            if (cantidadLibres == libres.length) {
+                libres = Arrays.copyOf(libres, libres.length * 2);
+            }
+            libres[cantidadLibres++] = posicion;
+            cantidad--;
+        }
+        vehiculo.quitarObservador(this);
+        return true;
+    }
+
+    public synchronized int getCantidad() {
+        return cantidad;
+    }
+
+    public synchronized int getCantidadPendientes() {
+        return cantidadPendientes;
+    }
+
+    /**
+     * Total de precios recalculados desde que se creó el servicio
+     */
+    public synchronized long getRecalculados() {
+        return recalculados;
+    }
+
+    /**
+     * Último precio calculado del vehículo
+     * Lanza IllegalArgumentException si el vehículo no está en el servicio
+     */
+    public synchronized int getPrecio(Vehiculo vehiculo) {
+        Integer posicion = posiciones.get(vehiculo);
+        if (posicion == null) {
+            throw new IllegalArgumentException("El vehículo " + vehiculo.getPlaca() + " no está en el servicio de precios");
+        }
+        return precios[posicion];
+    }
+
+    /**
+     * Marca el vehículo como pendiente aunque no haya cambiado (por ejemplo,
+     * si cambió la regla con la que se calcula su precio)
+     */
+    public synchronized void invalidar(Vehiculo vehiculo) {
+        Integer posicion = posiciones.get(vehiculo);
+        if (posicion != null) {
+            marcarPendiente(posicion);
+        }
+    }
+
+    public synchronized void invalidarTodos() {
+        for (int posicion = 0; posicion < usadas; posicion++) {
+            if (vehiculos[posicion] != null) {
+                marcarPendiente(posicion);
+            }
+        }
+    }
+
+    /**
+     * Recalcula los precios de los vehículos pendientes y devuelve cuántos
+     * recalculó
+     */
+    public int actualizar() {
+        int[] aRecalcular;
+        Vehiculo[] conPendientes;
+        synchronized (this) {
+            aRecalcular = Arrays.copyOf(pendientes, cantidadPendientes);
+            for (int i = 0; i < cantidadPendientes; i++) {
+                pendiente[pendientes[i]] = false;
+            }
+            cantidadPendientes = 0;
+            conPendientes = new Vehiculo[aRecalcular.length];
+            for (int i = 0; i < aRecalcular.length; i++) {
+                conPendientes[i] = vehiculos[aRecalcular[i]];
+            }
+        }
+        int[] calculados = new int[aRecalcular.length];
+        try {
+            if (aRecalcular.length >= UMBRAL_PARALELO) {
+                pool.submit(() -> IntStream.range(0, calculados.length).parallel()
+                        .forEach(i -> calculados[i] = calcular(conPendientes[i]))).join();
+            } else {
+                for (int i = 0; i < calculados.length; i++) {
+                    calculados[i] = calcular(conPendientes[i]);
+                }
+            }
+        } catch (RuntimeException e) {
+            // Quedan pendientes para el próximo intento
+            synchronized (this) {
+                for (int i = 0; i < aRecalcular.length; i++) {
+                    marcarPendiente(aRecalcular[i]);
+                }
+            }
+            throw e;
+        }
+        synchronized (this) {
+            for (int i = 0; i < calculados.length; i++) {
+                // Pudo haberse quitado (y la posición reutilizado) mientras se calculaba
+                if (vehiculos[aRecalcular[i]] == conPendientes[i]) {
+                    precios[aRecalcular[i]] = calculados[i];
+                }
+            }
+            recalculados += calculados.length;
+        }
+        return calculados.length;
+    }
+
+    @Override
+    public void antesDeCambiar(Vehiculo vehiculo, Atributo atributo, String anterior, String nuevo) {
+        // La placa y el número de motor no cambian el precio
+        if (atributo == Atributo.MARCA || atributo == Atributo.MODELO) {
+            invalidar(vehiculo);
+        }
+    }
+
+    @Override
+    public void antesDeCambiar(Vehiculo vehiculo, Atributo atributo, int anterior, int nuevo) {
+        if (anterior != nuevo) {
+            invalidar(vehiculo);
+        }
+    }
+
+    private static int calcular(Vehiculo vehiculo) {
+        if (vehiculo == null) {
+            return 0;
+        }
+        // Los setters avisan antes de asignar y con el lock del vehículo tomado:
+        // tomándolo acá el cálculo ve el valor nuevo
+        synchronized (vehiculo) {
+            return vehiculo.calcularPrecio();
+        }
+    }
+
+    private void marcarPendiente(int posicion) {
+        if (pendiente[posicion]) {
+            return;
+        }
+        pendiente[posicion] = true;
+        if (cantidadPendientes == pendientes.length) {
+            pendientes = Arrays.copyOf(pendientes, pendientes.length * 2);
+        }
+        pendientes[cantidadPendientes++] = posicion;
+    }
+
+    private int nuevaPosicion() {
+        if (usadas == vehiculos.length) {
+            int capacidad = usadas * 2;
+            vehiculos = Arrays.copyOf(vehiculos, capacidad);
+            pendiente = Arrays.copyOf(pendiente, capacidad);
+            precios = Arrays.copyOf(precios, capacidad);
+        }
+        return usadas++;
+    }
+}
@@ -0,0 +1,395 @@
+package concesionaria;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+/**
+ * Reservas y ventas de vehículos para varios vendedores a la vez
+ *
+ * Cada vehículo pasa de DISPONIBLE a RESERVADO y de RESERVADO a VENDIDO (o
+ * vuelve a DISPONIBLE si se cancela o vence la reserva). El estado de cada
+ * vehículo es un objeto inmutable con un número de versión, y cada cambio es
+ * un compareAndSet sobre ese vehículo: no hay un lock general, así que
+ * reservas de vehículos distintos no se estorban, y si dos vendedores
+ * reservan el mismo vehículo a la vez gana uno y el otro recibe null
+ *
+ * Al reservar se guarda el precio de lista y el de venta (calcularPrecio)
+ * tomados juntos con el lock del vehículo; si después cambia el precio, la
+ * reserva mantiene el suyo. Un vehículo vendido ya no se puede modificar:
+ * sus setters lanzan IllegalStateException
+ *
+ * Las reservas vencen solas: una rueda de tiempos (un arreglo de ranuras, una
+ * por tick) las libera cuando pasa su tick. Además, una reserva vencida
+ * nunca se puede vender y otro vendedor puede reservar ese vehículo aunque
+ * la rueda todavía no la haya liberado
+ */
+public class ServicioReservas implements ObservadorVehiculo, AutoCloseable {
+    private static final long TICK_PREDETERMINADO_MS = 100;
+
+    public enum EstadoVenta {
+        DISPONIBLE, RESERVADO, VENDIDO
+    }
+
+    private final ConcurrentHashMap<Vehiculo, AtomicReference<Estado>> estados = new ConcurrentHashMap<>();
+    private final LongSupplier relojMs;
+    private final RuedaVencimientos rueda;
+    // null si vencer() lo llama el que creó el servicio
+    private final ScheduledExecutorService temporizador;
+
+    /**
+     * Servicio con un hilo propio que libera las reservas vencidas cada
+     * 100 ms; hay que cerrarlo con close()
+     */
+    public ServicioReservas() {
+        this.relojMs = () -> TimeUnit.NANOSECONDS.toMillis(System.nanoTime());
+        this.rueda = new RuedaVencimientos(TICK_PREDETERMINADO_MS, relojMs.getAsLong());
+        this.temporizador = Executors.newSingleThreadScheduledExecutor(tarea -> {
+            Thread hilo = new Thread(tarea, "vencimiento-reservas");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        temporizador.scheduleAtFixedRate(this::vencerProgramado, TICK_PREDETERMINADO_MS, TICK_PREDETERMINADO_MS,
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Servicio sin hilo propio, con otro reloj (en milisegundos): las
+     * reservas vencidas se liberan al llamar a vencer()
+     */
+    public ServicioReservas(LongSupplier relojMs, long tickMs) {
+        if (tickMs <= 0) {
+            throw new IllegalArgumentException("El tick debe ser positivo");
+        }
+        this.relojMs = relojMs;
+        this.rueda = new RuedaVencimientos(tickMs, relojMs.getAsLong());
+        this.temporizador = null;
+    }
+
+    public void agregarTodos(Collection<? extends Vehiculo> vehiculos) {
+        for (Vehiculo vehiculo : vehiculos) {
+            agregar(vehiculo);
+        }
+    }
+
+    /**
+     * Agrega el vehículo como disponible; devuelve false si ya estaba
+     */
+    public boolean agregar(Vehiculo vehiculo) {
+        if (estados.putIfAbsent(vehiculo, new AtomicReference<>(new Estado(EstadoVenta.DISPONIBLE, 0, null))) != null) {
+            return false;
+        }
+        vehiculo.agregarObservador(this);
+        return true;
+    }
+
+    /**
+     * Reserva el vehículo para el vendedor durante duracionMs
+     * Devuelve null si está vendido o tiene otra reserva vigente
+     * Lanza IllegalArgumentException si el vehículo no está en el servicio
+     */
+    public Reserva reservar(Vehiculo vehiculo, String vendedor, long duracionMs) {
+        if (duracionMs <= 0) {
+            throw new IllegalArgumentException("La duración de la reserva debe ser positiva");
+        }
+        AtomicReference<Estado> estado = estadoDe(vehiculo);
+        while (true) {
+            Estado actual = estado.get();
+            long ahora = relojMs.getAsLong();
+            if (actual.tipo == EstadoVenta.VENDIDO
+                    || actual.tipo == EstadoVenta.RESERVADO && !actual.reserva.estaVencida(ahora)) {
+                return null;
+            }
+            int precioLista;
+            int precio;
+            // Con el lock del vehículo los dos precios salen del mismo estado
+            synchronized (vehiculo) {
+                precioLista = vehiculo.getPrecio();
+                precio = vehiculo.calcularPrecio();
+            }
+            Reserva reserva = new Reserva(vehiculo, vendedor, actual.version + 1, precioLista, precio, ahora + duracionMs);
+            if (estado.compareAndSet(actual, new Estado(EstadoVenta.RESERVADO, reserva.version, reserva))) {
+                rueda.agregar(reserva);
+                return reserva;
+            }
+        }
+    }
+
+    /**
+     * Vende el vehículo de la reserva al precio reservado
+     * Devuelve false si la reserva ya no está vigente (se canceló, venció o
+     * el vehículo ya se vendió)
+     */
+    public boolean vender(Reserva reserva) {
+        return terminar(reserva, EstadoVenta.VENDIDO);
+    }
+
+    /**
+     * Libera el vehículo de la reserva; devuelve false si ya no estaba vigente
+     */
+    public boolean cancelar(Reserva reserva) {
+        return terminar(reserva, EstadoVenta.DISPONIBLE);
+    }
+
+    public EstadoVenta getEstado(Vehiculo vehiculo) {
+        Estado actual = estadoDe(vehiculo).get();
+        if (actual.tipo == EstadoVenta.RESERVADO && actual.reserva.estaVencida(relojMs.getAsLong())) {
+            return EstadoVenta.DISPONIBLE;
+        }
+        return actual.tipo;
+    }
+
+    /**
+     * Versión del estado del vehículo; aumenta con cada reserva, venta,
+     * cancelación o vencimiento
+     */
+    public long getVersion(Vehiculo vehiculo) {
+        return estadoDe(vehiculo).get().version;
+    }
+
+    /**
+     * Libera las reservas que vencieron hasta ahora y devuelve cuántas
+     * liberó. Con el constructor sin parámetros lo llama el hilo del servicio
+     */
+    public int vencer() {
+        return rueda.avanzar(relojMs.getAsLong());
+    }
+
+    // Si una ejecución programada lanza una excepción, el temporizador no
+    // vuelve a llamarla: el error se informa y la próxima vuelta reintenta
+    private void vencerProgramado() {
+        try {
+            vencer();
+        } catch (RuntimeException e) {
+            System.err.println("Error al liberar las reservas vencidas: " + e);
+        }
+    }
+
+    /**
+     * Detiene el hilo que libera las reservas vencidas
+     */
+    @Override
+    public void close() {
+        if (temporizador != null) {
+            temporizador.shutdownNow();
+        }
+    }
+
+    @Override
+    public void validarCambio(Vehiculo vehiculo, Atributo atributo, String anterior, String nuevo) {
+        rechazarSiVendido(vehiculo);
+    }
+
+    @Override
+    public void validarCambio(Vehiculo vehiculo, Atributo atributo, int anterior, int nuevo) {
+        rechazarSiVendido(vehiculo);
+    }
+
+    @Override
+    public void antesDeCambiar(Vehiculo vehiculo, Atributo atributo, String anterior, String nuevo) {
+    }
+
+    @Override
+    public void antesDeCambiar(Vehiculo vehiculo, Atributo atributo, int anterior, int nuevo) {
+    }
+
+    private void rechazarSiVendido(Vehiculo vehiculo) {
+        AtomicReference<Estado> estado = estados.get(vehiculo);
+        if (estado != null && estado.get().tipo == EstadoVenta.VENDIDO) {
+            throw new IllegalStateException("El vehículo " + vehiculo.getPlaca() + " ya se vendió");
+        }
+    }
+
+    private boolean terminar(Reserva reserva, EstadoVenta nuevo) {
+        AtomicReference<Estado> estado = estadoDe(reserva.vehiculo);
+        Estado actual = estado.get();
+        if (actual.tipo != EstadoVenta.RESERVADO || actual.reserva != reserva) {
+            return false;
+        }
+        if (reserva.estaVencida(relojMs.getAsLong())) {
+            estado.compareAndSet(actual, new Estado(EstadoVenta.DISPONIBLE, actual.version + 1, null));
+            return false;
+        }
+        if (nuevo == EstadoVenta.DISPONIBLE) {
+            return estado.compareAndSet(actual, new Estado(nuevo, actual.version + 1, null));
+        }
+        // Con el lock del vehículo: un setter que ya pasó por rechazarSiVendido termina antes de la venta
+        synchronized (reserva.vehiculo) {
+            return estado.compareAndSet(actual, new Estado(nuevo, actual.version + 1, reserva));
+        }
+    }
+
+    // Lo llama la rueda; si la reserva ya se vendió, canceló o reemplazó, no hace nada
+    private boolean liberarSiSigueReservado(Reserva reserva) {
+        AtomicReference<Estado> estado = estados.get(reserva.vehiculo);
+        if (estado == null) {
+            return false;
+        }
+        Estado actual = estado.get();
+        return actual.tipo == EstadoVenta.RESERVADO && actual.reserva == reserva
+                && estado.compareAndSet(actual, new Estado(EstadoVenta.DISPONIBLE, actual.version + 1, null));
+    }
+
+    private AtomicReference<Estado> estadoDe(Vehiculo vehiculo) {
+        AtomicReference<Estado> estado = estados.get(vehiculo);
+        if (estado == null) {
+            throw new IllegalArgumentException("El vehículo " + vehiculo.getPlaca() + " no está en el servicio de reservas");
+        }
+        return estado;
+    }
+
+    /**
+     * Estado de un vehículo en un momento; cada cambio crea uno nuevo
+     */
+    private static final class Estado {
+        final EstadoVenta tipo;
+        final long version;
+        // La reserva vigente si está RESERVADO, la que se vendió si está VENDIDO
+        final Reserva reserva;
+
+        Estado(EstadoVenta tipo, long version, Reserva reserva) {
+            this.tipo = tipo;
+            this.version = version;
+            this.reserva = reserva;
+        }
+    }
+
+    /**
+     * Reserva de un vehículo, con los precios del momento en que se hizo
+     */
+    public static final class Reserva {
+        private final Vehiculo vehiculo;
+        private final String vendedor;
+        private final long version;
+        private final int precioLista;
+        private final int precio;
+        private final long venceMs;
+
+        private Reserva(Vehiculo vehiculo, String vendedor, long version, int precioLista, int precio, long venceMs) {
+            this.vehiculo = vehiculo;
+            this.vendedor = vendedor;
+            this.version = version;
+            this.precioLista = precioLista;
+            this.precio = precio;
+            this.venceMs = venceMs;
+        }
+
+        public Vehiculo getVehiculo() {
+            return vehiculo;
+        }
+
+        public String getVendedor() {
+            return vendedor;
+        }
+
+        /**
+         * Versión del estado del vehículo que creó esta reserva
+         */
+        public long getVersion() {
+            return version;
+        }
+
+        public int getPrecioLista() {
+            return precioLista;
+        }
+
+        /**
+         * Precio de venta (calcularPrecio) al momento de reservar
+         */
+        public int getPrecio() {
+            return precio;
+        }
+
+        public long getVenceMs() {
+            return venceMs;
+        }
+
+        boolean estaVencida(long ahoraMs) {
+            return ahoraMs >= venceMs;
+        }
+
+        @Override
+        public String toString() {
+            return "Reserva{" +
+                    "placa='" + vehiculo.getPlaca() + '\'' +
+                    ", vendedor='" + vendedor + '\'' +
+                    ", version=" + version +
+                    ", precio=" + precio +
+                    ", venceMs=" + venceMs +
+                    '}';
+        }
+    }
+
+    /**
+     * Rueda de tiempos: cada ranura tiene las reservas que vencen en un tick
+     * (módulo la cantidad de ranuras); avanzar revisa solo las ranuras de los
+     * ticks que pasaron, sin recorrer todas las reservas
+     * Las reservas vendidas o canceladas no se buscan para sacarlas: quedan
+     * hasta su tick y ahí se descartan
+     */
+    private final class RuedaVencimientos {
+        private static final int RANURAS = 512;
+
+        private final long tickMs;
+        private final ConcurrentLinkedQueue<Reserva>[] ranuras;
+        // Último tick revisado; se lee y se cambia con el monitor de la rueda
+        private long tickActual;
+
+        RuedaVencimientos(long tickMs, long ahoraMs) {
+            this.tickMs = tickMs;
+            // No se puede crear un arreglo de un tipo genérico
+            @SuppressWarnings({"unchecked", "rawtypes"})
+            ConcurrentLinkedQueue<Reserva>[] ranuras = new ConcurrentLinkedQueue[RANURAS];
+            this.ranuras = ranuras;
+            for (int i = 0; i < RANURAS; i++) {
+                ranuras[i] = new ConcurrentLinkedQueue<>();
+            }
+            this.tickActual = Math.floorDiv(ahoraMs, tickMs);
+        }
+
+        // Con el mismo monitor que avanzar: si no, la ranura se podría calcular
+        // con un tickActual viejo y caer en una ya revisada, que no se vuelve
+        // a mirar hasta dar toda la vuelta
+        synchronized void agregar(Reserva reserva) {
+            // Si su tick ya pasó, va en el próximo a revisar
+            long tick = Math.max(tickDe(reserva), tickActual + 1);
+            ranuras[(int) (tick & (RANURAS - 1))].add(reserva);
+        }
+
+        synchronized int avanzar(long ahoraMs) {
+            long hasta = Math.floorDiv(ahoraMs, tickMs);
+            int liberadas = 0;
+            // Si pasó más de una vuelta alcanza con revisar cada ranura una vez
+            long desde = Math.max(tickActual + 1, hasta - RANURAS + 1);
+            for (long tick = desde; tick <= hasta; tick++) {
+                tickActual = tick;
+                ConcurrentLinkedQueue<Reserva> ranura = ranuras[(int) (tick & (RANURAS - 1))];
+                List<Reserva> deOtraVuelta = new ArrayList<>();
+                for (Reserva reserva = ranura.poll(); reserva != null; reserva = ranura.poll()) {
+                    if (tickDe(reserva) > hasta || !reserva.estaVencida(ahoraMs)) {
+                        deOtraVuelta.add(reserva);
+                    } else if (liberarSiSigueReservado(reserva)) {
+                        liberadas++;
+                    }
+                }
+                ranura.addAll(deOtraVuelta);
+            }
+            if (hasta > tickActual) {
+                tickActual = hasta;
+            }
+            return liberadas;
+        }
+
+        private long tickDe(Reserva reserva) {
+            // Primer tick en el que ya está vencida
+            return Math.floorDiv(reserva.venceMs + tickMs - 1, tickMs);
+        }
+    }
+}
@@ -1,12 +1,17 @@
 package concesionaria;
 
+import java.util.Arrays;
+
 public abstract class Vehiculo {
+    private static final ObservadorVehiculo[] SIN_OBSERVADORES = new ObservadorVehiculo[0];
+
     private String marca;
     private String modelo;
     private String placa;
     private int anio;
     private int precio;
     private String nroMotor;
+    private volatile ObservadorVehiculo[] observadores = SIN_OBSERVADORES;
 
     public Vehiculo(String marca, String modelo, String placa, int anio, int precio, String nroMotor) {
         this.marca = marca;
@@ -17,13 +22,17 @@ public abstract class Vehiculo {
         this.nroMotor = nroMotor;
     }
 
-    public abstract int calcularPrecio();
+    // Precio de venta según las reglas de MotorReglasPrecio
+    public int calcularPrecio() {
+        return MotorReglasPrecio.getPredeterminado().calcular(this);
+    }
 
     public String getMarca() {
         return marca;
     }
 
-    public void setMarca(String marca) {
+    public synchronized void setMarca(String marca) {
+        avisar(ObservadorVehiculo.Atributo.MARCA, this.marca, marca);
         this.marca = marca;
     }
 
@@ -31,7 +40,8 @@ public abstract class Vehiculo {
         return modelo;
     }
 
-    public void setModelo(String modelo) {
+    public synchronized void setModelo(String modelo) {
+        avisar(ObservadorVehiculo.Atributo.MODELO, this.modelo, modelo);
         this.modelo = modelo;
     }
 
@@ -39,7 +49,8 @@ public abstract class Vehiculo {
         return placa;
     }
 
-    public void setPlaca(String placa) {
+    public synchronized void setPlaca(String placa) {
+        avisar(ObservadorVehiculo.Atributo.PLACA, this.placa, placa);
         this.placa = placa;
     }
 
@@ -47,7 +58,8 @@ public abstract class Vehiculo {
         return anio;
     }
 
-    public void setAnio(int anio) {
+    public synchronized void setAnio(int anio) {
+        avisar(ObservadorVehiculo.Atributo.ANIO, this.anio, anio);
         this.anio = anio;
     }
 
@@ -55,7 +67,8 @@ public abstract class Vehiculo {
         return precio;
     }
 
-    public void setPrecio(int precio) {
+    public synchronized void setPrecio(int precio) {
+        avisar(ObservadorVehiculo.Atributo.PRECIO, this.precio, precio);
         this.precio = precio;
     }
 
@@ -63,7 +76,47 @@ public abstract class Vehiculo {
         return nroMotor;
     }
 
-    public void setNroMotor(String nroMotor) {
+    public synchronized void setNroMotor(String nroMotor) {
+        avisar(ObservadorVehiculo.Atributo.NRO_MOTOR, this.nroMotor, nroMotor);
         this.nroMotor = nroMotor;
     }
+
+    // Primero validan todos los observadores: si uno rechaza el cambio, ninguno lo aplicó todavía
+    private void avisar(ObservadorVehiculo.Atributo atributo, String anterior, String nuevo) {
+        ObservadorVehiculo[] aAvisar = observadores;
+        for (ObservadorVehiculo observador : aAvisar) {
+            observador.validarCambio(this, atributo, anterior, nuevo);
+        }
+        for (ObservadorVehiculo observador : aAvisar) {
+            observador.antesDeCambiar(this, atributo, anterior, nuevo);
+        }
+    }
+
+    private void avisar(ObservadorVehiculo.Atributo atributo, int anterior, int nuevo) {
+        ObservadorVehiculo[] aAvisar = observadores;
+        for (ObservadorVehiculo observador : aAvisar) {
+            observador.validarCambio(this, atributo, anterior, nuevo);
+        }
+        for (ObservadorVehiculo observador : aAvisar) {
+            observador.antesDeCambiar(this, atributo, anterior, nuevo);
+        }
+    }
+
+    public synchronized void agregarObservador(ObservadorVehiculo observador) {
+        ObservadorVehiculo[] nuevos = Arrays.copyOf(observadores, observadores.length + 1);
+        nuevos[observadores.length] = observador;
+        observadores = nuevos;
+    }
+
+    public synchronized void quitarObservador(ObservadorVehiculo observador) {
+        for (int i = 0; i < observadores.length; i++) {
+            if (observadores[i] == observador) {
+                ObservadorVehiculo[] nuevos = new ObservadorVehiculo[observadores.length - 1];
+                System.arraycopy(observadores, 0, nuevos, 0, i);
+                System.arraycopy(observadores, i + 1, nuevos, i, nuevos.length - i);
+                observadores = nuevos.length == 0 ? SIN_OBSERVADORES : nuevos;
+                return;
+            }
+        }
+    }
 }
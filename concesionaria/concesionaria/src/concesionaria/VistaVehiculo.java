@@ -0,0 +1,111 @@
+package concesionaria;
+
+/**
+ * Vista liviana de un vehículo de CatalogoCompacto: no copia datos, lee las
+ * columnas del catálogo en la posición actual
+ * Se puede reutilizar para recorrer el catálogo sin crear un objeto por
+ * vehículo:
+ *   VistaVehiculo vista = catalogo.vista(0);
+ *   for (int i = 0; i < catalogo.getCantidad(); i++) {
+ *       total += vista.posicionar(i).calcularPrecio();
+ *   }
+ * Los atributos que no tiene el tipo del vehículo (por ejemplo cantDeEjes
+ * en un SUV) devuelven 0, false o null
+ */
+public class VistaVehiculo {
+    private final CatalogoCompacto catalogo;
+    private int posicion;
+
+    VistaVehiculo(CatalogoCompacto catalogo) {
+        this.catalogo = catalogo;
+    }
+
+    public VistaVehiculo posicionar(int posicion) {
+        catalogo.validar(posicion);
+        this.posicion = posicion;
+        return this;
+    }
+
+    public int getPosicion() {
+        return posicion;
+    }
+
+    public Class<?> getTipo() {
+        return catalogo.getTipo(posicion);
+    }
+
+    public String getMarca() {
+        return catalogo.getMarca(posicion);
+    }
+
+    public String getModelo() {
+        return catalogo.getModelo(posicion);
+    }
+
+    public String getPlaca() {
+        return catalogo.getPlaca(posicion);
+    }
+
+    public String getNroMotor() {
+        return catalogo.getNroMotor(posicion);
+    }
+
+    public int getAnio() {
+        return catalogo.getAnio(posicion);
+    }
+
+    public int getPrecio() {
+        return catalogo.getPrecio(posicion);
+    }
+
+    public String getTraccion() {
+        return catalogo.getTraccion(posicion);
+    }
+
+    public int getCantPasajeros() {
+        return catalogo.getCantPasajeros(posicion);
+    }
+
+    public int getCapacidadDeCargaKg() {
+        return catalogo.getCapacidadDeCargaKg(posicion);
+    }
+
+    public int getCantDeEjes() {
+        return catalogo.getCantDeEjes(posicion);
+    }
+
+    public boolean isSoportaAcoplado() {
+        return catalogo.isSoportaAcoplado(posicion);
+    }
+
+    public boolean isEsDobleCabina() {
+        return catalogo.isEsDobleCabina(posicion);
+    }
+
+    public int getAutonomiaEnKm() {
+        return catalogo.getAutonomiaEnKm(posicion);
+    }
+
+    // Mismo precio que calcularPrecio() del vehículo, con MotorReglasPrecio
+    @SuppressWarnings("unchecked")
+    public int calcularPrecio() {
+        return MotorReglasPrecio.getPredeterminado().calcular((Class<? extends Vehiculo>) getTipo(),
+                getMarca(), getAnio(), getPrecio());
+    }
+
+    public Vehiculo aVehiculo() {
+        return catalogo.aVehiculo(posicion);
+    }
+
+    @Override
+    public String toString() {
+        return "VistaVehiculo{" +
+                "tipo=" + getTipo().getSimpleName() +
+                ", marca='" + getMarca() + '\'' +
+                ", modelo='" + getModelo() + '\'' +
+                ", placa='" + getPlaca() + '\'' +
+                ", anio=" + getAnio() +
+                ", precio=" + getPrecio() +
+                '}';
+    }
+}
@@ -0,0 +1,131 @@
+package test.concesionaria;
+
+import concesionaria.Auto;
+import concesionaria.AutoDeLujo;
+import concesionaria.BuscadorFacetado;
+import concesionaria.Camion;
+import concesionaria.Camioneta;
+import concesionaria.CatalogoCompacto;
+import concesionaria.SUV;
+import concesionaria.VistaVehiculo;
+import org.junit.jupiter.api.Test;
+import java.util.Map;
+import java.util.Random;
+import java.util.SortedMap;
+import static org.junit.jupiter.api.Assertions.*;
+
+
+public class BuscadorFacetadoTest {
+    private static final String[] MARCAS = {"Audi", "BMW", "Ford", "Toyota", "Volvo", "Ferrari"};
+
+    @Test
+    public void testConsultasDelPortal() {
+        CatalogoCompacto catalogo = new CatalogoCompacto(8);
+        catalogo.agregar(new AutoDeLujo("BMW", "X5", "A1", 2023, 100000, "M1", 5, "4x4"));
+        catalogo.agregar(new AutoDeLujo("BMW", "Z4", "A2", 2022, 80000, "M2", 2, "4x4"));
+        catalogo.agregar(new AutoDeLujo("Audi", "Q7", "A3", 2021, 150000, "M3", 7, "4x4"));
+        catalogo.agregar(new SUV("Ford", "Territory", "A4", 2018, 50000, "M4", 500));
+        catalogo.agregar(new Camion("Volvo", "FH", "A5", 2015, 80000, "M5", 18000, 3, true));
+        catalogo.agregar(new Camion("Volvo", "FL", "A6", 2019, 60000, "M6", 7000, 2, true));
+        catalogo.agregar(new Camioneta("Toyota", "Hilux", "A7", 2020, 40000, "M7", 1000, true, 5));
+        BuscadorFacetado buscador = new BuscadorFacetado(catalogo);
+
+        BuscadorFacetado.Consulta autos = new BuscadorFacetado.Consulta().tipo(Auto.class).traccion("4x4")
+                .cantPasajeros(5, Integer.MAX_VALUE).precio(0, 120000);
+        assertArrayEquals(new int[]{0}, buscador.buscar(autos, 10));
+
+        BuscadorFacetado.Consulta camiones = new BuscadorFacetado.Consulta().tipo(Camion.class).soportaAcoplado()
+                .cantDeEjes(3, Integer.MAX_VALUE);
+        assertEquals(1, buscador.contar(camiones));
+        assertEquals("A5", catalogo.vista(buscador.buscar(camiones, 1)[0]).getPlaca());
+
+        BuscadorFacetado.Consulta todos = new BuscadorFacetado.Consulta();
+        Map<String, Integer> marcas = buscador.contarPorMarca(todos, 2);
+        assertEquals(2, marcas.size());
+        assertEquals(Integer.valueOf(2), marcas.get("BMW"));
+        assertEquals(Integer.valueOf(2), marcas.get("Volvo"));
+        assertEquals(2, buscador.contar(new BuscadorFacetado.Consulta().capacidadDeCargaKg(1000, 7000)));
+        assertEquals(0, buscador.contar(new BuscadorFacetado.Consulta().cantDeEjes(0, 10).tipo(SUV.class)));
+        assertEquals(Integer.valueOf(1), buscador.contarPorAnio(todos).get(2015));
+    }
+
+    @Test
+    public void testCoincideConRecorrerElCatalogo() {
+        Random random = new Random(42);
+        CatalogoCompacto catalogo = new CatalogoCompacto(0);
+        for (int i = 0; i < 20000; i++) {
+            String marca = MARCAS[random.nextInt(MARCAS.length)];
+            // Muchos modelos: algunos quedan como lista de posiciones
+            String modelo = "Modelo" + random.nextInt(400);
+            int anio = 1990 + random.nextInt(35);
+            int precio = random.nextInt(1000000);
+            switch (random.nextInt(4)) {
+                case 0:
+                    catalogo.agregar(new AutoDeLujo(marca, modelo, "P" + i, anio, precio, "M" + i,
+                            2 + random.nextInt(6), random.nextBoolean() ? "4x4" : "FWD"));
+                    break;
+                case 1:
+                    catalogo.agregar(new SUV(marca, modelo, "P" + i, anio, precio, "M" + i, random.nextInt(800)));
+                    break;
+                case 2:
+                    catalogo.agregar(new Camion(marca, modelo, "P" + i, anio, precio, "M" + i, random.nextInt(30000),
+                            2 + random.nextInt(4), random.nextBoolean()));
+                    break;
+                default:
+                    catalogo.agregar(new Camioneta(marca, modelo, "P" + i, anio, precio, "M" + i, random.nextInt(2000),
+                            random.nextBoolean(), 2 + random.nextInt(4)));
+                    break;
+            }
+        }
+        BuscadorFacetado buscador = new BuscadorFacetado(catalogo);
+        VistaVehiculo vista = catalogo.vista(0);
+        for (int k = 0; k < 50; k++) {
+            int precioDesde = random.nextInt(1000000);
+            int precioHasta = precioDesde + random.nextInt(300000);
+            int anioDesde = 1985 + random.nextInt(40);
+            int anioHasta = anioDesde + random.nextInt(10);
+            int capacidadHasta = random.nextInt(30000);
+            String marca = MARCAS[random.nextInt(MARCAS.length)];
+            String modelo = "Modelo" + random.nextInt(400);
+            BuscadorFacetado.Consulta consulta = new BuscadorFacetado.Consulta().precio(precioDesde, precioHasta)
+                    .anio(anioDesde, anioHasta);
+            BuscadorFacetado.Consulta carga = new BuscadorFacetado.Consulta().capacidadDeCargaKg(0, capacidadHasta)
+                    .marca(marca, "Audi");
+            BuscadorFacetado.Consulta porModelo = new BuscadorFacetado.Consulta().modelo(modelo).cantPasajeros(4, 6);
+            int esperado = 0;
+            int esperadoCarga = 0;
+            int esperadoModelo = 0;
+            int esperadoAnio = 0;
+            for (int i = 0; i < catalogo.getCantidad(); i++) {
+                vista.posicionar(i);
+                if (vista.getPrecio() >= precioDesde && vista.getPrecio() <= precioHasta
+                        && vista.getAnio() >= anioDesde && vista.getAnio() <= anioHasta) {
+                    esperado++;
+                    if (vista.getAnio() == anioDesde) {
+                        esperadoAnio++;
+                    }
+                }
+                boolean utilitario = vista.getTipo() == Camion.class || vista.getTipo() == Camioneta.class;
+                if (utilitario && vista.getCapacidadDeCargaKg() <= capacidadHasta
+                        && (vista.getMarca().equals(marca) || vista.getMarca().equals("Audi"))) {
+                    esperadoCarga++;
+                }
+                boolean conPasajeros = vista.getTipo() == AutoDeLujo.class || vista.getTipo() == Camioneta.class;
+                if (conPasajeros && vista.getModelo().equals(modelo) && vista.getCantPasajeros() >= 4
+                        && vista.getCantPasajeros() <= 6) {
+                    esperadoModelo++;
+                }
+            }
+            assertEquals(esperado, buscador.contar(consulta));
+            assertEquals(esperadoCarga, buscador.contar(carga));
+            assertEquals(esperadoModelo, buscador.contar(porModelo));
+            assertEquals(esperadoCarga, buscador.contarPorMarca(carga, MARCAS.length).values().stream()
+                    .mapToInt(Integer::intValue).sum());
+            assertEquals(esperado, buscador.contarPorMarca(consulta, MARCAS.length).values().stream()
+                    .mapToInt(Integer::intValue).sum());
+            SortedMap<Integer, Integer> porAnio = buscador.contarPorAnio(consulta);
+            assertEquals(esperadoAnio, porAnio.getOrDefault(anioDesde, 0).intValue());
+            assertEquals(esperado, porAnio.values().stream().mapToInt(Integer::intValue).sum());
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package test.concesionaria;
+
+import concesionaria.AutoDeLujo;
+import concesionaria.Camion;
+import concesionaria.Camioneta;
+import concesionaria.CatalogoCompacto;
+import concesionaria.SUV;
+import concesionaria.Vehiculo;
+import concesionaria.VistaVehiculo;
+import org.junit.jupiter.api.Test;
+import java.util.Arrays;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+
+public class CatalogoCompactoTest {
+
+    @Test
+    public void testGuardaYArmaLosVehiculos() {
+        List<Vehiculo> vehiculos = Arrays.asList(
+                new AutoDeLujo("BMW", "X5", "ABC123", 2023, 100000, "MOT001", 5, "AWD"),
+                new SUV("Ford", "Territory", "DEF456", 2018, 50000, "MOT002", 500),
+                new Camion("Mercedes Benz", "Actros", "GHI789", 2015, 80000, "MOT003", 18000, 3, true),
+                new Camioneta("Toyota", "Hilux", "JKL012", 2020, 40000, "MOT004", 1000, true, 5));
+        CatalogoCompacto catalogo = CatalogoCompacto.desde(vehiculos);
+        assertEquals(4, catalogo.getCantidad());
+        for (int i = 0; i < vehiculos.size(); i++) {
+            Vehiculo original = vehiculos.get(i);
+            Vehiculo armado = catalogo.aVehiculo(i);
+            assertEquals(original.getClass(), armado.getClass());
+            assertEquals(original.getMarca(), armado.getMarca());
+            assertEquals(original.getModelo(), armado.getModelo());
+            assertEquals(original.getPlaca(), armado.getPlaca());
+            assertEquals(original.getNroMotor(), armado.getNroMotor());
+            assertEquals(original.getAnio(), armado.getAnio());
+            assertEquals(original.calcularPrecio(), armado.calcularPrecio());
+        }
+        Camion camion = (Camion) catalogo.aVehiculo(2);
+        assertEquals(18000, camion.getCapacidadDeCargaKg());
+        assertTrue(camion.isSoportaAcoplado());
+        Camioneta camioneta = (Camioneta) catalogo.aVehiculo(3);
+        assertTrue(camioneta.isEsDobleCabina());
+        assertEquals(5, camioneta.getCantPasajeros());
+        assertEquals("AWD", ((AutoDeLujo) catalogo.aVehiculo(0)).getTraccion());
+    }
+
+    @Test
+    public void testVistaLeeLasColumnas() {
+        CatalogoCompacto catalogo = new CatalogoCompacto(0);
+        for (int i = 0; i < 100; i++) {
+            catalogo.agregar(new AutoDeLujo("Audi", "A3", "P" + i, 2021, 1000 + i, "M" + i, 5, "FWD"));
+        }
+        catalogo.agregar(new Camion("Volvo", "FH", "CAM001", 2019, 90000, "MOT999", 20000, 3, false));
+        assertEquals(5, catalogo.getCantidadTextosDistintos());
+
+        VistaVehiculo vista = catalogo.vista(0);
+        long total = 0;
+        long esperado = 0;
+        for (int i = 0; i < 100; i++) {
+            total += vista.posicionar(i).calcularPrecio();
+            esperado += catalogo.aVehiculo(i).calcularPrecio();
+        }
+        assertEquals(esperado, total);
+        assertEquals((int) (1099 * 0.9), vista.calcularPrecio());
+
+        vista.posicionar(100);
+        assertEquals(Camion.class, vista.getTipo());
+        assertEquals("CAM001", vista.getPlaca());
+        assertEquals("MOT999", vista.getNroMotor());
+        assertEquals(3, vista.getCantDeEjes());
+        assertFalse(vista.isSoportaAcoplado());
+        assertNull(vista.getTraccion());
+        assertEquals(90000, vista.calcularPrecio());
+
+        catalogo.setPrecio(100, 95000);
+        assertEquals(95000, vista.getPrecio());
+    }
+
+    @Test
+    public void testNulosYTiposNoSoportados() {
+        CatalogoCompacto catalogo = new CatalogoCompacto(4);
+        catalogo.agregar(new SUV(null, null, null, 2018, 50000, null, 500));
+        VistaVehiculo vista = catalogo.vista(0);
+        assertNull(vista.getMarca());
+        assertNull(vista.getPlaca());
+        assertNull(vista.getNroMotor());
+        assertEquals(500, vista.getAutonomiaEnKm());
+        assertThrows(IndexOutOfBoundsException.class, () -> vista.posicionar(1));
+
+        Vehiculo otro = new Vehiculo("Fiat", "600", "XYZ", 1970, 1000, "M1") {
+        };
+        assertThrows(IllegalArgumentException.class, () -> catalogo.agregar(otro));
+    }
+
+    @Test
+    public void testMemoriaCuentaLosBytesDeCadaTexto() {
+        CatalogoCompacto latino = new CatalogoCompacto(1);
+        latino.agregar(new SUV("Skoda", "Kodiaq", "ABC123", 2020, 40000, "M1", 600));
+        CatalogoCompacto conAcento = new CatalogoCompacto(1);
+        conAcento.agregar(new SUV("Škoda", "Kodiaq", "ABC123", 2020, 40000, "M1", 600));
+        // Mismo largo en caracteres, pero "Š" no entra en Latin-1: el String ocupa dos bytes por carácter
+        assertTrue(conAcento.bytesOcupados() > latino.bytesOcupados());
+
+        CatalogoCompacto catalogo = new CatalogoCompacto(0);
+        for (int i = 0; i < 1000; i++) {
+            catalogo.agregar(new AutoDeLujo("Audi", "A3", "P" + i, 2021, 1000 + i, "M" + i, 5, "FWD"));
+        }
+        assertTrue(catalogo.bytesOcupados() < catalogo.bytesComoObjetos());
+        assertTrue(catalogo.reporteMemoria().contains("Vehículos: 1000"));
+    }
+}
@@ -0,0 +1,161 @@
+package test.concesionaria;
+
+import concesionaria.AutoDeLujo;
+import concesionaria.CatalogoCompacto;
+import concesionaria.Camion;
+import concesionaria.Camioneta;
+import concesionaria.ImportadorCatalogo;
+import concesionaria.ResultadoImportacion;
+import concesionaria.SUV;
+import concesionaria.Vehiculo;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import static org.junit.jupiter.api.Assertions.*;
+
+
+public class ImportadorCatalogoTest {
+
+    @TempDir
+    Path carpeta;
+
+    @Test
+    public void testImportaCsvConEncabezado() throws IOException {
+        Path archivo = carpeta.resolve("feed.csv");
+        Files.write(archivo, ("tipo;marca;modelo;placa;anio;precio;nroMotor;extra1;extra2;extra3\r\n" +
+                "AutoDeLujo;BMW;X5;ABC123;2023;100000;MOT001;5;AWD\r\n" +
+                "SUV; Ford ;\"Territory; Titanium\";DEF456;2018;50000;MOT002;500\r\n" +
+                "\r\n" +
+                "Camion;Mercedes Benz;Actros;GHI789;2015;80000;MOT003;18000;3;si\r\n" +
+                "Camioneta;Toyota;\"Hilux \"\"SR\"\"\";JKL012;2020;40000;MOT004;1000;true;5").getBytes(StandardCharsets.UTF_8));
+        ResultadoImportacion resultado = ImportadorCatalogo.csv(';').conEncabezado().importar(archivo);
+
+        assertEquals(4, resultado.getFilas());
+        assertEquals(0, resultado.getRechazos());
+        assertEquals(4, resultado.getVehiculos().size());
+        AutoDeLujo auto = (AutoDeLujo) resultado.getVehiculos().get(0);
+        assertEquals("AWD", auto.getTraccion());
+        assertEquals(90000, auto.calcularPrecio());
+        SUV suv = (SUV) resultado.getVehiculos().get(1);
+        assertEquals("Ford", suv.getMarca());
+        assertEquals("Territory; Titanium", suv.getModelo());
+        assertEquals(500, suv.getAutonomiaEnKm());
+        Camion camion = (Camion) resultado.getVehiculos().get(2);
+        assertEquals(3, camion.getCantDeEjes());
+        assertTrue(camion.isSoportaAcoplado());
+        Camioneta camioneta = (Camioneta) resultado.getVehiculos().get(3);
+        assertEquals("Hilux \"SR\"", camioneta.getModelo());
+        assertTrue(camioneta.isEsDobleCabina());
+        assertEquals(5, camioneta.getCantPasajeros());
+    }
+
+    @Test
+    public void testInformaLasFilasInvalidas() throws IOException {
+        Path archivo = carpeta.resolve("errores.csv");
+        Files.write(archivo, ("AutoDeLujo,BMW,X5,ABC123,2023,100000,MOT001,5,AWD\n" +
+                "Moto,Honda,CB,XYZ,2020,1000,M1\n" +
+                "SUV,Ford,Territory,DEF456,dos mil,50000,MOT002,500\n" +
+                "SUV,Ford,Territory,DEF457,2018,50000,MOT003\n" +
+                "Camion,Volvo,FH,GHI789,2015,80000,MOT004,18000,3,quizas\n" +
+                "SUV,Ford,Territory,DEF458,2018,50000,MOT005,500\n").getBytes(StandardCharsets.UTF_8));
+        ResultadoImportacion resultado = ImportadorCatalogo.csv(',').importar(archivo);
+
+        assertEquals(6, resultado.getFilas());
+        assertEquals(4, resultado.getRechazos());
+        assertEquals(2, resultado.getVehiculos().size());
+        assertEquals("DEF458", resultado.getVehiculos().get(1).getPlaca());
+        assertEquals(2, resultado.getRechazadas().get(0).getLinea());
+        assertTrue(resultado.getRechazadas().get(0).getMotivo().contains("Moto"));
+        assertEquals(3, resultado.getRechazadas().get(1).getLinea());
+        assertEquals(4, resultado.getRechazadas().get(2).getLinea());
+        assertEquals(5, resultado.getRechazadas().get(3).getLinea());
+    }
+
+    @Test
+    public void testImportaAnchoFijo() throws IOException {
+        Path archivo = carpeta.resolve("feed.txt");
+        Files.write(archivo, ("Camioneta Toyota  Hilux   JKL012  2020  40000 MOT004  1000  1  5\n" +
+                "AutoDeLujo BMW   X5      ABC123  2023 100000 MOT001  5\n").getBytes(StandardCharsets.UTF_8));
+        ResultadoImportacion resultado = ImportadorCatalogo.anchoFijo(10, 7, 8, 8, 5, 7, 8, 5, 3, 3).importar(archivo);
+
+        assertEquals(0, resultado.getRechazos(), resultado.getRechazadas().toString());
+        Camioneta camioneta = (Camioneta) resultado.getVehiculos().get(0);
+        assertEquals("Hilux", camioneta.getModelo());
+        assertEquals(40000, camioneta.getPrecio());
+        assertEquals(5, camioneta.getCantPasajeros());
+        AutoDeLujo auto = (AutoDeLujo) resultado.getVehiculos().get(1);
+        assertEquals("ABC123", auto.getPlaca());
+        assertNull(auto.getTraccion());
+    }
+
+    @Test
+    public void testArchivoEnVariosBloques() throws IOException {
+        Path archivo = carpeta.resolve("grande.csv");
+        int filas = 100000;
+        try (BufferedWriter salida = Files.newBufferedWriter(archivo, StandardCharsets.UTF_8)) {
+            for (int i = 0; i < filas; i++) {
+                if (i % 10000 == 9999) {
+                    salida.write("SUV,Ford,Territory,P" + i + ",2018,-1,M" + i + ",500\n");
+                } else {
+                    salida.write("AutoDeLujo,Audi,A3,P" + i + ",2021," + (1000 + i) + ",M" + i + ",5,FWD\n");
+                }
+            }
+        }
+        assertTrue(Files.size(archivo) > 3 << 20);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            ResultadoImportacion resultado = ImportadorCatalogo.csv(',').conPool(pool).importar(archivo);
+            assertEquals(filas, resultado.getFilas());
+            assertEquals(10, resultado.getRechazos());
+            assertEquals(50000, resultado.getRechazadas().get(4).getLinea());
+            for (int i = 0, fila = 0; i < resultado.getVehiculos().size(); i++, fila++) {
+                if (fila % 10000 == 9999) {
+                    fila++;
+                }
+                Vehiculo vehiculo = resultado.getVehiculos().get(i);
+                assertEquals("P" + fila, vehiculo.getPlaca());
+            }
+            assertSame(resultado.getVehiculos().get(0).getMarca(), resultado.getVehiculos().get(1).getMarca());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testImportaEnUnCatalogoSinGuardarLosVehiculos() throws IOException {
+        Path archivo = carpeta.resolve("catalogo.csv");
+        int filas = 100000;
+        try (BufferedWriter salida = Files.newBufferedWriter(archivo, StandardCharsets.UTF_8)) {
+            for (int i = 0; i < filas; i++) {
+                salida.write("Camion,Volvo,FH,P" + i + ",2015," + (80000 + i) + ",M" + i + ",18000,3,SI\n");
+            }
+        }
+        CatalogoCompacto catalogo = new CatalogoCompacto(16);
+        ForkJoinPool pool = new ForkJoinPool(2);
+        Locale anterior = Locale.getDefault();
+        // En turco "SI".toLowerCase() no es "si"
+        Locale.setDefault(new Locale("tr", "TR"));
+        try {
+            ResultadoImportacion resultado = ImportadorCatalogo.csv(',').conPool(pool).importar(archivo, catalogo::agregar);
+            assertEquals(filas, resultado.getFilas());
+            assertEquals(0, resultado.getRechazos(), resultado.getRechazadas().toString());
+            assertEquals(filas, resultado.getImportados());
+            assertTrue(resultado.getVehiculos().isEmpty());
+        } finally {
+            Locale.setDefault(anterior);
+            pool.shutdown();
+        }
+        assertEquals(filas, catalogo.getCantidad());
+        for (int i = 0; i < filas; i += 997) {
+            Camion camion = (Camion) catalogo.aVehiculo(i);
+            assertEquals("P" + i, camion.getPlaca());
+            assertTrue(camion.isSoportaAcoplado());
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package test.concesionaria;
+
+import concesionaria.AutoDeLujo;
+import concesionaria.Camion;
+import concesionaria.Inventario;
+import concesionaria.SUV;
+import concesionaria.Vehiculo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+
+public class InventarioTest {
+
+    private Inventario inventario;
+    private SUV suv;
+    private Camion camion;
+    private AutoDeLujo auto;
+
+    @BeforeEach
+    public void setUp() {
+        inventario = new Inventario();
+        suv = new SUV("Ford", "Territory", "ABC123", 2018, 1000000, "MOT001", 500);
+        camion = new Camion("Mercedes Benz", "1114", "DEF456", 2015, 2000000, "MOT002", 7000, 4, true);
+        auto = new AutoDeLujo("Ford", "Mustang", "GHI789", 2022, 5000000, "MOT003", 4, "Trasera");
+        inventario.agregar(suv);
+        inventario.agregar(camion);
+        inventario.agregar(auto);
+    }
+
+    @Test
+    public void testBuscarPorPlacaYNroMotor() {
+        assertSame(suv, inventario.buscarPorPlaca("ABC123"));
+        assertSame(camion, inventario.buscarPorNroMotor("MOT002"));
+        assertNull(inventario.buscarPorPlaca("ZZZ999"));
+        assertEquals(3, inventario.getCantidad());
+    }
+
+    @Test
+    public void testBuscarPorMarcaYModelo() {
+        assertEquals(2, inventario.buscarPorMarca("Ford").size());
+        assertEquals(1, inventario.buscarPorMarcaYModelo("Ford", "Mustang").size());
+        assertTrue(inventario.buscarPorMarcaYModelo("Ford", "Focus").isEmpty());
+        assertTrue(inventario.buscarPorMarca("Fiat").isEmpty());
+    }
+
+    @Test
+    public void testBuscarPorRangos() {
+        assertEquals(2, inventario.buscarPorAnio(2015, 2018).size());
+        java.util.List<Vehiculo> porPrecio = inventario.buscarPorPrecio(0, 10000000);
+        assertEquals(3, porPrecio.size());
+        assertSame(suv, porPrecio.get(0));
+        assertSame(auto, porPrecio.get(2));
+    }
+
+    @Test
+    public void testLosSettersActualizanLosIndices() {
+        suv.setPrecio(3000000);
+        suv.setPlaca("XYZ000");
+        suv.setMarca("Toyota");
+        suv.setAnio(2024);
+        assertNull(inventario.buscarPorPlaca("ABC123"));
+        assertSame(suv, inventario.buscarPorPlaca("XYZ000"));
+        assertEquals(1, inventario.buscarPorMarca("Ford").size());
+        assertSame(suv, inventario.buscarPorMarcaYModelo("Toyota", "Territory").get(0));
+        assertSame(suv, inventario.buscarPorPrecio(2500000, 3500000).get(0));
+        assertTrue(inventario.buscarPorPrecio(900000, 1100000).isEmpty());
+        assertEquals(1, inventario.buscarPorAnio(2023, 2025).size());
+    }
+
+    @Test
+    public void testPlacaRepetida() {
+        assertThrows(IllegalArgumentException.class, () -> suv.setPlaca("DEF456"));
+        assertEquals("ABC123", suv.getPlaca());
+        assertSame(suv, inventario.buscarPorPlaca("ABC123"));
+        SUV otro = new SUV("Jeep", "Renegade", "ABC123", 2020, 1500000, "MOT009", 400);
+        assertThrows(IllegalArgumentException.class, () -> inventario.agregar(otro));
+    }
+
+    @Test
+    public void testQuitar() {
+        assertTrue(inventario.quitar(camion));
+        assertFalse(inventario.quitar(camion));
+        assertNull(inventario.buscarPorPlaca("DEF456"));
+        assertTrue(inventario.buscarPorMarca("Mercedes Benz").isEmpty());
+        camion.setPlaca("ABC123");
+        assertSame(suv, inventario.buscarPorPlaca("ABC123"));
+    }
+}
@@ -0,0 +1,81 @@
+package test.concesionaria;
+
+import concesionaria.AutoDeLujo;
+import concesionaria.Camion;
+import concesionaria.Camioneta;
+import concesionaria.MotorReglasPrecio;
+import concesionaria.SUV;
+import concesionaria.ServicioPrecios;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import static org.junit.jupiter.api.Assertions.*;
+
+
+public class MotorReglasPrecioTest {
+
+    private final MotorReglasPrecio anterior = MotorReglasPrecio.getPredeterminado();
+
+    @AfterEach
+    public void tearDown() {
+        MotorReglasPrecio.setPredeterminado(anterior);
+    }
+
+    @Test
+    public void testReglasPredeterminadas() {
+        MotorReglasPrecio motor = new MotorReglasPrecio();
+        assertEquals(90000, motor.calcular(new AutoDeLujo("BMW", "X5", "ABC123", 2023, 100000, "MOT001", 5, "AWD")));
+        assertEquals(0, motor.calcular(new AutoDeLujo("Tesla", "Model S", "PQR678", 2023, -50000, "MOT006", 5, "AWD")));
+        assertEquals(1000000, motor.calcular(new SUV("Ford", "Territory", "ABC123", 2018, 1000000, "MOT002", 500)));
+    }
+
+    @Test
+    public void testCondicionesPorTipoMarcaYAnio() {
+        MotorReglasPrecio motor = new MotorReglasPrecio();
+        motor.actualizar("# promociones\n" +
+                "tipo=Camion; marca=Mercedes Benz; anioHasta=2015; recargo=-50000\n" +
+                "tipo=VehiculoUtiliario; factor=1.1; maximo=1500000\n" +
+                "marca=Ford; anioDesde=2020; factor=0.5\n");
+        assertEquals(3, motor.getCantidadReglas());
+        assertEquals(1950000, motor.calcular(new Camion("Mercedes Benz", "1114", "DEF456", 2015, 2000000, "M1", 7000, 4, true)));
+        assertEquals(1500000, motor.calcular(new Camion("Mercedes Benz", "1114", "DEF457", 2016, 2000000, "M2", 7000, 4, true)));
+        assertEquals(1100000, motor.calcular(new Camioneta("Toyota", "Hilux", "GHI789", 2020, 1000000, "M3", 1000, true, 5)));
+        assertEquals(500000, motor.calcular(new SUV("Ford", "Territory", "JKL012", 2021, 1000000, "M4", 500)));
+        assertEquals(1000000, motor.calcular(new SUV("Ford", "Territory", "JKL013", 2019, 1000000, "M5", 500)));
+    }
+
+    @Test
+    public void testRecargaDelArchivo() throws IOException {
+        Path archivo = Files.createTempFile("reglas", ".txt");
+        try {
+            Files.write(archivo, "tipo=SUV; factor=0.8\n".getBytes(StandardCharsets.UTF_8));
+            MotorReglasPrecio motor = new MotorReglasPrecio();
+            motor.cargar(archivo);
+            MotorReglasPrecio.setPredeterminado(motor);
+            SUV suv = new SUV("Ford", "Territory", "ABC123", 2018, 1000000, "MOT001", 500);
+            ServicioPrecios servicio = new ServicioPrecios();
+            motor.agregarAlRecargar(servicio::invalidarTodos);
+            servicio.agregar(suv);
+            servicio.actualizar();
+            assertEquals(800000, servicio.getPrecio(suv));
+            assertFalse(motor.recargarSiCambio());
+
+            Files.write(archivo, "tipo=SUV; factor=0.75\n".getBytes(StandardCharsets.UTF_8));
+            Files.setLastModifiedTime(archivo, FileTime.fromMillis(System.currentTimeMillis() + 10000));
+            assertTrue(motor.recargarSiCambio());
+            assertEquals(1, servicio.actualizar());
+            assertEquals(750000, servicio.getPrecio(suv));
+
+            Files.write(archivo, "tipo=SUV; factor=mucho\n".getBytes(StandardCharsets.UTF_8));
+            Files.setLastModifiedTime(archivo, FileTime.fromMillis(System.currentTimeMillis() + 20000));
+            assertThrows(IllegalArgumentException.class, motor::recargarSiCambio);
+            assertEquals(750000, suv.calcularPrecio());
+        } finally {
+            Files.deleteIfExists(archivo);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package test.concesionaria;
+
+import concesionaria.AutoDeLujo;
+import concesionaria.SUV;
+import concesionaria.ServicioPrecios;
+import concesionaria.Vehiculo;
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+
+public class ServicioPreciosTest {
+
+    @Test
+    public void testCalculaLosPreciosAlActualizar() {
+        ServicioPrecios servicio = new ServicioPrecios();
+        AutoDeLujo auto = new AutoDeLujo("BMW", "X5", "ABC123", 2023, 100000, "MOT001", 5, "AWD");
+        SUV suv = new SUV("Ford", "Territory", "DEF456", 2018, 50000, "MOT002", 500);
+        servicio.agregar(auto);
+        servicio.agregar(suv);
+        assertEquals(2, servicio.actualizar());
+        assertEquals(90000, servicio.getPrecio(auto));
+        assertEquals(50000, servicio.getPrecio(suv));
+    }
+
+    @Test
+    public void testSoloRecalculaLosQueCambiaron() {
+        ServicioPrecios servicio = new ServicioPrecios();
+        List<Vehiculo> vehiculos = new ArrayList<>();
+        for (int i = 0; i < 10000; i++) {
+            vehiculos.add(new AutoDeLujo("Audi", "A3", "P" + i, 2021, 1000 + i, "M" + i, 5, "FWD"));
+        }
+        servicio.agregarTodos(vehiculos);
+        assertEquals(10000, servicio.actualizar());
+        assertEquals(0, servicio.actualizar());
+
+        vehiculos.get(7).setPrecio(2000);
+        vehiculos.get(7).setPrecio(3000);
+        vehiculos.get(8).setPlaca("OTRA");
+        vehiculos.get(9).setAnio(2024);
+        assertEquals(2, servicio.getCantidadPendientes());
+        assertEquals(2, servicio.actualizar());
+        assertEquals(2700, servicio.getPrecio(vehiculos.get(7)));
+        assertEquals((int) ((1000 + 5000) * 0.9), servicio.getPrecio(vehiculos.get(5000)));
+    }
+
+    @Test
+    public void testQuitar() {
+        ServicioPrecios servicio = new ServicioPrecios();
+        SUV suv = new SUV("Ford", "Territory", "ABC123", 2018, 50000, "MOT001", 500);
+        servicio.agregar(suv);
+        servicio.actualizar();
+        assertTrue(servicio.quitar(suv));
+        suv.setPrecio(1);
+        assertEquals(0, servicio.actualizar());
+        assertThrows(IllegalArgumentException.class, () -> servicio.getPrecio(suv));
+    }
+}
@@ -0,0 +1,151 @@
+package test.concesionaria;
+
+import concesionaria.AutoDeLujo;
+import concesionaria.Inventario;
+import concesionaria.SUV;
+import concesionaria.ServicioReservas;
+import concesionaria.Vehiculo;
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import static org.junit.jupiter.api.Assertions.*;
+
+
+public class ServicioReservasTest {
+
+    @Test
+    public void testReservarYVender() {
+        AtomicLong reloj = new AtomicLong(0);
+        ServicioReservas reservas = new ServicioReservas(reloj::get, 100);
+        AutoDeLujo auto = new AutoDeLujo("BMW", "X5", "ABC123", 2023, 100000, "MOT001", 5, "AWD");
+        reservas.agregar(auto);
+
+        ServicioReservas.Reserva reserva = reservas.reservar(auto, "Ana", 60000);
+        assertNotNull(reserva);
+        assertNull(reservas.reservar(auto, "Luis", 60000));
+        assertEquals(ServicioReservas.EstadoVenta.RESERVADO, reservas.getEstado(auto));
+        assertEquals(90000, reserva.getPrecio());
+
+        // La reserva mantiene el precio del momento en que se hizo
+        auto.setPrecio(200000);
+        assertEquals(90000, reserva.getPrecio());
+        assertEquals(100000, reserva.getPrecioLista());
+
+        assertTrue(reservas.vender(reserva));
+        assertFalse(reservas.vender(reserva));
+        assertFalse(reservas.cancelar(reserva));
+        assertEquals(ServicioReservas.EstadoVenta.VENDIDO, reservas.getEstado(auto));
+        assertEquals(2, reservas.getVersion(auto));
+        assertThrows(IllegalStateException.class, () -> auto.setPrecio(1));
+        assertEquals(200000, auto.getPrecio());
+        assertNull(reservas.reservar(auto, "Luis", 60000));
+    }
+
+    @Test
+    public void testLasReservasVencen() {
+        AtomicLong reloj = new AtomicLong(1000);
+        ServicioReservas reservas = new ServicioReservas(reloj::get, 100);
+        SUV suv = new SUV("Ford", "Territory", "DEF456", 2018, 50000, "MOT002", 500);
+        SUV otro = new SUV("Ford", "Territory", "DEF457", 2018, 50000, "MOT003", 500);
+        reservas.agregar(suv);
+        reservas.agregar(otro);
+
+        ServicioReservas.Reserva reserva = reservas.reservar(suv, "Ana", 250);
+        ServicioReservas.Reserva larga = reservas.reservar(otro, "Ana", 100000);
+        reloj.set(1200);
+        assertEquals(0, reservas.vencer());
+        reloj.set(1300);
+        assertEquals(1, reservas.vencer());
+        assertEquals(ServicioReservas.EstadoVenta.DISPONIBLE, reservas.getEstado(suv));
+        assertFalse(reservas.vender(reserva));
+
+        // Una reserva vencida no se puede vender aunque la rueda no la haya liberado
+        ServicioReservas.Reserva segunda = reservas.reservar(suv, "Luis", 100);
+        assertEquals(3, segunda.getVersion());
+        reloj.set(1400);
+        assertFalse(reservas.vender(segunda));
+        assertNotNull(reservas.reservar(suv, "Ana", 100));
+
+        // Más de una vuelta de la rueda
+        reloj.set(1000 + 100000);
+        assertEquals(2, reservas.vencer());
+        assertEquals(ServicioReservas.EstadoVenta.DISPONIBLE, reservas.getEstado(otro));
+        assertFalse(reservas.cancelar(larga));
+    }
+
+    @Test
+    public void testCadaVehiculoSeVendeUnaVez() throws InterruptedException {
+        try (ServicioReservas reservas = new ServicioReservas()) {
+            List<Vehiculo> vehiculos = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                vehiculos.add(new SUV("Ford", "Territory", "P" + i, 2018, 50000 + i, "M" + i, 500));
+            }
+            reservas.agregarTodos(vehiculos);
+            AtomicInteger ventas = new AtomicInteger();
+            // Los assert fallidos en otros hilos no hacen fallar el test: se revisan al final
+            AtomicInteger cancelacionesFallidas = new AtomicInteger();
+            CountDownLatch largada = new CountDownLatch(1);
+            List<Thread> vendedores = new ArrayList<>();
+            for (int v = 0; v < 16; v++) {
+                String vendedor = "Vendedor" + v;
+                Thread hilo = new Thread(() -> {
+                    try {
+                        largada.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    for (int vuelta = 0; vuelta < 3; vuelta++) {
+                        for (Vehiculo vehiculo : vehiculos) {
+                            ServicioReservas.Reserva reserva = reservas.reservar(vehiculo, vendedor, 60000);
+                            if (reserva == null) {
+                                continue;
+                            }
+                            // La mitad de las veces se arrepiente
+                            if ((vehiculo.getPrecio() + vuelta) % 2 == 0) {
+                                if (!reservas.cancelar(reserva)) {
+                                    cancelacionesFallidas.incrementAndGet();
+                                }
+                            } else if (reservas.vender(reserva)) {
+                                ventas.incrementAndGet();
+                            }
+                        }
+                    }
+                });
+                hilo.start();
+                vendedores.add(hilo);
+            }
+            largada.countDown();
+            for (Thread hilo : vendedores) {
+                hilo.join();
+            }
+            assertEquals(0, cancelacionesFallidas.get());
+            assertEquals(vehiculos.size(), ventas.get());
+            for (Vehiculo vehiculo : vehiculos) {
+                assertEquals(ServicioReservas.EstadoVenta.VENDIDO, reservas.getEstado(vehiculo));
+            }
+        }
+    }
+
+    @Test
+    public void testVendidoNoCambiaLosIndicesDelInventario() {
+        try (ServicioReservas reservas = new ServicioReservas()) {
+            SUV suv = new SUV("Ford", "Territory", "DEF456", 2018, 50000, "MOT002", 500);
+            Inventario inventario = new Inventario();
+            inventario.agregar(suv);
+            reservas.agregar(suv);
+            assertTrue(reservas.vender(reservas.reservar(suv, "Ana", 60000)));
+
+            assertThrows(IllegalStateException.class, () -> suv.setPlaca("NEW1"));
+            assertThrows(IllegalStateException.class, () -> suv.setPrecio(60000));
+            assertEquals("DEF456", suv.getPlaca());
+            assertSame(suv, inventario.buscarPorPlaca("DEF456"));
+            assertNull(inventario.buscarPorPlaca("NEW1"));
+            assertEquals(1, inventario.buscarPorPrecio(50000, 50000).size());
+            assertTrue(inventario.buscarPorPrecio(60000, 60000).isEmpty());
+            assertTrue(inventario.quitar(suv));
+        }
+    }
+}